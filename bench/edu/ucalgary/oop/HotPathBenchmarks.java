@@ -0,0 +1,306 @@
+package edu.ucalgary.oop;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HotPathBenchmarks times the operations the relief desk uses most:
+ * person creation, dossier lookup, supply allocation, location detail
+ * rendering, stock counts, translation lookup and loading, and error logging.
+ *
+ * <p>
+ * Database work runs against a seeded {@link InMemoryDatabaseAccess}, so no
+ * server is needed and the numbers reflect our own code rather than the
+ * network. Dossier assembly is also timed through {@link DossierLoader}
+ * against a canned JDBC result set.
+ * </p>
+ *
+ * Run from the project root (translations are read from data/):
+ * <pre>
+ * javac -d out src/edu/ucalgary/oop/*.java bench/edu/ucalgary/oop/*.java
+ * java -cp out edu.ucalgary.oop.HotPathBenchmarks [--warmup 5] [--iterations 10] [--millis 200]
+ *      [--filter name] [--save bench.txt] [--baseline bench.txt] [--tolerance 0.10]
+ * </pre>
+ * With --baseline the exit status is 2 if any benchmark regressed beyond the tolerance.
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class HotPathBenchmarks {
+    private static final int PERSONS = 10_000;
+    private static final int LOCATIONS = 20;
+    private static final int SUPPLIES = 10_000;
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 4, 5, 8, 0);
+
+    private InMemoryDatabaseAccess db;
+    private int cursor = 0;
+
+    /**
+     * Seeds a fresh in-memory store and makes it the active DatabaseAccess.
+     *
+     * @throws Exception if seeding fails
+     */
+    void seed() throws Exception {
+        db = new InMemoryDatabaseAccess();
+        for (int l = 1; l <= LOCATIONS; l++) {
+            db.insertLocation(new DatabaseAccess.LocationRow(0, "Shelter " + l, l + " Relief Rd"));
+        }
+        for (int p = 1; p <= PERSONS; p++) {
+            int id = db.insertPerson(new DatabaseAccess.PersonRow(0, "First" + p, "Last" + p, "1990-01-01",
+                    "Woman", null, "555-" + p, p % 500));
+            db.reassignPersonToLocation(id, 1 + id % LOCATIONS);
+            db.insertMedicalRecord(new DatabaseAccess.MedicalRecordRow(0, id, 1 + id % LOCATIONS,
+                    BASE_TIME.minusDays(id % 30), "Checkup " + id));
+        }
+        for (int s = 1; s <= SUPPLIES; s++) {
+            int id = db.insertSupply(new DatabaseAccess.SupplyRow(0, s % 2 == 0 ? "water" : "blanket", null));
+            if (s % 4 == 0) {
+                db.allocateToLocation(id, 1 + s % LOCATIONS, BASE_TIME);
+            } else {
+                db.allocateToPerson(id, 1 + s % PERSONS, BASE_TIME.plusSeconds(s));
+            }
+        }
+        for (int i = 1; i <= PERSONS / 10; i++) {
+            db.insertInquiry(new DatabaseAccess.InquiryRow(0, i, PERSONS - i, 1 + i % LOCATIONS,
+                    BASE_TIME, "Looking for family"));
+        }
+        DatabaseManager.getInstance().setAccess(db);
+        InventoryIndex.getInstance().rebuild();
+        cursor = 0;
+    }
+
+    private int next(int bound) {
+        cursor = cursor + 7919;
+        return 1 + Math.floorMod(cursor, bound);
+    }
+
+    /**
+     * Loads a dossier from the store the way the front desk page needs it.
+     *
+     * @param personId the person
+     * @return the number of rows touched
+     * @throws Exception if a lookup fails
+     */
+    int dossierLookup(int personId) throws Exception {
+        DatabaseAccess.PersonRow p = db.findPerson(personId);
+        return (p == null ? 0 : 1)
+                + db.findMedicalRecordsForPerson(personId).size()
+                + db.findAllocationsForPerson(personId).size()
+                + db.findInquiriesForPerson(personId).size();
+    }
+
+    /**
+     * Renders a location's detail page into a StringBuilder using the same
+     * layout as {@link Location#searchLocationDetailsSafe(int)}.
+     *
+     * @param locId the location
+     * @return the rendered text
+     * @throws Exception if a lookup fails
+     */
+    String renderLocation(int locId) throws Exception {
+        StringBuilder sb = new StringBuilder(4096);
+        DatabaseAccess.LocationRow loc = db.findLocation(locId);
+        sb.append("= LOCATION INFO =\n");
+        sb.append(String.format("LocID=%d, Name=%s, Address=%s\n", locId, loc.getName(), loc.getAddress()));
+        sb.append("\n= OCCUPANTS (Persons) =\n");
+        for (int pid : db.findOccupantIds(locId)) {
+            DatabaseAccess.PersonRow p = db.findPerson(pid);
+            sb.append(String.format("PersonID=%d => %s %s\n", pid, p.getFirstName(), p.getLastName()));
+        }
+        sb.append("\n= SUPPLIES ALLOCATED =\n");
+        for (DatabaseAccess.AllocationRow a : db.findAllocationsForLocation(locId)) {
+            DatabaseAccess.SupplyRow s = db.findSupply(a.getSupplyId());
+            sb.append(String.format("SupplyID=%d, Type=%s, Comments=%s\n", s.getId(), s.getType(), s.getComments()));
+        }
+        sb.append("\n= STOCK BY TYPE =\n");
+        for (Map.Entry<String, Long> e : InventoryIndex.getInstance().getLocationCounts(locId).entrySet()) {
+            sb.append(e.getKey()).append(": ").append(e.getValue()).append('\n');
+        }
+        sb.append("\n--- End of location details ---\n");
+        return sb.toString();
+    }
+
+    private static Connection cannedDossier() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        rows.add(row("kind", 0, "id", 42, "ref1", 7, "t1", "Ana", "t2", "Doe", "t3", "555-0100",
+                "t4", "Woman", "t5", "1990-01-01"));
+        for (int i = 1; i <= 5; i++) {
+            rows.add(row("kind", 1, "id", i, "ref1", 1, "t1", "Treatment " + i, "t2", "Shelter 1",
+                    "t3", "1 Relief Rd", "ts", Timestamp.valueOf(BASE_TIME)));
+        }
+        for (int i = 1; i <= 5; i++) {
+            rows.add(row("kind", 2, "id", i, "t1", i % 2 == 0 ? "water" : "blanket",
+                    "ts", Timestamp.valueOf(BASE_TIME)));
+        }
+        rows.add(row("kind", 3, "id", 1, "ref1", 42, "ref2", 43, "ref3", 1, "t1", "Looking",
+                "t4", "Ben", "t5", "Doe", "t6", "Shelter 1", "t7", "1 Relief Rd", "ts", Timestamp.valueOf(BASE_TIME)));
+        final int[] cursor = {-1};
+        final boolean[] lastNull = {false};
+        ResultSet rs = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            if (++cursor[0] < rows.size()) {
+                                return true;
+                            }
+                            cursor[0] = -1;
+                            return false;
+                        case "wasNull":
+                            return lastNull[0];
+                        case "getInt": {
+                            Object v = rows.get(cursor[0]).get((String) args[0]);
+                            lastNull[0] = v == null;
+                            return v == null ? 0 : v;
+                        }
+                        case "getString":
+                        case "getTimestamp": {
+                            Object v = rows.get(cursor[0]).get((String) args[0]);
+                            lastNull[0] = v == null;
+                            return v;
+                        }
+                        default:
+                            return null;
+                    }
+                });
+        PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> "executeQuery".equals(method.getName()) ? rs : null);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> "prepareStatement".equals(method.getName()) ? ps : null);
+    }
+
+    private static Map<String, Object> row(Object... kv) {
+        Map<String, Object> m = new HashMap<>();
+        for (int i = 0; i < kv.length; i += 2) {
+            m.put((String) kv[i], kv[i + 1]);
+        }
+        return m;
+    }
+
+    /**
+     * Runs the benchmarks selected by the filter.
+     *
+     * @param bench  the runner
+     * @param filter only benchmarks whose name contains this run; null for all
+     * @throws Exception if a benchmark fails
+     */
+    void runAll(MicroBenchmark bench, String filter) throws Exception {
+        String[] keys = {"menu_victims_option_2", "prompt_choice", "exit_goodbye", "list_inquiries_header"};
+        LanguageManager lm = new LanguageManager();
+        lm.loadLocale("en-CA");
+        File log = File.createTempFile("bench-errorlog", ".txt");
+        log.deleteOnExit();
+        ErrorLogger logger = new ErrorLogger(log.getPath());
+        Exception sample = new IllegalStateException("DB not connected");
+        Connection dossierConn = cannedDossier();
+        final long[] tick = {0};
+
+        if (selected("personCreate", filter)) {
+            System.out.println(bench.run("personCreate", this::seedAndReturn, () -> {
+                Person.createPerson("Bench", "Person", "1990-01-01", "Woman", "555-0199");
+                return null;
+            }));
+        }
+        seed();
+        if (selected("dossierLookup", filter)) {
+            System.out.println(bench.run("dossierLookup", () -> dossierLookup(next(PERSONS))));
+        }
+        if (selected("dossierAssemble", filter)) {
+            System.out.println(bench.run("dossierAssemble", () -> DossierLoader.load(dossierConn, 42)));
+        }
+        if (selected("supplyAllocation", filter)) {
+            System.out.println(bench.run("supplyAllocation", this::seedAndReturn, () -> {
+                // An allocated supply cannot be allocated again, so each op hands out a new one.
+                int s = db.insertSupply(new DatabaseAccess.SupplyRow(0, "water", null));
+                db.allocateToPerson(s, 1 + s % PERSONS, BASE_TIME.plusNanos(++tick[0] * 1000));
+                return null;
+            }));
+        }
+        if (selected("locationDetails", filter)) {
+            System.out.println(bench.run("locationDetails", () -> renderLocation(next(LOCATIONS))));
+        }
+        if (selected("inventoryCount", filter)) {
+            InventoryIndex index = InventoryIndex.getInstance();
+            System.out.println(bench.run("inventoryCount", () -> index.getLocationCount(next(LOCATIONS), "water")));
+        }
+        if (selected("languageGetString", filter)) {
+            System.out.println(bench.run("languageGetString", () -> lm.getString(keys[next(keys.length) - 1])));
+        }
+        if (selected("languageLoadLocale", filter)) {
+            System.out.println(bench.run("languageLoadLocale", () -> {
+                lm.loadLocale("fr-CA");
+                return lm.getCurrentLocaleCode();
+            }));
+        }
+        if (selected("errorLoggerLogError", filter)) {
+            System.out.println(bench.run("errorLoggerLogError", () -> log.delete(), () -> {
+                logger.logError("Benchmark failure", sample);
+                return null;
+            }));
+        }
+        DatabaseManager.getInstance().setAccess(new PostgresDatabaseAccess());
+    }
+
+    private Object seedAndReturn() throws Exception {
+        seed();
+        return null;
+    }
+
+    private static boolean selected(String name, String filter) {
+        return filter == null || name.contains(filter);
+    }
+
+    /**
+     * Entry point.
+     *
+     * @param args see the class comment
+     * @throws Exception if a benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        int warmup = 5;
+        int iterations = 10;
+        long millis = 200;
+        double tolerance = 0.10;
+        String filter = null;
+        String save = null;
+        String baseline = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--warmup": warmup = Integer.parseInt(args[i + 1]); break;
+                case "--iterations": iterations = Integer.parseInt(args[i + 1]); break;
+                case "--millis": millis = Long.parseLong(args[i + 1]); break;
+                case "--tolerance": tolerance = Double.parseDouble(args[i + 1]); break;
+                case "--filter": filter = args[i + 1]; break;
+                case "--save": save = args[i + 1]; break;
+                case "--baseline": baseline = args[i + 1]; break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        MicroBenchmark bench = new MicroBenchmark(warmup, iterations, millis);
+        new HotPathBenchmarks().runAll(bench, filter);
+        if (save != null) {
+            bench.saveBaseline(save);
+        }
+        if (baseline != null) {
+            List<String> regressions = bench.compareToBaseline(baseline, tolerance);
+            for (String r : regressions) {
+                System.out.println("REGRESSION " + r);
+            }
+            if (!regressions.isEmpty()) {
+                System.exit(2);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package edu.ucalgary.oop;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram records latencies from many threads at once into
+ * log-linear buckets: each power of two is split into 32 sub-buckets, so any
+ * reported percentile is within about 3 % of the true value while the whole
+ * histogram stays a fixed 2,048 counters.
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos the latency in nanoseconds (negative values count as 0)
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(Math.max(0, nanos)));
+        total.increment();
+        sumNanos.add(Math.max(0, nanos));
+    }
+
+    /**
+     * Gets the number of recorded latencies.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return total.sum();
+    }
+
+    /**
+     * Gets the mean latency.
+     *
+     * @return mean nanoseconds, or 0 if empty
+     */
+    public double getMeanNanos() {
+        long n = total.sum();
+        return n == 0 ? 0.0 : (double) sumNanos.sum() / n;
+    }
+
+    /**
+     * Gets the latency at a percentile.
+     *
+     * @param percentile between 0 and 100, e.g. 99.9
+     * @return the upper bound of the bucket holding that percentile, in nanoseconds; 0 if empty
+     */
+    public long getPercentileNanos(double percentile) {
+        long n = total.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(n * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     * Clears all recorded latencies.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        sumNanos.reset();
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exp - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exp - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exp = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << (exp - SUB_BITS)) - 1;
+    }
+}
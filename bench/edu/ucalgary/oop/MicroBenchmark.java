@@ -0,0 +1,247 @@
+package edu.ucalgary.oop;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MicroBenchmark is a small, dependency-free benchmark runner in the spirit
+ * of JMH: each benchmark is warmed up, then timed over several measurement
+ * iterations, and its results are fed to a sink so the JIT cannot drop the
+ * work as dead code.
+ *
+ * <p>
+ * Results can be saved as a baseline file ("name nsPerOp" per line) and a
+ * later run compared against it; a benchmark that got slower than the
+ * allowed tolerance is reported as a regression.
+ * </p>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class MicroBenchmark {
+
+    /**
+     * One benchmarked operation.
+     */
+    public interface Op {
+        /**
+         * Runs the operation once.
+         *
+         * @return any value derived from the work, consumed by the sink
+         * @throws Exception if the operation fails
+         */
+        Object run() throws Exception;
+    }
+
+    /** Consumed values end up here so the work cannot be optimised away. */
+    private static volatile int sink;
+
+    private final int warmupIterations;
+    private final int measureIterations;
+    private final long iterationNanos;
+    private final Map<String, Result> results = new LinkedHashMap<>();
+
+    /**
+     * Constructs a runner.
+     *
+     * @param warmupIterations  untimed iterations before measuring
+     * @param measureIterations timed iterations
+     * @param iterationMillis   length of each iteration
+     * @throws IllegalArgumentException if a count is out of range
+     */
+    public MicroBenchmark(int warmupIterations, int measureIterations, long iterationMillis) {
+        if (warmupIterations < 0 || measureIterations < 1 || iterationMillis < 1) {
+            throw new IllegalArgumentException("Invalid benchmark settings");
+        }
+        this.warmupIterations = warmupIterations;
+        this.measureIterations = measureIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+    }
+
+    /**
+     * Runs one benchmark and records its result.
+     *
+     * @param name the benchmark name
+     * @param op   the operation
+     * @return the result
+     * @throws Exception if the operation fails
+     */
+    public Result run(String name, Op op) throws Exception {
+        return run(name, null, op);
+    }
+
+    /**
+     * Runs one benchmark with an untimed setup step before every iteration,
+     * e.g. to start each iteration from a freshly seeded store.
+     *
+     * @param name  the benchmark name
+     * @param setup run before each iteration, or null
+     * @param op    the operation
+     * @return the result
+     * @throws Exception if the setup or operation fails
+     */
+    public Result run(String name, Op setup, Op op) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            if (setup != null) {
+                setup.run();
+            }
+            iteration(op);
+        }
+        double[] nsPerOp = new double[measureIterations];
+        for (int i = 0; i < measureIterations; i++) {
+            if (setup != null) {
+                setup.run();
+            }
+            nsPerOp[i] = iteration(op);
+        }
+        Result r = new Result(name, nsPerOp);
+        results.put(name, r);
+        return r;
+    }
+
+    private double iteration(Op op) throws Exception {
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            consume(op.run());
+            ops++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        return (double) elapsed / ops;
+    }
+
+    private static void consume(Object value) {
+        if (value != null) {
+            sink ^= value.hashCode();
+        }
+    }
+
+    /**
+     * Gets the results recorded so far, in run order.
+     *
+     * @return name to result
+     */
+    public Map<String, Result> getResults() {
+        return results;
+    }
+
+    /**
+     * Writes the results as a baseline file.
+     *
+     * @param path the file to write
+     * @throws IOException if writing fails
+     */
+    public void saveBaseline(String path) throws IOException {
+        try (PrintWriter pw = new PrintWriter(new FileWriter(path))) {
+            for (Result r : results.values()) {
+                pw.printf("%s %.1f%n", r.getName(), r.getMeanNsPerOp());
+            }
+        }
+    }
+
+    /**
+     * Compares the results against a baseline file.
+     *
+     * @param path      the baseline written by {@link #saveBaseline(String)}
+     * @param tolerance allowed slowdown, e.g. 0.10 for 10 %
+     * @return one line per regressed benchmark; empty if none
+     * @throws IOException if reading fails
+     */
+    public List<String> compareToBaseline(String path, double tolerance) throws IOException {
+        Map<String, Double> baseline = new LinkedHashMap<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(path))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.trim().split("\\s+");
+                if (parts.length == 2) {
+                    baseline.put(parts[0], Double.parseDouble(parts[1]));
+                }
+            }
+        }
+        List<String> regressions = new ArrayList<>();
+        for (Result r : results.values()) {
+            Double before = baseline.get(r.getName());
+            if (before != null && r.getMeanNsPerOp() > before * (1.0 + tolerance)) {
+                regressions.add(String.format("%s: %.1f ns/op -> %.1f ns/op (+%.0f%%)", r.getName(), before,
+                        r.getMeanNsPerOp(), (r.getMeanNsPerOp() / before - 1.0) * 100.0));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Timing of one benchmark across its measurement iterations.
+     */
+    public static class Result {
+        private final String name;
+        private final double[] nsPerOp;
+
+        /**
+         * Constructs a Result.
+         *
+         * @param name    the benchmark name
+         * @param nsPerOp average nanoseconds per operation for each iteration
+         */
+        public Result(String name, double[] nsPerOp) {
+            this.name = name;
+            this.nsPerOp = nsPerOp.clone();
+            Arrays.sort(this.nsPerOp);
+        }
+
+        /**
+         * Gets the benchmark name.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the mean time per operation across iterations.
+         *
+         * @return nanoseconds per operation
+         */
+        public double getMeanNsPerOp() {
+            double sum = 0;
+            for (double v : nsPerOp) {
+                sum += v;
+            }
+            return sum / nsPerOp.length;
+        }
+
+        /**
+         * Gets the fastest iteration's time per operation.
+         *
+         * @return nanoseconds per operation
+         */
+        public double getMinNsPerOp() {
+            return nsPerOp[0];
+        }
+
+        /**
+         * Gets the slowest iteration's time per operation.
+         *
+         * @return nanoseconds per operation
+         */
+        public double getMaxNsPerOp() {
+            return nsPerOp[nsPerOp.length - 1];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-28s %12.1f ns/op  (min %.1f, max %.1f, %d iterations)",
+                    name, getMeanNsPerOp(), getMinNsPerOp(), getMaxNsPerOp(), nsPerOp.length);
+        }
+    }
+}
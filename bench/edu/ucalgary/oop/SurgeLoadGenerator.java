@@ -0,0 +1,434 @@
+package edu.ucalgary.oop;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SurgeLoadGenerator simulates relief-centre traffic during a disaster
+ * surge: N concurrent operators register victims, move them between
+ * shelters, allocate supplies, file inquiries and open dossiers, in
+ * configurable ratios and with periodic registration bursts.
+ *
+ * <p>
+ * Every operation goes through the same static domain methods the CLI
+ * uses, against either the in-memory engine or the PostgreSQL database.
+ * Latency (p50/p99/p999) and throughput are reported per operation type,
+ * both for each reporting window and for the whole run. For soak tests
+ * each report also shows heap after GC, live threads, pool usage and
+ * allocation contention (retries and conflicts). At the end the pool must
+ * have no leased connections left; anything else is reported as a
+ * connection leak.
+ * </p>
+ *
+ * <p>
+ * Allocations take a supply nobody holds, so they measure the normal
+ * path rather than the conflict path. Once most supplies are held, an
+ * operator returns the oldest allocation to the pool before its next
+ * allocation, outside the timed region, so the pool never runs dry.
+ * </p>
+ *
+ * Run from the project root:
+ * <pre>
+ * java -cp out edu.ucalgary.oop.SurgeLoadGenerator [--engine memory|postgres] [--operators 16]
+ *      [--duration 60s|30m|8h] [--report 10s] [--mix register=15,reassign=20,allocate=30,inquire=10,dossier=25]
+ *      [--burst-every 60s] [--burst-length 10s] [--burst-factor 5] [--think-ms 0]
+ * </pre>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class SurgeLoadGenerator {
+
+    /**
+     * Operation types in the traffic mix.
+     */
+    enum OpType { REGISTER, REASSIGN, ALLOCATE, INQUIRE, DOSSIER }
+
+    /**
+     * Per-operation counters and latency histograms.
+     */
+    static final class OpStats {
+        final LatencyHistogram total = new LatencyHistogram();
+        final LatencyHistogram window = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+    }
+
+    private final Map<OpType, Integer> mix = new EnumMap<>(OpType.class);
+    private final Map<OpType, OpStats> stats = new EnumMap<>(OpType.class);
+    private final AtomicInteger maxPersonId = new AtomicInteger();
+    private final LongAdder allocationConflicts = new LongAdder();
+    private final LongAdder releases = new LongAdder();
+    private final List<Integer> locationIds = new ArrayList<>();
+    private final Queue<Integer> freeSupplies = new ConcurrentLinkedQueue<>();
+    private final Queue<Integer> heldSupplies = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger heldCount = new AtomicInteger();
+    private int heldLimit;
+
+    private String engine = "memory";
+    private int operators = 16;
+    private long durationMillis = 60_000;
+    private long reportMillis = 10_000;
+    private long burstEveryMillis = 60_000;
+    private long burstLengthMillis = 10_000;
+    private int burstFactor = 5;
+    private long thinkMillis = 0;
+    private volatile long startMillis;
+
+    /**
+     * Constructs a generator with the default traffic mix.
+     */
+    SurgeLoadGenerator() {
+        mix.put(OpType.REGISTER, 15);
+        mix.put(OpType.REASSIGN, 20);
+        mix.put(OpType.ALLOCATE, 30);
+        mix.put(OpType.INQUIRE, 10);
+        mix.put(OpType.DOSSIER, 25);
+        for (OpType t : OpType.values()) {
+            stats.put(t, new OpStats());
+        }
+    }
+
+    /**
+     * Parses a duration such as "500ms", "30s", "15m" or "8h".
+     *
+     * @param text the duration text
+     * @return milliseconds
+     * @throws IllegalArgumentException if the text is not a duration
+     */
+    static long parseDuration(String text) {
+        String t = text.trim().toLowerCase();
+        long unit;
+        String number;
+        if (t.endsWith("ms")) {
+            unit = 1;
+            number = t.substring(0, t.length() - 2);
+        } else if (t.endsWith("s")) {
+            unit = 1000;
+            number = t.substring(0, t.length() - 1);
+        } else if (t.endsWith("m")) {
+            unit = 60_000;
+            number = t.substring(0, t.length() - 1);
+        } else if (t.endsWith("h")) {
+            unit = 3_600_000;
+            number = t.substring(0, t.length() - 1);
+        } else {
+            throw new IllegalArgumentException("Duration needs a unit (ms, s, m, h): " + text);
+        }
+        return Long.parseLong(number) * unit;
+    }
+
+    /**
+     * Parses a traffic mix such as "register=15,allocate=30".
+     * Operations not mentioned keep their current weight.
+     *
+     * @param text the mix
+     * @throws IllegalArgumentException if an entry is malformed or a weight is negative
+     */
+    void parseMix(String text) {
+        for (String part : text.split(",")) {
+            String[] kv = part.split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Bad mix entry: " + part);
+            }
+            OpType type = OpType.valueOf(kv[0].trim().toUpperCase());
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight cannot be negative: " + part);
+            }
+            mix.put(type, weight);
+        }
+    }
+
+    /**
+     * Picks the next operation, boosting registrations during a burst.
+     *
+     * @param roll    a random number in [0, 1)
+     * @param inBurst true during a registration burst
+     * @return the operation type
+     */
+    OpType pick(double roll, boolean inBurst) {
+        int sum = 0;
+        for (OpType t : OpType.values()) {
+            sum += weight(t, inBurst);
+        }
+        double target = roll * sum;
+        for (OpType t : OpType.values()) {
+            target -= weight(t, inBurst);
+            if (target < 0) {
+                return t;
+            }
+        }
+        return OpType.DOSSIER;
+    }
+
+    private int weight(OpType t, boolean inBurst) {
+        int w = mix.get(t);
+        return (inBurst && t == OpType.REGISTER) ? w * burstFactor : w;
+    }
+
+    private boolean inBurst(long now) {
+        if (burstEveryMillis <= 0) {
+            return false;
+        }
+        return (now - startMillis) % burstEveryMillis < burstLengthMillis;
+    }
+
+    private void setUp() throws SQLException {
+        DatabaseManager dbm = DatabaseManager.getInstance();
+        if ("postgres".equals(engine)) {
+            dbm.configurePool(Math.min(4, operators), Math.max(4, operators), 5000, 300000);
+            dbm.connect();
+            dbm.setAccess(new PostgresDatabaseAccess());
+        } else {
+            dbm.setAccess(new InMemoryDatabaseAccess());
+        }
+        DatabaseAccess db = dbm.getAccess();
+        for (int l = 1; l <= 10; l++) {
+            locationIds.add(db.insertLocation(new DatabaseAccess.LocationRow(0, "Surge Shelter " + l, l + " Relief Rd")));
+        }
+        for (int s = 1; s <= 1000; s++) {
+            freeSupplies.add(db.insertSupply(new DatabaseAccess.SupplyRow(0, s % 3 == 0 ? "blanket" : "water", "surge")));
+        }
+        heldLimit = freeSupplies.size() * 3 / 4;
+        for (int p = 0; p < 100; p++) {
+            register(db);
+        }
+    }
+
+    private int register(DatabaseAccess db) throws SQLException {
+        int id = db.insertPerson(new DatabaseAccess.PersonRow(0, "Surge", "Victim", "1990-01-01", "Woman",
+                null, "555-0100", null));
+        maxPersonId.accumulateAndGet(id, Math::max);
+        return id;
+    }
+
+    private int anyPerson(ThreadLocalRandom rnd) {
+        return 1 + rnd.nextInt(Math.max(1, maxPersonId.get()));
+    }
+
+    private <T> T any(List<T> list, ThreadLocalRandom rnd) {
+        return list.get(rnd.nextInt(list.size()));
+    }
+
+    private void execute(OpType type, ThreadLocalRandom rnd) throws SQLException {
+        DatabaseAccess db = DatabaseManager.getInstance().getAccess();
+        switch (type) {
+            case REGISTER:
+                int id = register(db);
+                Location.reassignPersonToLocation(id, any(locationIds, rnd));
+                break;
+            case REASSIGN:
+                Location.reassignPersonToLocation(anyPerson(rnd), any(locationIds, rnd));
+                break;
+            case ALLOCATE:
+                Integer supplyId = freeSupplies.poll();
+                if (supplyId == null) {
+                    allocationConflicts.increment();
+                    break;
+                }
+                boolean allocated = false;
+                try {
+                    Item.allocateToPerson(supplyId, anyPerson(rnd));
+                    allocated = true;
+                } catch (SQLException e) {
+                    if (!DatabaseAccess.ALLOCATION_CONFLICT.equals(e.getSQLState())) {
+                        throw e;
+                    }
+                    allocationConflicts.increment();
+                } finally {
+                    if (allocated) {
+                        heldSupplies.add(supplyId);
+                        heldCount.incrementAndGet();
+                    } else {
+                        freeSupplies.add(supplyId);
+                    }
+                }
+                break;
+            case INQUIRE:
+                Inquiry.createInquiry(anyPerson(rnd), anyPerson(rnd), any(locationIds, rnd), null, "surge");
+                break;
+            case DOSSIER:
+                int pid = anyPerson(rnd);
+                if ("postgres".equals(engine)) {
+                    DossierLoader.load(pid);
+                } else {
+                    db.findPerson(pid);
+                    db.findMedicalRecordsForPerson(pid);
+                    db.findAllocationsForPerson(pid);
+                    db.findInquiriesForPerson(pid);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown operation " + type);
+        }
+    }
+
+    /**
+     * Returns the oldest held supply to the pool, as the expiry sweep
+     * would: its allocation is removed and the live counts updated.
+     */
+    private void releaseOldest() throws SQLException {
+        Integer supplyId = heldSupplies.poll();
+        if (supplyId == null) {
+            return;
+        }
+        heldCount.decrementAndGet();
+        DatabaseAccess db = DatabaseManager.getInstance().getAccess();
+        InventoryIndex index = InventoryIndex.getInstance();
+        String type = index.typeOf(supplyId);
+        for (DatabaseAccess.AllocationRow row : db.removeAllocations(db.findAllocationsForSupply(supplyId))) {
+            index.released(type, row);
+        }
+        freeSupplies.add(supplyId);
+        releases.increment();
+    }
+
+    private void operatorLoop(long endMillis) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        while (System.currentTimeMillis() < endMillis && !Thread.currentThread().isInterrupted()) {
+            OpType type = pick(rnd.nextDouble(), inBurst(System.currentTimeMillis()));
+            OpStats s = stats.get(type);
+            if (type == OpType.ALLOCATE && heldCount.get() >= heldLimit) {
+                try {
+                    releaseOldest();
+                } catch (SQLException | RuntimeException e) {
+                    s.errors.increment();
+                }
+            }
+            long t0 = System.nanoTime();
+            try {
+                execute(type, rnd);
+            } catch (SQLException | RuntimeException e) {
+                s.errors.increment();
+            }
+            long elapsed = System.nanoTime() - t0;
+            s.total.record(elapsed);
+            s.window.record(elapsed);
+            if (thinkMillis > 0) {
+                try {
+                    Thread.sleep(thinkMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void report(String label, boolean window, double seconds) {
+        System.out.printf("%n== %s ==%n", label);
+        System.out.printf("%-9s %10s %10s %10s %10s %10s %8s%n",
+                "op", "count", "ops/s", "p50 us", "p99 us", "p999 us", "errors");
+        for (OpType t : OpType.values()) {
+            OpStats s = stats.get(t);
+            LatencyHistogram h = window ? s.window : s.total;
+            System.out.printf("%-9s %10d %10.1f %10.1f %10.1f %10.1f %8d%n",
+                    t.name().toLowerCase(), h.getCount(), seconds > 0 ? h.getCount() / seconds : 0.0,
+                    h.getPercentileNanos(50) / 1000.0, h.getPercentileNanos(99) / 1000.0,
+                    h.getPercentileNanos(99.9) / 1000.0, s.errors.sum());
+            if (window) {
+                h.reset();
+            }
+        }
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        long heapMb = (rt.totalMemory() - rt.freeMemory()) / (1024 * 1024);
+        String pool = "";
+        ConnectionPool p = DatabaseManager.getInstance().getPool();
+        if (p != null) {
+            pool = String.format(", pool active=%d idle=%d total=%d waits=%d timeouts=%d",
+                    p.getActiveConnections(), p.getIdleConnections(), p.getTotalConnections(),
+                    p.getWaitCount(), p.getTimeoutCount());
+        }
+        System.out.printf("heap after GC=%d MB, threads=%d%s%n", heapMb, Thread.activeCount(), pool);
+        System.out.printf("supplies held=%d released=%d, allocation conflicts=%d, %s%n",
+                heldCount.get(), releases.sum(), allocationConflicts.sum(), Item.getAllocationRetry());
+    }
+
+    /**
+     * Runs the load and prints the reports.
+     *
+     * @return true if no connection leak was detected
+     * @throws Exception if setup fails
+     */
+    boolean run() throws Exception {
+        setUp();
+        startMillis = System.currentTimeMillis();
+        long end = startMillis + durationMillis;
+        System.out.printf("Surge: engine=%s operators=%d duration=%ds mix=%s%n",
+                engine, operators, durationMillis / 1000, mix);
+        ExecutorService workers = Executors.newFixedThreadPool(operators);
+        for (int i = 0; i < operators; i++) {
+            workers.submit(() -> operatorLoop(end));
+        }
+        workers.shutdown();
+        long lastReport = startMillis;
+        while (!workers.awaitTermination(Math.max(1, Math.min(reportMillis, end - System.currentTimeMillis())),
+                TimeUnit.MILLISECONDS)) {
+            long now = System.currentTimeMillis();
+            if (now - lastReport >= reportMillis) {
+                report(String.format("window ending at +%ds", (now - startMillis) / 1000), true,
+                        (now - lastReport) / 1000.0);
+                lastReport = now;
+            }
+        }
+        report("whole run", false, (System.currentTimeMillis() - startMillis) / 1000.0);
+
+        boolean clean = true;
+        ConnectionPool p = DatabaseManager.getInstance().getPool();
+        if (p != null) {
+            if (p.getActiveConnections() != 0) {
+                System.out.println("CONNECTION LEAK: " + p.getActiveConnections()
+                        + " connection(s) still leased after all operators stopped");
+                clean = false;
+            }
+            DatabaseManager.getInstance().disconnect();
+        }
+        DatabaseManager.getInstance().setAccess(new PostgresDatabaseAccess());
+        return clean;
+    }
+
+    /**
+     * Entry point.
+     *
+     * @param args see the class comment
+     * @throws Exception if the run cannot start
+     */
+    public static void main(String[] args) throws Exception {
+        SurgeLoadGenerator gen = new SurgeLoadGenerator();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String v = args[i + 1];
+            switch (args[i]) {
+                case "--engine": gen.engine = v; break;
+                case "--operators": gen.operators = Integer.parseInt(v); break;
+                case "--duration": gen.durationMillis = parseDuration(v); break;
+                case "--report": gen.reportMillis = parseDuration(v); break;
+                case "--mix": gen.parseMix(v); break;
+                case "--burst-every": gen.burstEveryMillis = parseDuration(v); break;
+                case "--burst-length": gen.burstLengthMillis = parseDuration(v); break;
+                case "--burst-factor": gen.burstFactor = Integer.parseInt(v); break;
+                case "--think-ms": gen.thinkMillis = Long.parseLong(v); break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (!"memory".equals(gen.engine) && !"postgres".equals(gen.engine)) {
+            throw new IllegalArgumentException("Engine must be memory or postgres");
+        }
+        if (gen.operators < 1) {
+            throw new IllegalArgumentException("At least one operator is required");
+        }
+        System.exit(gen.run() ? 0 : 3);
+    }
+}
@@ -0,0 +1,376 @@
+package edu.ucalgary.oop;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BatchRunner replays a script of commands, one per line, through the same
+ * domain methods the interactive menus use, without prompts or menus.
+ *
+ * <p>
+ * Commands (fields are separated by spaces; quote a field that contains
+ * spaces, and write - for an empty optional field):
+ * - register first last [yyyy-mm-dd] [gender] [phone]
+ * - supply type [comments]
+ * - allocate supply_id person|location id
+ * - reassign person_id location_id
+ * - distribute location_id type [max_per_person]
+ * - inquire inquirer_id missing_id location_id|0 [yyyy-mm-dd] [comments]
+ * Blank lines and lines starting with # are skipped.
+ * </p>
+ *
+ * <p>
+ * When the database is connected, every {@code commitEvery} commands share
+ * one transaction (see {@link DatabaseManager#beginTransaction()}). Each
+ * command runs under a savepoint, so a failing line is rolled back and
+ * reported on its own while the rest of its transaction still commits.
+ * </p>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class BatchRunner {
+    /** Default commands per transaction. */
+    public static final int DEFAULT_COMMIT_EVERY = 200;
+
+    /**
+     * A parsed command, ready to run.
+     */
+    private interface Command {
+        void run() throws SQLException;
+    }
+
+    private final int commitEvery;
+
+    /**
+     * Constructs a BatchRunner with the default transaction size.
+     */
+    public BatchRunner() {
+        this(DEFAULT_COMMIT_EVERY);
+    }
+
+    /**
+     * Constructs a BatchRunner.
+     *
+     * @param commitEvery commands per transaction
+     * @throws IllegalArgumentException if commitEvery is less than 1
+     */
+    public BatchRunner(int commitEvery) {
+        if (commitEvery < 1) {
+            throw new IllegalArgumentException("Commit interval must be at least 1");
+        }
+        this.commitEvery = commitEvery;
+    }
+
+    /**
+     * Runs a script to the end. Lines that fail are reported to out as
+     * "line N: reason" and skipped.
+     *
+     * @param script the script lines
+     * @param out    where failures are reported
+     * @return counts and timing
+     * @throws SQLException if a transaction cannot be started or committed;
+     *                      the open transaction is rolled back
+     * @throws IOException if reading the script fails; the open transaction is rolled back
+     */
+    public Result run(BufferedReader script, OutputSink out) throws SQLException, IOException {
+        long start = System.nanoTime();
+        DatabaseManager db = DatabaseManager.getInstance();
+        long lineNo = 0;
+        long executed = 0;
+        long failed = 0;
+        long transactions = 0;
+        int pending = 0;
+        boolean inTransaction = false;
+        try {
+            String line;
+            while ((line = script.readLine()) != null) {
+                lineNo++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                if (pending == 0) {
+                    inTransaction = db.beginTransaction();
+                }
+                pending++;
+                try {
+                    Command command = parse(trimmed);
+                    runIsolated(db, inTransaction, command);
+                    executed++;
+                } catch (IllegalArgumentException | SQLException e) {
+                    failed++;
+                    out.println("line " + lineNo + ": " + e.getMessage());
+                }
+                if (pending == commitEvery) {
+                    if (inTransaction) {
+                        inTransaction = false;
+                        db.commitTransaction();
+                        transactions++;
+                    }
+                    pending = 0;
+                }
+            }
+            if (inTransaction) {
+                inTransaction = false;
+                db.commitTransaction();
+                transactions++;
+            }
+        } finally {
+            if (inTransaction) {
+                db.rollbackTransaction();
+            }
+            out.flush();
+        }
+        return new Result(executed + failed, executed, failed, transactions, System.nanoTime() - start);
+    }
+
+    private static void runIsolated(DatabaseManager db, boolean inTransaction, Command command) throws SQLException {
+        if (!inTransaction) {
+            command.run();
+            return;
+        }
+        try (Connection conn = db.getConnection()) {
+            Savepoint savepoint = conn.setSavepoint();
+            try {
+                command.run();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback(savepoint);
+                throw e;
+            }
+            conn.releaseSavepoint(savepoint);
+        }
+    }
+
+    /**
+     * Parses one script line into a command.
+     *
+     * @param line the line, without surrounding whitespace
+     * @return the command
+     * @throws IllegalArgumentException if the line is not a valid command
+     */
+    private static Command parse(String line) {
+        List<String> f = tokenize(line);
+        String verb = f.get(0).toLowerCase();
+        switch (verb) {
+            case "register": {
+                arity(f, 3, 6, "register first last [dob] [gender] [phone]");
+                String first = f.get(1);
+                String last = f.get(2);
+                String dob = optional(f, 3);
+                String gender = Person.normalizeGender(optional(f, 4));
+                String phone = optional(f, 5);
+                if (dob != null && !DisasterVictim.isValidDateFormat(dob)) {
+                    throw new IllegalArgumentException("Invalid birth date format (yyyy-MM-dd).");
+                }
+                Person.requireValidPhone(phone);
+                return () -> Person.createPerson(first, last, dob, gender, phone);
+            }
+            case "supply": {
+                arity(f, 2, 3, "supply type [comments]");
+                String type = f.get(1);
+                String comments = optional(f, 2);
+                return () -> Item.createSupply(type, comments);
+            }
+            case "allocate": {
+                arity(f, 4, 4, "allocate supply_id person|location id");
+                int supplyId = id(f, 1, "supply_id");
+                String target = f.get(2).toLowerCase();
+                int targetId = id(f, 3, target + "_id");
+                if (target.equals("person")) {
+                    return () -> Item.allocateToPerson(supplyId, targetId);
+                }
+                if (target.equals("location")) {
+                    return () -> Item.allocateToLocation(supplyId, targetId);
+                }
+                throw new IllegalArgumentException("Allocate target must be person or location: " + f.get(2));
+            }
+            case "reassign": {
+                arity(f, 3, 3, "reassign person_id location_id");
+                int personId = id(f, 1, "person_id");
+                int locationId = id(f, 2, "location_id");
+                return () -> Location.reassignPersonToLocation(personId, locationId);
+            }
+            case "distribute": {
+                arity(f, 3, 4, "distribute location_id type [max_per_person]");
+                int locationId = id(f, 1, "location_id");
+                String type = f.get(2);
+                String max = optional(f, 3);
+                int maxPerPerson = (max == null ? 0 : id(f, 3, "max_per_person"));
+                if (maxPerPerson < 0) {
+                    throw new IllegalArgumentException("Invalid max_per_person: " + max);
+                }
+                return () -> Item.distributeToOccupants(locationId, type, maxPerPerson);
+            }
+            case "inquire": {
+                arity(f, 4, 6, "inquire inquirer_id missing_id location_id|0 [date] [comments]");
+                int inquirerId = id(f, 1, "inquirer_id");
+                int missingId = id(f, 2, "missing_id");
+                int locationId = id(f, 3, "location_id");
+                Integer locObj = (locationId == 0 ? null : locationId);
+                String date = optional(f, 4);
+                String comments = optional(f, 5);
+                if (date != null && !DisasterVictim.isValidDateFormat(date)) {
+                    throw new IllegalArgumentException("Invalid inquiry date format (yyyy-MM-dd).");
+                }
+                return () -> Inquiry.createInquiry(inquirerId, missingId, locObj, date, comments);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown command: " + f.get(0));
+        }
+    }
+
+    /**
+     * Splits a line on spaces and tabs; double quotes group a field, and
+     * "" inside quotes is a literal quote.
+     *
+     * @param line the line
+     * @return the fields
+     * @throws IllegalArgumentException if a quote is not closed
+     */
+    static List<String> tokenize(String line) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean inField = false;
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cur.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                inField = true;
+            } else if (c == ' ' || c == '\t') {
+                if (inField) {
+                    out.add(cur.toString());
+                    cur.setLength(0);
+                    inField = false;
+                }
+            } else {
+                cur.append(c);
+                inField = true;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unclosed quote");
+        }
+        if (inField) {
+            out.add(cur.toString());
+        }
+        return out;
+    }
+
+    private static void arity(List<String> f, int min, int max, String usage) {
+        if (f.size() < min || f.size() > max) {
+            throw new IllegalArgumentException("Usage: " + usage);
+        }
+    }
+
+    private static String optional(List<String> f, int i) {
+        if (i >= f.size()) {
+            return null;
+        }
+        String v = f.get(i);
+        return v.isEmpty() || v.equals("-") ? null : v;
+    }
+
+    private static int id(List<String> f, int i, String name) {
+        try {
+            return Integer.parseInt(f.get(i));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + f.get(i));
+        }
+    }
+
+    /**
+     * Counts and timing of a finished script.
+     */
+    public static class Result {
+        private final long commands;
+        private final long executed;
+        private final long failed;
+        private final long transactions;
+        private final long elapsedNanos;
+
+        /**
+         * Constructs a Result.
+         *
+         * @param commands     command lines read (blank and comment lines excluded)
+         * @param executed     commands that succeeded
+         * @param failed       commands that were rejected or failed
+         * @param transactions transactions committed (0 when not connected)
+         * @param elapsedNanos wall time
+         */
+        public Result(long commands, long executed, long failed, long transactions, long elapsedNanos) {
+            this.commands = commands;
+            this.executed = executed;
+            this.failed = failed;
+            this.transactions = transactions;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Gets the number of command lines read.
+         *
+         * @return the command count
+         */
+        public long getCommands() {
+            return commands;
+        }
+
+        /**
+         * Gets the number of commands that succeeded.
+         *
+         * @return the executed count
+         */
+        public long getExecuted() {
+            return executed;
+        }
+
+        /**
+         * Gets the number of commands that were rejected or failed.
+         *
+         * @return the failed count
+         */
+        public long getFailed() {
+            return failed;
+        }
+
+        /**
+         * Gets the number of transactions committed.
+         *
+         * @return the transaction count
+         */
+        public long getTransactions() {
+            return transactions;
+        }
+
+        /**
+         * Gets the wall time of the run.
+         *
+         * @return elapsed milliseconds
+         */
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000L;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Ran %d commands: %d ok, %d failed, %d transactions in %d ms",
+                    commands, executed, failed, transactions, getElapsedMillis());
+        }
+    }
+}
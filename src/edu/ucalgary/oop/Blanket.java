@@ -18,4 +18,14 @@ public class Blanket extends Item {
     public Blanket(int itemID) {
         super(itemID);
     }
+
+    /**
+     * Gets the supply type.
+     *
+     * @return "blanket"
+     */
+    @Override
+    public String getSupplyType() {
+        return "blanket";
+    }
 }
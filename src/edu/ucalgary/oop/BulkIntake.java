@@ -0,0 +1,448 @@
+package edu.ucalgary.oop;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * BulkIntake registers large victim rosters in the person table.
+ *
+ * <p>
+ * Two paths are offered:
+ * - {@link #insertAll(Iterator)} batches JDBC inserts with addBatch/executeBatch,
+ *   committing every commitInterval rows and collecting the generated person_ids.
+ * - {@link #copyAll(Iterator)} uses the PostgreSQL COPY protocol when the
+ *   PostgreSQL driver is on the classpath. IDs are reserved from the person_id
+ *   sequence first so they can still be returned.
+ * </p>
+ *
+ * Records are consumed one batch at a time, so the roster never has to sit
+ * fully in memory. Records with a location are placed there in
+ * personlocation, batched alongside their person rows and committed with them.
+ * {@link RosterImport.JdbcSink} writes each roster batch through here.
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class BulkIntake {
+    private static final String INSERT_SQL =
+            "INSERT INTO person (first_name, last_name, date_of_birth, gender, phone_number, family_group) "
+                    + "VALUES (?,?,?,?,?,?)";
+    private static final String LOCATION_SQL =
+            "INSERT INTO personlocation (person_id, location_id) VALUES (?, ?)";
+    private static final String RESERVE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('person', 'person_id')) FROM generate_series(1, ?)";
+    private static final String COPY_SQL =
+            "COPY person (person_id, first_name, last_name, date_of_birth, gender, phone_number, family_group) "
+                    + "FROM STDIN WITH (FORMAT csv)";
+
+    private final int batchSize;
+    private final int commitInterval;
+
+    /**
+     * Constructs a BulkIntake with the default batch size (500) and commit interval (5000).
+     */
+    public BulkIntake() {
+        this(500, 5000);
+    }
+
+    /**
+     * Constructs a BulkIntake.
+     *
+     * @param batchSize      rows sent per executeBatch (or per COPY chunk)
+     * @param commitInterval rows per transaction; rounded up to a whole number of batches
+     * @throws IllegalArgumentException if either value is less than 1
+     */
+    public BulkIntake(int batchSize, int commitInterval) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        if (commitInterval < 1) {
+            throw new IllegalArgumentException("Commit interval must be at least 1");
+        }
+        this.batchSize = batchSize;
+        this.commitInterval = commitInterval;
+    }
+
+    /**
+     * Gets the batch size.
+     *
+     * @return the batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Gets the commit interval.
+     *
+     * @return the commit interval
+     */
+    public int getCommitInterval() {
+        return commitInterval;
+    }
+
+    /**
+     * Checks whether the COPY fast path can be used, i.e. the PostgreSQL
+     * driver is loaded.
+     *
+     * @return true if org.postgresql.PGConnection is on the classpath
+     */
+    public static boolean isCopyAvailable() {
+        try {
+            Class.forName("org.postgresql.PGConnection");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Inserts all records with COPY if available, otherwise with JDBC batching.
+     *
+     * @param records the records to insert
+     * @return the generated IDs and throughput
+     * @throws SQLException if the insert fails; rows committed before the failure stay committed
+     */
+    public Result load(Iterator<IntakeRecord> records) throws SQLException {
+        return isCopyAvailable() ? copyAll(records) : insertAll(records);
+    }
+
+    /**
+     * Inserts all records with JDBC batching.
+     *
+     * @param records the records to insert
+     * @return the generated IDs and throughput
+     * @throws SQLException if the insert fails; rows committed before the failure stay committed
+     */
+    public Result insertAll(Iterator<IntakeRecord> records) throws SQLException {
+        Connection conn = DatabaseManager.getInstance().getConnection();
+        if (conn == null) {
+            throw new IllegalStateException("DB not connected");
+        }
+        return insertAll(conn, records);
+    }
+
+    /**
+     * Inserts all records with JDBC batching on a given connection, which
+     * is closed afterwards.
+     *
+     * @param conn    the connection
+     * @param records the records to insert
+     * @return the generated IDs and throughput
+     * @throws SQLException if the insert fails; rows committed before the failure stay committed
+     */
+    Result insertAll(Connection conn, Iterator<IntakeRecord> records) throws SQLException {
+        long start = System.nanoTime();
+        IdList ids = new IdList();
+        try (conn;
+             PreparedStatement ps = conn.prepareStatement(INSERT_SQL, new String[]{"person_id"});
+             PreparedStatement place = conn.prepareStatement(LOCATION_SQL)) {
+            conn.setAutoCommit(false);
+            try {
+                List<IntakeRecord> batch = new ArrayList<>(batchSize);
+                int sinceCommit = 0;
+                while (records.hasNext()) {
+                    IntakeRecord r = records.next();
+                    bind(ps, r);
+                    ps.addBatch();
+                    batch.add(r);
+                    if (batch.size() == batchSize) {
+                        sinceCommit += flush(ps, place, batch, ids);
+                        if (sinceCommit >= commitInterval) {
+                            conn.commit();
+                            sinceCommit = 0;
+                        }
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    flush(ps, place, batch, ids);
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        return new Result(ids.toArray(), System.nanoTime() - start);
+    }
+
+    /**
+     * Inserts all records through the PostgreSQL COPY protocol.
+     *
+     * @param records the records to insert
+     * @return the reserved IDs and throughput
+     * @throws SQLException if the copy fails or the PostgreSQL driver is missing
+     */
+    public Result copyAll(Iterator<IntakeRecord> records) throws SQLException {
+        Connection conn = DatabaseManager.getInstance().getConnection();
+        if (conn == null) {
+            throw new IllegalStateException("DB not connected");
+        }
+        long start = System.nanoTime();
+        IdList ids = new IdList();
+        try (conn; PreparedStatement place = conn.prepareStatement(LOCATION_SQL)) {
+            Object copyManager = copyManagerFor(conn);
+            Method copyIn = copyManager.getClass().getMethod("copyIn", String.class, Reader.class);
+            conn.setAutoCommit(false);
+            try {
+                List<IntakeRecord> chunk = new ArrayList<>(batchSize);
+                int sinceCommit = 0;
+                while (records.hasNext()) {
+                    chunk.add(records.next());
+                    if (chunk.size() == batchSize || !records.hasNext()) {
+                        long[] chunkIds = reserveIds(conn, chunk.size());
+                        copyIn.invoke(copyManager, COPY_SQL, new StringReader(toCsv(chunk, chunkIds)));
+                        place(place, chunk, chunkIds, chunkIds.length);
+                        ids.addAll(chunkIds);
+                        sinceCommit += chunk.size();
+                        chunk.clear();
+                        if (sinceCommit >= commitInterval) {
+                            conn.commit();
+                            sinceCommit = 0;
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (ReflectiveOperationException e) {
+                conn.rollback();
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof SQLException) {
+                    throw (SQLException) cause;
+                }
+                throw new SQLException("COPY failed: " + cause.getMessage(), cause);
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new SQLException("PostgreSQL COPY API not available", e);
+        }
+        return new Result(ids.toArray(), System.nanoTime() - start);
+    }
+
+    private void bind(PreparedStatement ps, IntakeRecord r) throws SQLException {
+        ps.setString(1, r.getFirstName());
+        ps.setString(2, r.getLastName());
+        if (r.getDateOfBirth() == null) {
+            ps.setNull(3, Types.DATE);
+        } else {
+            ps.setDate(3, Date.valueOf(r.getDateOfBirth()));
+        }
+        ps.setString(4, r.getGender());
+        ps.setString(5, r.getPhone());
+        if (r.getFamilyGroup() == null) {
+            ps.setNull(6, Types.INTEGER);
+        } else {
+            ps.setInt(6, r.getFamilyGroup());
+        }
+    }
+
+    /**
+     * Executes the pending person batch, collects its generated IDs and
+     * places the batch's records at their locations.
+     *
+     * @return the number of records flushed
+     */
+    private int flush(PreparedStatement ps, PreparedStatement place, List<IntakeRecord> batch, IdList ids)
+            throws SQLException {
+        ps.executeBatch();
+        long[] batchIds = new long[batch.size()];
+        int got = 0;
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            while (keys.next()) {
+                long id = keys.getLong(1);
+                if (got < batchIds.length) {
+                    batchIds[got++] = id;
+                }
+                ids.add(id);
+            }
+        }
+        place(place, batch, batchIds, got);
+        int n = batch.size();
+        batch.clear();
+        return n;
+    }
+
+    private static void place(PreparedStatement place, List<IntakeRecord> batch, long[] ids, int known)
+            throws SQLException {
+        boolean any = false;
+        for (int i = 0; i < batch.size(); i++) {
+            Integer locationId = batch.get(i).getLocationId();
+            if (locationId == null) {
+                continue;
+            }
+            if (i >= known) {
+                throw new SQLException("No generated person_id for row " + (i + 1) + " of the batch");
+            }
+            place.setInt(1, Math.toIntExact(ids[i]));
+            place.setInt(2, locationId);
+            place.addBatch();
+            any = true;
+        }
+        if (any) {
+            place.executeBatch();
+        }
+    }
+
+    private long[] reserveIds(Connection conn, int count) throws SQLException {
+        long[] reserved = new long[count];
+        try (PreparedStatement ps = conn.prepareStatement(RESERVE_IDS_SQL)) {
+            ps.setInt(1, count);
+            try (ResultSet rs = ps.executeQuery()) {
+                int i = 0;
+                while (rs.next() && i < count) {
+                    reserved[i++] = rs.getLong(1);
+                }
+            }
+        }
+        return reserved;
+    }
+
+    private static Object copyManagerFor(Connection conn) throws SQLException, ReflectiveOperationException {
+        Class<?> pgConnection = Class.forName("org.postgresql.PGConnection");
+        Object pg = conn.unwrap(pgConnection);
+        return pgConnection.getMethod("getCopyAPI").invoke(pg);
+    }
+
+    /**
+     * Renders a chunk as CSV rows for COPY. Non-null values are always quoted
+     * so an empty string is not read back as NULL.
+     *
+     * @param chunk the records
+     * @param ids   the person_id to use for each record
+     * @return the CSV text
+     */
+    static String toCsv(List<IntakeRecord> chunk, long[] ids) {
+        StringBuilder sb = new StringBuilder(chunk.size() * 64);
+        for (int i = 0; i < chunk.size(); i++) {
+            IntakeRecord r = chunk.get(i);
+            sb.append(ids[i]).append(',');
+            appendCsv(sb, r.getFirstName()).append(',');
+            appendCsv(sb, r.getLastName()).append(',');
+            appendCsv(sb, r.getDateOfBirth()).append(',');
+            appendCsv(sb, r.getGender()).append(',');
+            appendCsv(sb, r.getPhone()).append(',');
+            if (r.getFamilyGroup() != null) {
+                sb.append(r.getFamilyGroup());
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static StringBuilder appendCsv(StringBuilder sb, String value) {
+        if (value == null) {
+            return sb;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                sb.append('"');
+            }
+            sb.append(c);
+        }
+        return sb.append('"');
+    }
+
+    /**
+     * Growable list of primitive IDs.
+     */
+    private static final class IdList {
+        private long[] values = new long[256];
+        private int size = 0;
+
+        private void add(long id) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = id;
+        }
+
+        private void addAll(long[] ids) {
+            for (long id : ids) {
+                add(id);
+            }
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Outcome of a bulk load: generated IDs in input order, and timing.
+     */
+    public static class Result {
+        private final long[] personIds;
+        private final long elapsedNanos;
+
+        /**
+         * Constructs a Result.
+         *
+         * @param personIds    the person IDs in input order
+         * @param elapsedNanos wall time of the load
+         */
+        public Result(long[] personIds, long elapsedNanos) {
+            this.personIds = personIds;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Gets the generated person IDs, in the same order as the input records.
+         *
+         * @return the IDs
+         */
+        public long[] getPersonIds() {
+            return personIds.clone();
+        }
+
+        /**
+         * Gets the number of rows inserted.
+         *
+         * @return the row count
+         */
+        public int getRowCount() {
+            return personIds.length;
+        }
+
+        /**
+         * Gets the wall time of the load in milliseconds.
+         *
+         * @return elapsed milliseconds
+         */
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000L;
+        }
+
+        /**
+         * Gets the throughput in rows per second.
+         *
+         * @return rows per second, or 0 if nothing was timed
+         */
+        public double getRowsPerSecond() {
+            if (elapsedNanos <= 0) {
+                return 0.0;
+            }
+            return personIds.length * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Inserted %d persons in %d ms (%.1f rows/s)",
+                    getRowCount(), getElapsedMillis(), getRowsPerSecond());
+        }
+    }
+}
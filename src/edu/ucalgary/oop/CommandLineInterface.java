@@ -1,6 +1,12 @@
 package edu.ucalgary.oop;
 
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -9,11 +15,14 @@ import java.util.Scanner;
  *
  * <p>
  * Features:
- * - Manage Victims: add, list, set family group, add medical record, search by ID, edit victim, edit medical record
+ * - Manage Victims: add, list, set family group, add medical record, search by ID, edit victim, edit medical record,
+ *   import a CSV/TSV roster
  * - Manage Inquiries: create inquiry, list inquiries, edit existing inquiry
- * - Manage Items (Supplies): add new supply, allocate supply to person or location, list, edit supply
+ * - Manage Items (Supplies): add new supply, allocate supply to person or location, list, edit supply,
+ *   distribute a location's stock to its occupants
  * - Manage Locations: reassign occupant, show occupant mappings, search location by ID, edit location
- * - Removes expired water allocations at startup
+ * - Expires, rotates and recalls supplies in the background per their lifecycle policies
+ * - Batch mode: replays a command script without menus (see {@link BatchRunner})
  * </p>
  *
  * @author Anhad Wander
@@ -40,11 +49,20 @@ public class CommandLineInterface implements UserInterface {
 
     /**
      * Retrieves the singleton instance of CommandLineInterface.
+     * The error log is data/errorlog.txt, or data/errorlog.jsonl when
+     * {@link ErrorLogger#FORMAT_PROPERTY} selects JSON lines.
      * @return the singleton instance
      */
     public static CommandLineInterface getInstance() {
         if (instance == null) {
-            instance = new CommandLineInterface(new ErrorLogger());
+            ErrorLogger.Format format = ErrorLogger.configuredFormat();
+            String path = format == ErrorLogger.Format.JSON_LINES ? "data/errorlog.jsonl" : "data/errorlog.txt";
+            ErrorLogger logger =
+                    new ErrorLogger(path, 4096, ErrorLogger.OverflowPolicy.COUNT_AND_DROP);
+            logger.setFormat(format);
+            logger.setRotation(new LogRotation(10L * 1024 * 1024, true, 14));
+            logger.setDeduplicator(new ErrorDeduplicator());
+            instance = new CommandLineInterface(logger);
         }
         return instance;
     }
@@ -65,17 +83,27 @@ public class CommandLineInterface implements UserInterface {
     }
 
     /**
-     * Starts the application, connecting to DB and removing expired water if any.
+     * Starts the application, connecting to DB, loading the inventory index,
+     * removing expired supplies if any and starting the expiry scheduler.
      */
     @Override
     public void startApplication() {
         running = true;
-        System.out.println(getTranslation("welcome_message"));
+        System.out.println(getTranslation(MessageKey.WELCOME_MESSAGE));
         try {
             DatabaseManager.getInstance().connect();
-            Water.removeExpiredAllocations();
+            int counted = InventoryIndex.getInstance().rebuild();
+            System.out.print(formatTranslation(MessageKey.INVENTORY_INDEX_LOADED, counted));
+            ExpiryScheduler expiry = ExpiryScheduler.getInstance();
+            int removed = expiry.tick(LocalDateTime.now());
+            System.out.println("");
+            System.out.println(removed > 0 ? "Removed " + removed + " expired allocations."
+                    : "No expired supplies found.");
+            System.out.println(expiry.getPendingCount("water") + " water allocations pending expiry, "
+                    + expiry.getPendingCount() + " in all.");
+            expiry.start(errorLogger);
         } catch (SQLException e) {
-            criticalDBError(getTranslation("db_connect_fail"), e);
+            criticalDBError(getTranslation(MessageKey.DB_CONNECT_FAIL), e);
         }
     }
 
@@ -84,13 +112,13 @@ public class CommandLineInterface implements UserInterface {
      */
     @Override
     public void displayMainMenu() {
-        System.out.println("\n" + getTranslation("menu_main_title"));
-        System.out.println(getTranslation("menu_option_1"));
-        System.out.println(getTranslation("menu_option_2"));
-        System.out.println(getTranslation("menu_option_3"));
-        System.out.println(getTranslation("menu_option_4"));
-        System.out.println(getTranslation("menu_option_5"));
-        System.out.print(getTranslation("prompt_choice"));
+        System.out.println("\n" + getTranslation(MessageKey.MENU_MAIN_TITLE));
+        System.out.println(getTranslation(MessageKey.MENU_OPTION_1));
+        System.out.println(getTranslation(MessageKey.MENU_OPTION_2));
+        System.out.println(getTranslation(MessageKey.MENU_OPTION_3));
+        System.out.println(getTranslation(MessageKey.MENU_OPTION_4));
+        System.out.println(getTranslation(MessageKey.MENU_OPTION_5));
+        System.out.print(getTranslation(MessageKey.PROMPT_CHOICE));
     }
 
     /**
@@ -116,7 +144,7 @@ public class CommandLineInterface implements UserInterface {
                 exitApplication();
                 break;
             default:
-                System.out.println(getTranslation("error_invalid_choice"));
+                System.out.println(getTranslation(MessageKey.ERROR_INVALID_CHOICE));
         }
     }
 
@@ -130,20 +158,22 @@ public class CommandLineInterface implements UserInterface {
      * 5) Search Person by ID
      * 6) Edit Existing Victim
      * 7) Edit Existing Medical Record
-     * 8) Return to Main Menu
+     * 8) Import Roster File (CSV/TSV)
+     * 9) Return to Main Menu
      */
     private void manageVictimsMenu() {
         while (true) {
-            System.out.println("\n" + getTranslation("menu_victims_title"));
-            System.out.println(getTranslation("menu_victims_option_1"));
-            System.out.println(getTranslation("menu_victims_option_2"));
-            System.out.println(getTranslation("menu_victims_option_3"));
-            System.out.println(getTranslation("menu_victims_option_4"));
-            System.out.println(getTranslation("menu_victims_option_5"));
-            System.out.println(getTranslation("menu_victims_option_6"));
-            System.out.println(getTranslation("menu_victims_option_7"));
-            System.out.println(getTranslation("menu_victims_option_8"));
-            System.out.print(getTranslation("prompt_choice"));
+            System.out.println("\n" + getTranslation(MessageKey.MENU_VICTIMS_TITLE));
+            System.out.println(getTranslation(MessageKey.MENU_VICTIMS_OPTION_1));
+            System.out.println(getTranslation(MessageKey.MENU_VICTIMS_OPTION_2));
+            System.out.println(getTranslation(MessageKey.MENU_VICTIMS_OPTION_3));
+            System.out.println(getTranslation(MessageKey.MENU_VICTIMS_OPTION_4));
+            System.out.println(getTranslation(MessageKey.MENU_VICTIMS_OPTION_5));
+            System.out.println(getTranslation(MessageKey.MENU_VICTIMS_OPTION_6));
+            System.out.println(getTranslation(MessageKey.MENU_VICTIMS_OPTION_7));
+            System.out.println(getTranslation(MessageKey.MENU_VICTIMS_OPTION_8));
+            System.out.println(getTranslation(MessageKey.MENU_VICTIMS_OPTION_9));
+            System.out.print(getTranslation(MessageKey.PROMPT_CHOICE));
 
             String choice = scanner.nextLine().trim();
             switch (choice) {
@@ -152,7 +182,7 @@ public class CommandLineInterface implements UserInterface {
                     break;
                 case "2":
                     try {
-                        Person.listAllPersonsSafe();
+                        pageThrough(Person.personListing());
                     } catch (SQLException e) {
                         System.out.println("Error listing victims: " + e.getMessage());
                         errorLogger.logError("Failed to query victims", e);
@@ -173,6 +203,9 @@ public class CommandLineInterface implements UserInterface {
                 case "7":
                     promptEditMedicalRecord();
                     break;
+                case "8":
+                    promptImportRoster();
+                    break;
                 default:
                     return;
             }
@@ -184,32 +217,34 @@ public class CommandLineInterface implements UserInterface {
      */
     @Override
     public void promptForVictimData() {
-        System.out.println("\n" + getTranslation("prompt_add_victim_title"));
+        System.out.println("\n" + getTranslation(MessageKey.PROMPT_ADD_VICTIM_TITLE));
         try {
-            System.out.print(getTranslation("prompt_first_name"));
+            System.out.print(getTranslation(MessageKey.PROMPT_FIRST_NAME));
             String fName = scanner.nextLine().trim();
 
-            System.out.print(getTranslation("prompt_last_name"));
+            System.out.print(getTranslation(MessageKey.PROMPT_LAST_NAME));
             String lName = scanner.nextLine().trim();
 
-            System.out.print(getTranslation("prompt_birth_date"));
+            System.out.print(getTranslation(MessageKey.PROMPT_BIRTH_DATE));
             String dob = scanner.nextLine().trim();
             if (dob.isEmpty()) dob = null;
 
-            System.out.println(getTranslation("prompt_gender_options"));
+            System.out.println(getTranslation(MessageKey.PROMPT_GENDER_OPTIONS));
             String gChoice = scanner.nextLine().trim();
             String genderStr = Person.parseGenderChoice(gChoice);
 
-            System.out.print(getTranslation("prompt_phone"));
+            System.out.print(getTranslation(MessageKey.PROMPT_PHONE));
             String phone = scanner.nextLine().trim();
             if (phone.isEmpty()) phone = null;
 
             Person.createPerson(fName, lName, dob, genderStr, phone);
-            System.out.println(getTranslation("victim_insert_success"));
+            System.out.println(getTranslation(MessageKey.VICTIM_INSERT_SUCCESS));
 
         } catch (SQLException e) {
             System.out.println("SQL Error: " + e.getMessage());
             errorLogger.logError("Failed to insert victim", e);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
         }
     }
 
@@ -219,7 +254,7 @@ public class CommandLineInterface implements UserInterface {
     private void promptSetFamilyGroup() {
         System.out.println("\nSet Family Group (Relationships)");
         try {
-            int pID = readIntOrRetry("prompt_person_id");
+            int pID = readIntOrRetry(MessageKey.PROMPT_PERSON_ID);
             System.out.print("Family group ID: ");
             String fgStr = scanner.nextLine().trim();
             int fg = Integer.parseInt(fgStr);
@@ -240,8 +275,8 @@ public class CommandLineInterface implements UserInterface {
     private void promptAddMedicalRecord() {
         System.out.println("\nAdd Medical Record");
         try {
-            int pID = readIntOrRetry("prompt_person_id");
-            int lID = readIntOrRetry("prompt_loc_id");
+            int pID = readIntOrRetry(MessageKey.PROMPT_PERSON_ID);
+            int lID = readIntOrRetry(MessageKey.PROMPT_LOC_ID);
 
             System.out.print("Date of treatment (yyyy-mm-dd or blank=none): ");
             String dateStr = scanner.nextLine().trim();
@@ -265,7 +300,7 @@ public class CommandLineInterface implements UserInterface {
     private void searchPersonById() {
         System.out.println("\n--- Search Person by ID ---");
         try {
-            int pID = readIntOrRetry("prompt_person_id");
+            int pID = readIntOrRetry(MessageKey.PROMPT_PERSON_ID);
             Person.searchPersonDetails(pID);
         } catch (SQLException e) {
             System.out.println("SQL Error in searchPersonById: " + e.getMessage());
@@ -277,32 +312,34 @@ public class CommandLineInterface implements UserInterface {
      * Prompts user to edit a victim's fields.
      */
     private void promptEditVictim() {
-        System.out.println("\n" + getTranslation("prompt_edit_victim_title"));
+        System.out.println("\n" + getTranslation(MessageKey.PROMPT_EDIT_VICTIM_TITLE));
         try {
-            int pID = readIntOrRetry("prompt_person_id");
+            int pID = readIntOrRetry(MessageKey.PROMPT_PERSON_ID);
 
-            System.out.print(getTranslation("prompt_new_victim_name"));
+            System.out.print(getTranslation(MessageKey.PROMPT_NEW_VICTIM_NAME));
             String newFName = scanner.nextLine().trim();
 
-            System.out.print(getTranslation("prompt_new_victim_lastname"));
+            System.out.print(getTranslation(MessageKey.PROMPT_NEW_VICTIM_LASTNAME));
             String newLName = scanner.nextLine().trim();
 
-            System.out.print(getTranslation("prompt_new_victim_dob"));
+            System.out.print(getTranslation(MessageKey.PROMPT_NEW_VICTIM_DOB));
             String newDOB   = scanner.nextLine().trim();
 
-            System.out.print(getTranslation("prompt_new_victim_gender"));
+            System.out.print(getTranslation(MessageKey.PROMPT_NEW_VICTIM_GENDER));
             String gChoice  = scanner.nextLine().trim();
             String newGender = Person.parseGenderChoice(gChoice);
 
-            System.out.print(getTranslation("prompt_new_victim_phone"));
+            System.out.print(getTranslation(MessageKey.PROMPT_NEW_VICTIM_PHONE));
             String newPhone = scanner.nextLine().trim();
 
             Person.updatePerson(pID, newFName, newLName, newDOB, newGender, newPhone);
-            System.out.println(getTranslation("victim_update_success"));
+            System.out.println(getTranslation(MessageKey.VICTIM_UPDATE_SUCCESS));
 
         } catch (SQLException e) {
             System.out.println("SQL Error updating victim: " + e.getMessage());
             errorLogger.logError("Failed to update victim", e);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
         }
     }
 
@@ -340,15 +377,41 @@ public class CommandLineInterface implements UserInterface {
         }
     }
 
+    /**
+     * Prompts for a roster file and streams it into the DB. Rejected lines
+     * go to a side file next to the roster.
+     */
+    private void promptImportRoster() {
+        System.out.print(getTranslation(MessageKey.PROMPT_ROSTER_PATH));
+        String path = scanner.nextLine().trim();
+        if (path.isEmpty()) {
+            System.out.println("No file provided.");
+            return;
+        }
+        String rejectsPath = path + ".rejects.txt";
+        try (BufferedReader in = new BufferedReader(new FileReader(path));
+             FileWriter rejects = new FileWriter(rejectsPath)) {
+            RosterImport.Result result = new RosterImport(RosterImport.delimiterFor(path)).run(in, rejects);
+            System.out.println(result);
+            System.out.println(getTranslation(MessageKey.ROSTER_IMPORT_DONE) + rejectsPath);
+        } catch (SQLException e) {
+            System.out.println("SQL Error importing roster: " + e.getMessage());
+            errorLogger.logError("Failed to import roster", e);
+        } catch (IOException e) {
+            System.out.println("Error reading roster: " + e.getMessage());
+            errorLogger.logError("Failed to read roster", e);
+        }
+    }
+
 
     private void manageInquiriesMenu() {
         while (true) {
-            System.out.println("\n" + getTranslation("menu_inquiries_title"));
-            System.out.println(getTranslation("menu_inquiries_option_1"));
-            System.out.println(getTranslation("menu_inquiries_option_2"));
-            System.out.println(getTranslation("menu_inquiries_option_3"));
-            System.out.println(getTranslation("menu_inquiries_option_4"));
-            System.out.print(getTranslation("prompt_choice"));
+            System.out.println("\n" + getTranslation(MessageKey.MENU_INQUIRIES_TITLE));
+            System.out.println(getTranslation(MessageKey.MENU_INQUIRIES_OPTION_1));
+            System.out.println(getTranslation(MessageKey.MENU_INQUIRIES_OPTION_2));
+            System.out.println(getTranslation(MessageKey.MENU_INQUIRIES_OPTION_3));
+            System.out.println(getTranslation(MessageKey.MENU_INQUIRIES_OPTION_4));
+            System.out.print(getTranslation(MessageKey.PROMPT_CHOICE));
 
             String choice = scanner.nextLine().trim();
             switch (choice) {
@@ -372,25 +435,25 @@ public class CommandLineInterface implements UserInterface {
      */
     @Override
     public void promptForInquiryData() {
-        System.out.println("\n" + getTranslation("prompt_inquiry_title"));
+        System.out.println("\n" + getTranslation(MessageKey.PROMPT_INQUIRY_TITLE));
         try {
-            int inquirerID = readIntOrRetry("prompt_inquirer_id");
-            int missingID  = readIntOrRetry("prompt_missing_id");
-            int locID      = readIntOrRetry("prompt_loc_id_or_zero");
+            int inquirerID = readIntOrRetry(MessageKey.PROMPT_INQUIRER_ID);
+            int missingID  = readIntOrRetry(MessageKey.PROMPT_MISSING_ID);
+            int locID      = readIntOrRetry(MessageKey.PROMPT_LOC_ID_OR_ZERO);
             Integer locObj = (locID == 0 ? null : locID);
 
-            System.out.print(getTranslation("prompt_inquiry_date"));
+            System.out.print(getTranslation(MessageKey.PROMPT_INQUIRY_DATE));
             String dateStr = scanner.nextLine().trim();
             if (dateStr.isEmpty()) {
                 dateStr = "2025-01-01";
             }
 
-            System.out.print(getTranslation("prompt_inquiry_comments"));
+            System.out.print(getTranslation(MessageKey.PROMPT_INQUIRY_COMMENTS));
             String comments = scanner.nextLine().trim();
             if (comments.isEmpty()) comments = null;
 
             Inquiry.createInquiry(inquirerID, missingID, locObj, dateStr, comments);
-            System.out.println(getTranslation("inquiry_logged_success"));
+            System.out.println(getTranslation(MessageKey.INQUIRY_LOGGED_SUCCESS));
 
         } catch (SQLException e) {
             System.out.println("SQL Error: " + e.getMessage());
@@ -399,22 +462,36 @@ public class CommandLineInterface implements UserInterface {
     }
 
     private void listInquiriesFromDB() {
-        System.out.println("\n" + getTranslation("list_inquiries_header"));
+        System.out.println("\n" + getTranslation(MessageKey.LIST_INQUIRIES_HEADER));
         try {
-            Inquiry.listAllInquiriesSafe();
+            pageThrough(Inquiry.inquiryListing());
         } catch (SQLException e) {
             System.out.println("SQL Error listing inquiries: " + e.getMessage());
             errorLogger.logError("Failed to query inquiries", e);
         }
     }
 
+    /**
+     * Prints a listing one page at a time, fetching each page with a keyset
+     * query. Enter shows the next page; q stops.
+     *
+     * @param listing the listing to page through
+     * @throws SQLException if a page query fails
+     */
+    private void pageThrough(KeysetListing listing) throws SQLException {
+        try (OutputSink out = OutputSink.toConsole()) {
+            new Pager(out, scanner, getTranslation(MessageKey.PROMPT_NEXT_PAGE), KeysetListing.getPageSize())
+                    .run(listing::page);
+        }
+    }
+
     /**
      * Prompts user to edit an existing inquiry.
      */
     private void promptEditInquiry() {
-        System.out.println("\n" + getTranslation("prompt_edit_inquiry_title"));
+        System.out.println("\n" + getTranslation(MessageKey.PROMPT_EDIT_INQUIRY_TITLE));
         try {
-            System.out.print(getTranslation("prompt_inquiry_id"));
+            System.out.print(getTranslation(MessageKey.PROMPT_INQUIRY_ID));
             String inqIDstr = scanner.nextLine().trim();
             if (inqIDstr.isEmpty()) {
                 System.out.println("No inquiry ID provided.");
@@ -422,23 +499,23 @@ public class CommandLineInterface implements UserInterface {
             }
             int inqID = Integer.parseInt(inqIDstr);
 
-            System.out.print(getTranslation("prompt_new_inquirer_id"));
+            System.out.print(getTranslation(MessageKey.PROMPT_NEW_INQUIRER_ID));
             String newInqer   = scanner.nextLine().trim();
 
-            System.out.print(getTranslation("prompt_new_missing_id"));
+            System.out.print(getTranslation(MessageKey.PROMPT_NEW_MISSING_ID));
             String newMissing = scanner.nextLine().trim();
 
-            System.out.print(getTranslation("prompt_new_loc_id"));
+            System.out.print(getTranslation(MessageKey.PROMPT_NEW_LOC_ID));
             String newLocId   = scanner.nextLine().trim();
 
-            System.out.print(getTranslation("prompt_new_inquiry_date"));
+            System.out.print(getTranslation(MessageKey.PROMPT_NEW_INQUIRY_DATE));
             String newDate    = scanner.nextLine().trim();
 
-            System.out.print(getTranslation("prompt_new_inquiry_comments"));
+            System.out.print(getTranslation(MessageKey.PROMPT_NEW_INQUIRY_COMMENTS));
             String newComments= scanner.nextLine().trim();
 
             Inquiry.updateInquiry(inqID, newInqer, newMissing, newLocId, newDate, newComments);
-            System.out.println(getTranslation("inquiry_update_success"));
+            System.out.println(getTranslation(MessageKey.INQUIRY_UPDATE_SUCCESS));
 
         } catch (SQLException e) {
             System.out.println("SQL Error updating inquiry: " + e.getMessage());
@@ -452,14 +529,15 @@ public class CommandLineInterface implements UserInterface {
     @Override
     public void manageItems() {
         while (true) {
-            System.out.println("\n" + getTranslation("menu_items_title"));
-            System.out.println(getTranslation("menu_items_option_1"));
-            System.out.println(getTranslation("menu_items_option_2"));
-            System.out.println(getTranslation("menu_items_option_3"));
-            System.out.println(getTranslation("menu_items_option_4"));
-            System.out.println(getTranslation("menu_items_option_5"));
-            System.out.println(getTranslation("menu_items_option_6"));
-            System.out.print(getTranslation("prompt_choice"));
+            System.out.println("\n" + getTranslation(MessageKey.MENU_ITEMS_TITLE));
+            System.out.println(getTranslation(MessageKey.MENU_ITEMS_OPTION_1));
+            System.out.println(getTranslation(MessageKey.MENU_ITEMS_OPTION_2));
+            System.out.println(getTranslation(MessageKey.MENU_ITEMS_OPTION_3));
+            System.out.println(getTranslation(MessageKey.MENU_ITEMS_OPTION_4));
+            System.out.println(getTranslation(MessageKey.MENU_ITEMS_OPTION_5));
+            System.out.println(getTranslation(MessageKey.MENU_ITEMS_OPTION_6));
+            System.out.println(getTranslation(MessageKey.MENU_ITEMS_OPTION_7));
+            System.out.print(getTranslation(MessageKey.PROMPT_CHOICE));
 
             String choice = scanner.nextLine().trim();
             switch (choice) {
@@ -474,7 +552,7 @@ public class CommandLineInterface implements UserInterface {
                     break;
                 case "4":
                     try {
-                        Item.listAllSuppliesSafe();
+                        pageThrough(Item.supplyListing());
                     } catch (SQLException e) {
                         System.out.println("SQL Error listing supplies: " + e.getMessage());
                         errorLogger.logError("Failed to query supplies", e);
@@ -483,6 +561,9 @@ public class CommandLineInterface implements UserInterface {
                 case "5":
                     promptEditSupply();
                     break;
+                case "6":
+                    distributeSupplies();
+                    break;
                 default:
                     return;
             }
@@ -494,30 +575,30 @@ public class CommandLineInterface implements UserInterface {
      * If "cot" is chosen, prompt for numeric room and letter+digits grid coordinate, store in "comments".
      */
     private void promptAddNewSupply() {
-        System.out.println("\n" + getTranslation("prompt_add_supply_title"));
+        System.out.println("\n" + getTranslation(MessageKey.PROMPT_ADD_SUPPLY_TITLE));
         String supplyType = promptSupplyType();
 
         String comments = null;
         if (supplyType.equalsIgnoreCase("cot")) {
-            System.out.print(getTranslation("prompt_cot_room"));
+            System.out.print(getTranslation(MessageKey.PROMPT_COT_ROOM));
             String roomStr = scanner.nextLine().trim();
             while (!roomStr.matches("^\\d+$")) {
-                System.out.println(getTranslation("error_invalid_room"));
-                System.out.print(getTranslation("prompt_cot_room"));
+                System.out.println(getTranslation(MessageKey.ERROR_INVALID_ROOM));
+                System.out.print(getTranslation(MessageKey.PROMPT_COT_ROOM));
                 roomStr = scanner.nextLine().trim();
             }
 
-            System.out.print(getTranslation("prompt_cot_grid"));
+            System.out.print(getTranslation(MessageKey.PROMPT_COT_GRID));
             String gridStr = scanner.nextLine().trim();
             while (!gridStr.matches("^[A-Za-z]\\d+$")) {
-                System.out.println(getTranslation("error_invalid_grid"));
-                System.out.print(getTranslation("prompt_cot_grid"));
+                System.out.println(getTranslation(MessageKey.ERROR_INVALID_GRID));
+                System.out.print(getTranslation(MessageKey.PROMPT_COT_GRID));
                 gridStr = scanner.nextLine().trim();
             }
 
             comments = "room=" + roomStr + ",grid=" + gridStr;
         } else {
-            System.out.print(getTranslation("prompt_supply_comments"));
+            System.out.print(getTranslation(MessageKey.PROMPT_SUPPLY_COMMENTS));
             String userComm = scanner.nextLine().trim();
             if (!userComm.isEmpty()) {
                 comments = userComm;
@@ -526,7 +607,7 @@ public class CommandLineInterface implements UserInterface {
 
         try {
             Item.createSupply(supplyType, comments);
-            System.out.println(getTranslation("supply_insert_success"));
+            System.out.println(getTranslation(MessageKey.SUPPLY_INSERT_SUCCESS));
         } catch (SQLException e) {
             System.out.println("SQL Error: " + e.getMessage());
             errorLogger.logError("Failed to insert supply", e);
@@ -537,9 +618,9 @@ public class CommandLineInterface implements UserInterface {
      * Allows user to pick the supply type from 4 options.
      */
     private String promptSupplyType() {
-        System.out.println(getTranslation("prompt_supply_type_choice"));
+        System.out.println(getTranslation(MessageKey.PROMPT_SUPPLY_TYPE_CHOICE));
         while (true) {
-            System.out.print(getTranslation("prompt_choice"));
+            System.out.print(getTranslation(MessageKey.PROMPT_CHOICE));
             String pick = scanner.nextLine().trim();
             switch (pick) {
                 case "1": return "personal belonging";
@@ -547,19 +628,19 @@ public class CommandLineInterface implements UserInterface {
                 case "3": return "water";
                 case "4": return "cot";
                 default:
-                    System.out.println(getTranslation("error_invalid_choice"));
+                    System.out.println(getTranslation(MessageKey.ERROR_INVALID_CHOICE));
             }
         }
     }
 
     private void allocateSupplyToPerson() {
-        System.out.println("\n" + getTranslation("allocate_supply_person"));
+        System.out.println("\n" + getTranslation(MessageKey.ALLOCATE_SUPPLY_PERSON));
         try {
-            int sID = readIntOrRetry("prompt_supply_id");
-            int pID = readIntOrRetry("prompt_person_id");
+            int sID = readIntOrRetry(MessageKey.PROMPT_SUPPLY_ID);
+            int pID = readIntOrRetry(MessageKey.PROMPT_PERSON_ID);
 
             Item.allocateToPerson(sID, pID);
-            System.out.println(getTranslation("allocation_success"));
+            System.out.println(getTranslation(MessageKey.ALLOCATION_SUCCESS));
         } catch (SQLException e) {
             System.out.println("SQL Error: " + e.getMessage());
             errorLogger.logError("Failed to allocate supply to person", e);
@@ -567,35 +648,79 @@ public class CommandLineInterface implements UserInterface {
     }
 
     private void allocateSupplyToLocation() {
-        System.out.println("\n" + getTranslation("allocate_supply_location"));
+        System.out.println("\n" + getTranslation(MessageKey.ALLOCATE_SUPPLY_LOCATION));
         try {
-            int sID = readIntOrRetry("prompt_supply_id");
-            int lID = readIntOrRetry("prompt_loc_id");
+            int sID = readIntOrRetry(MessageKey.PROMPT_SUPPLY_ID);
+            int lID = readIntOrRetry(MessageKey.PROMPT_LOC_ID);
 
             Item.allocateToLocation(sID, lID);
-            System.out.println(getTranslation("allocation_success"));
+            System.out.println(getTranslation(MessageKey.ALLOCATION_SUCCESS));
         } catch (SQLException e) {
             System.out.println("SQL Error: " + e.getMessage());
             errorLogger.logError("Failed to allocate supply to location", e);
         }
     }
 
+    /**
+     * Hands a location's stock of one supply type to its occupants in one
+     * step and shows how many each person received.
+     */
+    private void distributeSupplies() {
+        System.out.println("\n" + getTranslation(MessageKey.DISTRIBUTE_SUPPLY_TITLE));
+        int lID = readIntOrRetry(MessageKey.PROMPT_LOC_ID);
+        String supplyType = promptSupplyType();
+        int max;
+        while (true) {
+            System.out.print(getTranslation(MessageKey.PROMPT_MAX_PER_PERSON));
+            String line = scanner.nextLine().trim();
+            if (line.isEmpty()) {
+                max = 0;
+                break;
+            }
+            try {
+                max = Integer.parseInt(line);
+                if (max > 0) {
+                    break;
+                }
+            } catch (NumberFormatException e) {
+                // fall through to the error below
+            }
+            System.out.println(getTranslation(MessageKey.ERROR_INVALID_NUMBER));
+        }
+        try {
+            long start = System.nanoTime();
+            Distribution d = Item.distributeToOccupants(lID, supplyType, max);
+            long millis = (System.nanoTime() - start) / 1_000_000L;
+            LanguageManager lm = LanguageManager.getDefault();
+            try (OutputSink out = OutputSink.toConsole()) {
+                out.print(lm.formatLine(MessageKey.DISTRIBUTE_RESULT, d.getAllocations().size(),
+                        d.getStockCount(), supplyType, d.getOccupantCount(), d.getRemainingStock(), millis));
+                for (Map.Entry<Integer, Integer> e : d.getCountsByPerson().entrySet()) {
+                    out.print(lm.formatLine(MessageKey.ROW_DISTRIBUTION, e.getKey(), e.getValue()));
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println("SQL Error: " + e.getMessage());
+            errorLogger.logError("Failed to distribute supplies", e);
+        }
+    }
+
     /**
      * Prompts user to edit an existing supply record (type, comments).
      */
     private void promptEditSupply() {
-        System.out.println("\n" + getTranslation("prompt_edit_supply_title"));
+        System.out.println("\n" + getTranslation(MessageKey.PROMPT_EDIT_SUPPLY_TITLE));
         try {
-            int supplyId = readIntOrRetry("prompt_existing_supply_id");
+            int supplyId = readIntOrRetry(MessageKey.PROMPT_EXISTING_SUPPLY_ID);
 
-            System.out.print(getTranslation("prompt_new_supply_type"));
+            System.out.print(getTranslation(MessageKey.PROMPT_NEW_SUPPLY_TYPE));
             String newType = scanner.nextLine().trim();
 
-            System.out.print(getTranslation("prompt_new_supply_comments"));
+            System.out.print(getTranslation(MessageKey.PROMPT_NEW_SUPPLY_COMMENTS));
             String newComm = scanner.nextLine().trim();
 
             Item.updateSupply(supplyId, newType, newComm);
-            System.out.println(getTranslation("update_supply_success"));
+            System.out.println(getTranslation(MessageKey.UPDATE_SUPPLY_SUCCESS));
 
         } catch (SQLException e) {
             System.out.println("SQL Error updating supply: " + e.getMessage());
@@ -607,13 +732,13 @@ public class CommandLineInterface implements UserInterface {
     @Override
     public void manageLocations() {
         while (true) {
-            System.out.println("\n" + getTranslation("menu_locations_title"));
-            System.out.println(getTranslation("menu_locations_option_1"));
-            System.out.println(getTranslation("menu_locations_option_2"));
-            System.out.println(getTranslation("menu_locations_option_3"));
-            System.out.println(getTranslation("menu_locations_option_4"));
-            System.out.println(getTranslation("menu_locations_option_5"));
-            System.out.print(getTranslation("prompt_choice"));
+            System.out.println("\n" + getTranslation(MessageKey.MENU_LOCATIONS_TITLE));
+            System.out.println(getTranslation(MessageKey.MENU_LOCATIONS_OPTION_1));
+            System.out.println(getTranslation(MessageKey.MENU_LOCATIONS_OPTION_2));
+            System.out.println(getTranslation(MessageKey.MENU_LOCATIONS_OPTION_3));
+            System.out.println(getTranslation(MessageKey.MENU_LOCATIONS_OPTION_4));
+            System.out.println(getTranslation(MessageKey.MENU_LOCATIONS_OPTION_5));
+            System.out.print(getTranslation(MessageKey.PROMPT_CHOICE));
 
             String choice = scanner.nextLine().trim();
             switch (choice) {
@@ -622,7 +747,7 @@ public class CommandLineInterface implements UserInterface {
                     break;
                 case "2":
                     try {
-                        Location.listPersonLocationsSafe();
+                        pageThrough(Location.personLocationListing());
                     } catch (SQLException e) {
                         System.out.println("SQL Error: " + e.getMessage());
                         errorLogger.logError("Failed to query PersonLocation", e);
@@ -641,13 +766,13 @@ public class CommandLineInterface implements UserInterface {
     }
 
     private void reassignPersonLocation() {
-        System.out.println("\n" + getTranslation("reassign_person_loc"));
+        System.out.println("\n" + getTranslation(MessageKey.REASSIGN_PERSON_LOC));
         try {
-            int pID  = readIntOrRetry("prompt_person_id");
-            int locID= readIntOrRetry("prompt_loc_id");
+            int pID  = readIntOrRetry(MessageKey.PROMPT_PERSON_ID);
+            int locID= readIntOrRetry(MessageKey.PROMPT_LOC_ID);
 
             Location.reassignPersonToLocation(pID, locID);
-            System.out.println(getTranslation("reassign_success"));
+            System.out.println(getTranslation(MessageKey.REASSIGN_SUCCESS));
         } catch (SQLException e) {
             System.out.println("SQL Error: " + e.getMessage());
             errorLogger.logError("Failed to reassign location", e);
@@ -657,7 +782,7 @@ public class CommandLineInterface implements UserInterface {
     private void searchLocationById() {
         System.out.println("\n--- Search Location by ID ---");
         try {
-            int locId = readIntOrRetry("prompt_loc_id");
+            int locId = readIntOrRetry(MessageKey.PROMPT_LOC_ID);
             Location.searchLocationDetailsSafe(locId);
         } catch (SQLException e) {
             System.out.println("SQL Error in searchLocationById: " + e.getMessage());
@@ -669,9 +794,9 @@ public class CommandLineInterface implements UserInterface {
      * Prompts user to edit an existing location record (name, address).
      */
     private void promptEditLocation() {
-        System.out.println("\n" + getTranslation("prompt_edit_location_title"));
+        System.out.println("\n" + getTranslation(MessageKey.PROMPT_EDIT_LOCATION_TITLE));
         try {
-            System.out.print(getTranslation("prompt_location_id_for_edit"));
+            System.out.print(getTranslation(MessageKey.PROMPT_LOCATION_ID_FOR_EDIT));
             String locStr = scanner.nextLine().trim();
             if (locStr.isEmpty()) {
                 System.out.println("No location ID provided.");
@@ -679,14 +804,14 @@ public class CommandLineInterface implements UserInterface {
             }
             int locId = Integer.parseInt(locStr);
 
-            System.out.print(getTranslation("prompt_new_location_name"));
+            System.out.print(getTranslation(MessageKey.PROMPT_NEW_LOCATION_NAME));
             String newName = scanner.nextLine().trim();
 
-            System.out.print(getTranslation("prompt_new_location_addr"));
+            System.out.print(getTranslation(MessageKey.PROMPT_NEW_LOCATION_ADDR));
             String newAddr = scanner.nextLine().trim();
 
             Location.updateLocation(locId, newName, newAddr);
-            System.out.println(getTranslation("location_update_success"));
+            System.out.println(getTranslation(MessageKey.LOCATION_UPDATE_SUCCESS));
 
         } catch (SQLException e) {
             System.out.println("SQL Error updating location: " + e.getMessage());
@@ -698,16 +823,59 @@ public class CommandLineInterface implements UserInterface {
 
 
 
+    /**
+     * Runs a command script non-interactively: connects, loads the inventory
+     * index, removes expired supplies, replays the script through {@link BatchRunner} and shuts down.
+     * Nothing is prompted and no menu is shown; failing lines are reported
+     * as "line N: reason".
+     *
+     * @param script      the script lines
+     * @param commitEvery commands per transaction
+     * @return the result, or null if the script could not be run
+     */
+    public BatchRunner.Result runBatch(BufferedReader script, int commitEvery) {
+        running = true;
+        BatchRunner.Result result = null;
+        try {
+            DatabaseManager.getInstance().connect();
+            InventoryIndex.getInstance().rebuild();
+            ExpiryScheduler expiry = ExpiryScheduler.getInstance();
+            expiry.setErrorLogger(errorLogger);
+            int expired = expiry.tick(LocalDateTime.now());
+            if (expired > 0) {
+                System.out.println("Removed " + expired + " expired allocations.");
+            }
+            try (OutputSink out = OutputSink.toConsole()) {
+                result = new BatchRunner(commitEvery).run(script, out);
+            }
+            System.out.println(result);
+        } catch (SQLException e) {
+            criticalDBError("Batch run failed", e);
+        } catch (IOException e) {
+            System.out.println("Error reading script: " + e.getMessage());
+            errorLogger.logError("Failed to read batch script", e);
+        }
+        running = false;
+        shutdown();
+        return result;
+    }
+
     @Override
     public void exitApplication() {
         running = false;
-        System.out.println("\n" + getTranslation("exit_goodbye"));
+        System.out.println("\n" + getTranslation(MessageKey.EXIT_GOODBYE));
+        shutdown();
+    }
+
+    private void shutdown() {
+        ExpiryScheduler.getInstance().close();
         try {
             DatabaseManager.getInstance().disconnect();
         } catch (SQLException e) {
             System.out.println("Error disconnecting DB: " + e.getMessage());
             errorLogger.logError("Disconnect DB failure", e);
         }
+        errorLogger.close();
     }
 
     @Override
@@ -726,14 +894,14 @@ public class CommandLineInterface implements UserInterface {
      * @param promptKey the translation key
      * @return the parsed integer
      */
-    private int readIntOrRetry(String promptKey) {
+    private int readIntOrRetry(MessageKey promptKey) {
         while (true) {
             System.out.print(getTranslation(promptKey));
             String line = scanner.nextLine().trim();
             try {
                 return Integer.parseInt(line);
             } catch (NumberFormatException e) {
-                System.out.println(getTranslation("error_invalid_number"));
+                System.out.println(getTranslation(MessageKey.ERROR_INVALID_NUMBER));
             }
         }
     }
@@ -743,14 +911,23 @@ public class CommandLineInterface implements UserInterface {
      * @param key the translation key
      * @return the translated string or placeholder if missing
      */
-    private String getTranslation(String key) {
+    private String getTranslation(MessageKey key) {
         if (languageManager == null) {
-            return "[No LM: " + key + "]";
+            return "[No LM: " + key.key() + "]";
         }
-        String val = languageManager.getString(key);
-        if (val == null) {
-            return "[Missing translation: " + key + "]";
+        return languageManager.getString(key);
+    }
+
+    /**
+     * Fills in a translated template from LanguageManager.
+     * @param key the translation key
+     * @param args the template arguments
+     * @return the filled-in line, ending in a newline, or placeholder if missing
+     */
+    private String formatTranslation(MessageKey key, Object... args) {
+        if (languageManager == null) {
+            return "[No LM: " + key.key() + "]\n";
         }
-        return val;
+        return languageManager.formatLine(key, args);
     }
 }
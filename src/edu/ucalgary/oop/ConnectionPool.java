@@ -0,0 +1,524 @@
+package edu.ucalgary.oop;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConnectionPool keeps a bounded set of physical JDBC connections and hands
+ * them out as leases. Closing a leased Connection returns it to the pool
+ * instead of closing the socket.
+ *
+ * <p>
+ * Features:
+ * - min/max pool size, with the minimum opened eagerly
+ * - borrow timeout (SQLTimeoutException when the pool stays exhausted)
+ * - validation-on-borrow via Connection.isValid
+ * - background eviction of connections idle longer than the idle timeout
+ * - wait metrics (borrows, waits, timeouts, total/max wait time)
+ * - optional per-connection {@link StatementCache}, so prepareStatement(sql)
+ *   on a leased connection reuses statements prepared by earlier leases
+ * </p>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public final class ConnectionPool {
+
+    /**
+     * Opens a new physical connection for the pool.
+     */
+    public interface ConnectionFactory {
+        /**
+         * Creates a new connection.
+         *
+         * @return the new Connection
+         * @throws SQLException if the connection cannot be opened
+         */
+        Connection create() throws SQLException;
+    }
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final ConnectionFactory factory;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final int statementCacheSize;
+
+    private final LinkedBlockingDeque<IdleConnection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed = false;
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder waitCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+    private final LongAdder invalidCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    private final LongAdder statementEvictions = new LongAdder();
+
+    /**
+     * Constructs a pool without a statement cache and eagerly opens minSize connections.
+     *
+     * @param factory              opens physical connections
+     * @param minSize              connections kept open even when idle
+     * @param maxSize              upper bound on open connections
+     * @param borrowTimeoutMillis  how long borrow() waits for a free connection
+     * @param idleTimeoutMillis    idle time after which surplus connections are closed (0 = never)
+     * @throws SQLException if the initial connections cannot be opened
+     * @throws IllegalArgumentException if the sizes or timeouts are invalid
+     */
+    public ConnectionPool(ConnectionFactory factory, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis) throws SQLException {
+        this(factory, minSize, maxSize, borrowTimeoutMillis, idleTimeoutMillis, 0);
+    }
+
+    /**
+     * Constructs a pool and eagerly opens minSize connections.
+     *
+     * @param factory              opens physical connections
+     * @param minSize              connections kept open even when idle
+     * @param maxSize              upper bound on open connections
+     * @param borrowTimeoutMillis  how long borrow() waits for a free connection
+     * @param idleTimeoutMillis    idle time after which surplus connections are closed (0 = never)
+     * @param statementCacheSize   statements cached per connection (0 = no cache)
+     * @throws SQLException if the initial connections cannot be opened
+     * @throws IllegalArgumentException if the sizes or timeouts are invalid
+     */
+    public ConnectionPool(ConnectionFactory factory, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis,
+                          int statementCacheSize) throws SQLException {
+        if (factory == null) {
+            throw new IllegalArgumentException("Connection factory cannot be null");
+        }
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Pool sizes must satisfy 0 <= min <= max and max >= 1");
+        }
+        if (borrowTimeoutMillis < 0 || idleTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Pool timeouts cannot be negative");
+        }
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("Statement cache size cannot be negative");
+        }
+        this.factory = factory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        try {
+            for (int i = 0; i < minSize; i++) {
+                idle.offerFirst(new IdleConnection(openPhysical()));
+            }
+        } catch (SQLException e) {
+            closeIdle();
+            throw e;
+        }
+
+        if (idleTimeoutMillis > 0) {
+            evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "connection-pool-evictor");
+                t.setDaemon(true);
+                return t;
+            });
+            long period = Math.max(1000L, idleTimeoutMillis / 2);
+            evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            evictor = null;
+        }
+    }
+
+    /**
+     * Borrows a connection. The caller must close it (try-with-resources)
+     * to hand it back to the pool.
+     *
+     * @return a leased Connection
+     * @throws SQLTimeoutException if no connection frees up within the borrow timeout
+     * @throws SQLException if a new connection cannot be opened
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new IllegalStateException("Connection pool is closed");
+        }
+        borrowCount.increment();
+        acquirePermit();
+        try {
+            IdleConnection entry;
+            while ((entry = idle.pollFirst()) != null) {
+                if (isUsable(entry.connection.raw)) {
+                    return lease(entry.connection);
+                }
+                invalidCount.increment();
+                discard(entry.connection);
+            }
+            return lease(openPhysical());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes every idle connection and stops the evictor. Leased
+     * connections are closed as they are returned.
+     */
+    public void close() {
+        closed = true;
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        closeIdle();
+    }
+
+    /**
+     * Closes idle connections that exceeded the idle timeout, never going
+     * below the configured minimum size.
+     */
+    void evictIdle() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        Iterator<IdleConnection> it = idle.descendingIterator();
+        while (it.hasNext() && totalConnections.get() > minSize) {
+            IdleConnection entry = it.next();
+            if (entry.idleSinceNanos - cutoff < 0 && idle.removeFirstOccurrence(entry)) {
+                evictedCount.increment();
+                discard(entry.connection);
+            }
+        }
+    }
+
+    /**
+     * Returns a physical connection to the idle set, resetting session state.
+     *
+     * @param physical the physical connection
+     */
+    private void release(PhysicalConnection physical) {
+        Connection raw = physical.raw;
+        try {
+            if (closed || raw.isClosed()) {
+                discard(physical);
+                return;
+            }
+            if (!raw.getAutoCommit()) {
+                raw.rollback();
+                raw.setAutoCommit(true);
+            }
+            if (raw.isReadOnly()) {
+                raw.setReadOnly(false);
+            }
+            idle.offerFirst(new IdleConnection(physical));
+        } catch (SQLException e) {
+            discard(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquirePermit() throws SQLException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        waitCount.increment();
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection", e);
+        }
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        if (!acquired) {
+            timeoutCount.increment();
+            throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis
+                    + " ms waiting for a pooled connection (max size " + maxSize + ")");
+        }
+    }
+
+    private boolean isUsable(Connection raw) {
+        try {
+            return !raw.isClosed() && raw.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PhysicalConnection openPhysical() throws SQLException {
+        Connection raw = factory.create();
+        totalConnections.incrementAndGet();
+        createdCount.increment();
+        StatementCache cache = statementCacheSize > 0
+                ? new StatementCache(statementCacheSize, statementHits, statementMisses, statementEvictions)
+                : null;
+        return new PhysicalConnection(raw, cache);
+    }
+
+    private void discard(PhysicalConnection physical) {
+        totalConnections.decrementAndGet();
+        if (physical.cache != null) {
+            physical.cache.closeAll();
+        }
+        try {
+            physical.raw.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private void closeIdle() {
+        IdleConnection entry;
+        while ((entry = idle.pollFirst()) != null) {
+            discard(entry.connection);
+        }
+    }
+
+    private Connection lease(PhysicalConnection physical) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new LeaseHandler(physical));
+    }
+
+    /**
+     * Gets the number of open physical connections (idle plus leased).
+     *
+     * @return the open connection count
+     */
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    /**
+     * Gets the number of idle connections.
+     *
+     * @return the idle count
+     */
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    /**
+     * Gets the number of connections currently leased out.
+     *
+     * @return the active count
+     */
+    public int getActiveConnections() {
+        return maxSize - permits.availablePermits();
+    }
+
+    /**
+     * Gets the configured minimum size.
+     *
+     * @return the minimum size
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Gets the configured maximum size.
+     *
+     * @return the maximum size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets the number of borrow() calls.
+     *
+     * @return the borrow count
+     */
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+
+    /**
+     * Gets the number of borrows that had to wait for a free connection.
+     *
+     * @return the wait count
+     */
+    public long getWaitCount() {
+        return waitCount.sum();
+    }
+
+    /**
+     * Gets the number of borrows that timed out.
+     *
+     * @return the timeout count
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    /**
+     * Gets the total time borrowers spent waiting, in milliseconds.
+     *
+     * @return the total wait time
+     */
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum());
+    }
+
+    /**
+     * Gets the longest single wait, in milliseconds.
+     *
+     * @return the max wait time
+     */
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    /**
+     * Gets the number of physical connections opened over the pool's life.
+     *
+     * @return the created count
+     */
+    public long getCreatedCount() {
+        return createdCount.sum();
+    }
+
+    /**
+     * Gets the number of connections closed by idle eviction.
+     *
+     * @return the evicted count
+     */
+    public long getEvictedCount() {
+        return evictedCount.sum();
+    }
+
+    /**
+     * Gets the number of idle connections that failed validation on borrow.
+     *
+     * @return the invalid count
+     */
+    public long getInvalidCount() {
+        return invalidCount.sum();
+    }
+
+    /**
+     * Gets the statement cache hit count over all connections.
+     *
+     * @return the hit count
+     */
+    public long getStatementCacheHits() {
+        return statementHits.sum();
+    }
+
+    /**
+     * Gets the statement cache miss count over all connections.
+     *
+     * @return the miss count
+     */
+    public long getStatementCacheMisses() {
+        return statementMisses.sum();
+    }
+
+    /**
+     * Gets the number of statements evicted from the per-connection caches.
+     *
+     * @return the eviction count
+     */
+    public long getStatementCacheEvictions() {
+        return statementEvictions.sum();
+    }
+
+    /**
+     * A physical connection and its statement cache (null when caching is off).
+     */
+    private static final class PhysicalConnection {
+        private final Connection raw;
+        private final StatementCache cache;
+
+        private PhysicalConnection(Connection raw, StatementCache cache) {
+            this.raw = raw;
+            this.cache = cache;
+        }
+    }
+
+    /**
+     * A physical connection sitting in the idle set.
+     */
+    private static final class IdleConnection {
+        private final PhysicalConnection connection;
+        private final long idleSinceNanos;
+
+        private IdleConnection(PhysicalConnection connection) {
+            this.connection = connection;
+            this.idleSinceNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Delegates to the physical connection until close(), which returns it to the pool.
+     */
+    private final class LeaseHandler implements InvocationHandler {
+        private final PhysicalConnection physical;
+        private final Connection raw;
+        private boolean returned = false;
+
+        private LeaseHandler(PhysicalConnection physical) {
+            this.physical = physical;
+            this.raw = physical.raw;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(physical);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + raw + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if (physical.cache != null && "prepareStatement".equals(name)
+                    && args != null && args.length == 1) {
+                return physical.cache.prepare(raw, (Connection) proxy, (String) args[0]);
+            }
+            try {
+                return method.invoke(raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -75,4 +75,14 @@ public class Cot extends Item {
         }
         this.gridLocation = gridLocation;
     }
+
+    /**
+     * Gets the supply type.
+     *
+     * @return "cot"
+     */
+    @Override
+    public String getSupplyType() {
+        return "cot";
+    }
 }
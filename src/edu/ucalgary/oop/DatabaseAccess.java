@@ -0,0 +1,899 @@
+package edu.ucalgary.oop;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DatabaseAccess is the repository interface for the relief database:
+ * persons, locations, supplies, allocations, inquiries and medical records.
+ *
+ * <p>
+ * Two implementations exist:
+ * - {@link PostgresDatabaseAccess} runs SQL on pooled connections from
+ *   {@link DatabaseManager}.
+ * - {@link InMemoryDatabaseAccess} keeps the tables in concurrent maps with
+ *   primary-key and foreign-key indexes, for tests and load runs without a
+ *   database server.
+ * </p>
+ *
+ * Constraint violations are reported the same way by both: an
+ * SQLException with SQLState 23503 (foreign key), 23505 (unique key) or
+ * 23P01 (supply already allocated).
+ * The active implementation is chosen with
+ * {@link DatabaseManager#setAccess(DatabaseAccess)}.
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public interface DatabaseAccess {
+
+    /** SQLState for a foreign-key violation. */
+    String FOREIGN_KEY_VIOLATION = "23503";
+
+    /** SQLState for a primary-key or unique violation. */
+    String UNIQUE_VIOLATION = "23505";
+
+    /** SQLState for allocating a supply that is already allocated. */
+    String ALLOCATION_CONFLICT = "23P01";
+
+    /** SQLState for a transaction that lost a race and may be retried. */
+    String SERIALIZATION_FAILURE = "40001";
+
+    /** SQLState for a transaction chosen as a deadlock victim. */
+    String DEADLOCK_DETECTED = "40P01";
+
+    // ---------- Persons ----------
+
+    /**
+     * Inserts a person. The row's ID is ignored.
+     *
+     * @param person the person
+     * @return the new person_id
+     * @throws SQLException if the insert fails
+     */
+    int insertPerson(PersonRow person) throws SQLException;
+
+    /**
+     * Finds a person by ID.
+     *
+     * @param personId the person_id
+     * @return the row, or null if none
+     * @throws SQLException if the query fails
+     */
+    PersonRow findPerson(int personId) throws SQLException;
+
+    /**
+     * Replaces every column of an existing person.
+     *
+     * @param person the new values, keyed by its ID
+     * @return true if the person existed
+     * @throws SQLException if the update fails
+     */
+    boolean updatePerson(PersonRow person) throws SQLException;
+
+    /**
+     * Lists persons in ID order, starting after the given ID.
+     *
+     * @param afterId only IDs greater than this are returned
+     * @param limit   maximum rows
+     * @return the rows
+     * @throws SQLException if the query fails
+     */
+    List<PersonRow> listPersons(int afterId, int limit) throws SQLException;
+
+    // ---------- Locations ----------
+
+    /**
+     * Inserts a location. The row's ID is ignored.
+     *
+     * @param location the location
+     * @return the new location_id
+     * @throws SQLException if the insert fails
+     */
+    int insertLocation(LocationRow location) throws SQLException;
+
+    /**
+     * Finds a location by ID.
+     *
+     * @param locationId the location_id
+     * @return the row, or null if none
+     * @throws SQLException if the query fails
+     */
+    LocationRow findLocation(int locationId) throws SQLException;
+
+    /**
+     * Lists every location in ID order.
+     *
+     * @return the rows
+     * @throws SQLException if the query fails
+     */
+    List<LocationRow> listLocations() throws SQLException;
+
+    /**
+     * Moves a person to a location, removing any previous person-location rows.
+     *
+     * @param personId   the person_id
+     * @param locationId the location_id
+     * @throws SQLException if either does not exist or the update fails
+     */
+    void reassignPersonToLocation(int personId, int locationId) throws SQLException;
+
+    /**
+     * Finds the persons at a location.
+     *
+     * @param locationId the location_id
+     * @return person IDs in ascending order
+     * @throws SQLException if the query fails
+     */
+    List<Integer> findOccupantIds(int locationId) throws SQLException;
+
+    /**
+     * Finds the locations a person is registered at.
+     *
+     * @param personId the person_id
+     * @return location IDs in ascending order
+     * @throws SQLException if the query fails
+     */
+    List<Integer> findLocationIds(int personId) throws SQLException;
+
+    // ---------- Supplies ----------
+
+    /**
+     * Inserts a supply. The row's ID is ignored.
+     *
+     * @param supply the supply
+     * @return the new supply_id
+     * @throws SQLException if the insert fails
+     */
+    int insertSupply(SupplyRow supply) throws SQLException;
+
+    /**
+     * Finds a supply by ID.
+     *
+     * @param supplyId the supply_id
+     * @return the row, or null if none
+     * @throws SQLException if the query fails
+     */
+    SupplyRow findSupply(int supplyId) throws SQLException;
+
+    /**
+     * Lists supplies in ID order, starting after the given ID.
+     *
+     * @param afterId only IDs greater than this are returned
+     * @param limit   maximum rows
+     * @return the rows
+     * @throws SQLException if the query fails
+     */
+    List<SupplyRow> listSupplies(int afterId, int limit) throws SQLException;
+
+    // ---------- Allocations ----------
+
+    /**
+     * Allocates a supply to a person. If the supply is currently held by a
+     * location, that allocation is moved to the person; otherwise a new
+     * allocation is added. A supply has at most one allocation, so one a
+     * person already holds, this person included, is refused. The check and
+     * the write are one atomic step, so two sessions can never both hand the
+     * same supply out.
+     *
+     * @param supplyId the supply_id
+     * @param personId the person_id
+     * @param at       the allocation time
+     * @return the location allocation that was moved, or null if a new
+     *         allocation was added
+     * @throws SQLException if a key does not exist, a person already holds
+     *                      the supply ({@link #ALLOCATION_CONFLICT}), a concurrent
+     *                      allocation won the race ({@link #SERIALIZATION_FAILURE};
+     *                      retry) or the update fails
+     */
+    AllocationRow allocateToPerson(int supplyId, int personId, LocalDateTime at) throws SQLException;
+
+    /**
+     * Allocates an unallocated supply to a location, atomically like
+     * {@link #allocateToPerson}.
+     *
+     * @param supplyId   the supply_id
+     * @param locationId the location_id
+     * @param at         the allocation time
+     * @throws SQLException if a key does not exist, a person or location
+     *                      already holds the supply ({@link #ALLOCATION_CONFLICT}),
+     *                      a concurrent allocation won the race
+     *                      ({@link #SERIALIZATION_FAILURE}; retry) or the insert
+     *                      fails
+     */
+    void allocateToLocation(int supplyId, int locationId, LocalDateTime at) throws SQLException;
+
+    /**
+     * Hands a location's stock of one supply type to its occupants, by the
+     * fair-share rule in {@link Distribution}, in one transaction. Each
+     * item's location allocation is moved to its new holder, as
+     * {@link #allocateToPerson} would.
+     *
+     * @param locationId   the location_id
+     * @param supplyType   the supply type, e.g. "blanket"
+     * @param maxPerPerson the most of the type anyone may end up holding, or 0 for no limit
+     * @param at           the allocation time
+     * @return what was allocated
+     * @throws SQLException if the location does not exist, a concurrent
+     *                      allocation won the race ({@link #SERIALIZATION_FAILURE};
+     *                      retry) or the update fails; nothing is allocated
+     */
+    Distribution allocateToOccupants(int locationId, String supplyType, int maxPerPerson, LocalDateTime at)
+            throws SQLException;
+
+    /**
+     * Finds the allocations held by a person.
+     *
+     * @param personId the person_id
+     * @return allocations ordered by supply ID, then date
+     * @throws SQLException if the query fails
+     */
+    List<AllocationRow> findAllocationsForPerson(int personId) throws SQLException;
+
+    /**
+     * Finds the allocations held by a location.
+     *
+     * @param locationId the location_id
+     * @return allocations ordered by supply ID, then date
+     * @throws SQLException if the query fails
+     */
+    List<AllocationRow> findAllocationsForLocation(int locationId) throws SQLException;
+
+    /**
+     * Finds the allocations of one supply.
+     *
+     * @param supplyId the supply_id
+     * @return allocations ordered by date
+     * @throws SQLException if the query fails
+     */
+    List<AllocationRow> findAllocationsForSupply(int supplyId) throws SQLException;
+
+    /**
+     * Removes person allocations of a supply type made before a cutoff.
+     *
+     * @param supplyType the supply type, e.g. "water"
+     * @param cutoff     allocations strictly older than this are removed
+     * @return the number of allocations removed
+     * @throws SQLException if the delete fails
+     */
+    int removeExpiredAllocations(String supplyType, LocalDateTime cutoff) throws SQLException;
+
+    /**
+     * Finds allocations of any of several supply types made at or after a
+     * time, whether held by a person or a location, in one query.
+     *
+     * @param supplyTypes the supply types, e.g. "water"
+     * @param since       the earliest allocation time to return
+     * @return allocations by supply type, each list ordered by allocation time;
+     *         types with no allocations are absent
+     * @throws SQLException if the query fails
+     */
+    Map<String, List<AllocationRow>> findAllocationsByType(Collection<String> supplyTypes, LocalDateTime since)
+            throws SQLException;
+
+    /**
+     * Removes specific allocations in one transaction. Each is identified by
+     * supply ID and allocation time and is removed only if it is still held
+     * by the same person or location; ones that are gone or have moved are
+     * skipped.
+     *
+     * @param allocations the allocations to remove
+     * @return the allocations removed, a subset of those given
+     * @throws SQLException if the delete fails
+     */
+    List<AllocationRow> removeAllocations(List<AllocationRow> allocations) throws SQLException;
+
+    /**
+     * Counts allocations by holder and supply type, in one query.
+     *
+     * @return one row per person or location and type held
+     * @throws SQLException if the query fails
+     */
+    List<InventoryRow> countAllocations() throws SQLException;
+
+    // ---------- Inquiries ----------
+
+    /**
+     * Inserts an inquiry. The row's ID is ignored.
+     *
+     * @param inquiry the inquiry
+     * @return the new inquiry_id
+     * @throws SQLException if a referenced key does not exist or the insert fails
+     */
+    int insertInquiry(InquiryRow inquiry) throws SQLException;
+
+    /**
+     * Finds an inquiry by ID.
+     *
+     * @param inquiryId the inquiry_id
+     * @return the row, or null if none
+     * @throws SQLException if the query fails
+     */
+    InquiryRow findInquiry(int inquiryId) throws SQLException;
+
+    /**
+     * Finds inquiries where the person is the inquirer or the one sought.
+     *
+     * @param personId the person_id
+     * @return the rows in ID order
+     * @throws SQLException if the query fails
+     */
+    List<InquiryRow> findInquiriesForPerson(int personId) throws SQLException;
+
+    /**
+     * Lists inquiries in ID order, starting after the given ID.
+     *
+     * @param afterId only IDs greater than this are returned
+     * @param limit   maximum rows
+     * @return the rows
+     * @throws SQLException if the query fails
+     */
+    List<InquiryRow> listInquiries(int afterId, int limit) throws SQLException;
+
+    // ---------- Medical records ----------
+
+    /**
+     * Inserts a medical record. The row's ID is ignored.
+     *
+     * @param record the record
+     * @return the new medical_record_id
+     * @throws SQLException if a referenced key does not exist or the insert fails
+     */
+    int insertMedicalRecord(MedicalRecordRow record) throws SQLException;
+
+    /**
+     * Finds a person's medical records.
+     *
+     * @param personId the person_id
+     * @return the rows in ID order
+     * @throws SQLException if the query fails
+     */
+    List<MedicalRecordRow> findMedicalRecordsForPerson(int personId) throws SQLException;
+
+    /**
+     * One row of the person table.
+     */
+    final class PersonRow {
+        private final int id;
+        private final String firstName;
+        private final String lastName;
+        private final String dateOfBirth;
+        private final String gender;
+        private final String comments;
+        private final String phone;
+        private final Integer familyGroup;
+
+        /**
+         * Constructs a PersonRow.
+         *
+         * @param id          person_id (0 for a row not yet inserted)
+         * @param firstName   first name
+         * @param lastName    last name
+         * @param dateOfBirth date of birth (yyyy-mm-dd) or null
+         * @param gender      gender or null
+         * @param comments    comments or null
+         * @param phone       phone number or null
+         * @param familyGroup family group or null
+         */
+        public PersonRow(int id, String firstName, String lastName, String dateOfBirth, String gender,
+                         String comments, String phone, Integer familyGroup) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.dateOfBirth = dateOfBirth;
+            this.gender = gender;
+            this.comments = comments;
+            this.phone = phone;
+            this.familyGroup = familyGroup;
+        }
+
+        /**
+         * Gets the person_id.
+         *
+         * @return the person_id (0 for a row not yet inserted)
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Gets the first name.
+         *
+         * @return the first name
+         */
+        public String getFirstName() {
+            return firstName;
+        }
+
+        /**
+         * Gets the last name.
+         *
+         * @return the last name
+         */
+        public String getLastName() {
+            return lastName;
+        }
+
+        /**
+         * Gets the date of birth.
+         *
+         * @return the date of birth (yyyy-mm-dd) or null
+         */
+        public String getDateOfBirth() {
+            return dateOfBirth;
+        }
+
+        /**
+         * Gets the gender.
+         *
+         * @return the gender or null
+         */
+        public String getGender() {
+            return gender;
+        }
+
+        /**
+         * Gets the comments.
+         *
+         * @return the comments or null
+         */
+        public String getComments() {
+            return comments;
+        }
+
+        /**
+         * Gets the phone number.
+         *
+         * @return the phone number or null
+         */
+        public String getPhone() {
+            return phone;
+        }
+
+        /**
+         * Gets the family group.
+         *
+         * @return the family group or null
+         */
+        public Integer getFamilyGroup() {
+            return familyGroup;
+        }
+
+        /**
+         * Returns a copy of this row with the given ID.
+         *
+         * @param newId the ID
+         * @return the copy
+         */
+        public PersonRow withId(int newId) {
+            return new PersonRow(newId, firstName, lastName, dateOfBirth, gender, comments, phone, familyGroup);
+        }
+    }
+
+    /**
+     * One row of the location table.
+     */
+    final class LocationRow {
+        private final int id;
+        private final String name;
+        private final String address;
+
+        /**
+         * Constructs a LocationRow.
+         *
+         * @param id      location_id (0 for a row not yet inserted)
+         * @param name    name
+         * @param address address
+         */
+        public LocationRow(int id, String name, String address) {
+            this.id = id;
+            this.name = name;
+            this.address = address;
+        }
+
+        /**
+         * Gets the location_id.
+         *
+         * @return the location_id (0 for a row not yet inserted)
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Gets the name.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the address.
+         *
+         * @return the address
+         */
+        public String getAddress() {
+            return address;
+        }
+
+        /**
+         * Returns a copy of this row with the given ID.
+         *
+         * @param newId the ID
+         * @return the copy
+         */
+        public LocationRow withId(int newId) {
+            return new LocationRow(newId, name, address);
+        }
+    }
+
+    /**
+     * One row of the supply table.
+     */
+    final class SupplyRow {
+        private final int id;
+        private final String type;
+        private final String comments;
+
+        /**
+         * Constructs a SupplyRow.
+         *
+         * @param id       supply_id (0 for a row not yet inserted)
+         * @param type     supply type, e.g. "water"
+         * @param comments comments or null
+         */
+        public SupplyRow(int id, String type, String comments) {
+            this.id = id;
+            this.type = type;
+            this.comments = comments;
+        }
+
+        /**
+         * Gets the supply_id.
+         *
+         * @return the supply_id (0 for a row not yet inserted)
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Gets the supply type.
+         *
+         * @return the supply type, e.g. "water"
+         */
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * Gets the comments.
+         *
+         * @return the comments or null
+         */
+        public String getComments() {
+            return comments;
+        }
+
+        /**
+         * Returns a copy of this row with the given ID.
+         *
+         * @param newId the ID
+         * @return the copy
+         */
+        public SupplyRow withId(int newId) {
+            return new SupplyRow(newId, type, comments);
+        }
+    }
+
+    /**
+     * One row of the supplyallocation table. Exactly one of personId and locationId is set.
+     */
+    final class AllocationRow {
+        private final int supplyId;
+        private final Integer personId;
+        private final Integer locationId;
+        private final LocalDateTime allocationDate;
+
+        /**
+         * Constructs a AllocationRow.
+         *
+         * @param supplyId       supply_id
+         * @param personId       person holding the supply, or null
+         * @param locationId     location holding the supply, or null
+         * @param allocationDate allocation time
+         */
+        public AllocationRow(int supplyId, Integer personId, Integer locationId,
+                             LocalDateTime allocationDate) {
+            this.supplyId = supplyId;
+            this.personId = personId;
+            this.locationId = locationId;
+            this.allocationDate = allocationDate;
+        }
+
+        /**
+         * Gets the supply_id.
+         *
+         * @return the supply_id
+         */
+        public int getSupplyId() {
+            return supplyId;
+        }
+
+        /**
+         * Gets the person holding the supply,.
+         *
+         * @return the person holding the supply, or null
+         */
+        public Integer getPersonId() {
+            return personId;
+        }
+
+        /**
+         * Gets the location holding the supply,.
+         *
+         * @return the location holding the supply, or null
+         */
+        public Integer getLocationId() {
+            return locationId;
+        }
+
+        /**
+         * Gets the allocation time.
+         *
+         * @return the allocation time
+         */
+        public LocalDateTime getAllocationDate() {
+            return allocationDate;
+        }
+    }
+
+    /**
+     * How many supplies of one type a person or a location holds. Exactly
+     * one of personId and locationId is set.
+     */
+    final class InventoryRow {
+        private final Integer personId;
+        private final Integer locationId;
+        private final String supplyType;
+        private final long count;
+
+        /**
+         * Constructs an InventoryRow.
+         *
+         * @param personId   person holding the supplies, or null
+         * @param locationId location holding the supplies, or null
+         * @param supplyType supply type, e.g. "water"
+         * @param count      number of allocations
+         */
+        public InventoryRow(Integer personId, Integer locationId, String supplyType, long count) {
+            this.personId = personId;
+            this.locationId = locationId;
+            this.supplyType = supplyType;
+            this.count = count;
+        }
+
+        /**
+         * Gets the person holding the supplies.
+         *
+         * @return the person, or null
+         */
+        public Integer getPersonId() {
+            return personId;
+        }
+
+        /**
+         * Gets the location holding the supplies.
+         *
+         * @return the location, or null
+         */
+        public Integer getLocationId() {
+            return locationId;
+        }
+
+        /**
+         * Gets the supply type.
+         *
+         * @return the supply type, e.g. "water"
+         */
+        public String getSupplyType() {
+            return supplyType;
+        }
+
+        /**
+         * Gets the number of allocations.
+         *
+         * @return the count
+         */
+        public long getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * One row of the inquiry table.
+     */
+    final class InquiryRow {
+        private final int id;
+        private final int inquirerId;
+        private final int seekingId;
+        private final Integer locationId;
+        private final LocalDateTime dateOfInquiry;
+        private final String comments;
+
+        /**
+         * Constructs a InquiryRow.
+         *
+         * @param id            inquiry_id (0 for a row not yet inserted)
+         * @param inquirerId    person making the inquiry
+         * @param seekingId     person being sought
+         * @param locationId    last known location or null
+         * @param dateOfInquiry time of the inquiry
+         * @param comments      comments or null
+         */
+        public InquiryRow(int id, int inquirerId, int seekingId, Integer locationId,
+                          LocalDateTime dateOfInquiry, String comments) {
+            this.id = id;
+            this.inquirerId = inquirerId;
+            this.seekingId = seekingId;
+            this.locationId = locationId;
+            this.dateOfInquiry = dateOfInquiry;
+            this.comments = comments;
+        }
+
+        /**
+         * Gets the inquiry_id.
+         *
+         * @return the inquiry_id (0 for a row not yet inserted)
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Gets the person making the inquiry.
+         *
+         * @return the person making the inquiry
+         */
+        public int getInquirerId() {
+            return inquirerId;
+        }
+
+        /**
+         * Gets the person being sought.
+         *
+         * @return the person being sought
+         */
+        public int getSeekingId() {
+            return seekingId;
+        }
+
+        /**
+         * Gets the last known location.
+         *
+         * @return the last known location or null
+         */
+        public Integer getLocationId() {
+            return locationId;
+        }
+
+        /**
+         * Gets the time of the inquiry.
+         *
+         * @return the time of the inquiry
+         */
+        public LocalDateTime getDateOfInquiry() {
+            return dateOfInquiry;
+        }
+
+        /**
+         * Gets the comments.
+         *
+         * @return the comments or null
+         */
+        public String getComments() {
+            return comments;
+        }
+
+        /**
+         * Returns a copy of this row with the given ID.
+         *
+         * @param newId the ID
+         * @return the copy
+         */
+        public InquiryRow withId(int newId) {
+            return new InquiryRow(newId, inquirerId, seekingId, locationId, dateOfInquiry, comments);
+        }
+    }
+
+    /**
+     * One row of the medicalrecord table.
+     */
+    final class MedicalRecordRow {
+        private final int id;
+        private final int personId;
+        private final int locationId;
+        private final LocalDateTime dateOfTreatment;
+        private final String treatmentDetails;
+
+        /**
+         * Constructs a MedicalRecordRow.
+         *
+         * @param id               medical_record_id (0 for a row not yet inserted)
+         * @param personId         patient
+         * @param locationId       where treatment happened
+         * @param dateOfTreatment  time of treatment
+         * @param treatmentDetails treatment details
+         */
+        public MedicalRecordRow(int id, int personId, int locationId, LocalDateTime dateOfTreatment,
+                                String treatmentDetails) {
+            this.id = id;
+            this.personId = personId;
+            this.locationId = locationId;
+            this.dateOfTreatment = dateOfTreatment;
+            this.treatmentDetails = treatmentDetails;
+        }
+
+        /**
+         * Gets the medical_record_id.
+         *
+         * @return the medical_record_id (0 for a row not yet inserted)
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Gets the patient.
+         *
+         * @return the patient
+         */
+        public int getPersonId() {
+            return personId;
+        }
+
+        /**
+         * Gets the where treatment happened.
+         *
+         * @return the where treatment happened
+         */
+        public int getLocationId() {
+            return locationId;
+        }
+
+        /**
+         * Gets the time of treatment.
+         *
+         * @return the time of treatment
+         */
+        public LocalDateTime getDateOfTreatment() {
+            return dateOfTreatment;
+        }
+
+        /**
+         * Gets the treatment details.
+         *
+         * @return the treatment details
+         */
+        public String getTreatmentDetails() {
+            return treatmentDetails;
+        }
+
+        /**
+         * Returns a copy of this row with the given ID.
+         *
+         * @param newId the ID
+         * @return the copy
+         */
+        public MedicalRecordRow withId(int newId) {
+            return new MedicalRecordRow(newId, personId, locationId, dateOfTreatment, treatmentDetails);
+        }
+    }
+
+}
@@ -1,5 +1,7 @@
 package edu.ucalgary.oop;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -8,9 +10,21 @@ import java.sql.ResultSet;
 import java.sql.PreparedStatement;
 
 /**
- * DatabaseManager handles the actual PostgreSQL connection
+ * DatabaseManager handles the PostgreSQL connection pool
  * and basic insert queries for the Person table.
- * Additional logic resides in domain classes.
+ * Additional logic resides in domain classes, which reach the tables
+ * through the {@link DatabaseAccess} returned by {@link #getAccess()}.
+ *
+ * <p>
+ * Each call to {@link #getConnection()} leases a connection from a bounded
+ * {@link ConnectionPool}; callers close it (try-with-resources) to return it.
+ * </p>
+ *
+ * <p>
+ * {@link #beginTransaction()} binds one connection to the calling thread so
+ * that a run of domain calls (e.g. a batch script) shares one transaction
+ * instead of committing each statement on its own lease.
+ * </p>
  *
  * @author Anhad Wander
  * @version 1.0
@@ -18,13 +32,21 @@ import java.sql.PreparedStatement;
  */
 public class DatabaseManager {
     private static DatabaseManager instance = null;
-    private Connection connection;
-    private boolean connected = false;
+    private volatile ConnectionPool pool;
+    private volatile boolean connected = false;
+    private volatile DatabaseAccess access = new PostgresDatabaseAccess();
+    private final ThreadLocal<Connection> transaction = new ThreadLocal<>();
 
     private static final String DB_URL = "jdbc:postgresql://localhost:5432/ensf380project";
     private static final String USER   = "oop";
     private static final String PASS   = "ucalgary";
 
+    private int poolMinSize = 2;
+    private int poolMaxSize = 10;
+    private long borrowTimeoutMillis = 5000;
+    private long idleTimeoutMillis = 300000;
+    private int statementCacheSize = 64;
+
     /**
      * Private constructor to enforce singleton usage.
      */
@@ -36,7 +58,7 @@ public class DatabaseManager {
      *
      * @return the single DatabaseManager instance
      */
-    public static DatabaseManager getInstance() {
+    public static synchronized DatabaseManager getInstance() {
         if (instance == null) {
             instance = new DatabaseManager();
         }
@@ -44,13 +66,48 @@ public class DatabaseManager {
     }
 
     /**
-     * Connects to the PostgreSQL database using preset credentials.
+     * Sets the pool settings used by the next {@link #connect()}.
+     *
+     * @param minSize             connections kept open when idle
+     * @param maxSize             maximum open connections
+     * @param borrowTimeoutMillis how long a caller waits for a free connection
+     * @param idleTimeoutMillis   idle time before surplus connections are closed (0 = never)
+     * @throws IllegalStateException if already connected
+     */
+    public synchronized void configurePool(int minSize, int maxSize, long borrowTimeoutMillis, long idleTimeoutMillis) {
+        if (connected) {
+            throw new IllegalStateException("Cannot reconfigure pool while connected");
+        }
+        this.poolMinSize = minSize;
+        this.poolMaxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Sets how many prepared statements each pooled connection caches,
+     * used by the next {@link #connect()}.
+     *
+     * @param size statements cached per connection (0 disables the cache)
+     * @throws IllegalStateException if already connected
+     */
+    public synchronized void configureStatementCache(int size) {
+        if (connected) {
+            throw new IllegalStateException("Cannot reconfigure statement cache while connected");
+        }
+        this.statementCacheSize = size;
+    }
+
+    /**
+     * Connects to the PostgreSQL database using preset credentials,
+     * opening the connection pool.
      *
      * @throws SQLException if connection fails
      */
-    public void connect() throws SQLException {
+    public synchronized void connect() throws SQLException {
         if (!connected) {
-            connection = DriverManager.getConnection(DB_URL, USER, PASS);
+            pool = new ConnectionPool(() -> DriverManager.getConnection(DB_URL, USER, PASS),
+                    poolMinSize, poolMaxSize, borrowTimeoutMillis, idleTimeoutMillis, statementCacheSize);
             connected = true;
         }
     }
@@ -65,30 +122,195 @@ public class DatabaseManager {
     }
 
     /**
-     * Gets the underlying JDBC Connection.
+     * Leases a JDBC Connection from the pool. The caller must close it
+     * to return it to the pool.
+     *
+     * @return a leased Connection, or null if not connected
+     * @throws SQLException if no connection becomes available in time
+     */
+    public Connection getConnection() throws SQLException {
+        Connection bound = transaction.get();
+        if (bound != null) {
+            return joined(bound);
+        }
+        ConnectionPool p = pool;
+        if (!connected || p == null) {
+            return null;
+        }
+        return p.borrow();
+    }
+
+    /**
+     * Starts a transaction bound to the calling thread. Until it is committed
+     * or rolled back, {@link #getConnection()} on this thread returns the
+     * transaction's connection, so every {@link DatabaseAccess} call joins it.
+     * Closing that connection, or calling commit, rollback or setAutoCommit
+     * on it, does nothing; only the owner ends the transaction.
      *
-     * @return the Connection, or null if not connected
+     * @return true if a transaction was started, false if not connected
+     *         (calls then run on their own leases, as before)
+     * @throws SQLException if no connection becomes available in time
+     * @throws IllegalStateException if this thread already has a transaction
      */
-    public Connection getConnection() {
-        return connection;
+    public boolean beginTransaction() throws SQLException {
+        if (transaction.get() != null) {
+            throw new IllegalStateException("Transaction already in progress");
+        }
+        ConnectionPool p = pool;
+        if (!connected || p == null) {
+            return false;
+        }
+        Connection conn = p.borrow();
+        try {
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        transaction.set(conn);
+        return true;
+    }
+
+    /**
+     * Checks whether the calling thread has a transaction.
+     *
+     * @return true between beginTransaction and commit/rollback
+     */
+    public boolean inTransaction() {
+        return transaction.get() != null;
+    }
+
+    /**
+     * Commits the calling thread's transaction and returns its connection
+     * to the pool, then applies its {@link InventoryIndex} changes. Does
+     * nothing if there is none.
+     *
+     * @throws SQLException if the commit fails; the transaction is ended either way
+     */
+    public void commitTransaction() throws SQLException {
+        endTransaction(true);
+    }
+
+    /**
+     * Rolls back the calling thread's transaction and returns its connection
+     * to the pool. Does nothing if there is none.
+     *
+     * @throws SQLException if the rollback fails; the transaction is ended either way
+     */
+    public void rollbackTransaction() throws SQLException {
+        endTransaction(false);
+    }
+
+    private void endTransaction(boolean commit) throws SQLException {
+        Connection conn = transaction.get();
+        if (conn == null) {
+            return;
+        }
+        transaction.remove();
+        try (conn) {
+            if (commit) {
+                conn.commit();
+            } else {
+                conn.rollback();
+            }
+        } catch (SQLException | RuntimeException e) {
+            InventoryIndex.getInstance().endTransaction(false);
+            throw e;
+        }
+        InventoryIndex.getInstance().endTransaction(commit);
+    }
+
+    /**
+     * Wraps a transaction's connection for a joining caller: close, commit,
+     * rollback and setAutoCommit are ignored, everything else (including
+     * savepoints) goes to the connection.
+     *
+     * @param conn the bound connection
+     * @return the wrapper
+     */
+    static Connection joined(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                        case "commit":
+                        case "setAutoCommit":
+                            return null;
+                        case "rollback":
+                            if (args == null) {
+                                return null;
+                            }
+                            break;
+                        case "getAutoCommit":
+                            return false;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * Gets the connection pool, e.g. to read its wait and statement cache metrics.
+     *
+     * @return the pool, or null if not connected
+     */
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Gets the repository the domain classes read and write through.
+     *
+     * @return the active DatabaseAccess (PostgreSQL unless replaced)
+     */
+    public DatabaseAccess getAccess() {
+        return access;
+    }
+
+    /**
+     * Replaces the repository, e.g. with an {@link InMemoryDatabaseAccess}
+     * for tests or load runs without a database server. The
+     * {@link InventoryIndex} is cleared, since its counts describe the old one.
+     *
+     * @param access the repository to use
+     * @throws IllegalArgumentException if access is null
+     */
+    public void setAccess(DatabaseAccess access) {
+        if (access == null) {
+            throw new IllegalArgumentException("DatabaseAccess cannot be null");
+        }
+        this.access = access;
+        InventoryIndex.getInstance().clear();
     }
 
     /**
-     * Disconnects from the database if connected.
+     * Disconnects from the database if connected, closing the pool. A
+     * transaction still open on the calling thread is rolled back.
      *
      * @throws SQLException if closing fails
      */
-    public void disconnect() throws SQLException {
-        if (connection != null && !connection.isClosed()) {
-            connection.close();
-            connected = false;
+    public synchronized void disconnect() throws SQLException {
+        rollbackTransaction();
+        if (pool != null) {
+            pool.close();
+            pool = null;
         }
+        connected = false;
     }
 
     /**
      * Resets the singleton instance (for testing).
      */
-    public static void resetInstance() {
+    public static synchronized void resetInstance() {
         instance = null;
     }
 
@@ -108,7 +330,8 @@ public class DatabaseManager {
             throw new IllegalStateException("Cannot insert person: DB not connected");
         }
         String sql = "INSERT INTO person (first_name, last_name, date_of_birth, gender, phone_number) VALUES (?,?,?,?,?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, firstName);
             pstmt.setString(2, lastName);
             if (dob == null) {
@@ -134,7 +357,8 @@ public class DatabaseManager {
             throw new IllegalStateException("DB not connected");
         }
         String sql = "UPDATE person SET family_group=? WHERE person_id=?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, groupId);
             pstmt.setInt(2, personId);
             pstmt.executeUpdate();
@@ -155,7 +379,8 @@ public class DatabaseManager {
             throw new IllegalStateException("DB not connected");
         }
         String sql = "INSERT INTO medicalrecord (location_id, person_id, date_of_treatment, treatment_details) VALUES (?,?,?,?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, locationId);
             pstmt.setInt(2, personId);
             if (dateOfTreatment == null || dateOfTreatment.isEmpty()) {
@@ -178,15 +403,20 @@ public class DatabaseManager {
             throw new IllegalStateException("Cannot load data: DB not connected");
         }
         String sql = "SELECT person_id, first_name, last_name, phone_number FROM person";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            System.out.println("People in DB:");
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql);
+             OutputSink out = OutputSink.toConsole()) {
+            out.println("People in DB:");
+            MessageTemplate row = LanguageManager.getDefault().getTemplate(MessageKey.ROW_DB_PERSON);
+            StringBuilder line = new StringBuilder(128);
             while (rs.next()) {
                 int pid = rs.getInt("person_id");
                 String fName = rs.getString("first_name");
                 String lName = rs.getString("last_name");
                 String phone = rs.getString("phone_number");
-                System.out.printf(" Person %d => %s %s, phone=%s\n", pid, fName, lName, phone);
+                line.setLength(0);
+                out.println(row.appendTo(line.append(' '), pid, fName, lName, phone));
             }
         }
     }
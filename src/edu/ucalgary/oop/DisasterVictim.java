@@ -114,7 +114,7 @@ public class DisasterVictim extends Person {
         this.comments = comments;
     }
 
-    private boolean isValidDateFormat(String date) {
+    static boolean isValidDateFormat(String date) {
         if (date == null) return false;
         return date.matches("\\d{4}-\\d{2}-\\d{2}");
     }
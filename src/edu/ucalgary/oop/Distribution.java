@@ -0,0 +1,166 @@
+package edu.ucalgary.oop;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Distribution is the outcome of handing a location's stock of one supply
+ * type to the people staying there (see
+ * {@link Item#distributeToOccupants(int, String, int)}), and holds the
+ * fair-share rule both database implementations use to plan it.
+ *
+ * <p>
+ * Fair share: each item goes to the occupant who holds the fewest of that
+ * type so far, counting what they already held before this distribution.
+ * Ties go to the lower person_id. With a limit, nobody is brought above
+ * that many; the rest stays at the location. The oldest stock is handed out
+ * first.
+ * </p>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class Distribution {
+    private final int locationId;
+    private final String supplyType;
+    private final int occupantCount;
+    private final int stockCount;
+    private final List<DatabaseAccess.AllocationRow> allocations;
+
+    /**
+     * Constructs a Distribution.
+     *
+     * @param locationId    the location
+     * @param supplyType    the supply type
+     * @param occupantCount occupants of the location
+     * @param stockCount    items of the type stocked there beforehand
+     * @param allocations   the allocations made, in hand-out order
+     */
+    public Distribution(int locationId, String supplyType, int occupantCount, int stockCount,
+                        List<DatabaseAccess.AllocationRow> allocations) {
+        this.locationId = locationId;
+        this.supplyType = supplyType;
+        this.occupantCount = occupantCount;
+        this.stockCount = stockCount;
+        this.allocations = Collections.unmodifiableList(new ArrayList<>(allocations));
+    }
+
+    /**
+     * Plans a fair-share distribution.
+     *
+     * @param stock        the location's stock of the type, oldest first
+     * @param occupants    each occupant's person_id and how many of the type
+     *                     they already hold
+     * @param maxPerPerson the most anyone may end up holding, or 0 for no limit
+     * @param at           the allocation time
+     * @return the allocations to make, in hand-out order
+     * @throws IllegalArgumentException if maxPerPerson is negative
+     */
+    static List<DatabaseAccess.AllocationRow> plan(List<DatabaseAccess.AllocationRow> stock,
+                                                   Map<Integer, Integer> occupants, int maxPerPerson,
+                                                   LocalDateTime at) {
+        if (maxPerPerson < 0) {
+            throw new IllegalArgumentException("Limit per person cannot be negative");
+        }
+        int limit = (maxPerPerson == 0 ? Integer.MAX_VALUE : maxPerPerson);
+        // {held, person_id}: fewest held first, then lowest ID.
+        PriorityQueue<int[]> queue = new PriorityQueue<>(Math.max(1, occupants.size()),
+                (a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+        for (Map.Entry<Integer, Integer> e : occupants.entrySet()) {
+            if (e.getValue() < limit) {
+                queue.add(new int[]{e.getValue(), e.getKey()});
+            }
+        }
+        List<DatabaseAccess.AllocationRow> out = new ArrayList<>(Math.min(stock.size(), 1024));
+        for (DatabaseAccess.AllocationRow item : stock) {
+            int[] next = queue.poll();
+            if (next == null) {
+                break;
+            }
+            out.add(new DatabaseAccess.AllocationRow(item.getSupplyId(), next[1], null, at));
+            if (++next[0] < limit) {
+                queue.add(next);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Gets the location whose stock was distributed.
+     *
+     * @return the location_id
+     */
+    public int getLocationId() {
+        return locationId;
+    }
+
+    /**
+     * Gets the supply type distributed.
+     *
+     * @return the supply type
+     */
+    public String getSupplyType() {
+        return supplyType;
+    }
+
+    /**
+     * Gets how many people were staying at the location.
+     *
+     * @return the occupant count
+     */
+    public int getOccupantCount() {
+        return occupantCount;
+    }
+
+    /**
+     * Gets how many items of the type the location held beforehand.
+     *
+     * @return the stock count
+     */
+    public int getStockCount() {
+        return stockCount;
+    }
+
+    /**
+     * Gets the allocations made, in hand-out order.
+     *
+     * @return the allocations; unmodifiable
+     */
+    public List<DatabaseAccess.AllocationRow> getAllocations() {
+        return allocations;
+    }
+
+    /**
+     * Gets how many items are still at the location.
+     *
+     * @return the remaining stock
+     */
+    public int getRemainingStock() {
+        return stockCount - allocations.size();
+    }
+
+    /**
+     * Gets how many items each occupant received, for those who received any.
+     *
+     * @return items by person_id, in order of first hand-out
+     */
+    public Map<Integer, Integer> getCountsByPerson() {
+        Map<Integer, Integer> counts = new LinkedHashMap<>();
+        for (DatabaseAccess.AllocationRow a : allocations) {
+            counts.merge(a.getPersonId(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Allocated %d of %d %s to %d occupants of location %d; %d left",
+                allocations.size(), stockCount, supplyType, occupantCount, locationId, getRemainingStock());
+    }
+}
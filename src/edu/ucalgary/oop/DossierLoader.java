@@ -0,0 +1,330 @@
+package edu.ucalgary.oop;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DossierLoader fetches everything the front desk shows for one person
+ * (person row, medical records, allocated supplies, inquiries) in a single
+ * UNION ALL query and returns the raw rows as a {@link Dossier}, nulls and
+ * all, so the page shows exactly what is stored.
+ *
+ * <p>
+ * Each branch of the query fills a common set of columns; the "kind" column
+ * says which branch a row came from. Rows are ordered so the person row comes
+ * first. When {@link QueryFanOut#isParallel()} is on, the four branches instead
+ * run as separate queries on virtual threads and their rows are merged.
+ * Load count and time are tracked so lookup latency can be monitored.
+ * </p>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class DossierLoader {
+    private static final int KIND_PERSON = 0;
+    private static final int KIND_MEDICAL = 1;
+    private static final int KIND_SUPPLY = 2;
+    private static final int KIND_INQUIRY = 3;
+
+    private static final String PERSON_BRANCH =
+            "SELECT 0 AS kind, p.person_id AS id, p.family_group AS ref1, NULL::int AS ref2, NULL::int AS ref3, "
+                    + "p.first_name AS t1, p.last_name AS t2, p.phone_number AS t3, p.gender AS t4, "
+                    + "to_char(p.date_of_birth, 'YYYY-MM-DD') AS t5, NULL::timestamp AS ts "
+                    + "FROM person p WHERE p.person_id=?";
+    private static final String MEDICAL_BRANCH =
+            "SELECT 1 AS kind, mr.medical_record_id AS id, mr.location_id AS ref1, NULL::int AS ref2, NULL::int AS ref3, "
+                    + "mr.treatment_details AS t1, NULL::varchar AS t2, NULL::varchar AS t3, NULL::varchar AS t4, "
+                    + "NULL::varchar AS t5, mr.date_of_treatment AS ts "
+                    + "FROM medicalrecord mr WHERE mr.person_id=?";
+    private static final String SUPPLY_BRANCH =
+            "SELECT 2 AS kind, s.supply_id AS id, NULL::int AS ref1, NULL::int AS ref2, NULL::int AS ref3, "
+                    + "s.type AS t1, s.comments AS t2, NULL::varchar AS t3, NULL::varchar AS t4, "
+                    + "NULL::varchar AS t5, sa.allocation_date AS ts "
+                    + "FROM supplyallocation sa JOIN supply s ON sa.supply_id=s.supply_id "
+                    + "WHERE sa.person_id=?";
+    private static final String INQUIRY_BRANCH =
+            "SELECT 3 AS kind, i.inquiry_id AS id, i.inquirer_id AS ref1, i.seeking_id AS ref2, i.location_id AS ref3, "
+                    + "i.comments AS t1, NULL::varchar AS t2, NULL::varchar AS t3, NULL::varchar AS t4, "
+                    + "NULL::varchar AS t5, i.date_of_inquiry AS ts "
+                    + "FROM inquiry i WHERE i.inquirer_id=? OR i.seeking_id=?";
+    private static final String DOSSIER_SQL =
+            PERSON_BRANCH + " UNION ALL " + MEDICAL_BRANCH + " UNION ALL " + SUPPLY_BRANCH
+                    + " UNION ALL " + INQUIRY_BRANCH + " ORDER BY kind, id";
+
+    private static final LongAdder loadCount = new LongAdder();
+    private static final LongAdder loadNanos = new LongAdder();
+
+    private DossierLoader() {
+    }
+
+    /**
+     * Loads a person's dossier using pooled connections, in one query or,
+     * in parallel mode, as four concurrent queries.
+     *
+     * @param personId the person's ID
+     * @return the dossier, or null if no such person
+     * @throws SQLException if the query fails
+     */
+    public static Dossier load(int personId) throws SQLException {
+        if (QueryFanOut.isParallel()) {
+            return loadParallel(personId);
+        }
+        Connection conn = DatabaseManager.getInstance().getConnection();
+        if (conn == null) {
+            throw new IllegalStateException("DB not connected");
+        }
+        try (conn) {
+            return load(conn, personId);
+        }
+    }
+
+    /**
+     * Loads a person's dossier on the given connection.
+     *
+     * @param conn     the connection to use (not closed)
+     * @param personId the person's ID
+     * @return the dossier, or null if no such person
+     * @throws SQLException if the query fails
+     */
+    public static Dossier load(Connection conn, int personId) throws SQLException {
+        long start = System.nanoTime();
+        try (PreparedStatement ps = conn.prepareStatement(DOSSIER_SQL)) {
+            for (int i = 1; i <= 5; i++) {
+                ps.setInt(i, personId);
+            }
+            return assemble(readRows(ps));
+        } finally {
+            loadCount.increment();
+            loadNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Loads a person's dossier by running the person, medical, supply and
+     * inquiry queries concurrently on virtual threads, each on its own
+     * pooled connection.
+     *
+     * @param personId the person's ID
+     * @return the dossier, or null if no such person
+     * @throws SQLException if any query fails
+     */
+    public static Dossier loadParallel(int personId) throws SQLException {
+        long start = System.nanoTime();
+        try (QueryFanOut fan = new QueryFanOut(true)) {
+            QueryFanOut.Fork<List<Row>> person = fan.fork(conn -> branch(conn, PERSON_BRANCH, personId, 1));
+            QueryFanOut.Fork<List<Row>> medical = fan.fork(conn -> branch(conn, MEDICAL_BRANCH, personId, 1));
+            QueryFanOut.Fork<List<Row>> supply = fan.fork(conn -> branch(conn, SUPPLY_BRANCH, personId, 1));
+            QueryFanOut.Fork<List<Row>> inquiry = fan.fork(conn -> branch(conn, INQUIRY_BRANCH, personId, 2));
+            fan.join();
+            List<Row> rows = new ArrayList<>(person.get());
+            rows.addAll(medical.get());
+            rows.addAll(supply.get());
+            rows.addAll(inquiry.get());
+            return assemble(rows);
+        } finally {
+            loadCount.increment();
+            loadNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private static List<Row> branch(Connection conn, String sql, int personId, int params) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql + " ORDER BY id")) {
+            for (int i = 1; i <= params; i++) {
+                ps.setInt(i, personId);
+            }
+            return readRows(ps);
+        }
+    }
+
+    private static List<Row> readRows(PreparedStatement ps) throws SQLException {
+        List<Row> rows = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                rows.add(new Row(rs));
+            }
+        }
+        return rows;
+    }
+
+    private static Dossier assemble(List<Row> rows) {
+        Dossier dossier = null;
+        for (Row r : rows) {
+            if (r.kind == KIND_PERSON) {
+                dossier = new Dossier(new DatabaseAccess.PersonRow(r.id, r.t1, r.t2, r.t5, r.t4, null, r.t3, r.ref1));
+                continue;
+            }
+            if (dossier == null) {
+                return null;
+            }
+            switch (r.kind) {
+                case KIND_MEDICAL:
+                    dossier.medicalRecords.add(new DatabaseAccess.MedicalRecordRow(r.id, dossier.person.getId(),
+                            r.ref1 == null ? 0 : r.ref1, dateTimeOf(r.ts), r.t1));
+                    break;
+                case KIND_SUPPLY:
+                    dossier.supplies.add(new DatabaseAccess.SupplyRow(r.id, r.t1, r.t2));
+                    break;
+                case KIND_INQUIRY:
+                    dossier.inquiries.add(new DatabaseAccess.InquiryRow(r.id, r.ref1 == null ? 0 : r.ref1,
+                            r.ref2 == null ? 0 : r.ref2, r.ref3, dateTimeOf(r.ts), r.t1));
+                    break;
+                default:
+                    break;
+            }
+        }
+        return dossier;
+    }
+
+    private static Integer getInteger(ResultSet rs, String column) throws SQLException {
+        int v = rs.getInt(column);
+        return rs.wasNull() ? null : v;
+    }
+
+    private static LocalDateTime dateTimeOf(Timestamp ts) {
+        return ts == null ? null : ts.toLocalDateTime();
+    }
+
+    private static Timestamp timestampOf(LocalDateTime t) {
+        return t == null ? null : Timestamp.valueOf(t);
+    }
+
+    /**
+     * One row of the dossier query, copied out of the ResultSet.
+     */
+    private static final class Row {
+        private final int kind;
+        private final int id;
+        private final Integer ref1;
+        private final Integer ref2;
+        private final Integer ref3;
+        private final String t1, t2, t3, t4, t5;
+        private final Timestamp ts;
+
+        private Row(ResultSet rs) throws SQLException {
+            kind = rs.getInt("kind");
+            id = rs.getInt("id");
+            ref1 = getInteger(rs, "ref1");
+            ref2 = getInteger(rs, "ref2");
+            ref3 = getInteger(rs, "ref3");
+            t1 = rs.getString("t1");
+            t2 = rs.getString("t2");
+            t3 = rs.getString("t3");
+            t4 = rs.getString("t4");
+            t5 = rs.getString("t5");
+            ts = rs.getTimestamp("ts");
+        }
+    }
+
+    /**
+     * Prints a loaded dossier in the same layout the person search has always
+     * used, with each row rendered from the current locale's template.
+     *
+     * @param d the dossier
+     */
+    public static void print(Dossier d) {
+        LanguageManager lm = LanguageManager.getDefault();
+        DatabaseAccess.PersonRow p = d.getPerson();
+        try (OutputSink out = OutputSink.toConsole()) {
+            out.print(lm.formatLine(MessageKey.ROW_PERSON, p.getId(), p.getFirstName(), p.getLastName(),
+                    p.getPhone(), p.getGender(), p.getFamilyGroup() == null ? 0 : p.getFamilyGroup()));
+
+            out.println("\n= MEDICAL RECORDS =");
+            for (DatabaseAccess.MedicalRecordRow mr : d.getMedicalRecords()) {
+                out.print(lm.formatLine(MessageKey.ROW_MEDICAL_RECORD, mr.getId(), mr.getLocationId(),
+                        timestampOf(mr.getDateOfTreatment()), mr.getTreatmentDetails()));
+            }
+            if (d.getMedicalRecords().isEmpty()) out.println("(None)");
+
+            out.println("\n= SUPPLIES ALLOCATED =");
+            for (DatabaseAccess.SupplyRow s : d.getSupplies()) {
+                out.print(lm.formatLine(MessageKey.ROW_SUPPLY, s.getId(), s.getType(), s.getComments()));
+            }
+            if (d.getSupplies().isEmpty()) out.println("(None)");
+
+            out.println("\n= INQUIRIES =");
+            for (DatabaseAccess.InquiryRow iq : d.getInquiries()) {
+                out.print(lm.formatLine(MessageKey.ROW_INQUIRY_DETAIL, iq.getId(), iq.getInquirerId(),
+                        iq.getSeekingId(), iq.getLocationId(), timestampOf(iq.getDateOfInquiry()), iq.getComments()));
+            }
+            if (d.getInquiries().isEmpty()) out.println("(None)");
+        }
+    }
+
+    /**
+     * Gets the number of dossier loads since startup.
+     *
+     * @return the load count
+     */
+    public static long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    /**
+     * Gets the mean dossier load latency in microseconds.
+     *
+     * @return mean latency, or 0 if nothing was loaded
+     */
+    public static double getAverageLoadMicros() {
+        long n = loadCount.sum();
+        return n == 0 ? 0.0 : loadNanos.sum() / 1000.0 / n;
+    }
+
+    /**
+     * A person's dossier as stored: the person row, then their medical
+     * records, allocated supplies and inquiries in ID order.
+     */
+    public static final class Dossier {
+        private final DatabaseAccess.PersonRow person;
+        private final List<DatabaseAccess.MedicalRecordRow> medicalRecords = new ArrayList<>();
+        private final List<DatabaseAccess.SupplyRow> supplies = new ArrayList<>();
+        private final List<DatabaseAccess.InquiryRow> inquiries = new ArrayList<>();
+
+        private Dossier(DatabaseAccess.PersonRow person) {
+            this.person = person;
+        }
+
+        /**
+         * Gets the person row.
+         *
+         * @return the person
+         */
+        public DatabaseAccess.PersonRow getPerson() {
+            return person;
+        }
+
+        /**
+         * Gets the person's medical records.
+         *
+         * @return the medical records
+         */
+        public List<DatabaseAccess.MedicalRecordRow> getMedicalRecords() {
+            return medicalRecords;
+        }
+
+        /**
+         * Gets the supplies allocated to the person.
+         *
+         * @return the supplies
+         */
+        public List<DatabaseAccess.SupplyRow> getSupplies() {
+            return supplies;
+        }
+
+        /**
+         * Gets the inquiries the person made or is sought in.
+         *
+         * @return the inquiries
+         */
+        public List<DatabaseAccess.InquiryRow> getInquiries() {
+            return inquiries;
+        }
+    }
+}
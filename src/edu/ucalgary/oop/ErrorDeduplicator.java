@@ -0,0 +1,300 @@
+package edu.ucalgary.oop;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ErrorDeduplicator lets {@link ErrorLogger} write a repeated error's stack
+ * trace only once per time window.
+ *
+ * <p>
+ * Errors are fingerprinted by exception type, root-cause type and the top
+ * few stack frames; the message is left out because it usually carries
+ * IDs that differ between otherwise identical failures. Within a window
+ * each fingerprint may write up to maxFullPerWindow full traces; further
+ * occurrences are only counted. When the window ends the count is turned
+ * into a one-line "seen N more times" summary.
+ * </p>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class ErrorDeduplicator {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+
+    private final long windowMillis;
+    private final int topFrames;
+    private final int maxFullPerWindow;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong();
+    private final AtomicLong suppressedTotal = new AtomicLong();
+
+    /**
+     * Constructs an ErrorDeduplicator with a 60 s window, 5 frames and one
+     * full trace per window.
+     */
+    public ErrorDeduplicator() {
+        this(60_000, 5, 1);
+    }
+
+    /**
+     * Constructs an ErrorDeduplicator.
+     *
+     * @param windowMillis     length of a dedup window
+     * @param topFrames        stack frames included in the fingerprint
+     * @param maxFullPerWindow full traces written per fingerprint per window
+     * @throws IllegalArgumentException if any value is less than 1
+     */
+    public ErrorDeduplicator(long windowMillis, int topFrames, int maxFullPerWindow) {
+        if (windowMillis < 1 || topFrames < 1 || maxFullPerWindow < 1) {
+            throw new IllegalArgumentException("Window, frames and limit must be at least 1");
+        }
+        this.windowMillis = windowMillis;
+        this.topFrames = topFrames;
+        this.maxFullPerWindow = maxFullPerWindow;
+    }
+
+    /**
+     * Computes the fingerprint of an exception.
+     *
+     * @param t the exception
+     * @return a 16-digit hex fingerprint
+     */
+    public String fingerprint(Throwable t) {
+        long h = FNV_OFFSET;
+        h = mix(h, t.getClass().getName());
+        Throwable root = t;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        h = mix(h, root.getClass().getName());
+        StackTraceElement[] frames = t.getStackTrace();
+        for (int i = 0; i < Math.min(topFrames, frames.length); i++) {
+            StackTraceElement f = frames[i];
+            h = mix(h, f.getClassName());
+            h = mix(h, f.getMethodName());
+            h = mix(h, Integer.toString(f.getLineNumber()));
+        }
+        return String.format("%016x", h);
+    }
+
+    private static long mix(long h, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= FNV_PRIME;
+        }
+        h ^= '|';
+        return h * FNV_PRIME;
+    }
+
+    /**
+     * Records an occurrence and decides whether its full trace is written.
+     *
+     * @param t          the exception
+     * @param nowMillis  the current time
+     * @return the decision
+     */
+    public Decision record(Throwable t, long nowMillis) {
+        String fp = fingerprint(t);
+        while (true) {
+            Window w = windows.computeIfAbsent(fp, k -> new Window(t.getClass(), nowMillis));
+            synchronized (w) {
+                if (w.removed) {
+                    continue;
+                }
+                return record(fp, w, nowMillis);
+            }
+        }
+    }
+
+    private Decision record(String fp, Window w, long nowMillis) {
+        long carried = 0;
+        if (nowMillis - w.start >= windowMillis) {
+            carried = w.suppressed;
+            w.start = nowMillis;
+            w.full = 0;
+            w.suppressed = 0;
+        }
+        if (w.full < maxFullPerWindow) {
+            w.full++;
+            return new Decision(fp, true, carried);
+        }
+        w.suppressed++;
+        suppressedTotal.incrementAndGet();
+        return new Decision(fp, false, carried);
+    }
+
+    /**
+     * Collects summaries for windows that have ended and forgets them.
+     * Runs at most once per second unless forced.
+     *
+     * @param nowMillis the current time
+     * @param force     true to sweep regardless of the last sweep, and to
+     *                  end open windows too (used on shutdown)
+     * @return one summary per fingerprint with suppressed occurrences
+     */
+    public List<Summary> sweep(long nowMillis, boolean force) {
+        long last = lastSweep.get();
+        if (!force && (nowMillis - last < SWEEP_INTERVAL_MILLIS || !lastSweep.compareAndSet(last, nowMillis))) {
+            return new ArrayList<>();
+        }
+        List<Summary> out = new ArrayList<>();
+        Iterator<Map.Entry<String, Window>> it = windows.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Window> e = it.next();
+            Window w = e.getValue();
+            synchronized (w) {
+                if (force || nowMillis - w.start >= windowMillis) {
+                    if (w.suppressed > 0) {
+                        out.add(new Summary(e.getKey(), w.type, w.suppressed));
+                    }
+                    w.removed = true;
+                    it.remove();
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Gets the number of occurrences whose trace was not written.
+     *
+     * @return the suppressed count
+     */
+    public long getSuppressedCount() {
+        return suppressedTotal.get();
+    }
+
+    /**
+     * Gets the number of fingerprints being tracked.
+     *
+     * @return the tracked count
+     */
+    public int getTrackedCount() {
+        return windows.size();
+    }
+
+    /**
+     * Outcome of {@link #record(Throwable, long)}.
+     */
+    public static class Decision {
+        private final String fingerprint;
+        private final boolean writeFull;
+        private final long suppressedBefore;
+
+        Decision(String fingerprint, boolean writeFull, long suppressedBefore) {
+            this.fingerprint = fingerprint;
+            this.writeFull = writeFull;
+            this.suppressedBefore = suppressedBefore;
+        }
+
+        /**
+         * Gets the fingerprint.
+         *
+         * @return the fingerprint
+         */
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * Checks whether the full trace should be written.
+         *
+         * @return true to write the trace
+         */
+        public boolean isWriteFull() {
+            return writeFull;
+        }
+
+        /**
+         * Gets the occurrences suppressed in the window that just ended,
+         * which should be summarised now.
+         *
+         * @return the count, or 0
+         */
+        public long getSuppressedBefore() {
+            return suppressedBefore;
+        }
+    }
+
+    /**
+     * Suppressed occurrences of one fingerprint, turned into a
+     * "seen N more times" line when their window ends.
+     */
+    public static class Summary {
+        private final String fingerprint;
+        private final Class<?> type;
+        private final long count;
+
+        Summary(String fingerprint, Class<?> type, long count) {
+            this.fingerprint = fingerprint;
+            this.type = type;
+            this.count = count;
+        }
+
+        /**
+         * Gets the fingerprint.
+         *
+         * @return the fingerprint
+         */
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * Gets the fully-qualified class name of the exception.
+         *
+         * @return the exception class name
+         */
+        public String getExceptionClass() {
+            return type.getName();
+        }
+
+        /**
+         * Gets the number of suppressed occurrences.
+         *
+         * @return the count
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Formats the summary line.
+         *
+         * @return the line
+         */
+        public String getLine() {
+            return "#" + fingerprint + " " + type.getSimpleName() + " seen " + count + " more time"
+                    + (count == 1 ? "" : "s") + " (full trace above)";
+        }
+
+        @Override
+        public String toString() {
+            return getLine();
+        }
+    }
+
+    /**
+     * Per-fingerprint window state; guarded by its own monitor.
+     */
+    private static final class Window {
+        private final Class<?> type;
+        private long start;
+        private int full;
+        private long suppressed;
+        private boolean removed;
+
+        private Window(Class<?> type, long start) {
+            this.type = type;
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,688 @@
+package edu.ucalgary.oop;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ErrorLogIndex answers time-range, exception-class and fingerprint queries
+ * over a JSON-lines error log (see {@link ErrorLogger.Format#JSON_LINES})
+ * without scanning the whole file.
+ *
+ * <p>
+ * The index lives in a sidecar file next to the log ({@code errorlog.jsonl.idx})
+ * holding, per record, its time, byte offset, length, exception class and
+ * fingerprint. Opening an index only reads the lines appended since it was
+ * last saved; if the log was rotated or truncated the index is rebuilt.
+ * A query binary-searches the time-sorted records and reads just the
+ * matching lines.
+ * </p>
+ *
+ * Usage from the command line:
+ * <pre>
+ * java edu.ucalgary.oop.ErrorLogIndex data/errorlog.jsonl \
+ *     --from 2025-04-05T14:00 --to 2025-04-05T15:00 --exception SQLException
+ * </pre>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class ErrorLogIndex {
+    private static final int MAGIC = 0x454C4958;
+    private static final int VERSION = 1;
+    private static final int HEAD_BYTES = 256;
+    private static final int NO_EXCEPTION = -1;
+
+    private final Path log;
+    private long indexedLength;
+    private long headHash;
+
+    private int size;
+    private long[] times = new long[64];
+    private long[] offsets = new long[64];
+    private int[] lengths = new int[64];
+    private int[] exceptionIds = new int[64];
+    private String[] fingerprints = new String[64];
+    private final List<String> exceptionNames = new ArrayList<>();
+    private final Map<String, Integer> exceptionLookup = new HashMap<>();
+
+    private int[] byTime;
+    private Map<String, List<Integer>> byFingerprint;
+
+    private ErrorLogIndex(Path log) {
+        this.log = log;
+    }
+
+    /**
+     * Opens the index for a log, loading its sidecar, indexing any lines
+     * appended since, and saving the sidecar if it changed.
+     *
+     * @param log the JSON-lines log file
+     * @return the index
+     * @throws IOException if the log cannot be read
+     */
+    public static ErrorLogIndex open(Path log) throws IOException {
+        ErrorLogIndex index = new ErrorLogIndex(log);
+        if (!index.load()) {
+            index.clear();
+        }
+        index.refresh();
+        return index;
+    }
+
+    /**
+     * Gets the sidecar path for a log.
+     *
+     * @param log the log file
+     * @return the log path with ".idx" appended
+     */
+    public static Path sidecarFor(Path log) {
+        return log.resolveSibling(log.getFileName() + ".idx");
+    }
+
+    /**
+     * Indexes lines appended since the last refresh, rebuilding from scratch
+     * if the log was rotated or truncated, and saves the sidecar if anything
+     * changed.
+     *
+     * @throws IOException if the log cannot be read or the sidecar written
+     */
+    public void refresh() throws IOException {
+        long length = Files.exists(log) ? Files.size(log) : 0L;
+        if (length < indexedLength || (indexedLength > 0 && headHashOf(log) != headHash)) {
+            clear();
+        }
+        if (length == indexedLength) {
+            return;
+        }
+        scanFrom(indexedLength);
+        if (headHash == 0) {
+            headHash = headHashOf(log);
+        }
+        save();
+        byTime = null;
+        byFingerprint = null;
+    }
+
+    /**
+     * Gets the number of indexed records.
+     *
+     * @return the record count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of log bytes covered by the index.
+     *
+     * @return the indexed length
+     */
+    public long getIndexedLength() {
+        return indexedLength;
+    }
+
+    /**
+     * Finds records in a time range, optionally of one exception class.
+     *
+     * @param from           inclusive start, or null for the beginning
+     * @param to             exclusive end, or null for the end
+     * @param exceptionClass fully-qualified or simple class name, or null for any
+     * @return matching records in time order
+     * @throws IOException if the log cannot be read
+     */
+    public List<Record> query(LocalDateTime from, LocalDateTime to, String exceptionClass) throws IOException {
+        int[] order = timeOrder();
+        long lo = from == null ? Long.MIN_VALUE : key(from);
+        long hi = to == null ? Long.MAX_VALUE : key(to);
+        boolean[] wanted = exceptionClass == null ? null : matchingExceptions(exceptionClass);
+        List<Integer> hits = new ArrayList<>();
+        for (int i = lowerBound(order, lo); i < order.length && times[order[i]] < hi; i++) {
+            int r = order[i];
+            if (wanted == null || (exceptionIds[r] != NO_EXCEPTION && wanted[exceptionIds[r]])) {
+                hits.add(r);
+            }
+        }
+        return read(hits);
+    }
+
+    /**
+     * Finds every record with a fingerprint.
+     *
+     * @param fingerprint the 16-digit fingerprint, with or without a leading '#'
+     * @return matching records in file order
+     * @throws IOException if the log cannot be read
+     */
+    public List<Record> findByFingerprint(String fingerprint) throws IOException {
+        if (fingerprint == null) {
+            throw new IllegalArgumentException("Fingerprint cannot be null");
+        }
+        if (byFingerprint == null) {
+            Map<String, List<Integer>> map = new HashMap<>();
+            for (int r = 0; r < size; r++) {
+                if (fingerprints[r] != null) {
+                    map.computeIfAbsent(fingerprints[r], k -> new ArrayList<>()).add(r);
+                }
+            }
+            byFingerprint = map;
+        }
+        String fp = fingerprint.startsWith("#") ? fingerprint.substring(1) : fingerprint;
+        return read(byFingerprint.getOrDefault(fp, new ArrayList<>()));
+    }
+
+    private int[] timeOrder() {
+        if (byTime == null) {
+            Integer[] boxed = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                boxed[i] = i;
+            }
+            Arrays.sort(boxed, (a, b) -> Long.compare(times[a], times[b]));
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = boxed[i];
+            }
+            byTime = order;
+        }
+        return byTime;
+    }
+
+    private int lowerBound(int[] order, long key) {
+        int lo = 0;
+        int hi = order.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (times[order[mid]] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private boolean[] matchingExceptions(String name) {
+        boolean[] wanted = new boolean[exceptionNames.size()];
+        for (int i = 0; i < wanted.length; i++) {
+            String full = exceptionNames.get(i);
+            wanted[i] = full.equals(name) || full.substring(full.lastIndexOf('.') + 1).equals(name);
+        }
+        return wanted;
+    }
+
+    private List<Record> read(List<Integer> rows) throws IOException {
+        List<Record> out = new ArrayList<>(rows.size());
+        if (rows.isEmpty()) {
+            return out;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(log.toFile(), "r")) {
+            for (int r : rows) {
+                byte[] line = new byte[lengths[r]];
+                raf.seek(offsets[r]);
+                raf.readFully(line);
+                out.add(parse(new String(line, StandardCharsets.UTF_8)));
+            }
+        }
+        return out;
+    }
+
+    private void scanFrom(long start) throws IOException {
+        try (InputStream raw = Files.newInputStream(log)) {
+            long skipped = 0;
+            while (skipped < start) {
+                long n = raw.skip(start - skipped);
+                if (n <= 0) {
+                    throw new IOException("Log shorter than its index: " + log);
+                }
+                skipped += n;
+            }
+            InputStream in = new BufferedInputStream(raw, 1 << 16);
+            ByteArrayOutputStream line = new ByteArrayOutputStream(512);
+            long lineStart = start;
+            long pos = start;
+            int b;
+            while ((b = in.read()) != -1) {
+                pos++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                addLine(lineStart, line.toString(StandardCharsets.UTF_8));
+                line.reset();
+                lineStart = pos;
+                indexedLength = pos;
+            }
+        }
+    }
+
+    private void addLine(long offset, String text) {
+        String trimmed = text.endsWith("\r") ? text.substring(0, text.length() - 1) : text;
+        if (trimmed.isEmpty()) {
+            return;
+        }
+        Record rec;
+        try {
+            rec = parse(trimmed);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return;
+        }
+        int exceptionId = NO_EXCEPTION;
+        if (rec.getExceptionClass() != null) {
+            exceptionId = exceptionLookup.computeIfAbsent(rec.getExceptionClass(), k -> {
+                exceptionNames.add(k);
+                return exceptionNames.size() - 1;
+            });
+        }
+        add(key(rec.getTime()), offset, trimmed.getBytes(StandardCharsets.UTF_8).length,
+                exceptionId, rec.getFingerprint());
+    }
+
+    private void add(long time, long offset, int length, int exceptionId, String fingerprint) {
+        if (size == times.length) {
+            int cap = size * 2;
+            times = Arrays.copyOf(times, cap);
+            offsets = Arrays.copyOf(offsets, cap);
+            lengths = Arrays.copyOf(lengths, cap);
+            exceptionIds = Arrays.copyOf(exceptionIds, cap);
+            fingerprints = Arrays.copyOf(fingerprints, cap);
+        }
+        times[size] = time;
+        offsets[size] = offset;
+        lengths[size] = length;
+        exceptionIds[size] = exceptionId;
+        fingerprints[size] = fingerprint;
+        size++;
+    }
+
+    private void clear() {
+        size = 0;
+        indexedLength = 0;
+        headHash = 0;
+        exceptionNames.clear();
+        exceptionLookup.clear();
+        byTime = null;
+        byFingerprint = null;
+    }
+
+    private boolean load() {
+        Path sidecar = sidecarFor(log);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(sidecar)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return false;
+            }
+            indexedLength = in.readLong();
+            headHash = in.readLong();
+            int names = in.readInt();
+            for (int i = 0; i < names; i++) {
+                String name = in.readUTF();
+                exceptionLookup.put(name, exceptionNames.size());
+                exceptionNames.add(name);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long time = in.readLong();
+                long offset = in.readLong();
+                int length = in.readInt();
+                int exceptionId = in.readInt();
+                String fingerprint = in.readBoolean() ? in.readUTF() : null;
+                add(time, offset, length, exceptionId, fingerprint);
+            }
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            System.out.println("Ignoring unreadable error log index: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void save() throws IOException {
+        Path sidecar = sidecarFor(log);
+        Path tmp = sidecar.resolveSibling(sidecar.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(indexedLength);
+            out.writeLong(headHash);
+            out.writeInt(exceptionNames.size());
+            for (String name : exceptionNames) {
+                out.writeUTF(name);
+            }
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeLong(times[i]);
+                out.writeLong(offsets[i]);
+                out.writeInt(lengths[i]);
+                out.writeInt(exceptionIds[i]);
+                out.writeBoolean(fingerprints[i] != null);
+                if (fingerprints[i] != null) {
+                    out.writeUTF(fingerprints[i]);
+                }
+            }
+        }
+        Files.move(tmp, sidecar, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Hashes the start of the file so a rotated log of the same or greater
+     * length is not mistaken for the one that was indexed.
+     */
+    private static long headHashOf(Path file) throws IOException {
+        byte[] head = new byte[HEAD_BYTES];
+        int n = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            int r;
+            while (n < head.length && (r = in.read(head, n, head.length - n)) > 0) {
+                n += r;
+            }
+        }
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < n; i++) {
+            h ^= head[i] & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h == 0 ? 1 : h;
+    }
+
+    private static long key(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Parses one JSON-lines record as written by {@link ErrorLogger}.
+     *
+     * @param line the line
+     * @return the record
+     * @throws IllegalArgumentException if the line is not a flat JSON object
+     *                                  of string or null values with a "ts"
+     */
+    static Record parse(String line) {
+        Map<String, String> fields = new HashMap<>();
+        int[] pos = {skipSpace(line, 0)};
+        expect(line, pos, '{');
+        if (peek(line, pos) == '}') {
+            pos[0]++;
+        } else {
+            while (true) {
+                String name = readString(line, pos);
+                expect(line, pos, ':');
+                String value;
+                if (line.startsWith("null", pos[0])) {
+                    pos[0] += 4;
+                    value = null;
+                } else {
+                    value = readString(line, pos);
+                }
+                fields.put(name, value);
+                char c = peek(line, pos);
+                pos[0]++;
+                if (c == '}') {
+                    break;
+                }
+                if (c != ',') {
+                    throw new IllegalArgumentException("Expected ',' or '}' at " + (pos[0] - 1));
+                }
+            }
+        }
+        String ts = fields.get("ts");
+        if (ts == null) {
+            throw new IllegalArgumentException("Record has no timestamp");
+        }
+        return new Record(LocalDateTime.parse(ts), fields.get("severity"), fields.get("operation"),
+                fields.get("exception"), fields.get("fingerprint"), fields.get("trace"));
+    }
+
+    private static int skipSpace(String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static char peek(String s, int[] pos) {
+        pos[0] = skipSpace(s, pos[0]);
+        if (pos[0] >= s.length()) {
+            throw new IllegalArgumentException("Unexpected end of record");
+        }
+        return s.charAt(pos[0]);
+    }
+
+    private static void expect(String s, int[] pos, char c) {
+        if (peek(s, pos) != c) {
+            throw new IllegalArgumentException("Expected '" + c + "' at " + pos[0]);
+        }
+        pos[0]++;
+    }
+
+    private static String readString(String s, int[] pos) {
+        expect(s, pos, '"');
+        StringBuilder sb = new StringBuilder();
+        int i = pos[0];
+        while (i < s.length()) {
+            char c = s.charAt(i++);
+            if (c == '"') {
+                pos[0] = skipSpace(s, i);
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (i >= s.length()) {
+                break;
+            }
+            char esc = s.charAt(i++);
+            switch (esc) {
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'u':
+                    if (i + 4 > s.length()) {
+                        throw new IllegalArgumentException("Bad unicode escape at " + i);
+                    }
+                    sb.append((char) Integer.parseInt(s.substring(i, i + 4), 16));
+                    i += 4;
+                    break;
+                default: sb.append(esc); break;
+            }
+        }
+        throw new IllegalArgumentException("Unterminated string");
+    }
+
+    /**
+     * Prints matching records. Arguments: the log path, then any of
+     * --from, --to (ISO local date-time), --exception NAME,
+     * --fingerprint FP and --trace.
+     *
+     * @param args command-line arguments
+     * @throws IOException if the log cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            printUsage();
+            return;
+        }
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        String exception = null;
+        String fingerprint = null;
+        boolean trace = false;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--trace")) {
+                trace = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                System.out.println("Missing value for " + args[i]);
+                printUsage();
+                return;
+            }
+            try {
+                switch (args[i]) {
+                    case "--from": from = LocalDateTime.parse(args[++i]); break;
+                    case "--to": to = LocalDateTime.parse(args[++i]); break;
+                    case "--exception": exception = args[++i]; break;
+                    case "--fingerprint": fingerprint = args[++i]; break;
+                    default:
+                        System.out.println("Unknown option: " + args[i]);
+                        printUsage();
+                        return;
+                }
+            } catch (DateTimeParseException e) {
+                System.out.println("Invalid time for " + args[i - 1] + ": " + args[i]
+                        + " (expected e.g. 2025-04-05T14:00)");
+                printUsage();
+                return;
+            }
+        }
+        ErrorLogIndex index = open(Paths.get(args[0]));
+        List<Record> records = fingerprint != null
+                ? index.findByFingerprint(fingerprint)
+                : index.query(from, to, exception);
+        for (Record r : records) {
+            if (fingerprint != null && !r.matches(from, to, exception)) {
+                continue;
+            }
+            System.out.println(r);
+            if (trace && r.getTrace() != null) {
+                System.out.print(r.getTrace());
+            }
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: ErrorLogIndex <log.jsonl> [--from T] [--to T] [--exception NAME]"
+                + " [--fingerprint FP] [--trace]");
+    }
+
+    /**
+     * One parsed log record.
+     */
+    public static class Record {
+        private final LocalDateTime time;
+        private final String severity;
+        private final String operation;
+        private final String exceptionClass;
+        private final String fingerprint;
+        private final String trace;
+
+        /**
+         * Constructs a Record.
+         *
+         * @param time           when it was logged
+         * @param severity       ERROR or WARN
+         * @param operation      the logged message
+         * @param exceptionClass fully-qualified exception class, or null
+         * @param fingerprint    the fingerprint, or null
+         * @param trace          the stack trace, or null
+         */
+        public Record(LocalDateTime time, String severity, String operation, String exceptionClass,
+                      String fingerprint, String trace) {
+            this.time = time;
+            this.severity = severity;
+            this.operation = operation;
+            this.exceptionClass = exceptionClass;
+            this.fingerprint = fingerprint;
+            this.trace = trace;
+        }
+
+        /**
+         * Gets the time.
+         *
+         * @return the time
+         */
+        public LocalDateTime getTime() {
+            return time;
+        }
+
+        /**
+         * Gets the severity.
+         *
+         * @return the severity
+         */
+        public String getSeverity() {
+            return severity;
+        }
+
+        /**
+         * Gets the operation message.
+         *
+         * @return the message
+         */
+        public String getOperation() {
+            return operation;
+        }
+
+        /**
+         * Gets the exception class.
+         *
+         * @return the fully-qualified class name, or null
+         */
+        public String getExceptionClass() {
+            return exceptionClass;
+        }
+
+        /**
+         * Gets the fingerprint.
+         *
+         * @return the fingerprint, or null
+         */
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * Gets the stack trace.
+         *
+         * @return the trace, or null
+         */
+        public String getTrace() {
+            return trace;
+        }
+
+        private boolean matches(LocalDateTime from, LocalDateTime to, String exception) {
+            if (from != null && time.isBefore(from)) {
+                return false;
+            }
+            if (to != null && !time.isBefore(to)) {
+                return false;
+            }
+            return exception == null || (exceptionClass != null && (exceptionClass.equals(exception)
+                    || exceptionClass.endsWith("." + exception)));
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append('[').append(time).append("] ").append(severity).append(' ').append(operation);
+            if (exceptionClass != null) {
+                sb.append(" (").append(exceptionClass).append(')');
+            }
+            if (fingerprint != null) {
+                sb.append(" #").append(fingerprint);
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -1,27 +1,123 @@
 package edu.ucalgary.oop;
 
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * ErrorLogger writes critical errors to a specified file,
  * including a timestamp and stack trace.
  *
+ * <p>
+ * By default each call appends to the file on the caller's thread. In async
+ * mode callers only enqueue the error into a bounded {@link RingBuffer}; a
+ * single background writer drains it in batches into one long-lived
+ * buffered writer. When the buffer is full the {@link OverflowPolicy}
+ * decides whether callers wait, the oldest entry is dropped, or the new
+ * entry is dropped and counted. Dropped entries are reported in the log.
+ * {@link #close()} (also run from a shutdown hook) writes out everything
+ * still queued.
+ * </p>
+ *
+ * With a {@link LogRotation} set, the file is rolled by size and/or day
+ * before a write, and rolled files are gzipped in the background. With an
+ * {@link ErrorDeduplicator} set, a repeated error writes its full trace
+ * once per window and later occurrences become "seen N more times" lines.
+ *
+ * <p>
+ * In {@link Format#JSON_LINES} format each entry is one JSON object per line
+ * (timestamp, severity, operation, exception class, fingerprint, trace),
+ * which {@link ErrorLogIndex} can index by time and fingerprint. The
+ * application logger uses it when started with
+ * {@code -Dedu.ucalgary.oop.errorLogFormat=json}.
+ * </p>
+ *
  * @author Anhad Wander
  * @version 1.0
  * @since 2025-04-05
  */
-public class ErrorLogger {
+public class ErrorLogger implements AutoCloseable {
+
+    /**
+     * What an async logger does when its buffer is full.
+     */
+    public enum OverflowPolicy {
+        /** The caller waits until the writer frees a slot. */
+        BLOCK,
+        /** The oldest queued entry is discarded to make room. */
+        DROP_OLDEST,
+        /** The new entry is discarded and counted. */
+        COUNT_AND_DROP
+    }
+
+    /**
+     * How entries are written to the file.
+     */
+    public enum Format {
+        /** Timestamped message, stack trace and a dashed separator. */
+        TEXT,
+        /** One JSON object per line. */
+        JSON_LINES
+    }
+
+    /**
+     * System property that picks the application log's format: "text" (the
+     * default) or "json" for {@link Format#JSON_LINES}.
+     */
+    public static final String FORMAT_PROPERTY = "edu.ucalgary.oop.errorLogFormat";
+
+    static final String SEVERITY_ERROR = "ERROR";
+    static final String SEVERITY_WARN = "WARN";
+
+    private static final ErrorDeduplicator FINGERPRINTER = new ErrorDeduplicator();
+    private static final DateTimeFormatter ISO_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String SEPARATOR = "--------------------------------------------------";
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = 50_000_000L;
 
     private String logFilePath = "data/errorlog.txt";
 
+    private final RingBuffer<Entry> buffer;
+    private final OverflowPolicy policy;
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong lost = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private volatile Thread writer;
+    // closing: close() was called. closed: the writer has exited, so writes go straight to the file.
+    private volatile boolean closing = false;
+    private volatile boolean closed = false;
+    private Thread shutdownHook;
+    private volatile LogRotation rotation;
+    private volatile ErrorDeduplicator deduplicator;
+    private volatile Format format = Format.TEXT;
+
+    // Touched only by the async writer thread.
+    private long activeSize;
+    private LocalDate activeDay;
+
     /**
      * Default constructor using data/errorlog.txt as the log file.
      */
     public ErrorLogger() {
+        this.buffer = null;
+        this.policy = null;
     }
 
     /**
@@ -31,6 +127,104 @@ public class ErrorLogger {
      */
     public ErrorLogger(String path) {
         this.logFilePath = path;
+        this.buffer = null;
+        this.policy = null;
+    }
+
+    /**
+     * Constructs an async ErrorLogger. The writer thread starts with the
+     * first logged error.
+     *
+     * @param path     the file path for logging errors
+     * @param capacity queued errors before the overflow policy applies
+     * @param policy   what to do when the queue is full
+     * @throws IllegalArgumentException if capacity is less than 2 or policy is null
+     */
+    public ErrorLogger(String path, int capacity, OverflowPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Overflow policy cannot be null");
+        }
+        this.logFilePath = path;
+        this.buffer = new RingBuffer<>(capacity);
+        this.policy = policy;
+    }
+
+    /**
+     * Turns on log rotation, or off with null.
+     *
+     * @param rotation the rotation settings, or null
+     */
+    public void setRotation(LogRotation rotation) {
+        this.rotation = rotation;
+    }
+
+    /**
+     * Gets the rotation settings.
+     *
+     * @return the rotation, or null if the file grows without limit
+     */
+    public LogRotation getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Turns on stack-trace deduplication, or off with null.
+     *
+     * @param deduplicator the deduplicator, or null
+     */
+    public void setDeduplicator(ErrorDeduplicator deduplicator) {
+        this.deduplicator = deduplicator;
+    }
+
+    /**
+     * Gets the deduplicator.
+     *
+     * @return the deduplicator, or null if every trace is written
+     */
+    public ErrorDeduplicator getDeduplicator() {
+        return deduplicator;
+    }
+
+    /**
+     * Sets the file format. Switch before the first error is logged; a file
+     * that mixes formats cannot be indexed.
+     *
+     * @param format the format
+     * @throws IllegalArgumentException if format is null
+     */
+    public void setFormat(Format format) {
+        if (format == null) {
+            throw new IllegalArgumentException("Format cannot be null");
+        }
+        this.format = format;
+    }
+
+    /**
+     * Reads {@link #FORMAT_PROPERTY}. An unset property means TEXT; an
+     * unrecognised value is reported on stderr and also means TEXT.
+     *
+     * @return the configured format
+     */
+    static Format configuredFormat() {
+        String value = System.getProperty(FORMAT_PROPERTY);
+        if (value == null || value.trim().isEmpty() || value.trim().equalsIgnoreCase("text")) {
+            return Format.TEXT;
+        }
+        String name = value.trim();
+        if (name.equalsIgnoreCase("json") || name.equalsIgnoreCase("json_lines")) {
+            return Format.JSON_LINES;
+        }
+        System.err.println("Unknown " + FORMAT_PROPERTY + " '" + value + "', using text");
+        return Format.TEXT;
+    }
+
+    /**
+     * Gets the file format.
+     *
+     * @return the format
+     */
+    public Format getFormat() {
+        return format;
     }
 
     /**
@@ -50,14 +244,424 @@ public class ErrorLogger {
      */
     public void logError(String message, Exception e) {
         LocalDateTime now = LocalDateTime.now();
-        String timestamp = now.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        String fingerprint = null;
+        ErrorDeduplicator dd = deduplicator;
+        if (dd != null && e != null) {
+            long nowMillis = System.currentTimeMillis();
+            for (ErrorDeduplicator.Summary sum : dd.sweep(nowMillis, false)) {
+                submit(Entry.summary(now, sum));
+            }
+            ErrorDeduplicator.Decision d = dd.record(e, nowMillis);
+            if (d.getSuppressedBefore() > 0) {
+                submit(Entry.summary(now, new ErrorDeduplicator.Summary(d.getFingerprint(), e.getClass(),
+                        d.getSuppressedBefore())));
+            }
+            if (!d.isWriteFull()) {
+                return;
+            }
+            fingerprint = d.getFingerprint();
+        } else if (e != null && format == Format.JSON_LINES) {
+            fingerprint = FINGERPRINTER.fingerprint(e);
+        }
+        submit(new Entry(now, SEVERITY_ERROR, message, e, fingerprint));
+    }
+
+    private void submit(Entry entry) {
+        if (buffer == null || closed) {
+            writeNow(entry);
+            return;
+        }
+        enqueue(entry);
+    }
+
+    private void enqueue(Entry entry) {
+        startWriter();
+        switch (policy) {
+            case BLOCK:
+                while (!buffer.offer(entry)) {
+                    if (closed) {
+                        writeNow(entry);
+                        return;
+                    }
+                    LockSupport.unpark(writer);
+                    LockSupport.parkNanos(100_000L);
+                }
+                break;
+            case DROP_OLDEST:
+                while (!buffer.offer(entry)) {
+                    if (buffer.poll() != null) {
+                        dropped.incrementAndGet();
+                        lost.incrementAndGet();
+                    }
+                }
+                break;
+            default:
+                if (!buffer.offer(entry)) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                break;
+        }
+        accepted.incrementAndGet();
+        LockSupport.unpark(writer);
+        if (closed) {
+            // The writer exited after this entry was offered; nobody else will take it.
+            drainLeftovers();
+        }
+    }
+
+    private synchronized void startWriter() {
+        if (writer != null || closing) {
+            return;
+        }
+        Thread t = new Thread(this::drainLoop, "error-logger-writer");
+        t.setDaemon(true);
+        shutdownHook = new Thread(this::close, "error-logger-flush");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        writer = t;
+        t.start();
+    }
+
+    private void drainLoop() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        long reportedDrops = 0;
+        PrintWriter out = null;
+        while (true) {
+            batch.clear();
+            int n = buffer.drainTo(batch, BATCH_SIZE);
+            ErrorDeduplicator dd = deduplicator;
+            if (dd != null) {
+                for (ErrorDeduplicator.Summary sum : dd.sweep(System.currentTimeMillis(), false)) {
+                    batch.add(Entry.summary(LocalDateTime.now(), sum));
+                }
+            }
+            long drops = dropped.get();
+            if (batch.isEmpty() && drops == reportedDrops) {
+                if (closing && buffer.size() == 0) {
+                    break;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            LogRotation rot = rotation;
+            LocalDate today = LocalDate.now();
+            if (out != null && rot != null && rot.shouldRotate(activeSize, activeDay, today)) {
+                out.close();
+                out = null;
+                try {
+                    rot.rotate(Paths.get(logFilePath), activeDay);
+                } catch (IOException ioe) {
+                    System.out.println("Failed to rotate error log: " + ioe.getMessage());
+                }
+            }
+            if (out == null) {
+                out = openLog();
+            }
+            if (out != null) {
+                Format fmt = format;
+                for (Entry entry : batch) {
+                    entry.writeTo(out, fmt);
+                }
+                if (drops != reportedDrops) {
+                    String notice = "ErrorLogger dropped " + (drops - reportedDrops)
+                            + " error(s): queue full (" + policy + ") or log file unavailable";
+                    if (fmt == Format.TEXT) {
+                        out.println("[" + LocalDateTime.now().format(TIMESTAMP) + "] " + notice);
+                        out.println(SEPARATOR);
+                    } else {
+                        Entry.notice(LocalDateTime.now(), notice).writeTo(out, fmt);
+                    }
+                }
+                out.flush();
+                written.addAndGet(batch.size());
+                activeSize = sizeOf(Paths.get(logFilePath));
+                activeDay = today;
+                reportedDrops = drops;
+                completed.addAndGet(n);
+            } else {
+                // The batch was not written; report it with the next one that is.
+                dropped.addAndGet(n);
+                lost.addAndGet(n);
+            }
+        }
+        if (out != null) {
+            out.close();
+        }
+        // Only now may callers write to the file themselves.
+        closed = true;
+        drainLeftovers();
+        writeFinalSummaries();
+    }
+
+    private void drainLeftovers() {
+        Entry leftover;
+        while ((leftover = buffer.poll()) != null) {
+            writeNow(leftover);
+            written.incrementAndGet();
+            completed.incrementAndGet();
+        }
+    }
 
+    private PrintWriter openLog() {
+        try {
+            Path path = Paths.get(logFilePath);
+            LogRotation rot = rotation;
+            if (rot != null) {
+                rot.rotateIfNeeded(path);
+            }
+            activeSize = sizeOf(path);
+            activeDay = Files.exists(path)
+                    ? LogRotation.dayOf(Files.getLastModifiedTime(path).toInstant())
+                    : LocalDate.now();
+            BufferedWriter bw = Files.newBufferedWriter(Paths.get(logFilePath), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+            return new PrintWriter(bw);
+        } catch (IOException ioe) {
+            System.out.println("Failed to write to error log: " + ioe.getMessage());
+            return null;
+        }
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.exists(path) ? Files.size(path) : 0L;
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private synchronized void writeNow(Entry entry) {
+        LogRotation rot = rotation;
+        if (rot != null) {
+            try {
+                rot.rotateIfNeeded(Paths.get(logFilePath));
+            } catch (IOException ioe) {
+                System.out.println("Failed to rotate error log: " + ioe.getMessage());
+            }
+        }
         try (PrintWriter pw = new PrintWriter(new FileWriter(logFilePath, true))) {
-            pw.println("[" + timestamp + "] " + message);
-            e.printStackTrace(pw);
-            pw.println("--------------------------------------------------");
+            entry.writeTo(pw, format);
         } catch (IOException ioe) {
             System.out.println("Failed to write to error log: " + ioe.getMessage());
         }
     }
+
+    /**
+     * Waits until every error queued so far has been written.
+     *
+     * @param timeoutMillis maximum time to wait
+     * @return true if the queue was drained in time; errors that could not
+     *         be written are in {@link #getDroppedCount()}
+     */
+    public boolean flush(long timeoutMillis) {
+        if (buffer == null) {
+            return true;
+        }
+        long target = accepted.get();
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        while (completed.get() + lost.get() < target) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(1_000_000L);
+        }
+        return true;
+    }
+
+    /**
+     * Stops the async writer after it has written everything queued.
+     * Errors logged while it finishes are still queued; those logged after
+     * it exits are written synchronously. Does nothing in synchronous mode.
+     */
+    @Override
+    public void close() {
+        if (buffer == null) {
+            writeFinalSummaries();
+            return;
+        }
+        Thread t;
+        synchronized (this) {
+            if (closing) {
+                return;
+            }
+            closing = true;
+            t = writer;
+            if (shutdownHook != null && Thread.currentThread() != shutdownHook) {
+                try {
+                    Runtime.getRuntime().removeShutdownHook(shutdownHook);
+                } catch (IllegalStateException ignored) {
+                    // JVM already shutting down; the hook is running or will run.
+                }
+            }
+        }
+        if (t == null) {
+            closed = true;
+            drainLeftovers();
+            writeFinalSummaries();
+            return;
+        }
+        LockSupport.unpark(t);
+        try {
+            // A writer still busy after this keeps going and finishes the log itself.
+            t.join(5000);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeFinalSummaries() {
+        ErrorDeduplicator dd = deduplicator;
+        if (dd != null) {
+            for (ErrorDeduplicator.Summary sum : dd.sweep(System.currentTimeMillis(), true)) {
+                writeNow(Entry.summary(LocalDateTime.now(), sum));
+            }
+        }
+    }
+
+    /**
+     * Checks whether this logger writes on a background thread.
+     *
+     * @return true in async mode
+     */
+    public boolean isAsync() {
+        return buffer != null;
+    }
+
+    /**
+     * Gets the overflow policy.
+     *
+     * @return the policy, or null in synchronous mode
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return policy;
+    }
+
+    /**
+     * Gets the number of errors discarded because the queue was full.
+     *
+     * @return the dropped count
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Gets the number of errors written by the async writer.
+     *
+     * @return the written count
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /**
+     * Gets the number of errors waiting to be written.
+     *
+     * @return the queue length, or 0 in synchronous mode
+     */
+    public int getPendingCount() {
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    /**
+     * One queued error.
+     */
+    private static final class Entry {
+        private final LocalDateTime time;
+        private final String severity;
+        private final String message;
+        private final Exception exception;
+        private final String exceptionClass;
+        private final String fingerprint;
+
+        /**
+         * @param exception   the exception, or null for a one-line notice
+         * @param fingerprint the fingerprint, or null
+         */
+        private Entry(LocalDateTime time, String severity, String message, Exception exception, String fingerprint) {
+            this(time, severity, message, exception,
+                    exception == null ? null : exception.getClass().getName(), fingerprint);
+        }
+
+        private Entry(LocalDateTime time, String severity, String message, Exception exception,
+                      String exceptionClass, String fingerprint) {
+            this.time = time;
+            this.severity = severity;
+            this.message = message;
+            this.exception = exception;
+            this.exceptionClass = exceptionClass;
+            this.fingerprint = fingerprint;
+        }
+
+        private static Entry notice(LocalDateTime time, String message) {
+            return new Entry(time, SEVERITY_WARN, message, null, null);
+        }
+
+        /**
+         * A "seen N more times" line, tagged with the fingerprint and
+         * exception class of the traces it stands for.
+         */
+        private static Entry summary(LocalDateTime time, ErrorDeduplicator.Summary sum) {
+            return new Entry(time, SEVERITY_WARN, sum.getLine(), null, sum.getExceptionClass(), sum.getFingerprint());
+        }
+
+        private void writeTo(PrintWriter pw, Format format) {
+            if (format == Format.JSON_LINES) {
+                writeJson(pw);
+                return;
+            }
+            String header = "[" + time.format(TIMESTAMP) + "] " + message;
+            if (exception == null) {
+                pw.println(header);
+                return;
+            }
+            pw.println(fingerprint == null ? header : header + " #" + fingerprint);
+            exception.printStackTrace(pw);
+            pw.println(SEPARATOR);
+        }
+
+        private void writeJson(PrintWriter pw) {
+            String trace = null;
+            if (exception != null) {
+                StringWriter sw = new StringWriter();
+                exception.printStackTrace(new PrintWriter(sw));
+                trace = sw.toString();
+            }
+            StringBuilder sb = new StringBuilder(trace == null ? 160 : trace.length() + 200);
+            sb.append('{');
+            appendField(sb, "ts", time.format(ISO_TIMESTAMP)).append(',');
+            appendField(sb, "severity", severity).append(',');
+            appendField(sb, "operation", message).append(',');
+            appendField(sb, "exception", exceptionClass).append(',');
+            appendField(sb, "fingerprint", fingerprint).append(',');
+            appendField(sb, "trace", trace);
+            pw.println(sb.append('}'));
+        }
+
+        private static StringBuilder appendField(StringBuilder sb, String name, String value) {
+            sb.append('"').append(name).append("\":");
+            if (value == null) {
+                return sb.append("null");
+            }
+            sb.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"': sb.append("\\\""); break;
+                    case '\\': sb.append("\\\\"); break;
+                    case '\n': sb.append("\\n"); break;
+                    case '\r': sb.append("\\r"); break;
+                    case '\t': sb.append("\\t"); break;
+                    default:
+                        if (c < 0x20) {
+                            sb.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            sb.append(c);
+                        }
+                }
+            }
+            return sb.append('"');
+        }
+    }
 }
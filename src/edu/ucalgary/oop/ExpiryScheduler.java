@@ -0,0 +1,432 @@
+package edu.ucalgary.oop;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ExpiryScheduler is the one scheduling engine for supply lifecycles. It
+ * removes allocations as they fall due under the {@link LifecyclePolicy}
+ * registered for their supply type (a water TTL, food rotation, a recall
+ * of medical kits, ...), instead of sweeping the allocation table type by
+ * type.
+ *
+ * <p>
+ * Every allocation that some policy will remove sits in one
+ * {@link TimerWheel} keyed on its deadline, whatever its type. Each tick
+ * advances the wheel and deletes the allocations that came due in
+ * deadline order, by key, in batches of at most {@code batchSize} per
+ * transaction (types mixed within a batch). New allocations, including
+ * ones made by other nodes, are picked up by a poll every
+ * {@code pollMillis}. The poll covers all registered types in one query
+ * and fetches allocations made since the previous poll, less a few
+ * minutes of overlap for clock skew. The first poll loads everything, so
+ * allocations that fell due while the node was down go in the first
+ * tick. Registering a policy, for example a recall, makes the next tick
+ * rebuild the wheel from a full poll. Each allocation removed is taken off
+ * the {@link InventoryIndex} counts.
+ * </p>
+ *
+ * An allocation removed or moved by other means stays counted as pending
+ * until its deadline, when its delete finds nothing. If a delete fails, the
+ * batch is retried after the next poll interval.
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class ExpiryScheduler implements AutoCloseable {
+    /** Default wheel resolution. */
+    public static final long DEFAULT_TICK_MILLIS = 1000;
+    /** Default interval between polls for new allocations. */
+    public static final long DEFAULT_POLL_MILLIS = 60_000;
+    /** Default allocations deleted per transaction. */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final Duration POLL_OVERLAP = Duration.ofMinutes(5);
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static ExpiryScheduler instance;
+
+    /**
+     * An allocation being tracked, identified the way the table does:
+     * supply and time.
+     */
+    private static final class Tracked {
+        private final String type;
+        private final DatabaseAccess.AllocationRow row;
+
+        private Tracked(String type, DatabaseAccess.AllocationRow row) {
+            this.type = type;
+            this.row = row;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Tracked)) {
+                return false;
+            }
+            Tracked t = (Tracked) o;
+            return row.getSupplyId() == t.row.getSupplyId()
+                    && row.getAllocationDate().equals(t.row.getAllocationDate());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(row.getSupplyId(), row.getAllocationDate());
+        }
+    }
+
+    /**
+     * A configuration problem waiting for an error log.
+     */
+    private static final class Problem {
+        private final String message;
+        private final Exception error;
+
+        private Problem(String message, Exception error) {
+            this.message = message;
+            this.error = error;
+        }
+    }
+
+    private final long tickMillis;
+    private final long pollMillis;
+    private final int batchSize;
+
+    private final ConcurrentMap<String, LifecyclePolicy> policies = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicInteger> pendingByType = new ConcurrentHashMap<>();
+    private final Set<Tracked> pending = new HashSet<>();
+    private final List<Tracked> due = new ArrayList<>();
+    private final AtomicLong expired = new AtomicLong();
+    private volatile int pendingCount;
+    private volatile boolean rebuild = true;
+    private TimerWheel<Tracked> wheel;
+    private LocalDateTime watermark;
+    private long lastPollMillis;
+    private ScheduledExecutorService executor;
+    private ErrorLogger errors;
+    private final List<Problem> unreported = new ArrayList<>();
+
+    /**
+     * Constructs an engine with the default tick, poll interval and batch size.
+     */
+    public ExpiryScheduler() {
+        this(DEFAULT_TICK_MILLIS, DEFAULT_POLL_MILLIS, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs an engine with no policies.
+     *
+     * @param tickMillis wheel resolution and tick period
+     * @param pollMillis interval between polls for new allocations
+     * @param batchSize  allocations deleted per transaction
+     * @throws IllegalArgumentException if a number is less than 1
+     */
+    public ExpiryScheduler(long tickMillis, long pollMillis, int batchSize) {
+        if (tickMillis < 1 || pollMillis < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Tick, poll interval and batch size must be at least 1");
+        }
+        this.tickMillis = tickMillis;
+        this.pollMillis = pollMillis;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gets the shared engine, created on first use with the water policy and
+     * any policies in data/lifecycle.txt. It is not started.
+     *
+     * @return the shared engine
+     */
+    public static synchronized ExpiryScheduler getInstance() {
+        if (instance == null) {
+            ExpiryScheduler engine = new ExpiryScheduler();
+            engine.register(Water.LIFECYCLE);
+            File config = new File("data", "lifecycle.txt");
+            if (config.isFile()) {
+                try {
+                    engine.loadPolicies(config);
+                } catch (IOException e) {
+                    engine.report("Error reading " + config, e);
+                }
+            }
+            instance = engine;
+        }
+        return instance;
+    }
+
+    /**
+     * Registers a policy, replacing any other for its supply type.
+     *
+     * @param policy the policy
+     * @throws IllegalArgumentException if policy is null
+     */
+    public void register(LifecyclePolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Policy cannot be null");
+        }
+        policies.put(policy.getSupplyType(), policy);
+        rebuild = true;
+    }
+
+    /**
+     * Recalls every allocation of a type made before a date, on top of the
+     * type's existing policy.
+     *
+     * @param supplyType the supply type
+     * @param madeBefore allocations strictly before this are removed
+     */
+    public void recall(String supplyType, LocalDateTime madeBefore) {
+        LifecyclePolicy recall = LifecyclePolicy.recall(supplyType, madeBefore);
+        policies.merge(supplyType, recall, LifecyclePolicy::and);
+        rebuild = true;
+    }
+
+    /**
+     * Gets the policy for a supply type.
+     *
+     * @param supplyType the supply type
+     * @return the policy, or null if the type never expires
+     */
+    public LifecyclePolicy getPolicy(String supplyType) {
+        return supplyType == null ? null : policies.get(supplyType);
+    }
+
+    /**
+     * Registers one policy per line of a file (see {@link LifecyclePolicy#parse}).
+     * Blank lines and # comments are skipped; malformed lines are skipped
+     * and reported to the error log (see {@link #setErrorLogger}).
+     *
+     * @param file the policy file
+     * @return the number of policies registered
+     * @throws IOException if the file cannot be read
+     */
+    public int loadPolicies(File file) throws IOException {
+        int loaded = 0;
+        int lineNo = 0;
+        try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    register(LifecyclePolicy.parse(trimmed));
+                    loaded++;
+                } catch (IllegalArgumentException e) {
+                    report(file.getName() + " line " + lineNo + " skipped", e);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Runs one tick: polls for new allocations if the poll interval has
+     * passed (or a policy changed), then deletes every allocation now due.
+     *
+     * @param now the current time
+     * @return the number of allocations removed
+     * @throws SQLException if the poll or a delete fails
+     */
+    public synchronized int tick(LocalDateTime now) throws SQLException {
+        long nowMillis = toMillis(now);
+        if (rebuild) {
+            rebuild = false;
+            wheel = new TimerWheel<>(tickMillis, nowMillis);
+            pending.clear();
+            pendingByType.clear();
+            watermark = null;
+        }
+        DatabaseAccess access = DatabaseManager.getInstance().getAccess();
+        InventoryIndex index = InventoryIndex.getInstance();
+        if (watermark == null || nowMillis - lastPollMillis >= pollMillis) {
+            poll(access, now, nowMillis);
+        }
+        wheel.advance(nowMillis, due::add);
+        int removed = 0;
+        int done = 0;
+        List<DatabaseAccess.AllocationRow> rows = new ArrayList<>(Math.min(batchSize, due.size()));
+        try {
+            while (done < due.size()) {
+                List<Tracked> batch = due.subList(done, Math.min(due.size(), done + batchSize));
+                rows.clear();
+                for (Tracked t : batch) {
+                    rows.add(t.row);
+                }
+                Set<DatabaseAccess.AllocationRow> gone = Collections.newSetFromMap(new IdentityHashMap<>());
+                gone.addAll(access.removeAllocations(rows));
+                removed += gone.size();
+                for (Tracked t : batch) {
+                    pending.remove(t);
+                    pendingByType.get(t.type).decrementAndGet();
+                    if (gone.contains(t.row)) {
+                        index.released(t.type, t.row);
+                    }
+                }
+                done += batch.size();
+            }
+        } finally {
+            for (int i = done; i < due.size(); i++) {
+                wheel.schedule(due.get(i), nowMillis + pollMillis);
+            }
+            due.clear();
+            expired.addAndGet(removed);
+            pendingCount = pending.size();
+        }
+        return removed;
+    }
+
+    private void poll(DatabaseAccess access, LocalDateTime now, long nowMillis) throws SQLException {
+        LocalDateTime since = (watermark == null ? BEGINNING : watermark);
+        Map<String, List<DatabaseAccess.AllocationRow>> found =
+                access.findAllocationsByType(new ArrayList<>(policies.keySet()), since);
+        for (Map.Entry<String, List<DatabaseAccess.AllocationRow>> e : found.entrySet()) {
+            LifecyclePolicy policy = policies.get(e.getKey());
+            if (policy == null) {
+                continue;
+            }
+            for (DatabaseAccess.AllocationRow row : e.getValue()) {
+                LocalDateTime dueAt = policy.dueAt(row);
+                Tracked t = new Tracked(e.getKey(), row);
+                if (dueAt != null && pending.add(t)) {
+                    wheel.schedule(t, toMillis(dueAt));
+                    pendingByType.computeIfAbsent(t.type, k -> new AtomicInteger()).incrementAndGet();
+                }
+            }
+        }
+        watermark = now.minus(POLL_OVERLAP);
+        lastPollMillis = nowMillis;
+        pendingCount = pending.size();
+    }
+
+    private static long toMillis(LocalDateTime t) {
+        return t.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Sets where configuration problems are logged. Problems found before a
+     * logger was set, e.g. while the shared engine loaded its policy file,
+     * are logged now.
+     *
+     * @param errors the error log
+     * @throws IllegalArgumentException if errors is null
+     */
+    public void setErrorLogger(ErrorLogger errors) {
+        if (errors == null) {
+            throw new IllegalArgumentException("Error logger cannot be null");
+        }
+        List<Problem> backlog;
+        synchronized (unreported) {
+            this.errors = errors;
+            backlog = new ArrayList<>(unreported);
+            unreported.clear();
+        }
+        for (Problem p : backlog) {
+            errors.logError(p.message, p.error);
+        }
+    }
+
+    private void report(String message, Exception e) {
+        ErrorLogger log;
+        synchronized (unreported) {
+            log = errors;
+            if (log == null) {
+                unreported.add(new Problem(message, e));
+                return;
+            }
+        }
+        log.logError(message, e);
+    }
+
+    /**
+     * Starts ticking on a daemon thread. Failures are logged and the next
+     * tick carries on. Does nothing if already started.
+     *
+     * @param errors where failed ticks and configuration problems are logged
+     */
+    public synchronized void start(ErrorLogger errors) {
+        setErrorLogger(errors);
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "supply-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                tick(LocalDateTime.now());
+            } catch (SQLException | RuntimeException e) {
+                errors.logError("Expiry tick failed", e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the number of allocations scheduled for removal.
+     *
+     * @return the pending count as of the last tick
+     */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Gets the number of allocations of one type scheduled for removal.
+     *
+     * @param supplyType the supply type
+     * @return the pending count as of the last tick
+     */
+    public int getPendingCount(String supplyType) {
+        AtomicInteger n = pendingByType.get(supplyType);
+        return n == null ? 0 : n.get();
+    }
+
+    /**
+     * Gets the number of allocations removed so far.
+     *
+     * @return the expired count
+     */
+    public long getExpiredCount() {
+        return expired.get();
+    }
+
+    /**
+     * Stops ticking. A later {@link #start} carries on where this left off.
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService ex;
+        synchronized (this) {
+            ex = executor;
+            executor = null;
+        }
+        if (ex != null) {
+            ex.shutdownNow();
+        }
+    }
+}
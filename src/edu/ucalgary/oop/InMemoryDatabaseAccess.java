@@ -0,0 +1,533 @@
+package edu.ucalgary.oop;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * InMemoryDatabaseAccess implements {@link DatabaseAccess} entirely in memory.
+ *
+ * <p>
+ * Each table is a sorted concurrent map keyed by its primary key, so lookups
+ * and keyset range scans need no locking. Foreign keys are checked on insert
+ * and each foreign-key column has its own index (e.g. allocations by person,
+ * occupants by location), so the "for person" and "for location" lookups
+ * never scan a whole table.
+ * </p>
+ *
+ * Rows are immutable, so readers always see a consistent row. Writes that
+ * touch several indexes at once (allocations, person-location moves) lock a
+ * stripe chosen by supply or person ID, so unrelated writes run in parallel.
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class InMemoryDatabaseAccess implements DatabaseAccess {
+    private static final int STRIPES = 64;
+
+    private final ConcurrentSkipListMap<Integer, PersonRow> persons = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Integer, LocationRow> locations = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Integer, SupplyRow> supplies = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Integer, InquiryRow> inquiries = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Integer, MedicalRecordRow> medicalRecords = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<AllocationKey, AllocationRow> allocations = new ConcurrentSkipListMap<>();
+
+    private final AtomicInteger personSeq = new AtomicInteger();
+    private final AtomicInteger locationSeq = new AtomicInteger();
+    private final AtomicInteger supplySeq = new AtomicInteger();
+    private final AtomicInteger inquirySeq = new AtomicInteger();
+    private final AtomicInteger medicalSeq = new AtomicInteger();
+
+    private final ConcurrentMap<Integer, NavigableSet<Integer>> locationsByPerson = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, NavigableSet<Integer>> occupantsByLocation = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, NavigableSet<AllocationKey>> allocationsBySupply = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, NavigableSet<AllocationKey>> allocationsByPerson = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, NavigableSet<AllocationKey>> allocationsByLocation = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, NavigableSet<Integer>> inquiriesByPerson = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, NavigableSet<Integer>> medicalByPerson = new ConcurrentHashMap<>();
+
+    private final Object[] supplyLocks = newLocks();
+    private final Object[] personLocks = newLocks();
+
+    private static Object[] newLocks() {
+        Object[] locks = new Object[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    private static Object stripe(Object[] locks, int id) {
+        return locks[Math.floorMod(id, STRIPES)];
+    }
+
+    private static <K, V extends Comparable<V>> NavigableSet<V> index(ConcurrentMap<K, NavigableSet<V>> idx, K key) {
+        return idx.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>());
+    }
+
+    private static <K, V extends Comparable<V>> NavigableSet<V> lookup(ConcurrentMap<K, NavigableSet<V>> idx, K key) {
+        NavigableSet<V> set = idx.get(key);
+        return set == null ? Collections.emptyNavigableSet() : set;
+    }
+
+    private static void requireKey(ConcurrentSkipListMap<Integer, ?> table, Integer id, String what)
+            throws SQLException {
+        if (id != null && !table.containsKey(id)) {
+            throw new SQLException(what + " " + id + " does not exist", FOREIGN_KEY_VIOLATION);
+        }
+    }
+
+    private static <T> List<T> range(ConcurrentSkipListMap<Integer, T> table, int afterId, int limit) {
+        List<T> out = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+        ConcurrentNavigableMap<Integer, T> tail = table.tailMap(afterId, false);
+        for (T row : tail.values()) {
+            if (out.size() >= limit) {
+                break;
+            }
+            out.add(row);
+        }
+        return out;
+    }
+
+    /**
+     * Summarizes the row count of each table, for tests and diagnostics.
+     *
+     * @return "persons=.., locations=.., ..." counts
+     */
+    @Override
+    public String toString() {
+        return String.format("persons=%d, locations=%d, supplies=%d, allocations=%d, inquiries=%d, medicalRecords=%d",
+                persons.size(), locations.size(), supplies.size(), allocations.size(),
+                inquiries.size(), medicalRecords.size());
+    }
+
+    // ---------- Persons ----------
+
+    @Override
+    public int insertPerson(PersonRow person) {
+        int id = personSeq.incrementAndGet();
+        persons.put(id, person.withId(id));
+        return id;
+    }
+
+    @Override
+    public PersonRow findPerson(int personId) {
+        return persons.get(personId);
+    }
+
+    @Override
+    public boolean updatePerson(PersonRow person) {
+        return persons.replace(person.getId(), person) != null;
+    }
+
+    @Override
+    public List<PersonRow> listPersons(int afterId, int limit) {
+        return range(persons, afterId, limit);
+    }
+
+    // ---------- Locations ----------
+
+    @Override
+    public int insertLocation(LocationRow location) {
+        int id = locationSeq.incrementAndGet();
+        locations.put(id, location.withId(id));
+        return id;
+    }
+
+    @Override
+    public LocationRow findLocation(int locationId) {
+        return locations.get(locationId);
+    }
+
+    @Override
+    public List<LocationRow> listLocations() {
+        return new ArrayList<>(locations.values());
+    }
+
+    @Override
+    public void reassignPersonToLocation(int personId, int locationId) throws SQLException {
+        requireKey(persons, personId, "Person");
+        requireKey(locations, locationId, "Location");
+        synchronized (stripe(personLocks, personId)) {
+            NavigableSet<Integer> current = index(locationsByPerson, personId);
+            for (Integer old : current) {
+                lookup(occupantsByLocation, old).remove(personId);
+            }
+            current.clear();
+            current.add(locationId);
+            index(occupantsByLocation, locationId).add(personId);
+        }
+    }
+
+    @Override
+    public List<Integer> findOccupantIds(int locationId) {
+        return new ArrayList<>(lookup(occupantsByLocation, locationId));
+    }
+
+    @Override
+    public List<Integer> findLocationIds(int personId) {
+        return new ArrayList<>(lookup(locationsByPerson, personId));
+    }
+
+    // ---------- Supplies ----------
+
+    @Override
+    public int insertSupply(SupplyRow supply) {
+        int id = supplySeq.incrementAndGet();
+        supplies.put(id, supply.withId(id));
+        return id;
+    }
+
+    @Override
+    public SupplyRow findSupply(int supplyId) {
+        return supplies.get(supplyId);
+    }
+
+    @Override
+    public List<SupplyRow> listSupplies(int afterId, int limit) {
+        return range(supplies, afterId, limit);
+    }
+
+    // ---------- Allocations ----------
+
+    @Override
+    public AllocationRow allocateToPerson(int supplyId, int personId, LocalDateTime at) throws SQLException {
+        if (at == null) {
+            throw new IllegalArgumentException("Allocation time cannot be null");
+        }
+        requireKey(supplies, supplyId, "Supply");
+        requireKey(persons, personId, "Person");
+        synchronized (stripe(supplyLocks, supplyId)) {
+            AllocationKey stocked = requireUnallocated(supplyId, true);
+            AllocationRow moved = null;
+            if (stocked != null) {
+                moved = allocations.get(stocked);
+                removeAllocation(stocked, moved);
+            }
+            addAllocation(new AllocationKey(supplyId, at), new AllocationRow(supplyId, personId, null, at));
+            return moved;
+        }
+    }
+
+    @Override
+    public void allocateToLocation(int supplyId, int locationId, LocalDateTime at) throws SQLException {
+        if (at == null) {
+            throw new IllegalArgumentException("Allocation time cannot be null");
+        }
+        requireKey(supplies, supplyId, "Supply");
+        requireKey(locations, locationId, "Location");
+        synchronized (stripe(supplyLocks, supplyId)) {
+            requireUnallocated(supplyId, false);
+            addAllocation(new AllocationKey(supplyId, at), new AllocationRow(supplyId, null, locationId, at));
+        }
+    }
+
+    @Override
+    public Distribution allocateToOccupants(int locationId, String supplyType, int maxPerPerson, LocalDateTime at)
+            throws SQLException {
+        if (at == null) {
+            throw new IllegalArgumentException("Allocation time cannot be null");
+        }
+        requireKey(locations, locationId, "Location");
+        List<AllocationRow> stock = new ArrayList<>();
+        for (AllocationRow row : rowsFor(lookup(allocationsByLocation, locationId))) {
+            if (row.getPersonId() == null && isType(row, supplyType)) {
+                stock.add(row);
+            }
+        }
+        stock.sort((a, b) -> a.getAllocationDate().compareTo(b.getAllocationDate()));
+        Map<Integer, Integer> occupants = new LinkedHashMap<>();
+        for (Integer personId : lookup(occupantsByLocation, locationId)) {
+            int held = 0;
+            for (AllocationRow row : rowsFor(lookup(allocationsByPerson, personId))) {
+                if (isType(row, supplyType)) {
+                    held++;
+                }
+            }
+            occupants.put(personId, held);
+        }
+        Map<Integer, AllocationRow> stocked = new HashMap<>();
+        for (AllocationRow row : stock) {
+            stocked.putIfAbsent(row.getSupplyId(), row);
+        }
+        List<AllocationRow> made = new ArrayList<>();
+        // Rows are immutable, so the same instance means the item is still in
+        // stock; items taken by another session in the meantime are skipped.
+        for (AllocationRow a : Distribution.plan(stock, occupants, maxPerPerson, at)) {
+            AllocationRow from = stocked.get(a.getSupplyId());
+            synchronized (stripe(supplyLocks, a.getSupplyId())) {
+                AllocationKey key = new AllocationKey(from.getSupplyId(), from.getAllocationDate());
+                AllocationKey moved = new AllocationKey(a.getSupplyId(), at);
+                if (allocations.get(key) == from && (moved.equals(key) || !allocations.containsKey(moved))) {
+                    removeAllocation(key, from);
+                    addAllocation(moved, a);
+                    made.add(a);
+                }
+            }
+        }
+        return new Distribution(locationId, supplyType, occupants.size(), stock.size(), made);
+    }
+
+    private boolean isType(AllocationRow row, String supplyType) {
+        SupplyRow supply = supplies.get(row.getSupplyId());
+        return supply != null && supplyType.equals(supply.getType());
+    }
+
+    @Override
+    public List<AllocationRow> findAllocationsForPerson(int personId) {
+        return rowsFor(lookup(allocationsByPerson, personId));
+    }
+
+    @Override
+    public List<AllocationRow> findAllocationsForLocation(int locationId) {
+        return rowsFor(lookup(allocationsByLocation, locationId));
+    }
+
+    @Override
+    public List<AllocationRow> findAllocationsForSupply(int supplyId) {
+        return rowsFor(lookup(allocationsBySupply, supplyId));
+    }
+
+    @Override
+    public int removeExpiredAllocations(String supplyType, LocalDateTime cutoff) {
+        int removed = 0;
+        for (AllocationRow row : allocations.values()) {
+            if (row.getPersonId() == null || !row.getAllocationDate().isBefore(cutoff)) {
+                continue;
+            }
+            SupplyRow supply = supplies.get(row.getSupplyId());
+            if (supply == null || !supplyType.equals(supply.getType())) {
+                continue;
+            }
+            synchronized (stripe(supplyLocks, row.getSupplyId())) {
+                AllocationKey key = new AllocationKey(row.getSupplyId(), row.getAllocationDate());
+                if (allocations.get(key) == row) {
+                    removeAllocation(key, row);
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public Map<String, List<AllocationRow>> findAllocationsByType(Collection<String> supplyTypes, LocalDateTime since) {
+        Map<String, List<AllocationRow>> out = new HashMap<>();
+        for (AllocationRow row : allocations.values()) {
+            if (row.getAllocationDate().isBefore(since)) {
+                continue;
+            }
+            SupplyRow supply = supplies.get(row.getSupplyId());
+            if (supply != null && supplyTypes.contains(supply.getType())) {
+                out.computeIfAbsent(supply.getType(), t -> new ArrayList<>()).add(row);
+            }
+        }
+        for (List<AllocationRow> rows : out.values()) {
+            rows.sort((a, b) -> a.getAllocationDate().compareTo(b.getAllocationDate()));
+        }
+        return out;
+    }
+
+    @Override
+    public List<AllocationRow> removeAllocations(List<AllocationRow> rows) {
+        List<AllocationRow> removed = new ArrayList<>(rows.size());
+        for (AllocationRow row : rows) {
+            synchronized (stripe(supplyLocks, row.getSupplyId())) {
+                AllocationKey key = new AllocationKey(row.getSupplyId(), row.getAllocationDate());
+                AllocationRow current = allocations.get(key);
+                if (current != null && Objects.equals(current.getPersonId(), row.getPersonId())
+                        && Objects.equals(current.getLocationId(), row.getLocationId())) {
+                    removeAllocation(key, current);
+                    removed.add(row);
+                }
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public List<InventoryRow> countAllocations() {
+        Map<List<Object>, Long> counts = new HashMap<>();
+        for (AllocationRow row : allocations.values()) {
+            SupplyRow supply = supplies.get(row.getSupplyId());
+            if (supply != null) {
+                counts.merge(Arrays.asList(row.getPersonId(), row.getLocationId(), supply.getType()), 1L, Long::sum);
+            }
+        }
+        List<InventoryRow> out = new ArrayList<>(counts.size());
+        for (Map.Entry<List<Object>, Long> e : counts.entrySet()) {
+            List<Object> k = e.getKey();
+            out.add(new InventoryRow((Integer) k.get(0), (Integer) k.get(1), (String) k.get(2), e.getValue()));
+        }
+        return out;
+    }
+
+    private void addAllocation(AllocationKey key, AllocationRow row) {
+        allocations.put(key, row);
+        index(allocationsBySupply, key.supplyId).add(key);
+        if (row.getPersonId() != null) {
+            index(allocationsByPerson, row.getPersonId()).add(key);
+        }
+        if (row.getLocationId() != null) {
+            index(allocationsByLocation, row.getLocationId()).add(key);
+        }
+    }
+
+    private void removeAllocation(AllocationKey key, AllocationRow row) {
+        allocations.remove(key);
+        lookup(allocationsBySupply, key.supplyId).remove(key);
+        if (row.getPersonId() != null) {
+            lookup(allocationsByPerson, row.getPersonId()).remove(key);
+        }
+        if (row.getLocationId() != null) {
+            lookup(allocationsByLocation, row.getLocationId()).remove(key);
+        }
+    }
+
+    private List<AllocationRow> rowsFor(Set<AllocationKey> keys) {
+        List<AllocationRow> out = new ArrayList<>(keys.size());
+        for (AllocationKey key : keys) {
+            AllocationRow row = allocations.get(key);
+            if (row != null) {
+                out.add(row);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Fails if the supply is already allocated: to any person, or, unless
+     * stock may move, to a location. Callers hold the supply's lock.
+     *
+     * @return the key of the location allocation that may move, or null if
+     *         the supply is unallocated
+     */
+    private AllocationKey requireUnallocated(int supplyId, boolean stockMayMove) throws SQLException {
+        for (AllocationKey key : lookup(allocationsBySupply, supplyId)) {
+            AllocationRow row = allocations.get(key);
+            if (row == null) {
+                continue;
+            }
+            if (row.getPersonId() != null) {
+                throw new SQLException("Supply " + supplyId + " is already allocated to person "
+                        + row.getPersonId(), ALLOCATION_CONFLICT);
+            }
+            if (!stockMayMove) {
+                throw new SQLException("Supply " + supplyId + " is already stocked at location "
+                        + row.getLocationId(), ALLOCATION_CONFLICT);
+            }
+            return key;
+        }
+        return null;
+    }
+
+    // ---------- Inquiries ----------
+
+    @Override
+    public int insertInquiry(InquiryRow inquiry) throws SQLException {
+        requireKey(persons, inquiry.getInquirerId(), "Person");
+        requireKey(persons, inquiry.getSeekingId(), "Person");
+        requireKey(locations, inquiry.getLocationId(), "Location");
+        int id = inquirySeq.incrementAndGet();
+        inquiries.put(id, inquiry.withId(id));
+        index(inquiriesByPerson, inquiry.getInquirerId()).add(id);
+        index(inquiriesByPerson, inquiry.getSeekingId()).add(id);
+        return id;
+    }
+
+    @Override
+    public InquiryRow findInquiry(int inquiryId) {
+        return inquiries.get(inquiryId);
+    }
+
+    @Override
+    public List<InquiryRow> findInquiriesForPerson(int personId) {
+        List<InquiryRow> out = new ArrayList<>();
+        for (Integer id : lookup(inquiriesByPerson, personId)) {
+            InquiryRow row = inquiries.get(id);
+            if (row != null) {
+                out.add(row);
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public List<InquiryRow> listInquiries(int afterId, int limit) {
+        return range(inquiries, afterId, limit);
+    }
+
+    // ---------- Medical records ----------
+
+    @Override
+    public int insertMedicalRecord(MedicalRecordRow record) throws SQLException {
+        requireKey(persons, record.getPersonId(), "Person");
+        requireKey(locations, record.getLocationId(), "Location");
+        int id = medicalSeq.incrementAndGet();
+        medicalRecords.put(id, record.withId(id));
+        index(medicalByPerson, record.getPersonId()).add(id);
+        return id;
+    }
+
+    @Override
+    public List<MedicalRecordRow> findMedicalRecordsForPerson(int personId) {
+        List<MedicalRecordRow> out = new ArrayList<>();
+        for (Integer id : lookup(medicalByPerson, personId)) {
+            MedicalRecordRow row = medicalRecords.get(id);
+            if (row != null) {
+                out.add(row);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Primary key of supplyallocation: (supply_id, allocation_date).
+     */
+    private static final class AllocationKey implements Comparable<AllocationKey> {
+        private final int supplyId;
+        private final LocalDateTime date;
+
+        private AllocationKey(int supplyId, LocalDateTime date) {
+            this.supplyId = supplyId;
+            this.date = date;
+        }
+
+        @Override
+        public int compareTo(AllocationKey o) {
+            int c = Integer.compare(supplyId, o.supplyId);
+            return c != 0 ? c : date.compareTo(o.date);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof AllocationKey)) {
+                return false;
+            }
+            AllocationKey k = (AllocationKey) o;
+            return supplyId == k.supplyId && date.equals(k.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * supplyId + date.hashCode();
+        }
+    }
+}
@@ -2,8 +2,6 @@ package edu.ucalgary.oop;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Types;
-import java.sql.Statement;
 import java.sql.ResultSet;
 import java.sql.PreparedStatement;
 import java.sql.Timestamp;
@@ -185,48 +183,36 @@ public class Inquiry {
      */
     public static void createInquiry(int inquirerID, int missingID, Integer locID,
                                      String dateStr, String comments) throws SQLException {
-        Connection conn = DatabaseManager.getInstance().getConnection();
-        if (conn == null) {
-            throw new IllegalStateException("DB not connected");
-        }
-        String sql = "INSERT INTO inquiry (inquirer_id, seeking_id, location_id, date_of_inquiry, comments) VALUES (?,?,?,?,?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, inquirerID);
-            ps.setInt(2, missingID);
-            if (locID == null) {
-                ps.setNull(3, Types.INTEGER);
-            } else {
-                ps.setInt(3, locID);
-            }
-            String finalDate = (dateStr == null || dateStr.isEmpty()) ? "2025-01-01" : dateStr;
-            ps.setTimestamp(4, Timestamp.valueOf(finalDate + " 00:00:00"));
-            ps.setString(5, (comments == null ? "" : comments));
-            ps.executeUpdate();
-        }
+        String finalDate = (dateStr == null || dateStr.isEmpty()) ? "2025-01-01" : dateStr;
+        DatabaseManager.getInstance().getAccess().insertInquiry(new DatabaseAccess.InquiryRow(0,
+                inquirerID, missingID, locID, Timestamp.valueOf(finalDate + " 00:00:00").toLocalDateTime(),
+                (comments == null ? "" : comments)));
     }
 
+    private static final KeysetListing INQUIRY_LISTING = new KeysetListing(
+            "SELECT inquiry_id, inquirer_id, seeking_id, location_id, date_of_inquiry, comments FROM inquiry",
+            rs -> LanguageManager.getDefault().formatLine(MessageKey.ROW_INQUIRY,
+                    rs.getInt("inquiry_id"), rs.getInt("inquirer_id"), rs.getInt("seeking_id"),
+                    rs.getObject("location_id"), rs.getTimestamp("date_of_inquiry"), rs.getString("comments")),
+            "inquiry_id");
+
     /**
-     * Lists all inquiries in ascending order of inquiry_id.
+     * Lists all inquiries in ascending order of inquiry_id, streaming rows
+     * through a cursor.
      *
      * @throws SQLException if query fails
      */
     public static void listAllInquiriesSafe() throws SQLException {
-        Connection conn = DatabaseManager.getInstance().getConnection();
-        if (conn == null) throw new IllegalStateException("DB not connected");
-        String sql = "SELECT inquiry_id, inquirer_id, seeking_id, location_id, date_of_inquiry, comments "
-                + "FROM inquiry ORDER BY inquiry_id ASC";
-        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                int inqID   = rs.getInt("inquiry_id");
-                int iqr     = rs.getInt("inquirer_id");
-                int mis     = rs.getInt("seeking_id");
-                Integer loc = (Integer) rs.getObject("location_id");
-                String dt   = String.valueOf(rs.getTimestamp("date_of_inquiry"));
-                String cmt  = rs.getString("comments");
-                System.out.printf("Inquiry %d => inquirer:%d, missing:%d, loc:%s, date:%s, comment:%s\n",
-                        inqID, iqr, mis, (loc==null?"null":loc), dt, cmt);
-            }
-        }
+        INQUIRY_LISTING.streamAll(System.out);
+    }
+
+    /**
+     * Gets the keyset listing of all inquiries, for paging.
+     *
+     * @return the inquiry listing
+     */
+    public static KeysetListing inquiryListing() {
+        return INQUIRY_LISTING;
     }
 
     /**
@@ -242,24 +228,26 @@ public class Inquiry {
         System.out.println("\n= INQUIRIES =");
         String sql = "SELECT inquiry_id, inquirer_id, seeking_id, location_id, date_of_inquiry, comments "
                 + "FROM inquiry WHERE inquirer_id=? OR seeking_id=? ORDER BY inquiry_id ASC";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (conn; PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, personId);
             ps.setInt(2, personId);
-            try (ResultSet rs = ps.executeQuery()) {
+            try (ResultSet rs = ps.executeQuery(); OutputSink out = OutputSink.toConsole()) {
+                MessageTemplate row = LanguageManager.getDefault().getTemplate(MessageKey.ROW_INQUIRY_DETAIL);
+                StringBuilder line = new StringBuilder(160);
                 boolean any = false;
                 while (rs.next()) {
                     any = true;
                     int iq = rs.getInt("inquiry_id");
                     int iqr= rs.getInt("inquirer_id");
                     int mis= rs.getInt("seeking_id");
-                    Integer loc = (Integer) rs.getObject("location_id");
-                    String dt   = String.valueOf(rs.getTimestamp("date_of_inquiry"));
+                    Object loc  = rs.getObject("location_id");
+                    Object dt   = rs.getTimestamp("date_of_inquiry");
                     String cmt  = rs.getString("comments");
-                    System.out.printf("InquiryID=%d => inquirer=%d, missing=%d, location=%s, date=%s, comments=%s\n",
-                            iq, iqr, mis, (loc==null?"null":loc), dt, cmt);
+                    line.setLength(0);
+                    out.println(row.appendTo(line, iq, iqr, mis, loc, dt, cmt));
                 }
                 if (!any) {
-                    System.out.println("(None)");
+                    out.println("(None)");
                 }
             }
         }
@@ -326,7 +314,7 @@ public class Inquiry {
         Connection conn = DatabaseManager.getInstance().getConnection();
         if (conn == null) throw new IllegalStateException("DB not connected");
 
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (conn; PreparedStatement ps = conn.prepareStatement(sql)) {
             int idx = 1;
             if (newInquirerId != null && !newInquirerId.isEmpty()) {
                 ps.setInt(idx++, Integer.parseInt(newInquirerId));
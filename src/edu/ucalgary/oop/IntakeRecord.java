@@ -0,0 +1,127 @@
+package edu.ucalgary.oop;
+
+/**
+ * IntakeRecord is one row of a victim roster waiting to be inserted
+ * into the person table by {@link BulkIntake}, optionally with a family
+ * group and the shelter the person is placed at.
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class IntakeRecord {
+    private final String firstName;
+    private final String lastName;
+    private final String dateOfBirth;
+    private final String gender;
+    private final String phone;
+    private final Integer familyGroup;
+    private final Integer locationId;
+
+    /**
+     * Constructs an IntakeRecord.
+     *
+     * @param firstName   the first name
+     * @param lastName    the last name
+     * @param dateOfBirth date of birth (yyyy-mm-dd) or null
+     * @param gender      the gender string or null
+     * @param phone       the phone or null
+     * @throws IllegalArgumentException if a name is null/empty or the date is malformed
+     */
+    public IntakeRecord(String firstName, String lastName, String dateOfBirth, String gender, String phone) {
+        this(firstName, lastName, dateOfBirth, gender, phone, null, null);
+    }
+
+    /**
+     * Constructs an IntakeRecord with a family group and placement.
+     *
+     * @param firstName   the first name
+     * @param lastName    the last name
+     * @param dateOfBirth date of birth (yyyy-mm-dd) or null
+     * @param gender      the gender string or null
+     * @param phone       the phone or null
+     * @param familyGroup the family group or null
+     * @param locationId  the location the person is placed at, or null
+     * @throws IllegalArgumentException if a name is null/empty or the date or
+     *                                  phone is malformed
+     */
+    public IntakeRecord(String firstName, String lastName, String dateOfBirth, String gender, String phone,
+                        Integer familyGroup, Integer locationId) {
+        Person.requireNonEmpty(firstName, "First name cannot be null or empty");
+        Person.requireNonEmpty(lastName, "Last name cannot be null or empty");
+        if (dateOfBirth != null && !DisasterVictim.isValidDateFormat(dateOfBirth)) {
+            throw new IllegalArgumentException("Invalid birth date format (yyyy-MM-dd).");
+        }
+        Person.requireValidPhone(phone);
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.dateOfBirth = dateOfBirth;
+        this.gender = gender;
+        this.phone = phone;
+        this.familyGroup = familyGroup;
+        this.locationId = locationId;
+    }
+
+    /**
+     * Gets the first name.
+     *
+     * @return the first name
+     */
+    public String getFirstName() {
+        return firstName;
+    }
+
+    /**
+     * Gets the last name.
+     *
+     * @return the last name
+     */
+    public String getLastName() {
+        return lastName;
+    }
+
+    /**
+     * Gets the date of birth.
+     *
+     * @return yyyy-mm-dd or null
+     */
+    public String getDateOfBirth() {
+        return dateOfBirth;
+    }
+
+    /**
+     * Gets the gender.
+     *
+     * @return the gender or null
+     */
+    public String getGender() {
+        return gender;
+    }
+
+    /**
+     * Gets the phone.
+     *
+     * @return the phone or null
+     */
+    public String getPhone() {
+        return phone;
+    }
+
+    /**
+     * Gets the family group.
+     *
+     * @return the family group or null
+     */
+    public Integer getFamilyGroup() {
+        return familyGroup;
+    }
+
+    /**
+     * Gets the location the person is placed at.
+     *
+     * @return the location ID or null
+     */
+    public Integer getLocationId() {
+        return locationId;
+    }
+}
@@ -0,0 +1,359 @@
+package edu.ucalgary.oop;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * InventoryIndex keeps live counts of allocated supplies per (location,
+ * type) and per (person, type), so questions like "how many waters are
+ * left at TELUS" are a map lookup instead of a join of supplyallocation
+ * and supply.
+ *
+ * <p>
+ * The counts are rebuilt from one grouped query at startup
+ * ({@link #rebuild()}) and then maintained incrementally by the code that
+ * changes allocations: {@link Item} when a supply is allocated, moved from
+ * a location to a person or distributed, and {@link ExpiryScheduler} when
+ * allocations expire. Each count is a {@link LongAdder}, so concurrent
+ * allocations update it without contending on one value.
+ * </p>
+ *
+ * Changes made inside a transaction bound by
+ * {@link DatabaseManager#beginTransaction()} are held back until it
+ * commits and dropped if it rolls back. The index only sees changes made
+ * by this process; changes made directly in the database or by another
+ * node show up at the next rebuild. A supply type edit moves that
+ * supply's allocations to the new type; a bulk sweep that does not report
+ * which allocations it removed triggers a rebuild.
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class InventoryIndex {
+    /** Type code under which a holder's total across types is kept. */
+    private static final int ALL_TYPES = 0;
+
+    private static InventoryIndex instance;
+
+    /**
+     * One generation of counts, replaced whole by a rebuild. Keys pack the
+     * holder ID and a type code into one long.
+     */
+    private static final class Counts {
+        private final ConcurrentMap<Long, LongAdder> byLocation = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Long, LongAdder> byPerson = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * A change held back until the transaction that made it commits.
+     */
+    private static final class Change {
+        private final String type;
+        private final Integer personId;
+        private final Integer locationId;
+        private final long delta;
+
+        private Change(String type, Integer personId, Integer locationId, long delta) {
+            this.type = type;
+            this.personId = personId;
+            this.locationId = locationId;
+            this.delta = delta;
+        }
+    }
+
+    /**
+     * The changes, the retyped supplies and whether a rebuild was requested,
+     * of the calling thread's open transaction.
+     */
+    private static final class Pending {
+        private final List<Change> changes = new ArrayList<>();
+        private final List<Integer> retyped = new ArrayList<>();
+        private boolean rebuild;
+    }
+
+    private final ConcurrentMap<String, Integer> typeCodes = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTypeCode = new AtomicInteger(ALL_TYPES);
+    private final ConcurrentMap<Integer, String> supplyTypes = new ConcurrentHashMap<>();
+    private final ThreadLocal<Pending> pending = new ThreadLocal<>();
+    private final LongAdder updateCount = new LongAdder();
+    private final LongAdder rebuildCount = new LongAdder();
+    private volatile Counts counts = new Counts();
+
+    /**
+     * Gets the shared index. It is empty until {@link #rebuild()} is called.
+     *
+     * @return the shared index
+     */
+    public static synchronized InventoryIndex getInstance() {
+        if (instance == null) {
+            instance = new InventoryIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * Replaces every count with fresh ones read from the active
+     * {@link DatabaseAccess} in one grouped query. Changes made while the
+     * query runs may be lost, so call it at startup or when the counts are
+     * known to be stale. Inside a transaction the rebuild runs when it commits.
+     *
+     * @return the number of allocations counted, or -1 if deferred
+     * @throws SQLException if the query fails; the old counts are kept
+     */
+    public int rebuild() throws SQLException {
+        if (DatabaseManager.getInstance().inTransaction()) {
+            pending().rebuild = true;
+            return -1;
+        }
+        Counts fresh = new Counts();
+        long total = 0;
+        for (DatabaseAccess.InventoryRow row : DatabaseManager.getInstance().getAccess().countAllocations()) {
+            add(fresh, row.getSupplyType(), row.getPersonId(), row.getLocationId(), row.getCount());
+            total += row.getCount();
+        }
+        supplyTypes.clear();
+        counts = fresh;
+        rebuildCount.increment();
+        return (int) Math.min(Integer.MAX_VALUE, total);
+    }
+
+    /**
+     * Forgets every count and cached supply type, e.g. when the active
+     * {@link DatabaseAccess} is replaced.
+     */
+    public void clear() {
+        supplyTypes.clear();
+        counts = new Counts();
+    }
+
+    /**
+     * Records that allocations of a type were added to (positive delta) or
+     * removed from (negative delta) a person or a location.
+     *
+     * @param supplyType the supply type; nothing is recorded if null
+     * @param personId   the person holding them, or null
+     * @param locationId the location holding them, or null
+     * @param delta      the change in count
+     */
+    void adjust(String supplyType, Integer personId, Integer locationId, long delta) {
+        if (supplyType == null || delta == 0) {
+            return;
+        }
+        if (DatabaseManager.getInstance().inTransaction()) {
+            pending().changes.add(new Change(supplyType, personId, locationId, delta));
+            return;
+        }
+        add(counts, supplyType, personId, locationId, delta);
+    }
+
+    /**
+     * Records that an allocation was removed.
+     *
+     * @param supplyType the supply type
+     * @param allocation the allocation, as it was held
+     */
+    void released(String supplyType, DatabaseAccess.AllocationRow allocation) {
+        adjust(supplyType, allocation.getPersonId(), allocation.getLocationId(), -1);
+    }
+
+    /**
+     * Records that a supply's type was edited, by moving its allocations
+     * from the old type's counts to the new type's. Other counts are left
+     * alone, so concurrent allocations of other supplies are not lost.
+     *
+     * @param supplyId the supply
+     * @param oldType  its type before the edit, or null if it was unknown
+     * @param newType  its type now
+     * @throws SQLException if its allocations cannot be read
+     */
+    void retyped(int supplyId, String oldType, String newType) throws SQLException {
+        supplyTypes.remove(supplyId);
+        if (DatabaseManager.getInstance().inTransaction()) {
+            pending().retyped.add(supplyId);
+        }
+        if (oldType == null || oldType.equals(newType)) {
+            return;
+        }
+        for (DatabaseAccess.AllocationRow a
+                : DatabaseManager.getInstance().getAccess().findAllocationsForSupply(supplyId)) {
+            adjust(oldType, a.getPersonId(), a.getLocationId(), -1);
+            adjust(newType, a.getPersonId(), a.getLocationId(), 1);
+        }
+    }
+
+    /**
+     * Gets a supply's type, read once from the database and cached.
+     *
+     * @param supplyId the supply
+     * @return the type, or null if the supply does not exist
+     * @throws SQLException if the lookup fails
+     */
+    String typeOf(int supplyId) throws SQLException {
+        String type = supplyTypes.get(supplyId);
+        if (type == null) {
+            DatabaseAccess.SupplyRow supply = DatabaseManager.getInstance().getAccess().findSupply(supplyId);
+            if (supply == null) {
+                return null;
+            }
+            type = supply.getType();
+            supplyTypes.put(supplyId, type);
+        }
+        return type;
+    }
+
+    /**
+     * Applies or drops the changes held back by the calling thread's
+     * transaction. Called by {@link DatabaseManager} when the transaction ends.
+     *
+     * @param committed true if the transaction committed
+     * @throws SQLException if a rebuild was requested and fails
+     */
+    void endTransaction(boolean committed) throws SQLException {
+        Pending p = pending.get();
+        if (p == null) {
+            return;
+        }
+        pending.remove();
+        // A type read inside the transaction may have been cached; read it again.
+        for (Integer supplyId : p.retyped) {
+            supplyTypes.remove(supplyId);
+        }
+        if (!committed) {
+            return;
+        }
+        if (p.rebuild) {
+            rebuild();
+            return;
+        }
+        for (Change c : p.changes) {
+            add(counts, c.type, c.personId, c.locationId, c.delta);
+        }
+    }
+
+    private Pending pending() {
+        Pending p = pending.get();
+        if (p == null) {
+            p = new Pending();
+            pending.set(p);
+        }
+        return p;
+    }
+
+    private void add(Counts into, String supplyType, Integer personId, Integer locationId, long delta) {
+        int code = typeCodes.computeIfAbsent(supplyType, t -> nextTypeCode.incrementAndGet());
+        if (personId != null) {
+            counter(into.byPerson, personId, code).add(delta);
+            counter(into.byPerson, personId, ALL_TYPES).add(delta);
+        }
+        if (locationId != null) {
+            counter(into.byLocation, locationId, code).add(delta);
+            counter(into.byLocation, locationId, ALL_TYPES).add(delta);
+        }
+        updateCount.increment();
+    }
+
+    private static LongAdder counter(ConcurrentMap<Long, LongAdder> map, int holderId, int code) {
+        Long key = key(holderId, code);
+        LongAdder n = map.get(key);
+        return n != null ? n : map.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private static long key(int holderId, int code) {
+        return ((long) holderId << 32) | (code & 0xffffffffL);
+    }
+
+    private long count(ConcurrentMap<Long, LongAdder> map, int holderId, String supplyType) {
+        Integer code = (supplyType == null ? Integer.valueOf(ALL_TYPES) : typeCodes.get(supplyType));
+        if (code == null) {
+            return 0;
+        }
+        LongAdder n = map.get(key(holderId, code));
+        return n == null ? 0 : n.sum();
+    }
+
+    private Map<String, Long> counts(ConcurrentMap<Long, LongAdder> map, int holderId) {
+        Map<String, Long> out = new TreeMap<>();
+        for (Map.Entry<String, Integer> e : typeCodes.entrySet()) {
+            LongAdder n = map.get(key(holderId, e.getValue()));
+            long sum = (n == null ? 0 : n.sum());
+            if (sum > 0) {
+                out.put(e.getKey(), sum);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Gets how many supplies of a type a location holds.
+     *
+     * @param locationId the location
+     * @param supplyType the supply type, or null for all types
+     * @return the count
+     */
+    public long getLocationCount(int locationId, String supplyType) {
+        return count(counts.byLocation, locationId, supplyType);
+    }
+
+    /**
+     * Gets how many supplies of a type a person holds.
+     *
+     * @param personId   the person
+     * @param supplyType the supply type, or null for all types
+     * @return the count
+     */
+    public long getPersonCount(int personId, String supplyType) {
+        return count(counts.byPerson, personId, supplyType);
+    }
+
+    /**
+     * Gets a location's stock broken down by type.
+     *
+     * @param locationId the location
+     * @return counts by type, in type order; types it holds none of are absent
+     */
+    public Map<String, Long> getLocationCounts(int locationId) {
+        return counts(counts.byLocation, locationId);
+    }
+
+    /**
+     * Gets what a person holds broken down by type.
+     *
+     * @param personId the person
+     * @return counts by type, in type order; types they hold none of are absent
+     */
+    public Map<String, Long> getPersonCounts(int personId) {
+        return counts(counts.byPerson, personId);
+    }
+
+    /**
+     * Gets the number of count updates applied since startup.
+     *
+     * @return the update count
+     */
+    public long getUpdateCount() {
+        return updateCount.sum();
+    }
+
+    /**
+     * Gets the number of rebuilds from the database since startup.
+     *
+     * @return the rebuild count
+     */
+    public long getRebuildCount() {
+        return rebuildCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("types=%d updates=%d rebuilds=%d",
+                typeCodes.size(), getUpdateCount(), getRebuildCount());
+    }
+}
@@ -3,8 +3,11 @@ package edu.ucalgary.oop;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Abstract Item class, representing an item that may be allocated
@@ -16,9 +19,17 @@ import java.sql.ResultSet;
  * @since 2025-04-05
  */
 public abstract class Item {
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final OptimisticRetry ALLOCATION_RETRY = new OptimisticRetry(
+            OptimisticRetry.DEFAULT_MAX_ATTEMPTS, OptimisticRetry.DEFAULT_BASE_BACKOFF_MILLIS,
+            OptimisticRetry.DEFAULT_MAX_BACKOFF_MILLIS, DatabaseAccess.SERIALIZATION_FAILURE,
+            DatabaseAccess.DEADLOCK_DETECTED, DatabaseAccess.UNIQUE_VIOLATION);
+    private static final AtomicLong lastAllocationMicros = new AtomicLong();
+
     private final int itemID;
     private DisasterVictim allocatedTo;
     private Location location;
+    private String comments;
 
     /**
      * Constructs an Item with a specific ID.
@@ -78,6 +89,43 @@ public abstract class Item {
         this.location = location;
     }
 
+    /**
+     * Gets the supply type as stored in the supply table's type column.
+     * Subclasses return their own type; the base returns "supply".
+     *
+     * @return the supply type
+     */
+    public String getSupplyType() {
+        return "supply";
+    }
+
+    /**
+     * Gets the lifecycle policy registered for this item's supply type.
+     *
+     * @return the policy, or null if the type never expires
+     */
+    public LifecyclePolicy getLifecyclePolicy() {
+        return ExpiryScheduler.getInstance().getPolicy(getSupplyType());
+    }
+
+    /**
+     * Gets the free-text comments stored with the supply.
+     *
+     * @return the comments, or null
+     */
+    public String getComments() {
+        return comments;
+    }
+
+    /**
+     * Sets the free-text comments.
+     *
+     * @param comments the comments, or null
+     */
+    public void setComments(String comments) {
+        this.comments = comments;
+    }
+
     /**
      * Creates (inserts) a new supply row in the DB table "supply".
      *
@@ -89,39 +137,31 @@ public abstract class Item {
         if (type == null || type.isEmpty()) {
             throw new IllegalArgumentException("Supply type cannot be null or empty");
         }
-        Connection conn = DatabaseManager.getInstance().getConnection();
-        if (conn == null) {
-            throw new IllegalStateException("DB not connected");
-        }
-        String sql = "INSERT INTO supply (type, comments) VALUES (?,?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, type);
-            if (comments == null) {
-                ps.setNull(2, java.sql.Types.VARCHAR);
-            } else {
-                ps.setString(2, comments);
-            }
-            ps.executeUpdate();
-        }
+        DatabaseManager.getInstance().getAccess().insertSupply(new DatabaseAccess.SupplyRow(0, type, comments));
     }
 
+    private static final KeysetListing SUPPLY_LISTING = new KeysetListing(
+            "SELECT supply_id, type, comments FROM supply",
+            rs -> LanguageManager.getDefault().formatLine(MessageKey.ROW_SUPPLY,
+                    rs.getInt("supply_id"), rs.getString("type"), rs.getString("comments")),
+            "supply_id");
+
     /**
-     * Lists all supplies from the DB.
+     * Lists all supplies from the DB, streaming rows through a cursor.
      *
      * @throws SQLException if query fails
      */
     public static void listAllSuppliesSafe() throws SQLException {
-        Connection conn = DatabaseManager.getInstance().getConnection();
-        if (conn == null) throw new IllegalStateException("DB not connected");
-        String sql = "SELECT supply_id, type, comments FROM supply ORDER BY supply_id ASC";
-        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                int supID = rs.getInt("supply_id");
-                String t   = rs.getString("type");
-                String cmt = rs.getString("comments");
-                System.out.printf("SupplyID=%d, Type=%s, Comments=%s\n", supID, t, cmt);
-            }
-        }
+        SUPPLY_LISTING.streamAll(System.out);
+    }
+
+    /**
+     * Gets the keyset listing of all supplies, for paging.
+     *
+     * @return the supply listing
+     */
+    public static KeysetListing supplyListing() {
+        return SUPPLY_LISTING;
     }
 
     /**
@@ -137,19 +177,24 @@ public abstract class Item {
         String sql = "SELECT s.supply_id, s.type, s.comments "
                 + "FROM supplyallocation sa JOIN supply s ON sa.supply_id=s.supply_id "
                 + "WHERE sa.person_id=?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (conn; PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, personId);
             try (ResultSet rs = ps.executeQuery()) {
+                MessageTemplate row = LanguageManager.getDefault().getTemplate(MessageKey.ROW_SUPPLY);
+                StringBuilder line = new StringBuilder(128);
                 boolean anySup = false;
-                while (rs.next()) {
-                    anySup = true;
-                    int sid = rs.getInt("supply_id");
-                    String ty= rs.getString("type");
-                    String cm= rs.getString("comments");
-                    System.out.printf("SupplyID=%d, Type=%s, Comments=%s\n", sid, ty, cm);
-                }
-                if (!anySup) {
-                    System.out.println("(None)");
+                try (OutputSink out = OutputSink.toConsole()) {
+                    while (rs.next()) {
+                        anySup = true;
+                        int sid = rs.getInt("supply_id");
+                        String ty= rs.getString("type");
+                        String cm= rs.getString("comments");
+                        line.setLength(0);
+                        out.println(row.appendTo(line, sid, ty, cm));
+                    }
+                    if (!anySup) {
+                        out.println("(None)");
+                    }
                 }
             }
         }
@@ -157,50 +202,102 @@ public abstract class Item {
 
     /**
      * Allocates an existing supply to a person, removing it from a location if needed.
+     * An allocation that loses a race with another session is retried
+     * (see {@link #getAllocationRetry()}). Once it succeeds the
+     * {@link InventoryIndex} counts are updated.
      *
      * @param supplyId the supply ID
      * @param personId the person's ID
-     * @throws SQLException if DB operations fail
+     * @throws SQLException if DB operations fail, or with
+     *                      {@link DatabaseAccess#ALLOCATION_CONFLICT} if
+     *                      a person already holds the supply
      */
     public static void allocateToPerson(int supplyId, int personId) throws SQLException {
-        Connection conn = DatabaseManager.getInstance().getConnection();
-        if (conn == null) throw new IllegalStateException("DB not connected");
-
-        String updateSql =
-                "UPDATE supplyallocation SET person_id=?, location_id=NULL, allocation_date=NOW() "
-                        + "WHERE supply_id=? AND person_id IS NULL AND location_id IS NOT NULL";
-        int updatedCount;
-        try (PreparedStatement pstmt = conn.prepareStatement(updateSql)) {
-            pstmt.setInt(1, personId);
-            pstmt.setInt(2, supplyId);
-            updatedCount = pstmt.executeUpdate();
-        }
-        if (updatedCount == 0) {
-            String insertSql = "INSERT INTO supplyallocation (supply_id, person_id, location_id) VALUES (?, ?, NULL)";
-            try (PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
-                pstmt.setInt(1, supplyId);
-                pstmt.setInt(2, personId);
-                pstmt.executeUpdate();
-            }
+        DatabaseAccess access = DatabaseManager.getInstance().getAccess();
+        InventoryIndex index = InventoryIndex.getInstance();
+        String type = index.typeOf(supplyId);
+        DatabaseAccess.AllocationRow stocked = ALLOCATION_RETRY.run(() ->
+                access.allocateToPerson(supplyId, personId, nextAllocationTime()));
+        if (stocked != null) {
+            index.released(type, stocked);
         }
+        index.adjust(type, personId, null, 1);
     }
 
     /**
-     * Allocates a supply to a location.
+     * Allocates a supply to a location, retried like {@link #allocateToPerson}.
      *
      * @param supplyId   the supply ID
      * @param locationId the location ID
-     * @throws SQLException if DB operations fail
+     * @throws SQLException if DB operations fail, or with
+     *                      {@link DatabaseAccess#ALLOCATION_CONFLICT} if a
+     *                      person or location already holds the supply
      */
     public static void allocateToLocation(int supplyId, int locationId) throws SQLException {
-        Connection conn = DatabaseManager.getInstance().getConnection();
-        if (conn == null) throw new IllegalStateException("DB not connected");
-        String sql = "INSERT INTO supplyallocation (supply_id, location_id, person_id) VALUES (?, ?, NULL)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, supplyId);
-            ps.setInt(2, locationId);
-            ps.executeUpdate();
+        DatabaseAccess access = DatabaseManager.getInstance().getAccess();
+        InventoryIndex index = InventoryIndex.getInstance();
+        String type = index.typeOf(supplyId);
+        ALLOCATION_RETRY.run(() -> {
+            access.allocateToLocation(supplyId, locationId, nextAllocationTime());
+            return null;
+        });
+        index.adjust(type, null, locationId, 1);
+    }
+
+    /**
+     * Hands a location's stock of one supply type to the people staying
+     * there, fewest-held first (see {@link Distribution}), in one
+     * transaction. Retried like {@link #allocateToPerson}.
+     *
+     * @param locationId   the location ID
+     * @param supplyType   the supply type, e.g. "blanket"
+     * @param maxPerPerson the most of the type anyone may end up holding, or 0 for no limit
+     * @return what was allocated
+     * @throws IllegalArgumentException if supplyType is empty or maxPerPerson is negative
+     * @throws SQLException if DB operations fail; nothing is allocated
+     */
+    public static Distribution distributeToOccupants(int locationId, String supplyType, int maxPerPerson)
+            throws SQLException {
+        if (supplyType == null || supplyType.isEmpty()) {
+            throw new IllegalArgumentException("Supply type cannot be null or empty");
+        }
+        if (maxPerPerson < 0) {
+            throw new IllegalArgumentException("Limit per person cannot be negative");
         }
+        DatabaseAccess access = DatabaseManager.getInstance().getAccess();
+        Distribution d = ALLOCATION_RETRY.run(() ->
+                access.allocateToOccupants(locationId, supplyType, maxPerPerson, nextAllocationTime()));
+        InventoryIndex index = InventoryIndex.getInstance();
+        index.adjust(supplyType, null, locationId, -d.getAllocations().size());
+        for (Map.Entry<Integer, Integer> e : d.getCountsByPerson().entrySet()) {
+            index.adjust(supplyType, e.getKey(), null, e.getValue());
+        }
+        return d;
+    }
+
+    /**
+     * Gets the retry policy shared by all allocations, e.g. to read its
+     * contention counters.
+     *
+     * @return the allocation retry policy
+     */
+    public static OptimisticRetry getAllocationRetry() {
+        return ALLOCATION_RETRY;
+    }
+
+    /**
+     * Gets the current time for a new allocation, at least one microsecond
+     * after the last one this process handed out, so concurrent sessions
+     * here never share a (supply_id, allocation_date) key. A collision
+     * with another process fails with a unique violation and is retried
+     * with a new time.
+     *
+     * @return the allocation time
+     */
+    static LocalDateTime nextAllocationTime() {
+        long now = ChronoUnit.MICROS.between(EPOCH, LocalDateTime.now());
+        long micros = lastAllocationMicros.accumulateAndGet(now, (last, t) -> Math.max(last + 1, t));
+        return EPOCH.plus(micros, ChronoUnit.MICROS);
     }
 
     /**
@@ -230,19 +327,27 @@ public abstract class Item {
         }
         sb.append(" WHERE supply_id=?");
 
+        InventoryIndex index = InventoryIndex.getInstance();
+        boolean retype = newType != null && !newType.isEmpty();
+        String oldType = retype ? index.typeOf(supplyId) : null;
+
         Connection conn = DatabaseManager.getInstance().getConnection();
         if (conn == null) throw new IllegalStateException("DB not connected");
 
-        try (PreparedStatement ps = conn.prepareStatement(sb.toString())) {
+        boolean updated;
+        try (conn; PreparedStatement ps = conn.prepareStatement(sb.toString())) {
             int idx = 1;
-            if (newType != null && !newType.isEmpty()) {
+            if (retype) {
                 ps.setString(idx++, newType);
             }
             if (newComments != null && !newComments.isEmpty()) {
                 ps.setString(idx++, newComments);
             }
             ps.setInt(idx, supplyId);
-            ps.executeUpdate();
+            updated = ps.executeUpdate() > 0;
+        }
+        if (updated && retype) {
+            index.retyped(supplyId, oldType, newType);
         }
     }
 }
@@ -0,0 +1,325 @@
+package edu.ucalgary.oop;
+
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * KeysetListing reads a whole table in key order without buffering it all
+ * in the driver.
+ *
+ * <p>
+ * Two ways of reading are offered:
+ * - {@link #streamAll(PrintStream)} opens a read-only transaction and reads
+ *   through a server-side cursor, fetchSize rows per round trip. Rows go
+ *   through an {@link OutputSink}, so the console sees large writes rather
+ *   than one per row.
+ * - {@link #page(int[], int)} fetches one page with keyset pagination
+ *   ({@code WHERE key > ? ORDER BY key LIMIT ?}), so each page costs the same
+ *   no matter how deep into the table it is. The CLI uses this to page
+ *   through listings.
+ * </p>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class KeysetListing {
+
+    /**
+     * Formats one row of a listing as a line of output.
+     */
+    public interface RowFormat {
+        /**
+         * Formats the current row.
+         *
+         * @param rs the result set positioned on the row
+         * @return the formatted line, including its line break
+         * @throws SQLException if a column cannot be read
+         */
+        String format(ResultSet rs) throws SQLException;
+    }
+
+    private static volatile int fetchSize = 500;
+    private static volatile int pageSize = 50;
+
+    private final String select;
+    private final String[] keyColumns;
+    private final RowFormat format;
+
+    /**
+     * Constructs a KeysetListing.
+     *
+     * @param select     the SELECT ... FROM part, without WHERE or ORDER BY
+     * @param format     formats each row
+     * @param keyColumns the integer columns of a unique key, in sort order
+     * @throws IllegalArgumentException if no key column is given
+     */
+    public KeysetListing(String select, RowFormat format, String... keyColumns) {
+        if (keyColumns == null || keyColumns.length == 0) {
+            throw new IllegalArgumentException("At least one key column is required");
+        }
+        this.select = select;
+        this.format = format;
+        this.keyColumns = keyColumns.clone();
+    }
+
+    /**
+     * Sets the number of rows fetched per round trip when streaming.
+     *
+     * @param size rows per fetch
+     * @throws IllegalArgumentException if size is less than 1
+     */
+    public static void setFetchSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Fetch size must be at least 1");
+        }
+        fetchSize = size;
+    }
+
+    /**
+     * Gets the number of rows fetched per round trip when streaming.
+     *
+     * @return rows per fetch
+     */
+    public static int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Sets the number of rows the CLI shows per page.
+     *
+     * @param size rows per page
+     * @throws IllegalArgumentException if size is less than 1
+     */
+    public static void setPageSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        pageSize = size;
+    }
+
+    /**
+     * Gets the number of rows the CLI shows per page.
+     *
+     * @return rows per page
+     */
+    public static int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Streams every row to the given output using a pooled connection.
+     *
+     * @param out where to print the rows
+     * @return the number of rows printed
+     * @throws SQLException if the query fails
+     */
+    public long streamAll(PrintStream out) throws SQLException {
+        Connection conn = DatabaseManager.getInstance().getConnection();
+        if (conn == null) {
+            throw new IllegalStateException("DB not connected");
+        }
+        try (conn) {
+            return streamAll(conn, out);
+        }
+    }
+
+    /**
+     * Streams every row to the given output on the given connection. The read
+     * runs in a read-only transaction so the driver can use a cursor.
+     *
+     * @param conn the connection to use (not closed)
+     * @param out  where to print the rows
+     * @return the number of rows printed
+     * @throws SQLException if the query fails
+     */
+    public long streamAll(Connection conn, PrintStream out) throws SQLException {
+        try (OutputSink sink = new OutputSink(out)) {
+            return streamAll(conn, sink);
+        }
+    }
+
+    /**
+     * Streams every row into a sink on the given connection, flushing it at
+     * the end.
+     *
+     * @param conn the connection to use (not closed)
+     * @param out  where to write the rows
+     * @return the number of rows written
+     * @throws SQLException if the query fails
+     */
+    public long streamAll(Connection conn, OutputSink out) throws SQLException {
+        conn.setAutoCommit(false);
+        conn.setReadOnly(true);
+        long count = 0;
+        try (PreparedStatement ps = conn.prepareStatement(streamSql(),
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(fetchSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.print(format.format(rs));
+                    count++;
+                }
+            }
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            out.flush();
+        }
+        return count;
+    }
+
+    /**
+     * Fetches the page that follows the given key using a pooled connection.
+     *
+     * @param after the key of the last row already seen, or null for the first page
+     * @param limit maximum rows in the page
+     * @return the page
+     * @throws SQLException if the query fails
+     */
+    public Page page(int[] after, int limit) throws SQLException {
+        Connection conn = DatabaseManager.getInstance().getConnection();
+        if (conn == null) {
+            throw new IllegalStateException("DB not connected");
+        }
+        try (conn) {
+            return page(conn, after, limit);
+        }
+    }
+
+    /**
+     * Fetches the page that follows the given key on the given connection.
+     *
+     * @param conn  the connection to use (not closed)
+     * @param after the key of the last row already seen, or null for the first page
+     * @param limit maximum rows in the page
+     * @return the page
+     * @throws SQLException if the query fails
+     * @throws IllegalArgumentException if limit is less than 1 or the key has the wrong length
+     */
+    public Page page(Connection conn, int[] after, int limit) throws SQLException {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be at least 1");
+        }
+        if (after != null && after.length != keyColumns.length) {
+            throw new IllegalArgumentException("Key must have " + keyColumns.length + " column(s)");
+        }
+        List<String> lines = new ArrayList<>(limit);
+        int[] lastKey = after;
+        boolean hasMore = false;
+        try (PreparedStatement ps = conn.prepareStatement(pageSql(after != null))) {
+            int idx = 1;
+            if (after != null) {
+                for (int k : after) {
+                    ps.setInt(idx++, k);
+                }
+            }
+            // One extra row tells us whether another page exists.
+            ps.setInt(idx, limit + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (lines.size() == limit) {
+                        hasMore = true;
+                        break;
+                    }
+                    lines.add(format.format(rs));
+                    lastKey = new int[keyColumns.length];
+                    for (int i = 0; i < keyColumns.length; i++) {
+                        lastKey[i] = rs.getInt(keyColumns[i]);
+                    }
+                }
+            }
+        }
+        return new Page(lines, lastKey, hasMore);
+    }
+
+    /**
+     * Builds the streaming query.
+     *
+     * @return the SQL
+     */
+    String streamSql() {
+        return select + " ORDER BY " + String.join(", ", keyColumns);
+    }
+
+    /**
+     * Builds the keyset page query.
+     *
+     * @param keyed true if the page starts after a key
+     * @return the SQL
+     */
+    String pageSql(boolean keyed) {
+        StringBuilder sb = new StringBuilder(select);
+        if (keyed) {
+            sb.append(" WHERE ");
+            if (keyColumns.length == 1) {
+                sb.append(keyColumns[0]).append(" > ?");
+            } else {
+                sb.append('(').append(String.join(", ", keyColumns)).append(") > (");
+                for (int i = 0; i < keyColumns.length; i++) {
+                    sb.append(i == 0 ? "?" : ", ?");
+                }
+                sb.append(')');
+            }
+        }
+        sb.append(" ORDER BY ").append(String.join(", ", keyColumns)).append(" LIMIT ?");
+        return sb.toString();
+    }
+
+    /**
+     * One page of a listing.
+     */
+    public static class Page {
+        private final List<String> lines;
+        private final int[] lastKey;
+        private final boolean hasMore;
+
+        /**
+         * Constructs a Page.
+         *
+         * @param lines   the formatted rows
+         * @param lastKey the key of the last row, used to fetch the next page
+         * @param hasMore true if rows follow this page
+         */
+        public Page(List<String> lines, int[] lastKey, boolean hasMore) {
+            this.lines = Collections.unmodifiableList(lines);
+            this.lastKey = lastKey;
+            this.hasMore = hasMore;
+        }
+
+        /**
+         * Gets the formatted rows.
+         *
+         * @return the rows
+         */
+        public List<String> getLines() {
+            return lines;
+        }
+
+        /**
+         * Gets the key of the last row.
+         *
+         * @return the key, or null if the page is empty and was the first page
+         */
+        public int[] getLastKey() {
+            return lastKey == null ? null : lastKey.clone();
+        }
+
+        /**
+         * Checks whether rows follow this page.
+         *
+         * @return true if another page exists
+         */
+        public boolean hasMore() {
+            return hasMore;
+        }
+    }
+}
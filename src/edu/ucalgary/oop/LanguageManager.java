@@ -4,54 +4,115 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * LanguageManager loads translation strings from simple XML files
  * in the data directory, e.g. en-CA.xml or fr-CA.xml.
  *
+ * <p>
+ * Locales come from a shared {@link LocaleCatalog}: each pack is loaded
+ * once into an immutable {@link LocaleSnapshot} (from its compiled
+ * {@link TranslationBundle} when fresh) and shared by every manager that
+ * selects it. A manager holds its locale's live slot, so a hot reload is
+ * picked up on the next lookup without locking.
+ * </p>
+ *
+ * {@link MessageKey} lookups are an array read; keys a locale lacks are
+ * reported once, when it loads, and return a fixed placeholder. Messages
+ * with {0}-style placeholders are rendered through precompiled
+ * {@link MessageTemplate}s. Code without an operator's manager at hand,
+ * such as row listings, uses {@link #getDefault()}.
+ *
  * @author Anhad Wander
  * @version 1.0
  * @since 2025-04-05
  */
 public class LanguageManager {
 
+    private static LanguageManager defaultManager;
+
+    private final LocaleCatalog catalog;
     private String currentLocaleCode;
-    private Map<String, String> translations;
+    private AtomicReference<LocaleSnapshot> current;
 
     /**
-     * Constructs a LanguageManager, defaulting to locale code "en-CA"
-     * with an empty translations map.
+     * Constructs a LanguageManager on the shared catalog, defaulting to
+     * locale code "en-CA" with no translations loaded.
      */
     public LanguageManager() {
-        this.currentLocaleCode = "en-CA";
-        this.translations = new HashMap<>();
+        this(LocaleCatalog.getInstance());
+    }
+
+    /**
+     * Constructs a LanguageManager on a specific catalog.
+     *
+     * @param catalog the catalog to read locales from
+     * @throws IllegalArgumentException if catalog is null
+     */
+    public LanguageManager(LocaleCatalog catalog) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        this.catalog = catalog;
+        this.currentLocaleCode = LocaleCatalog.FALLBACK_LOCALE;
+        this.current = new AtomicReference<>(LocaleSnapshot.empty(currentLocaleCode));
+    }
+
+    /**
+     * Gets the process-wide manager used for output that has no operator
+     * context. Until one is set, an en-CA manager is created on first use.
+     *
+     * @return the default manager
+     */
+    public static synchronized LanguageManager getDefault() {
+        if (defaultManager == null) {
+            LanguageManager lm = new LanguageManager();
+            lm.loadLocale(LocaleCatalog.FALLBACK_LOCALE);
+            defaultManager = lm;
+        }
+        return defaultManager;
     }
 
     /**
-     * Attempts to load a locale file from data/<localeCode>.xml
-     * using a naive parser. If the file is invalid or missing,
-     * falls back to en-CA.
+     * Sets the process-wide default manager.
+     *
+     * @param lm the manager
+     * @throws IllegalArgumentException if lm is null
+     */
+    public static synchronized void setDefault(LanguageManager lm) {
+        if (lm == null) {
+            throw new IllegalArgumentException("LanguageManager cannot be null");
+        }
+        defaultManager = lm;
+    }
+
+    /**
+     * Selects a locale from the catalog, loading data/<localeCode>.xml
+     * the first time any manager asks for it. If the file is invalid or
+     * missing, falls back to en-CA.
      *
      * @param localeCode must match [a-z]{2}-[A-Z]{2}, e.g. en-CA
      */
     public void loadLocale(String localeCode) {
-        if (localeCode == null || !localeCode.matches("[a-z]{2}-[A-Z]{2}")) {
+        if (!LocaleCatalog.isValidCode(localeCode)) {
             System.out.println("");
             System.out.println("Invalid language code. Defaulting to en-CA.");
             loadFallbackLocale();
             return;
         }
-        File file = new File("data/" + localeCode + ".xml");
-        if (!file.exists()) {
-            loadFallbackLocale();
-            return;
-        }
         try {
-            parseSimpleXmlFile(file);
+            AtomicReference<LocaleSnapshot> slot = catalog.slot(localeCode);
+            if (slot == null) {
+                loadFallbackLocale();
+                return;
+            }
+            this.current = slot;
             this.currentLocaleCode = localeCode;
-        } catch (Exception e) {
+        } catch (IOException e) {
             System.out.println("Error parsing " + localeCode + ".xml => " + e.getMessage()
                     + " => defaulting to en-CA.");
             loadFallbackLocale();
@@ -65,7 +126,66 @@ public class LanguageManager {
      * @return the translated string, or null if not found
      */
     public String getString(String key) {
-        return translations.get(key);
+        return current.get().getString(key);
+    }
+
+    /**
+     * Retrieves a string by enum key. This is an array read; it never
+     * allocates.
+     *
+     * @param key the message key
+     * @return the translation, or the key's placeholder if the locale lacks it
+     */
+    public String getString(MessageKey key) {
+        return current.get().getString(key);
+    }
+
+    /**
+     * Gets the precompiled template for a key in the current locale.
+     *
+     * @param key the message key
+     * @return the template
+     */
+    public MessageTemplate getTemplate(MessageKey key) {
+        return current.get().getTemplate(key);
+    }
+
+    /**
+     * Renders a template message followed by a newline.
+     *
+     * @param key  the message key
+     * @param args the placeholder values
+     * @return the rendered line
+     */
+    public String formatLine(MessageKey key, Object... args) {
+        return current.get().getTemplate(key).formatLine(args);
+    }
+
+    /**
+     * Gets the keys the current locale does not define.
+     *
+     * @return the missing keys, in enum order
+     */
+    public List<MessageKey> getMissingKeys() {
+        return current.get().getMissingKeys();
+    }
+
+    /**
+     * Gets the snapshot currently served for this manager's locale.
+     *
+     * @return the snapshot
+     */
+    public LocaleSnapshot getSnapshot() {
+        return current.get();
+    }
+
+    /**
+     * Checks whether the current locale was served from a compiled bundle.
+     *
+     * @return true if a bundle is in use
+     */
+    public boolean isUsingBundle() {
+        return current.get().isFromBundle();
     }
 
     /**
@@ -78,30 +198,33 @@ public class LanguageManager {
     }
 
     /**
-     * Loads en-CA.xml as a fallback if the desired file fails or is missing.
+     * Selects en-CA as a fallback if the desired locale fails or is missing.
      */
     private void loadFallbackLocale() {
-        File fallback = new File("data/en-CA.xml");
-        if (!fallback.exists()) {
-            System.out.println("CRITICAL: cannot find data/en-CA.xml. Proceeding with no translations...");
-            this.translations.clear();
-            return;
-        }
+        this.currentLocaleCode = LocaleCatalog.FALLBACK_LOCALE;
         try {
-            parseSimpleXmlFile(fallback);
-            this.currentLocaleCode = "en-CA";
-        } catch (Exception e) {
+            AtomicReference<LocaleSnapshot> slot = catalog.slot(LocaleCatalog.FALLBACK_LOCALE);
+            if (slot == null) {
+                System.out.println("CRITICAL: cannot find data/en-CA.xml. Proceeding with no translations...");
+                this.current = new AtomicReference<>(LocaleSnapshot.empty(currentLocaleCode));
+                return;
+            }
+            this.current = slot;
+        } catch (IOException e) {
             System.out.println("Fallback parse error => no translations loaded: " + e.getMessage());
-            this.translations.clear();
+            this.current = new AtomicReference<>(LocaleSnapshot.empty(currentLocaleCode));
         }
     }
 
     /**
+     * Parses a locale XML file.
+     *
      * @param file the XML file to parse
+     * @return the translations in file order
      * @throws IOException if reading fails
      */
-    private void parseSimpleXmlFile(File file) throws IOException {
-        this.translations.clear();
+    static Map<String, String> parseTranslations(File file) throws IOException {
+        Map<String, String> translations = new LinkedHashMap<>();
 
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line;
@@ -137,6 +260,7 @@ public class LanguageManager {
                 }
             }
         }
+        return translations;
     }
 
     /**
@@ -144,7 +268,7 @@ public class LanguageManager {
      * @param tagName the tag name (e.g. "key", "value")
      * @return the extracted text, or null if not found
      */
-    private String extractTagValue(String line, String tagName) {
+    private static String extractTagValue(String line, String tagName) {
         String open = "<" + tagName + ">";
         String close = "</" + tagName + ">";
 
@@ -0,0 +1,202 @@
+package edu.ucalgary.oop;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * LifecyclePolicy decides when an allocation of one supply type falls due
+ * for removal. Policies are registered per supply type with the shared
+ * {@link ExpiryScheduler}, which evaluates them for every allocation it
+ * tracks.
+ *
+ * <p>
+ * Three standard rules are provided and can be combined with {@link #and}:
+ * - {@link #ttl}: a person may hold the supply for a fixed time (water: 1 day)
+ * - {@link #rotation}: stock may sit at a location for a fixed time before
+ *   it is rotated out
+ * - {@link #recall}: every allocation made before a date is pulled at once,
+ *   from persons and locations alike
+ * Any other rule can be plugged in by implementing the interface.
+ * </p>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public interface LifecyclePolicy {
+
+    /**
+     * Gets the supply type the policy applies to.
+     *
+     * @return the type as stored in supply.type
+     */
+    String getSupplyType();
+
+    /**
+     * Decides when an allocation falls due.
+     *
+     * @param allocation an allocation of this policy's supply type
+     * @return when it should be removed, or null if this policy never removes it
+     */
+    LocalDateTime dueAt(DatabaseAccess.AllocationRow allocation);
+
+    /**
+     * Combines this policy with another for the same type; an allocation
+     * falls due at the earlier of the two deadlines.
+     *
+     * @param other the other policy
+     * @return the combined policy
+     * @throws IllegalArgumentException if the supply types differ
+     */
+    default LifecyclePolicy and(LifecyclePolicy other) {
+        if (!getSupplyType().equals(other.getSupplyType())) {
+            throw new IllegalArgumentException("Cannot combine policies for "
+                    + getSupplyType() + " and " + other.getSupplyType());
+        }
+        LifecyclePolicy self = this;
+        return new LifecyclePolicy() {
+            @Override
+            public String getSupplyType() {
+                return self.getSupplyType();
+            }
+
+            @Override
+            public LocalDateTime dueAt(DatabaseAccess.AllocationRow allocation) {
+                LocalDateTime a = self.dueAt(allocation);
+                LocalDateTime b = other.dueAt(allocation);
+                if (a == null) {
+                    return b;
+                }
+                return (b == null || a.isBefore(b)) ? a : b;
+            }
+        };
+    }
+
+    /**
+     * Person allocations fall due a fixed time after they were made.
+     *
+     * @param supplyType the supply type
+     * @param ttl        how long a person may hold the supply
+     * @return the policy
+     * @throws IllegalArgumentException if supplyType is empty or ttl is not positive
+     */
+    static LifecyclePolicy ttl(String supplyType, Duration ttl) {
+        requirePositive(ttl);
+        return simple(supplyType, a -> a.getPersonId() == null ? null : a.getAllocationDate().plus(ttl));
+    }
+
+    /**
+     * Location allocations fall due a fixed time after they were made.
+     *
+     * @param supplyType the supply type
+     * @param maxAge     how long stock may sit at a location
+     * @return the policy
+     * @throws IllegalArgumentException if supplyType is empty or maxAge is not positive
+     */
+    static LifecyclePolicy rotation(String supplyType, Duration maxAge) {
+        requirePositive(maxAge);
+        return simple(supplyType, a -> a.getLocationId() == null ? null : a.getAllocationDate().plus(maxAge));
+    }
+
+    /**
+     * Every allocation made before a date falls due immediately.
+     *
+     * @param supplyType the supply type
+     * @param madeBefore allocations strictly before this are recalled
+     * @return the policy
+     * @throws IllegalArgumentException if supplyType is empty or madeBefore is null
+     */
+    static LifecyclePolicy recall(String supplyType, LocalDateTime madeBefore) {
+        if (madeBefore == null) {
+            throw new IllegalArgumentException("Recall date cannot be null");
+        }
+        return simple(supplyType, a -> a.getAllocationDate().isBefore(madeBefore) ? a.getAllocationDate() : null);
+    }
+
+    /**
+     * Parses a policy line such as {@code "food ttl=3d rotate=30d"} or
+     * {@code "\"medical kit\" recall=2025-03-01"}. Durations take an
+     * m, h or d suffix; a recall takes a yyyy-MM-dd date.
+     *
+     * @param line the line
+     * @return the combined policy
+     * @throws IllegalArgumentException if the line has no rule or a rule is malformed
+     */
+    static LifecyclePolicy parse(String line) {
+        List<String> f = BatchRunner.tokenize(line);
+        if (f.size() < 2) {
+            throw new IllegalArgumentException("Expected a supply type and at least one rule: " + line);
+        }
+        String type = f.get(0);
+        LifecyclePolicy policy = null;
+        for (String rule : f.subList(1, f.size())) {
+            String[] kv = rule.split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Expected rule=value: " + rule);
+            }
+            LifecyclePolicy p;
+            switch (kv[0]) {
+                case "ttl":
+                    p = ttl(type, parseDuration(kv[1]));
+                    break;
+                case "rotate":
+                    p = rotation(type, parseDuration(kv[1]));
+                    break;
+                case "recall":
+                    try {
+                        p = recall(type, LocalDate.parse(kv[1]).atStartOfDay());
+                    } catch (DateTimeParseException e) {
+                        throw new IllegalArgumentException("Invalid recall date: " + kv[1]);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown rule: " + kv[0]);
+            }
+            policy = (policy == null ? p : policy.and(p));
+        }
+        return policy;
+    }
+
+    private static Duration parseDuration(String text) {
+        if (!text.matches("\\d{1,6}[mhd]")) {
+            throw new IllegalArgumentException("Invalid duration (e.g. 90m, 12h, 30d): " + text);
+        }
+        long n = Long.parseLong(text.substring(0, text.length() - 1));
+        switch (text.charAt(text.length() - 1)) {
+            case 'm':
+                return Duration.ofMinutes(n);
+            case 'h':
+                return Duration.ofHours(n);
+            default:
+                return Duration.ofDays(n);
+        }
+    }
+
+    private static void requirePositive(Duration d) {
+        if (d == null || d.isNegative() || d.isZero()) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+    }
+
+    private static LifecyclePolicy simple(String supplyType,
+                                          Function<DatabaseAccess.AllocationRow, LocalDateTime> rule) {
+        if (supplyType == null || supplyType.isEmpty()) {
+            throw new IllegalArgumentException("Supply type cannot be null or empty");
+        }
+        return new LifecyclePolicy() {
+            @Override
+            public String getSupplyType() {
+                return supplyType;
+            }
+
+            @Override
+            public LocalDateTime dueAt(DatabaseAccess.AllocationRow allocation) {
+                return rule.apply(allocation);
+            }
+        };
+    }
+}
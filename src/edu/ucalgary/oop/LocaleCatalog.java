@@ -0,0 +1,271 @@
+package edu.ucalgary.oop;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * LocaleCatalog loads every locale pack in a directory once and shares the
+ * resulting {@link LocaleSnapshot}s between all {@link LanguageManager}s,
+ * so English and French operators can be served side by side.
+ *
+ * <p>
+ * Each locale has a slot holding its current snapshot. A reload builds a
+ * new snapshot and swaps it into the slot; readers holding the slot see
+ * either the old snapshot or the new one, never a partial map, and never
+ * wait. If a changed pack fails to parse, the old snapshot stays.
+ * {@link #startWatching()} reloads packs as their XML files change.
+ * </p>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class LocaleCatalog implements AutoCloseable {
+    /** The locale used when a requested one is missing or invalid. */
+    public static final String FALLBACK_LOCALE = "en-CA";
+
+    private static LocaleCatalog instance;
+
+    private final File dir;
+    private final ConcurrentMap<String, AtomicReference<LocaleSnapshot>> slots = new ConcurrentHashMap<>();
+    private final AtomicLong reloads = new AtomicLong();
+    private WatchService watchService;
+    private Thread watcher;
+
+    /**
+     * Constructs a catalog over a directory of aa-BB.xml packs. Nothing is
+     * loaded until a locale is requested or {@link #discover()} is called.
+     *
+     * @param dir the directory
+     * @throws IllegalArgumentException if dir is null
+     */
+    public LocaleCatalog(File dir) {
+        if (dir == null) {
+            throw new IllegalArgumentException("Directory cannot be null");
+        }
+        this.dir = dir;
+    }
+
+    /**
+     * Gets the shared catalog over the data directory.
+     *
+     * @return the catalog
+     */
+    public static synchronized LocaleCatalog getInstance() {
+        if (instance == null) {
+            instance = new LocaleCatalog(new File("data"));
+        }
+        return instance;
+    }
+
+    /**
+     * Checks whether a locale code has the aa-BB form.
+     *
+     * @param localeCode the code
+     * @return true if valid
+     */
+    public static boolean isValidCode(String localeCode) {
+        return localeCode != null && localeCode.matches("[a-z]{2}-[A-Z]{2}");
+    }
+
+    /**
+     * Loads every aa-BB.xml pack in the directory that is not loaded yet.
+     * Packs that fail to parse are reported and skipped.
+     *
+     * @return the codes of all loaded locales
+     */
+    public Set<String> discover() {
+        File[] xmls = dir.listFiles((d, name) -> name.matches("[a-z]{2}-[A-Z]{2}\\.xml"));
+        if (xmls != null) {
+            for (File xml : xmls) {
+                String code = xml.getName().substring(0, 5);
+                try {
+                    slot(code);
+                } catch (IOException e) {
+                    System.out.println("Error parsing " + xml.getName() + " => " + e.getMessage());
+                }
+            }
+        }
+        return getLoadedLocales();
+    }
+
+    /**
+     * Gets the current snapshot of a locale, loading it on first use.
+     *
+     * @param localeCode the locale code
+     * @return the snapshot, or null if the code is invalid or has no pack
+     * @throws IOException if the pack cannot be parsed
+     */
+    public LocaleSnapshot get(String localeCode) throws IOException {
+        AtomicReference<LocaleSnapshot> slot = slot(localeCode);
+        return slot == null ? null : slot.get();
+    }
+
+    /**
+     * Gets the live slot for a locale, loading it on first use. Holders of
+     * the slot see reloads.
+     *
+     * @param localeCode the locale code
+     * @return the slot, or null if the code is invalid or has no pack
+     * @throws IOException if the pack cannot be parsed
+     */
+    AtomicReference<LocaleSnapshot> slot(String localeCode) throws IOException {
+        if (!isValidCode(localeCode)) {
+            return null;
+        }
+        AtomicReference<LocaleSnapshot> slot = slots.get(localeCode);
+        if (slot != null) {
+            return slot;
+        }
+        File xml = xmlFor(localeCode);
+        if (!xml.isFile()) {
+            return null;
+        }
+        try {
+            return slots.computeIfAbsent(localeCode, code -> {
+                try {
+                    return new AtomicReference<>(LocaleSnapshot.load(code, xml, true));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Rebuilds a loaded locale from its XML and swaps it in. A locale that
+     * was never requested is left for the next {@link #slot} call.
+     *
+     * @param localeCode the locale code
+     * @return true if a new snapshot was published
+     */
+    public boolean reload(String localeCode) {
+        AtomicReference<LocaleSnapshot> slot = slots.get(localeCode);
+        File xml = xmlFor(localeCode);
+        if (slot == null || !xml.isFile()) {
+            return false;
+        }
+        try {
+            slot.set(LocaleSnapshot.load(localeCode, xml, false));
+            reloads.incrementAndGet();
+            return true;
+        } catch (IOException e) {
+            System.out.println("Keeping previous " + localeCode + " translations: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Gets the codes of the loaded locales.
+     *
+     * @return sorted locale codes
+     */
+    public Set<String> getLoadedLocales() {
+        return Collections.unmodifiableSet(new TreeSet<>(slots.keySet()));
+    }
+
+    /**
+     * Gets the number of reloads published.
+     *
+     * @return the reload count
+     */
+    public long getReloadCount() {
+        return reloads.get();
+    }
+
+    /**
+     * Starts a daemon thread that reloads a locale when its XML changes.
+     * Does nothing if already watching.
+     *
+     * @throws IOException if the directory cannot be watched
+     */
+    public synchronized void startWatching() throws IOException {
+        if (watcher != null) {
+            return;
+        }
+        WatchService ws = FileSystems.getDefault().newWatchService();
+        dir.toPath().register(ws, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread t = new Thread(() -> watch(ws), "locale-watcher");
+        t.setDaemon(true);
+        watchService = ws;
+        watcher = t;
+        t.start();
+    }
+
+    /**
+     * Checks whether the directory is being watched.
+     *
+     * @return true if the watcher is running
+     */
+    public synchronized boolean isWatching() {
+        return watcher != null;
+    }
+
+    private void watch(WatchService ws) {
+        try {
+            while (true) {
+                WatchKey key = ws.take();
+                List<String> changed = new ArrayList<>();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+                    if (!(context instanceof Path)) {
+                        continue;
+                    }
+                    String name = context.toString();
+                    if (name.matches("[a-z]{2}-[A-Z]{2}\\.xml") && !changed.contains(name.substring(0, 5))) {
+                        changed.add(name.substring(0, 5));
+                    }
+                }
+                key.reset();
+                for (String code : changed) {
+                    reload(code);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Stopped by close().
+        }
+    }
+
+    /**
+     * Stops watching. Loaded snapshots stay usable.
+     */
+    @Override
+    public synchronized void close() {
+        if (watcher == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // Closing the watch service only releases OS handles.
+        }
+        watcher.interrupt();
+        watcher = null;
+        watchService = null;
+    }
+
+    private File xmlFor(String localeCode) {
+        return new File(dir, localeCode + ".xml");
+    }
+}
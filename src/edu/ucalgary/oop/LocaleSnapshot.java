@@ -0,0 +1,173 @@
+package edu.ucalgary.oop;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LocaleSnapshot is one loaded, immutable locale. Snapshots are built
+ * off to the side and published whole by {@link LocaleCatalog}, so any
+ * number of threads can read one while a newer one is being built.
+ *
+ * <p>
+ * Raw-key lookups go to the compiled {@link TranslationBundle} when the
+ * snapshot was loaded from one, otherwise to an unmodifiable copy of the
+ * parsed map. Nothing is decoded up front: the first {@link MessageKey}
+ * lookup of a key reads it and compiles its {@link MessageTemplate}, and
+ * later lookups are an array read. Two threads may both fill the same
+ * slot on first use; they store equal immutable values, so either wins.
+ * </p>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public final class LocaleSnapshot {
+    private final String localeCode;
+    private final TranslationBundle bundle;
+    private final Map<String, String> translations;
+    private final String[] messages;
+    private final MessageTemplate[] templates;
+    private volatile List<MessageKey> missingKeys;
+
+    private LocaleSnapshot(String localeCode, TranslationBundle bundle, Map<String, String> translations) {
+        this.localeCode = localeCode;
+        this.bundle = bundle;
+        this.translations = translations;
+        this.messages = new String[MessageKey.values().length];
+        this.templates = new MessageTemplate[messages.length];
+    }
+
+    /**
+     * Creates a snapshot with no translations.
+     *
+     * @param localeCode the locale code to report
+     * @return the empty snapshot
+     */
+    static LocaleSnapshot empty(String localeCode) {
+        return new LocaleSnapshot(localeCode, null, Collections.emptyMap());
+    }
+
+    /**
+     * Loads a locale from its compiled bundle if fresh, otherwise parses the
+     * XML and compiles a bundle for next time.
+     *
+     * @param localeCode   the locale code
+     * @param xml          the locale XML file
+     * @param preferBundle false to always parse the XML (used on reload,
+     *                     where an edit may not have changed size or mtime)
+     * @return the snapshot
+     * @throws IOException if the XML cannot be read
+     */
+    static LocaleSnapshot load(String localeCode, File xml, boolean preferBundle) throws IOException {
+        if (preferBundle) {
+            TranslationBundle compiled = TranslationBundle.openIfFresh(xml);
+            if (compiled != null) {
+                // Missing keys were reported when the XML was parsed to compile it.
+                return new LocaleSnapshot(localeCode, compiled, Collections.emptyMap());
+            }
+        }
+        Map<String, String> parsed = LanguageManager.parseTranslations(xml);
+        try {
+            TranslationBundle.compile(parsed, xml, TranslationBundle.bundleFor(xml));
+        } catch (IOException e) {
+            // Read-only data directory: keep using the parsed map.
+        }
+        return report(new LocaleSnapshot(localeCode, null, Collections.unmodifiableMap(new HashMap<>(parsed))), xml);
+    }
+
+    private static LocaleSnapshot report(LocaleSnapshot snapshot, File xml) {
+        List<MessageKey> missing = snapshot.getMissingKeys();
+        if (!missing.isEmpty()) {
+            System.out.println(xml.getName() + " is missing " + missing.size() + " translation(s): "
+                    + (missing.size() <= 10 ? missing : missing.subList(0, 10) + " ..."));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets the locale code.
+     *
+     * @return e.g. "fr-CA"
+     */
+    public String getLocaleCode() {
+        return localeCode;
+    }
+
+    /**
+     * Retrieves a string for a raw key.
+     *
+     * @param key the translation key
+     * @return the translation, or null if absent
+     */
+    public String getString(String key) {
+        return bundle != null ? bundle.get(key) : translations.get(key);
+    }
+
+    /**
+     * Retrieves a string by enum key.
+     *
+     * @param key the message key
+     * @return the translation, or the key's placeholder if absent
+     */
+    public String getString(MessageKey key) {
+        String message = messages[key.ordinal()];
+        if (message == null) {
+            message = getString(key.key());
+            if (message == null) {
+                message = key.missingText();
+            }
+            messages[key.ordinal()] = message;
+        }
+        return message;
+    }
+
+    /**
+     * Gets the precompiled template for a key.
+     *
+     * @param key the message key
+     * @return the template (the key's placeholder text if absent)
+     */
+    public MessageTemplate getTemplate(MessageKey key) {
+        MessageTemplate template = templates[key.ordinal()];
+        if (template == null) {
+            template = MessageTemplate.compile(getString(key));
+            templates[key.ordinal()] = template;
+        }
+        return template;
+    }
+
+    /**
+     * Gets the keys this locale does not define. Every key is looked up on
+     * the first call.
+     *
+     * @return the missing keys, in enum order
+     */
+    public List<MessageKey> getMissingKeys() {
+        List<MessageKey> missing = missingKeys;
+        if (missing == null) {
+            List<MessageKey> found = new ArrayList<>();
+            for (MessageKey k : MessageKey.values()) {
+                if (getString(k.key()) == null) {
+                    found.add(k);
+                }
+            }
+            missing = Collections.unmodifiableList(found);
+            missingKeys = missing;
+        }
+        return missing;
+    }
+
+    /**
+     * Checks whether this snapshot reads from a compiled bundle.
+     *
+     * @return true if loaded from a bundle
+     */
+    public boolean isFromBundle() {
+        return bundle != null;
+    }
+}
@@ -2,11 +2,11 @@ package edu.ucalgary.oop;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.sql.ResultSet;
 import java.sql.PreparedStatement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Location represents a shelter or place where victims and items can be allocated.
@@ -143,124 +143,109 @@ public class Location {
      * Reassigns a person to a new location in personlocation table.
      */
     public static void reassignPersonToLocation(int personId, int locationId) throws SQLException {
-        Connection conn = DatabaseManager.getInstance().getConnection();
-        if (conn == null) throw new IllegalStateException("DB not connected");
-
-        String del = "DELETE FROM personlocation WHERE person_id=?";
-        try (PreparedStatement ps = conn.prepareStatement(del)) {
-            ps.setInt(1, personId);
-            ps.executeUpdate();
-        }
-        String ins = "INSERT INTO personlocation (person_id, location_id) VALUES (?, ?)";
-        try (PreparedStatement ps = conn.prepareStatement(ins)) {
-            ps.setInt(1, personId);
-            ps.setInt(2, locationId);
-            ps.executeUpdate();
-        }
+        DatabaseManager.getInstance().getAccess().reassignPersonToLocation(personId, locationId);
     }
 
+    private static final KeysetListing PERSON_LOCATION_LISTING = new KeysetListing(
+            "SELECT person_id, location_id FROM personlocation",
+            rs -> LanguageManager.getDefault().formatLine(MessageKey.ROW_PERSON_LOCATION,
+                    rs.getInt("person_id"), rs.getInt("location_id")),
+            "person_id", "location_id");
+
     /**
-     * Lists person->location mappings from DB.
+     * Lists person->location mappings from DB, streaming rows through a cursor.
      */
     public static void listPersonLocationsSafe() throws SQLException {
-        Connection conn = DatabaseManager.getInstance().getConnection();
-        if (conn == null) throw new IllegalStateException("DB not connected");
-        String sql = "SELECT person_id, location_id FROM personlocation ORDER BY person_id ASC";
-        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                int p = rs.getInt("person_id");
-                int l = rs.getInt("location_id");
-                System.out.printf("Person %d => Location %d\n", p, l);
-            }
-        }
+        PERSON_LOCATION_LISTING.streamAll(System.out);
+    }
+
+    /**
+     * Gets the keyset listing of person->location mappings, for paging.
+     *
+     * @return the person-location listing
+     */
+    public static KeysetListing personLocationListing() {
+        return PERSON_LOCATION_LISTING;
     }
 
     /**
      * Searches location details, printing occupant, supply, inquiry info.
+     * The four sections are fetched through {@link QueryFanOut}, so in
+     * parallel mode they load concurrently on separate connections. Stock
+     * counts by type come from the {@link InventoryIndex}.
      */
     public static void searchLocationDetailsSafe(int locId) throws SQLException {
-        Connection conn = DatabaseManager.getInstance().getConnection();
-        if (conn == null) throw new IllegalStateException("DB not connected");
+        LanguageManager lm = LanguageManager.getDefault();
+        try (QueryFanOut fan = new QueryFanOut()) {
+            QueryFanOut.Fork<List<String>> info = fan.fork(conn -> lines(conn,
+                    "SELECT location_id, name, address FROM location WHERE location_id=?", locId,
+                    rs -> lm.formatLine(MessageKey.ROW_LOCATION_INFO,
+                            locId, rs.getString("name"), rs.getString("address"))));
+            QueryFanOut.Fork<List<String>> occupants = fan.fork(conn -> lines(conn,
+                    "SELECT pl.person_id, p.first_name, p.last_name "
+                            + "FROM personlocation pl JOIN person p ON pl.person_id=p.person_id "
+                            + "WHERE pl.location_id=?", locId,
+                    rs -> lm.formatLine(MessageKey.ROW_LOCATION_OCCUPANT,
+                            rs.getInt("person_id"), rs.getString("first_name"), rs.getString("last_name"))));
+            QueryFanOut.Fork<List<String>> supplies = fan.fork(conn -> lines(conn,
+                    "SELECT s.supply_id, s.type, s.comments "
+                            + "FROM supplyallocation sa JOIN supply s ON sa.supply_id=s.supply_id "
+                            + "WHERE sa.location_id=?", locId,
+                    rs -> lm.formatLine(MessageKey.ROW_SUPPLY,
+                            rs.getInt("supply_id"), rs.getString("type"), rs.getString("comments"))));
+            QueryFanOut.Fork<List<String>> inquiries = fan.fork(conn -> lines(conn,
+                    "SELECT inquiry_id, inquirer_id, seeking_id, date_of_inquiry, comments "
+                            + "FROM inquiry WHERE location_id=? ORDER BY inquiry_id ASC", locId,
+                    rs -> lm.formatLine(MessageKey.ROW_LOCATION_INQUIRY,
+                            rs.getInt("inquiry_id"), rs.getInt("inquirer_id"), rs.getInt("seeking_id"),
+                            rs.getTimestamp("date_of_inquiry"), rs.getString("comments"))));
+            fan.join();
 
-        System.out.println("= LOCATION INFO =");
-        String locSql = "SELECT location_id, name, address FROM location WHERE location_id=?";
-        try (PreparedStatement ps = conn.prepareStatement(locSql)) {
-            ps.setInt(1, locId);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    String nm = rs.getString("name");
-                    String ad = rs.getString("address");
-                    System.out.printf("LocID=%d, Name=%s, Address=%s\n", locId, nm, ad);
-                } else {
-                    System.out.println("No location found with ID=" + locId);
+            try (OutputSink out = OutputSink.toConsole()) {
+                out.println("= LOCATION INFO =");
+                if (info.get().isEmpty()) {
+                    out.println("No location found with ID=" + locId);
                     return;
                 }
+                out.print(info.get().get(0));
+                printSection(out, "\n= OCCUPANTS (Persons) =", occupants.get());
+                printSection(out, "\n= SUPPLIES ALLOCATED =", supplies.get());
+                printSection(out, "\n= STOCK BY TYPE =", stockLines(lm, locId));
+                printSection(out, "\n= INQUIRIES =", inquiries.get());
+                out.println("\n--- End of location details ---");
             }
         }
+    }
 
-        System.out.println("\n= OCCUPANTS (Persons) =");
-        String occSql =
-                "SELECT pl.person_id, p.first_name, p.last_name "
-                        + "FROM personlocation pl JOIN person p ON pl.person_id=p.person_id "
-                        + "WHERE pl.location_id=?";
-        try (PreparedStatement ps = conn.prepareStatement(occSql)) {
+    private static List<String> lines(Connection conn, String sql, int locId, KeysetListing.RowFormat fmt) throws SQLException {
+        List<String> out = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, locId);
             try (ResultSet rs = ps.executeQuery()) {
-                boolean anyOcc = false;
                 while (rs.next()) {
-                    anyOcc = true;
-                    int pid = rs.getInt("person_id");
-                    String fn= rs.getString("first_name");
-                    String ln= rs.getString("last_name");
-                    System.out.printf("PersonID=%d => %s %s\n", pid, fn, ln);
+                    out.add(fmt.format(rs));
                 }
-                if (!anyOcc) System.out.println("(None)");
             }
         }
+        return out;
+    }
 
-        System.out.println("\n= SUPPLIES ALLOCATED =");
-        String supSql =
-                "SELECT s.supply_id, s.type, s.comments "
-                        + "FROM supplyallocation sa JOIN supply s ON sa.supply_id=s.supply_id "
-                        + "WHERE sa.location_id=?";
-        try (PreparedStatement ps = conn.prepareStatement(supSql)) {
-            ps.setInt(1, locId);
-            try (ResultSet rs = ps.executeQuery()) {
-                boolean anySup = false;
-                while (rs.next()) {
-                    anySup = true;
-                    int sid = rs.getInt("supply_id");
-                    String ty= rs.getString("type");
-                    String cm= rs.getString("comments");
-                    System.out.printf("SupplyID=%d, Type=%s, Comments=%s\n", sid, ty, cm);
-                }
-                if (!anySup) System.out.println("(None)");
-            }
+    private static List<String> stockLines(LanguageManager lm, int locId) {
+        List<String> out = new ArrayList<>();
+        for (Map.Entry<String, Long> e : InventoryIndex.getInstance().getLocationCounts(locId).entrySet()) {
+            out.add(lm.formatLine(MessageKey.ROW_STOCK, e.getKey(), e.getValue()));
         }
+        return out;
+    }
 
-        System.out.println("\n= INQUIRIES =");
-        String inqSql = "SELECT inquiry_id, inquirer_id, seeking_id, date_of_inquiry, comments "
-                + "FROM inquiry WHERE location_id=? ORDER BY inquiry_id ASC";
-        try (PreparedStatement ps = conn.prepareStatement(inqSql)) {
-            ps.setInt(1, locId);
-            try (ResultSet rs = ps.executeQuery()) {
-                boolean anyInq = false;
-                while (rs.next()) {
-                    anyInq = true;
-                    int iq    = rs.getInt("inquiry_id");
-                    int inqer = rs.getInt("inquirer_id");
-                    int missing = rs.getInt("seeking_id");
-                    String dt = String.valueOf(rs.getTimestamp("date_of_inquiry"));
-                    String cmt= rs.getString("comments");
-                    System.out.printf("InquiryID=%d => inquirer=%d, missing=%d, date=%s, comments=%s\n",
-                            iq, inqer, missing, dt, cmt);
-                }
-                if (!anyInq) {
-                    System.out.println("(None)");
-                }
-            }
+    private static void printSection(OutputSink out, String header, List<String> rows) {
+        out.println(header);
+        if (rows.isEmpty()) {
+            out.println("(None)");
+        }
+        for (String row : rows) {
+            out.print(row);
         }
-        System.out.println("\n--- End of location details ---");
     }
 
     /**
@@ -293,7 +278,7 @@ public class Location {
         Connection conn = DatabaseManager.getInstance().getConnection();
         if (conn == null) throw new IllegalStateException("DB not connected");
 
-        try (PreparedStatement ps = conn.prepareStatement(sb.toString())) {
+        try (conn; PreparedStatement ps = conn.prepareStatement(sb.toString())) {
             int idx = 1;
             if (newName != null && !newName.isEmpty()) {
                 ps.setString(idx++, newName);
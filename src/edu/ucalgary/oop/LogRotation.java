@@ -0,0 +1,242 @@
+package edu.ucalgary.oop;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * LogRotation decides when a log file should be rolled and does the rolling
+ * for {@link ErrorLogger}.
+ *
+ * <p>
+ * A file is rolled when it reaches maxBytes, or (if daily rotation is on)
+ * when it holds entries from an earlier day. Rolling is a rename, so it is
+ * cheap for the writer. The rolled file (e.g. errorlog-2025-04-05-1.txt) is
+ * then gzipped on a background thread. Once that is done only the newest
+ * retainCount rolled files are kept.
+ * </p>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class LogRotation {
+    private static final ExecutorService COMPRESSOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "log-compressor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final long maxBytes;
+    private final boolean daily;
+    private final int retainCount;
+
+    /**
+     * Constructs a LogRotation.
+     *
+     * @param maxBytes    roll once the file reaches this size (0 = no size limit)
+     * @param daily       roll when the file holds entries from an earlier day
+     * @param retainCount rolled files to keep
+     * @throws IllegalArgumentException if maxBytes or retainCount is negative
+     */
+    public LogRotation(long maxBytes, boolean daily, int retainCount) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Max bytes cannot be negative");
+        }
+        if (retainCount < 0) {
+            throw new IllegalArgumentException("Retain count cannot be negative");
+        }
+        this.maxBytes = maxBytes;
+        this.daily = daily;
+        this.retainCount = retainCount;
+    }
+
+    /**
+     * Gets the size limit.
+     *
+     * @return bytes, or 0 for no limit
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Checks whether files are rolled daily.
+     *
+     * @return true if daily rotation is on
+     */
+    public boolean isDaily() {
+        return daily;
+    }
+
+    /**
+     * Gets the number of rolled files kept.
+     *
+     * @return the retain count
+     */
+    public int getRetainCount() {
+        return retainCount;
+    }
+
+    /**
+     * Decides whether the active file should be rolled before the next write.
+     *
+     * @param size    the file size in bytes
+     * @param fileDay the day of the file's last write
+     * @param today   the current day
+     * @return true if the file should be rolled
+     */
+    public boolean shouldRotate(long size, LocalDate fileDay, LocalDate today) {
+        if (size <= 0) {
+            return false;
+        }
+        if (maxBytes > 0 && size >= maxBytes) {
+            return true;
+        }
+        return daily && fileDay != null && fileDay.isBefore(today);
+    }
+
+    /**
+     * Checks the active file on disk and rolls it if needed.
+     *
+     * @param active the active log file
+     * @return the compression task if the file was rolled, otherwise null
+     * @throws IOException if the rename fails
+     */
+    public Future<?> rotateIfNeeded(Path active) throws IOException {
+        if (!Files.exists(active)) {
+            return null;
+        }
+        LocalDate fileDay = dayOf(Files.getLastModifiedTime(active).toInstant());
+        if (!shouldRotate(Files.size(active), fileDay, LocalDate.now())) {
+            return null;
+        }
+        return rotate(active, fileDay);
+    }
+
+    /**
+     * Renames the active file to its rolled name and schedules compression
+     * and cleanup.
+     *
+     * @param active  the active log file
+     * @param fileDay the day the file's entries belong to
+     * @return the compression task
+     * @throws IOException if the rename fails
+     */
+    public Future<?> rotate(Path active, LocalDate fileDay) throws IOException {
+        Path rolled = rolledName(active, fileDay);
+        Files.move(active, rolled, StandardCopyOption.ATOMIC_MOVE);
+        return COMPRESSOR.submit(() -> {
+            compress(rolled);
+            prune(active);
+            return null;
+        });
+    }
+
+    /**
+     * Picks the first unused rolled name for a day, e.g.
+     * errorlog-2025-04-05-1.txt.
+     *
+     * @param active the active log file
+     * @param day    the day
+     * @return the rolled path
+     */
+    static Path rolledName(Path active, LocalDate day) {
+        String base = baseName(active);
+        String ext = extension(active);
+        for (int n = 1; ; n++) {
+            Path candidate = active.resolveSibling(base + "-" + day + "-" + n + ext);
+            if (!Files.exists(candidate) && !Files.exists(candidate.resolveSibling(candidate.getFileName() + ".gz"))) {
+                return candidate;
+            }
+        }
+    }
+
+    private static void compress(Path rolled) throws IOException {
+        Path gz = rolled.resolveSibling(rolled.getFileName() + ".gz");
+        Path tmp = rolled.resolveSibling(rolled.getFileName() + ".gz.tmp");
+        try (InputStream in = Files.newInputStream(rolled);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp), 64 * 1024)) {
+            in.transferTo(out);
+        }
+        Files.move(tmp, gz, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(rolled);
+    }
+
+    /**
+     * Deletes the oldest rolled files beyond the retain count.
+     *
+     * @param active the active log file
+     * @throws IOException if listing fails
+     */
+    void prune(Path active) throws IOException {
+        List<Path> rolled = listRolled(active);
+        if (rolled.size() <= retainCount) {
+            return;
+        }
+        rolled.sort(Comparator.comparingLong(LogRotation::modifiedMillis).thenComparing(Path::toString));
+        for (int i = 0; i < rolled.size() - retainCount; i++) {
+            Files.deleteIfExists(rolled.get(i));
+        }
+    }
+
+    /**
+     * Lists the rolled files (compressed or not) that belong to a log.
+     *
+     * @param active the active log file
+     * @return the rolled files
+     * @throws IOException if listing fails
+     */
+    static List<Path> listRolled(Path active) throws IOException {
+        String prefix = baseName(active) + "-";
+        Path dir = active.toAbsolutePath().getParent();
+        List<Path> out = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, prefix + "*")) {
+            for (Path p : ds) {
+                String name = p.getFileName().toString();
+                if (!name.endsWith(".tmp") && name.substring(prefix.length()).matches("\\d{4}-\\d{2}-\\d{2}-\\d+.*")) {
+                    out.add(p);
+                }
+            }
+        }
+        return out;
+    }
+
+    private static long modifiedMillis(Path p) {
+        try {
+            return Files.getLastModifiedTime(p).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    static LocalDate dayOf(Instant instant) {
+        return instant.atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private static String baseName(Path p) {
+        String name = p.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private static String extension(Path p) {
+        String name = p.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(dot) : "";
+    }
+}
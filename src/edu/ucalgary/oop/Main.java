@@ -1,10 +1,16 @@
 package edu.ucalgary.oop;
 
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.util.Scanner;
 
 /**
  * Main class is the entry point to the application.
  * Prompts user for language, sets up CLI, and runs the loop.
+ * With {@code --batch <file|-> [--commit-every N]} it instead replays a
+ * command script (or stdin for -) without prompts; see {@link BatchRunner}.
  *
  * @author Anhad Wander
  * @version 1.0
@@ -17,7 +23,18 @@ public class Main {
      * @param args command-line arguments
      */
     public static void main(String[] args) {
-        LanguageManager languageManager = new LanguageManager();
+        if (args.length > 0 && args[0].equals("--batch")) {
+            System.exit(runBatch(args));
+        }
+        LocaleCatalog catalog = LocaleCatalog.getInstance();
+        catalog.discover();
+        try {
+            catalog.startWatching();
+        } catch (IOException e) {
+            System.out.println("Language packs will not hot-reload: " + e.getMessage());
+        }
+        LanguageManager languageManager = new LanguageManager(catalog);
+        LanguageManager.setDefault(languageManager);
 
         Scanner console = new Scanner(System.in);
         System.out.println("Select a language code to use:");
@@ -50,4 +67,37 @@ public class Main {
         }
 
     }
+
+    /**
+     * Runs batch mode.
+     *
+     * @param args "--batch", the script path or "-", optionally "--commit-every" N
+     * @return the exit status: 0 if every command ran, 1 if any failed, 2 on bad usage or I/O error
+     */
+    private static int runBatch(String[] args) {
+        int commitEvery = BatchRunner.DEFAULT_COMMIT_EVERY;
+        if (args.length == 4 && args[2].equals("--commit-every")) {
+            try {
+                commitEvery = Integer.parseInt(args[3]);
+            } catch (NumberFormatException e) {
+                commitEvery = 0;
+            }
+        }
+        if ((args.length != 2 && args.length != 4) || commitEvery < 1) {
+            System.out.println("Usage: Main --batch <script|-> [--commit-every N]");
+            return 2;
+        }
+        try (BufferedReader script = args[1].equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in))
+                : new BufferedReader(new FileReader(args[1]))) {
+            BatchRunner.Result result = CommandLineInterface.getInstance().runBatch(script, commitEvery);
+            if (result == null) {
+                return 2;
+            }
+            return result.getFailed() == 0 ? 0 : 1;
+        } catch (IOException e) {
+            System.out.println("Cannot open script: " + e.getMessage());
+            return 2;
+        }
+    }
 }
@@ -141,7 +141,7 @@ public class MedicalRecord {
             throw new IllegalStateException("DB not connected");
         }
         String sql = "INSERT INTO medicalrecord (location_id, person_id, date_of_treatment, treatment_details) VALUES (?,?,?,?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (conn; PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, locationId);
             ps.setInt(2, personId);
             if (dateStr == null || dateStr.isEmpty()) {
@@ -165,7 +165,7 @@ public class MedicalRecord {
         Connection conn = DatabaseManager.getInstance().getConnection();
         if (conn == null) throw new IllegalStateException("DB not connected");
         String sql = "SELECT medical_record_id, location_id, date_of_treatment, treatment_details FROM medicalrecord WHERE person_id=?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (conn; PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, personId);
             try (ResultSet rs = ps.executeQuery()) {
                 boolean anyMed = false;
@@ -228,7 +228,7 @@ public class MedicalRecord {
         Connection conn = DatabaseManager.getInstance().getConnection();
         if (conn == null) throw new IllegalStateException("DB not connected");
 
-        try (PreparedStatement ps = conn.prepareStatement(sb.toString())) {
+        try (conn; PreparedStatement ps = conn.prepareStatement(sb.toString())) {
             int idx = 1;
             if (newLocationId != null && !newLocationId.isEmpty()) {
                 ps.setInt(idx++, Integer.parseInt(newLocationId));
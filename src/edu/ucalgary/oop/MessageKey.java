@@ -0,0 +1,277 @@
+package edu.ucalgary.oop;
+
+/**
+ * MessageKey names every translation key in data/en-CA.xml. Each locale is
+ * loaded into a String[] indexed by ordinal, so a lookup is an array read
+ * and keys missing from a locale are reported when it loads.
+ *
+ * <p>
+ * Generated by {@link MessageKeyGenerator}; do not edit by hand.
+ * </p>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public enum MessageKey {
+    /** Welcome to the Disaster Relief System! */
+    WELCOME_MESSAGE("welcome_message"),
+    /** Cannot connect to the database. */
+    DB_CONNECT_FAIL("db_connect_fail"),
+    /** Invalid choice. Please try again. */
+    ERROR_INVALID_CHOICE("error_invalid_choice"),
+    /** Invalid number. Enter an integer. */
+    ERROR_INVALID_NUMBER("error_invalid_number"),
+    /** Exiting the system. Goodbye! */
+    EXIT_GOODBYE("exit_goodbye"),
+    /** ========== Main Menu ========== */
+    MENU_MAIN_TITLE("menu_main_title"),
+    /** 1) Manage Victims */
+    MENU_OPTION_1("menu_option_1"),
+    /** 2) Manage Inquiries */
+    MENU_OPTION_2("menu_option_2"),
+    /** 3) Manage Supplies */
+    MENU_OPTION_3("menu_option_3"),
+    /** 4) Manage Locations */
+    MENU_OPTION_4("menu_option_4"),
+    /** 5) Exit */
+    MENU_OPTION_5("menu_option_5"),
+    /** Enter your choice: */
+    PROMPT_CHOICE("prompt_choice"),
+    /** --- Manage Victims --- */
+    MENU_VICTIMS_TITLE("menu_victims_title"),
+    /** 1) Add Victim */
+    MENU_VICTIMS_OPTION_1("menu_victims_option_1"),
+    /** 2) List Victims */
+    MENU_VICTIMS_OPTION_2("menu_victims_option_2"),
+    /** 3) Set Family Group */
+    MENU_VICTIMS_OPTION_3("menu_victims_option_3"),
+    /** 4) Add Medical Record */
+    MENU_VICTIMS_OPTION_4("menu_victims_option_4"),
+    /** 5) Search Person by ID */
+    MENU_VICTIMS_OPTION_5("menu_victims_option_5"),
+    /** 6) Edit Existing Victim */
+    MENU_VICTIMS_OPTION_6("menu_victims_option_6"),
+    /** 7) Edit Existing Medical Record */
+    MENU_VICTIMS_OPTION_7("menu_victims_option_7"),
+    /** 8) Import Roster File (CSV/TSV) */
+    MENU_VICTIMS_OPTION_8("menu_victims_option_8"),
+    /** --- Add a New Victim --- */
+    PROMPT_ADD_VICTIM_TITLE("prompt_add_victim_title"),
+    /** First Name: */
+    PROMPT_FIRST_NAME("prompt_first_name"),
+    /** Last Name: */
+    PROMPT_LAST_NAME("prompt_last_name"),
+    /** Birth Date (yyyy-mm-dd or blank): */
+    PROMPT_BIRTH_DATE("prompt_birth_date"),
+    /** Select gender (1=Man, 2=Woman, 3=Non-binary): */
+    PROMPT_GENDER_OPTIONS("prompt_gender_options"),
+    /** Phone number (optional): */
+    PROMPT_PHONE("prompt_phone"),
+    /** Victim inserted successfully! */
+    VICTIM_INSERT_SUCCESS("victim_insert_success"),
+    /** --- Edit Existing Victim --- */
+    PROMPT_EDIT_VICTIM_TITLE("prompt_edit_victim_title"),
+    /** New first name (blank=skip): */
+    PROMPT_NEW_VICTIM_NAME("prompt_new_victim_name"),
+    /** New last name (blank=skip): */
+    PROMPT_NEW_VICTIM_LASTNAME("prompt_new_victim_lastname"),
+    /** New birth date (yyyy-mm-dd, blank=skip): */
+    PROMPT_NEW_VICTIM_DOB("prompt_new_victim_dob"),
+    /** New gender (1=Man, 2=Woman, 3=Non-binary, blank=skip): */
+    PROMPT_NEW_VICTIM_GENDER("prompt_new_victim_gender"),
+    /** New phone (blank=skip): */
+    PROMPT_NEW_VICTIM_PHONE("prompt_new_victim_phone"),
+    /** Victim updated successfully! */
+    VICTIM_UPDATE_SUCCESS("victim_update_success"),
+    /** --- Manage Inquiries --- */
+    MENU_INQUIRIES_TITLE("menu_inquiries_title"),
+    /** 1) Log Inquiry */
+    MENU_INQUIRIES_OPTION_1("menu_inquiries_option_1"),
+    /** 2) List Inquiries */
+    MENU_INQUIRIES_OPTION_2("menu_inquiries_option_2"),
+    /** 3) Edit Existing Inquiry */
+    MENU_INQUIRIES_OPTION_3("menu_inquiries_option_3"),
+    /** --- Log an Inquiry --- */
+    PROMPT_INQUIRY_TITLE("prompt_inquiry_title"),
+    /** Inquirer Person ID: */
+    PROMPT_INQUIRER_ID("prompt_inquirer_id"),
+    /** Missing Person ID: */
+    PROMPT_MISSING_ID("prompt_missing_id"),
+    /** Location ID (or 0=null): */
+    PROMPT_LOC_ID_OR_ZERO("prompt_loc_id_or_zero"),
+    /** Date of inquiry (yyyy-mm-dd or blank =&gt; 2025-01-01): */
+    PROMPT_INQUIRY_DATE("prompt_inquiry_date"),
+    /** Comments: */
+    PROMPT_INQUIRY_COMMENTS("prompt_inquiry_comments"),
+    /** Inquiry logged successfully. */
+    INQUIRY_LOGGED_SUCCESS("inquiry_logged_success"),
+    /** --- All Inquiries --- */
+    LIST_INQUIRIES_HEADER("list_inquiries_header"),
+    /** --- Manage Items (Supplies) --- */
+    MENU_ITEMS_TITLE("menu_items_title"),
+    /** 1) Add New Supply */
+    MENU_ITEMS_OPTION_1("menu_items_option_1"),
+    /** 2) Allocate Supply to Person */
+    MENU_ITEMS_OPTION_2("menu_items_option_2"),
+    /** 3) Allocate Supply to Location */
+    MENU_ITEMS_OPTION_3("menu_items_option_3"),
+    /** 4) List All Supplies */
+    MENU_ITEMS_OPTION_4("menu_items_option_4"),
+    /** 5) Edit Existing Supply */
+    MENU_ITEMS_OPTION_5("menu_items_option_5"),
+    /** 6) Distribute Supplies to a Location's Occupants */
+    MENU_ITEMS_OPTION_6("menu_items_option_6"),
+    /** 7) Return to Main Menu */
+    MENU_ITEMS_OPTION_7("menu_items_option_7"),
+    /** --- Add a New Supply --- */
+    PROMPT_ADD_SUPPLY_TITLE("prompt_add_supply_title"),
+    /** Select supply type (1= personal belonging, 2= blanket, 3= water, 4= cot): */
+    PROMPT_SUPPLY_TYPE_CHOICE("prompt_supply_type_choice"),
+    /** Comments (optional): */
+    PROMPT_SUPPLY_COMMENTS("prompt_supply_comments"),
+    /** Supply added successfully! */
+    SUPPLY_INSERT_SUCCESS("supply_insert_success"),
+    /** --- Allocate Supply to Person --- */
+    ALLOCATE_SUPPLY_PERSON("allocate_supply_person"),
+    /** Supply ID: */
+    PROMPT_SUPPLY_ID("prompt_supply_id"),
+    /** Supply allocated successfully. */
+    ALLOCATION_SUCCESS("allocation_success"),
+    /** --- Allocate Supply to Location --- */
+    ALLOCATE_SUPPLY_LOCATION("allocate_supply_location"),
+    /** --- Distribute Supplies to Occupants --- */
+    DISTRIBUTE_SUPPLY_TITLE("distribute_supply_title"),
+    /** Most each person may hold (blank for no limit): */
+    PROMPT_MAX_PER_PERSON("prompt_max_per_person"),
+    /** Allocated {0} of {1} {2} to {3} occupants; {4} left at the location ({5} ms). */
+    DISTRIBUTE_RESULT("distribute_result"),
+    /** PersonID={0} received {1} */
+    ROW_DISTRIBUTION("row_distribution"),
+    /** --- All Supplies --- */
+    LIST_SUPPLIES_HEADER("list_supplies_header"),
+    /** --- Edit Existing Supply --- */
+    PROMPT_EDIT_SUPPLY_TITLE("prompt_edit_supply_title"),
+    /** Enter existing Supply ID to edit: */
+    PROMPT_EXISTING_SUPPLY_ID("prompt_existing_supply_id"),
+    /** Enter new supply type (blank=skip): */
+    PROMPT_NEW_SUPPLY_TYPE("prompt_new_supply_type"),
+    /** Enter new comments (blank=skip): */
+    PROMPT_NEW_SUPPLY_COMMENTS("prompt_new_supply_comments"),
+    /** Supply updated successfully! */
+    UPDATE_SUPPLY_SUCCESS("update_supply_success"),
+    /** Enter numeric room for cot: */
+    PROMPT_COT_ROOM("prompt_cot_room"),
+    /** Room must be numeric. Please try again. */
+    ERROR_INVALID_ROOM("error_invalid_room"),
+    /** Enter grid coordinate (letter+number, e.g. B6): */
+    PROMPT_COT_GRID("prompt_cot_grid"),
+    /** Grid must be a letter followed by number(s), e.g. B6. Please try again. */
+    ERROR_INVALID_GRID("error_invalid_grid"),
+    /** --- Manage Locations --- */
+    MENU_LOCATIONS_TITLE("menu_locations_title"),
+    /** 1) Reassign Person to Different Location */
+    MENU_LOCATIONS_OPTION_1("menu_locations_option_1"),
+    /** 2) Show Person-&gt;Location Mappings */
+    MENU_LOCATIONS_OPTION_2("menu_locations_option_2"),
+    /** 3) Search Location by ID */
+    MENU_LOCATIONS_OPTION_3("menu_locations_option_3"),
+    /** 4) Edit Existing Location */
+    MENU_LOCATIONS_OPTION_4("menu_locations_option_4"),
+    /** --- Reassign Person to Different Location --- */
+    REASSIGN_PERSON_LOC("reassign_person_loc"),
+    /** Person reassigned successfully! */
+    REASSIGN_SUCCESS("reassign_success"),
+    /** Location ID: */
+    PROMPT_LOC_ID("prompt_loc_id"),
+    /** Person ID: */
+    PROMPT_PERSON_ID("prompt_person_id"),
+    /** 4) Return to Main Menu */
+    MENU_INQUIRIES_OPTION_4("menu_inquiries_option_4"),
+    /** --- Edit Existing Inquiry --- */
+    PROMPT_EDIT_INQUIRY_TITLE("prompt_edit_inquiry_title"),
+    /** Enter the Inquiry ID to edit: */
+    PROMPT_INQUIRY_ID("prompt_inquiry_id"),
+    /** New inquirer person_id (blank=skip): */
+    PROMPT_NEW_INQUIRER_ID("prompt_new_inquirer_id"),
+    /** New missing person_id (blank=skip): */
+    PROMPT_NEW_MISSING_ID("prompt_new_missing_id"),
+    /** New location_id (blank=skip): */
+    PROMPT_NEW_LOC_ID("prompt_new_loc_id"),
+    /** New inquiry date (yyyy-mm-dd, blank=skip): */
+    PROMPT_NEW_INQUIRY_DATE("prompt_new_inquiry_date"),
+    /** New inquiry comments (blank=skip): */
+    PROMPT_NEW_INQUIRY_COMMENTS("prompt_new_inquiry_comments"),
+    /** Inquiry updated successfully. */
+    INQUIRY_UPDATE_SUCCESS("inquiry_update_success"),
+    /** 5) Return to Main Menu */
+    MENU_LOCATIONS_OPTION_5("menu_locations_option_5"),
+    /** --- Edit Existing Location --- */
+    PROMPT_EDIT_LOCATION_TITLE("prompt_edit_location_title"),
+    /** Enter the Location ID to edit: */
+    PROMPT_LOCATION_ID_FOR_EDIT("prompt_location_id_for_edit"),
+    /** New location name (blank=skip): */
+    PROMPT_NEW_LOCATION_NAME("prompt_new_location_name"),
+    /** New address (blank=skip): */
+    PROMPT_NEW_LOCATION_ADDR("prompt_new_location_addr"),
+    /** Location updated successfully! */
+    LOCATION_UPDATE_SUCCESS("location_update_success"),
+    /** 9) Return to Main Menu */
+    MENU_VICTIMS_OPTION_9("menu_victims_option_9"),
+    /** Roster file path (.csv or .tsv): */
+    PROMPT_ROSTER_PATH("prompt_roster_path"),
+    /** Roster import finished. Rejected lines (if any) were written to: */
+    ROSTER_IMPORT_DONE("roster_import_done"),
+    /** Press Enter for the next page, or q to stop: */
+    PROMPT_NEXT_PAGE("prompt_next_page"),
+    /** ID={0}, Name={1} {2}, Phone={3}, Gender={4}, FamilyGroup={5} */
+    ROW_PERSON("row_person"),
+    /** SupplyID={0}, Type={1}, Comments={2} */
+    ROW_SUPPLY("row_supply"),
+    /** Person {0} =&gt; Location {1} */
+    ROW_PERSON_LOCATION("row_person_location"),
+    /** Inquiry {0} =&gt; inquirer:{1}, missing:{2}, loc:{3}, date:{4}, comment:{5} */
+    ROW_INQUIRY("row_inquiry"),
+    /** InquiryID={0} =&gt; inquirer={1}, missing={2}, location={3}, date={4}, comments={5} */
+    ROW_INQUIRY_DETAIL("row_inquiry_detail"),
+    /** LocID={0}, Name={1}, Address={2} */
+    ROW_LOCATION_INFO("row_location_info"),
+    /** PersonID={0} =&gt; {1} {2} */
+    ROW_LOCATION_OCCUPANT("row_location_occupant"),
+    /** InquiryID={0} =&gt; inquirer={1}, missing={2}, date={3}, comments={4} */
+    ROW_LOCATION_INQUIRY("row_location_inquiry"),
+    /** Person {0} =&gt; {1} {2}, phone={3} */
+    ROW_DB_PERSON("row_db_person"),
+    /** Inventory index loaded ({0} allocations). */
+    INVENTORY_INDEX_LOADED("inventory_index_loaded"),
+    /** {0}: {1} */
+    ROW_STOCK("row_stock"),
+    /** RecordID={0}, Location={1}, Date={2}, Details={3} */
+    ROW_MEDICAL_RECORD("row_medical_record");
+
+    private final String key;
+    private final String missingText;
+
+    MessageKey(String key) {
+        this.key = key;
+        this.missingText = "[Missing translation: " + key + "]";
+    }
+
+    /**
+     * Gets the key as written in the XML files.
+     *
+     * @return the key
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Gets the placeholder shown when a locale lacks this key.
+     *
+     * @return the placeholder
+     */
+    public String missingText() {
+        return missingText;
+    }
+}
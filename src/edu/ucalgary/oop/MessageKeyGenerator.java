@@ -0,0 +1,114 @@
+package edu.ucalgary.oop;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * MessageKeyGenerator writes the {@link MessageKey} enum from the keys in
+ * data/en-CA.xml. Re-run it after adding or removing a translation key:
+ * <pre>
+ * java edu.ucalgary.oop.MessageKeyGenerator data/en-CA.xml src/edu/ucalgary/oop/MessageKey.java
+ * </pre>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class MessageKeyGenerator {
+
+    private MessageKeyGenerator() {
+    }
+
+    /**
+     * Builds the enum source for a set of translations.
+     *
+     * @param reference the reference locale's translations, in file order
+     * @return the Java source of MessageKey
+     */
+    static String generate(Map<String, String> reference) {
+        StringBuilder sb = new StringBuilder(reference.size() * 96 + 1024);
+        sb.append("package edu.ucalgary.oop;\n\n");
+        sb.append("/**\n");
+        sb.append(" * MessageKey names every translation key in data/en-CA.xml. Each locale is\n");
+        sb.append(" * loaded into a String[] indexed by ordinal, so a lookup is an array read\n");
+        sb.append(" * and keys missing from a locale are reported when it loads.\n");
+        sb.append(" *\n");
+        sb.append(" * <p>\n");
+        sb.append(" * Generated by {@link MessageKeyGenerator}; do not edit by hand.\n");
+        sb.append(" * </p>\n");
+        sb.append(" *\n");
+        sb.append(" * @author Anhad Wander\n");
+        sb.append(" * @version 1.0\n");
+        sb.append(" * @since 2025-04-05\n");
+        sb.append(" */\n");
+        sb.append("public enum MessageKey {\n");
+        int i = 0;
+        for (Map.Entry<String, String> e : reference.entrySet()) {
+            sb.append("    /** ").append(escapeDoc(e.getValue())).append(" */\n");
+            sb.append("    ").append(constantName(e.getKey())).append("(\"").append(e.getKey()).append("\")");
+            sb.append(++i < reference.size() ? ",\n" : ";\n");
+        }
+        sb.append("\n");
+        sb.append("    private final String key;\n");
+        sb.append("    private final String missingText;\n\n");
+        sb.append("    MessageKey(String key) {\n");
+        sb.append("        this.key = key;\n");
+        sb.append("        this.missingText = \"[Missing translation: \" + key + \"]\";\n");
+        sb.append("    }\n\n");
+        sb.append("    /**\n");
+        sb.append("     * Gets the key as written in the XML files.\n");
+        sb.append("     *\n");
+        sb.append("     * @return the key\n");
+        sb.append("     */\n");
+        sb.append("    public String key() {\n");
+        sb.append("        return key;\n");
+        sb.append("    }\n\n");
+        sb.append("    /**\n");
+        sb.append("     * Gets the placeholder shown when a locale lacks this key.\n");
+        sb.append("     *\n");
+        sb.append("     * @return the placeholder\n");
+        sb.append("     */\n");
+        sb.append("    public String missingText() {\n");
+        sb.append("        return missingText;\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Converts a translation key to an enum constant name.
+     *
+     * @param key e.g. menu_victims_option_1
+     * @return e.g. MENU_VICTIMS_OPTION_1
+     * @throws IllegalArgumentException if the key is not a valid identifier
+     */
+    static String constantName(String key) {
+        if (!key.matches("[A-Za-z][A-Za-z0-9_]*")) {
+            throw new IllegalArgumentException("Key is not a valid identifier: " + key);
+        }
+        return key.toUpperCase();
+    }
+
+    private static String escapeDoc(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("*/", "*&#47;");
+    }
+
+    /**
+     * Writes MessageKey.java.
+     *
+     * @param args the reference XML and the output file (defaults:
+     *             data/en-CA.xml, src/edu/ucalgary/oop/MessageKey.java)
+     * @throws IOException if reading or writing fails
+     */
+    public static void main(String[] args) throws IOException {
+        File xml = new File(args.length > 0 ? args[0] : "data/en-CA.xml");
+        String out = args.length > 1 ? args[1] : "src/edu/ucalgary/oop/MessageKey.java";
+        Map<String, String> reference = LanguageManager.parseTranslations(xml);
+        Files.write(Paths.get(out), generate(reference).getBytes(StandardCharsets.UTF_8));
+        System.out.println("Wrote " + reference.size() + " keys to " + out);
+    }
+}
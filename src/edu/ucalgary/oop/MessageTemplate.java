@@ -0,0 +1,172 @@
+package edu.ucalgary.oop;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MessageTemplate is a translation with numbered placeholders, e.g.
+ * {@code "SupplyID={0}, Type={1}, Comments={2}"}, parsed once into
+ * alternating literal and argument segments.
+ *
+ * <p>
+ * Rendering walks the segments and appends straight into a
+ * {@link StringBuilder}; there is no per-call pattern parsing as with
+ * {@code String.format}. Integers and longs are appended without an intermediate
+ * String, and null renders as "null". <code>{{</code> and <code>}}</code>
+ * stand for literal braces; any other brace text is kept as written.
+ * </p>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public final class MessageTemplate {
+    private static final ThreadLocal<StringBuilder> SCRATCH = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final String pattern;
+    private final String[] literals;
+    private final int[] arguments;
+    private final int argumentCount;
+
+    private MessageTemplate(String pattern, String[] literals, int[] arguments) {
+        this.pattern = pattern;
+        this.literals = literals;
+        this.arguments = arguments;
+        int max = -1;
+        for (int a : arguments) {
+            max = Math.max(max, a);
+        }
+        this.argumentCount = max + 1;
+    }
+
+    /**
+     * Parses a template.
+     *
+     * @param pattern the template text
+     * @return the compiled template
+     * @throws IllegalArgumentException if pattern is null
+     */
+    public static MessageTemplate compile(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null");
+        }
+        List<String> literals = new ArrayList<>();
+        List<Integer> arguments = new ArrayList<>();
+        StringBuilder lit = new StringBuilder();
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if ((c == '{' || c == '}') && i + 1 < pattern.length() && pattern.charAt(i + 1) == c) {
+                lit.append(c);
+                i += 2;
+                continue;
+            }
+            if (c == '{') {
+                int close = pattern.indexOf('}', i + 1);
+                if (close > i + 1 && isDigits(pattern, i + 1, close)) {
+                    literals.add(lit.toString());
+                    lit.setLength(0);
+                    arguments.add(Integer.parseInt(pattern.substring(i + 1, close)));
+                    i = close + 1;
+                    continue;
+                }
+            }
+            lit.append(c);
+            i++;
+        }
+        literals.add(lit.toString());
+        int[] args = new int[arguments.size()];
+        for (int k = 0; k < args.length; k++) {
+            args[k] = arguments.get(k);
+        }
+        return new MessageTemplate(pattern, literals.toArray(new String[0]), args);
+    }
+
+    private static boolean isDigits(String s, int from, int to) {
+        if (to - from > 3) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) < '0' || s.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Appends the rendered template. A placeholder with no matching
+     * argument is rendered as written, e.g. "{3}".
+     *
+     * @param sb   the builder to append to
+     * @param args the arguments
+     * @return sb
+     */
+    public StringBuilder appendTo(StringBuilder sb, Object... args) {
+        sb.append(literals[0]);
+        for (int k = 0; k < arguments.length; k++) {
+            int a = arguments[k];
+            if (a < args.length) {
+                Object v = args[a];
+                if (v instanceof Integer) {
+                    sb.append(((Integer) v).intValue());
+                } else if (v instanceof Long) {
+                    sb.append(((Long) v).longValue());
+                } else {
+                    sb.append(v);
+                }
+            } else {
+                sb.append('{').append(a).append('}');
+            }
+            sb.append(literals[k + 1]);
+        }
+        return sb;
+    }
+
+    /**
+     * Renders the template using a per-thread scratch builder.
+     *
+     * @param args the arguments
+     * @return the rendered text
+     */
+    public String format(Object... args) {
+        StringBuilder sb = SCRATCH.get();
+        sb.setLength(0);
+        return appendTo(sb, args).toString();
+    }
+
+    /**
+     * Renders the template followed by a newline, for row output.
+     *
+     * @param args the arguments
+     * @return the rendered line
+     */
+    public String formatLine(Object... args) {
+        StringBuilder sb = SCRATCH.get();
+        sb.setLength(0);
+        return appendTo(sb, args).append('\n').toString();
+    }
+
+    /**
+     * Gets the number of arguments the template refers to.
+     *
+     * @return one more than the highest placeholder index, or 0
+     */
+    public int getArgumentCount() {
+        return argumentCount;
+    }
+
+    /**
+     * Gets the original template text.
+     *
+     * @return the pattern
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
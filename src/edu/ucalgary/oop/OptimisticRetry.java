@@ -0,0 +1,197 @@
+package edu.ucalgary.oop;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * OptimisticRetry reruns an operation that lost a race with another
+ * session, such as an allocation whose supply changed between its read
+ * and its write. Each retry first waits a random time up to a limit that
+ * doubles with every attempt ("full jitter"), so sessions that collided
+ * spread out instead of colliding again in lockstep.
+ *
+ * <p>
+ * Contention is counted as it happens: operations run, retries, time
+ * spent backing off, the most attempts any one operation needed, and
+ * operations that gave up. The counters are cheap to update from many
+ * threads and can be read at any time.
+ * </p>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class OptimisticRetry {
+    /** Default attempts before giving up. */
+    public static final int DEFAULT_MAX_ATTEMPTS = 8;
+    /** Default limit on the first backoff. */
+    public static final long DEFAULT_BASE_BACKOFF_MILLIS = 2;
+    /** Default cap on any one backoff. */
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS = 250;
+
+    /**
+     * One attempt at the operation.
+     *
+     * @param <T> the result type
+     */
+    public interface Attempt<T> {
+        /**
+         * Runs the attempt.
+         *
+         * @return the result
+         * @throws SQLException if the attempt fails
+         */
+        T run() throws SQLException;
+    }
+
+    private final int maxAttempts;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+    private final Set<String> retryStates;
+
+    private final LongAdder operationCount = new LongAdder();
+    private final LongAdder retryCount = new LongAdder();
+    private final LongAdder exhaustedCount = new LongAdder();
+    private final LongAdder backoffNanos = new LongAdder();
+    private final AtomicInteger maxAttemptsUsed = new AtomicInteger();
+
+    /**
+     * Constructs an OptimisticRetry with the default limits that retries
+     * serialization failures and deadlocks.
+     */
+    public OptimisticRetry() {
+        this(DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_BACKOFF_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS,
+                DatabaseAccess.SERIALIZATION_FAILURE, DatabaseAccess.DEADLOCK_DETECTED);
+    }
+
+    /**
+     * Constructs an OptimisticRetry.
+     *
+     * @param maxAttempts       attempts before giving up
+     * @param baseBackoffMillis limit on the first backoff; 0 retries at once
+     * @param maxBackoffMillis  cap on any one backoff
+     * @param retryStates       SQLStates worth retrying
+     * @throws IllegalArgumentException if maxAttempts is less than 1, a
+     *                                  backoff is negative or no state is given
+     */
+    public OptimisticRetry(int maxAttempts, long baseBackoffMillis, long maxBackoffMillis, String... retryStates) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1");
+        }
+        if (baseBackoffMillis < 0 || maxBackoffMillis < baseBackoffMillis) {
+            throw new IllegalArgumentException("Backoff must be non-negative and max at least base");
+        }
+        if (retryStates.length == 0) {
+            throw new IllegalArgumentException("At least one SQLState to retry is required");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffNanos = TimeUnit.MILLISECONDS.toNanos(baseBackoffMillis);
+        this.maxBackoffNanos = TimeUnit.MILLISECONDS.toNanos(maxBackoffMillis);
+        this.retryStates = new HashSet<>(Arrays.asList(retryStates));
+    }
+
+    /**
+     * Runs an operation, retrying it while it fails with a retryable
+     * SQLState. Other exceptions are thrown at once.
+     *
+     * @param attempt the operation; each call must be a fresh, complete try
+     * @param <T>     the result type
+     * @return the result of the first attempt that succeeds
+     * @throws SQLException the last failure if every attempt failed, or if
+     *                      the thread is interrupted while backing off
+     */
+    public <T> T run(Attempt<T> attempt) throws SQLException {
+        operationCount.increment();
+        for (int n = 1; ; n++) {
+            try {
+                T result = attempt.run();
+                maxAttemptsUsed.accumulateAndGet(n, Math::max);
+                return result;
+            } catch (SQLException e) {
+                if (!retryStates.contains(e.getSQLState())) {
+                    throw e;
+                }
+                if (n == maxAttempts) {
+                    maxAttemptsUsed.accumulateAndGet(n, Math::max);
+                    exhaustedCount.increment();
+                    throw e;
+                }
+                retryCount.increment();
+                backOff(n, e);
+            }
+        }
+    }
+
+    private void backOff(int attempt, SQLException cause) throws SQLException {
+        long limit = Math.min(maxBackoffNanos, baseBackoffNanos << Math.min(attempt - 1, 30));
+        if (limit <= 0) {
+            return;
+        }
+        long pause = ThreadLocalRandom.current().nextLong(limit + 1);
+        try {
+            TimeUnit.NANOSECONDS.sleep(pause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+        backoffNanos.add(pause);
+    }
+
+    /**
+     * Gets the number of operations run.
+     *
+     * @return the operation count
+     */
+    public long getOperationCount() {
+        return operationCount.sum();
+    }
+
+    /**
+     * Gets the number of retries, i.e. races lost and run again.
+     *
+     * @return the retry count
+     */
+    public long getRetryCount() {
+        return retryCount.sum();
+    }
+
+    /**
+     * Gets the number of operations that still failed after the last attempt.
+     *
+     * @return the exhausted count
+     */
+    public long getExhaustedCount() {
+        return exhaustedCount.sum();
+    }
+
+    /**
+     * Gets the total time spent backing off.
+     *
+     * @return milliseconds backed off
+     */
+    public long getBackoffMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(backoffNanos.sum());
+    }
+
+    /**
+     * Gets the most attempts any one operation needed.
+     *
+     * @return the attempt high-water mark
+     */
+    public int getMaxAttemptsUsed() {
+        return maxAttemptsUsed.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("operations=%d retries=%d exhausted=%d backoff=%d ms max attempts=%d",
+                getOperationCount(), getRetryCount(), getExhaustedCount(), getBackoffMillis(),
+                getMaxAttemptsUsed());
+    }
+}
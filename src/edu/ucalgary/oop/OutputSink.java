@@ -0,0 +1,156 @@
+package edu.ucalgary.oop;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+
+/**
+ * OutputSink collects listing output in a large buffer and writes it to
+ * the console in a few big chunks instead of one synchronized, possibly
+ * flushing, PrintStream call per row.
+ *
+ * <p>
+ * A sink is meant for one listing on one thread and is not synchronized.
+ * Output reaches the terminal when the buffer fills, on {@link #flush()}
+ * (listings flush at the end and pagers flush per page) and on
+ * {@link #close()}. Closing a sink never closes the stream beneath it.
+ * Like PrintStream, write failures are remembered rather than thrown;
+ * see {@link #checkError()}.
+ * </p>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class OutputSink implements AutoCloseable {
+    /** Default buffer size in chars. */
+    public static final int DEFAULT_BUFFER = 64 * 1024;
+
+    private final Writer out;
+    private long linesWritten;
+    private boolean error;
+
+    /**
+     * Constructs a sink over a Writer.
+     *
+     * @param target     where output goes
+     * @param bufferSize buffer size in chars
+     * @throws IllegalArgumentException if target is null or bufferSize is less than 1
+     */
+    public OutputSink(Writer target, int bufferSize) {
+        if (target == null) {
+            throw new IllegalArgumentException("Target cannot be null");
+        }
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be at least 1");
+        }
+        this.out = new BufferedWriter(target, bufferSize);
+    }
+
+    /**
+     * Constructs a sink over a PrintStream, encoding with the stream's charset.
+     *
+     * @param target where output goes
+     */
+    public OutputSink(PrintStream target) {
+        this(new OutputStreamWriter(target, target.charset()), DEFAULT_BUFFER);
+    }
+
+    /**
+     * Creates a sink over whatever System.out currently is.
+     *
+     * @return a new console sink
+     */
+    public static OutputSink toConsole() {
+        return new OutputSink(System.out);
+    }
+
+    /**
+     * Writes text.
+     *
+     * @param text the text; null is written as "null"
+     * @return this sink
+     */
+    public OutputSink print(CharSequence text) {
+        String s = String.valueOf(text);
+        try {
+            out.write(s);
+        } catch (IOException e) {
+            error = true;
+        }
+        countLines(s);
+        return this;
+    }
+
+    /**
+     * Writes text followed by a line break.
+     *
+     * @param text the text
+     * @return this sink
+     */
+    public OutputSink println(CharSequence text) {
+        print(text);
+        return println();
+    }
+
+    /**
+     * Writes a line break.
+     *
+     * @return this sink
+     */
+    public OutputSink println() {
+        try {
+            out.write('\n');
+        } catch (IOException e) {
+            error = true;
+        }
+        linesWritten++;
+        return this;
+    }
+
+    private void countLines(String s) {
+        for (int i = s.indexOf('\n'); i >= 0; i = s.indexOf('\n', i + 1)) {
+            linesWritten++;
+        }
+    }
+
+    /**
+     * Writes out everything buffered.
+     */
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            error = true;
+        }
+    }
+
+    /**
+     * Gets the number of line breaks written.
+     *
+     * @return the line count
+     */
+    public long getLinesWritten() {
+        return linesWritten;
+    }
+
+    /**
+     * Flushes and reports whether any write has failed.
+     *
+     * @return true if output was lost
+     */
+    public boolean checkError() {
+        flush();
+        return error;
+    }
+
+    /**
+     * Flushes. The underlying stream is left open.
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+}
@@ -0,0 +1,84 @@
+package edu.ucalgary.oop;
+
+import java.sql.SQLException;
+import java.util.Scanner;
+
+/**
+ * Pager shows a keyset listing one page at a time. Each page is written
+ * into an {@link OutputSink} and flushed together with the prompt, so the
+ * terminal receives one write per page however many rows it has.
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class Pager {
+
+    /**
+     * Fetches the page that follows a key; {@link KeysetListing#page(int[], int)}
+     * fits.
+     */
+    public interface PageSource {
+        /**
+         * Fetches a page.
+         *
+         * @param after the key of the last row shown, or null for the first page
+         * @param limit maximum rows in the page
+         * @return the page
+         * @throws SQLException if the query fails
+         */
+        KeysetListing.Page fetch(int[] after, int limit) throws SQLException;
+    }
+
+    private final OutputSink out;
+    private final Scanner in;
+    private final String prompt;
+    private final int pageSize;
+
+    /**
+     * Constructs a Pager.
+     *
+     * @param out      where pages are written
+     * @param in       where answers to the prompt are read
+     * @param prompt   shown between pages; "q" stops
+     * @param pageSize rows per page
+     * @throws IllegalArgumentException if pageSize is less than 1
+     */
+    public Pager(OutputSink out, Scanner in, String prompt, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        this.out = out;
+        this.in = in;
+        this.prompt = prompt;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Shows pages until the source runs out or the user enters "q".
+     *
+     * @param source the page source
+     * @return the number of rows shown
+     * @throws SQLException if a page cannot be fetched
+     */
+    public long run(PageSource source) throws SQLException {
+        long shown = 0;
+        KeysetListing.Page page = source.fetch(null, pageSize);
+        while (true) {
+            for (String line : page.getLines()) {
+                out.print(line);
+            }
+            shown += page.getLines().size();
+            if (!page.hasMore()) {
+                out.flush();
+                return shown;
+            }
+            out.print(prompt);
+            out.flush();
+            if (!in.hasNextLine() || in.nextLine().trim().equalsIgnoreCase("q")) {
+                return shown;
+            }
+            page = source.fetch(page.getLastKey(), pageSize);
+        }
+    }
+}
@@ -2,10 +2,8 @@ package edu.ucalgary.oop;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Date;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.Statement;
+import java.util.regex.Pattern;
 
 /**
  * Abstract Person class providing basic fields (ID, names, phone)
@@ -16,6 +14,8 @@ import java.sql.Statement;
  * @since 2025-04-05
  */
 public abstract class Person {
+    private static final Pattern PHONE = Pattern.compile("[0-9+()\\- ]+");
+
     private final int personID;
     private String firstName;
     private String lastName;
@@ -31,15 +31,9 @@ public abstract class Person {
      * @throws IllegalArgumentException if any name/phone is null or empty
      */
     protected Person(int personID, String firstName, String lastName, String phone) {
-        if (firstName == null || firstName.isEmpty()) {
-            throw new IllegalArgumentException("First name cannot be null or empty");
-        }
-        if (lastName == null || lastName.isEmpty()) {
-            throw new IllegalArgumentException("Last name cannot be null or empty");
-        }
-        if (phone == null || phone.isEmpty()) {
-            throw new IllegalArgumentException("Phone cannot be null or empty");
-        }
+        requireNonEmpty(firstName, "First name cannot be null or empty");
+        requireNonEmpty(lastName, "Last name cannot be null or empty");
+        requireNonEmpty(phone, "Phone cannot be null or empty");
         this.personID = personID;
         this.firstName = firstName;
         this.lastName = lastName;
@@ -71,9 +65,7 @@ public abstract class Person {
      * @throws IllegalArgumentException if empty
      */
     public void setFirstName(String firstName) {
-        if (firstName == null || firstName.isEmpty()) {
-            throw new IllegalArgumentException("First name cannot be null or empty");
-        }
+        requireNonEmpty(firstName, "First name cannot be null or empty");
         this.firstName = firstName;
     }
 
@@ -93,9 +85,7 @@ public abstract class Person {
      * @throws IllegalArgumentException if empty
      */
     public void setLastName(String lastName) {
-        if (lastName == null || lastName.isEmpty()) {
-            throw new IllegalArgumentException("Last name cannot be null or empty");
-        }
+        requireNonEmpty(lastName, "Last name cannot be null or empty");
         this.lastName = lastName;
     }
 
@@ -115,12 +105,38 @@ public abstract class Person {
      * @throws IllegalArgumentException if empty
      */
     public void setPhone(String phone) {
-        if (phone == null || phone.isEmpty()) {
-            throw new IllegalArgumentException("Phone cannot be null or empty");
-        }
+        requireNonEmpty(phone, "Phone cannot be null or empty");
         this.phone = phone;
     }
 
+    /**
+     * Checks that a required text field is present. Shared by the
+     * constructor, the setters and the roster import validation.
+     *
+     * @param value   the value to check
+     * @param message the exception message
+     * @throws IllegalArgumentException if value is null or empty
+     */
+    static void requireNonEmpty(String value, String message) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    /**
+     * Checks a phone number entered for a person: digits, spaces and
+     * "+()-" only. Shared by interactive entry, batch scripts and roster
+     * import.
+     *
+     * @param phone the phone, or null or empty if none was given
+     * @throws IllegalArgumentException if it has any other character
+     */
+    static void requireValidPhone(String phone) {
+        if (phone != null && !phone.isEmpty() && !PHONE.matcher(phone).matches()) {
+            throw new IllegalArgumentException("Invalid phone: " + phone);
+        }
+    }
+
     /**
      * Parses a short gender choice (1,2,3) into a string.
      *
@@ -136,6 +152,27 @@ public abstract class Person {
         }
     }
 
+    /**
+     * Accepts a gender as either a short choice (1,2,3) or its full string.
+     *
+     * @param input the choice or string, or null
+     * @return "Man", "Woman", "Non-binary person", or null if input is null
+     * @throws IllegalArgumentException if input is neither
+     */
+    static String normalizeGender(String input) {
+        if (input == null) {
+            return null;
+        }
+        String parsed = parseGenderChoice(input);
+        if (parsed != null) {
+            return parsed;
+        }
+        if (!input.equals("Man") && !input.equals("Woman") && !input.equals("Non-binary person")) {
+            throw new IllegalArgumentException("Unknown gender: " + input);
+        }
+        return input;
+    }
+
     /**
      * Creates a Person row in DB with the given fields.
      *
@@ -145,50 +182,38 @@ public abstract class Person {
      * @param gender gender string or null
      * @param phone phone or null
      * @throws SQLException if insert fails
+     * @throws IllegalArgumentException if the phone is malformed
      */
     public static void createPerson(String fName, String lName, String dob, String gender, String phone) throws SQLException {
-        Connection conn = DatabaseManager.getInstance().getConnection();
-        if (conn == null) {
-            throw new IllegalStateException("DB not connected");
-        }
-        String sql = "INSERT INTO person (first_name, last_name, date_of_birth, gender, phone_number) VALUES (?,?,?,?,?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, fName);
-            ps.setString(2, lName);
-            if (dob == null) {
-                ps.setNull(3, java.sql.Types.DATE);
-            } else {
-                ps.setDate(3, Date.valueOf(dob));
-            }
-            ps.setString(4, gender);
-            ps.setString(5, phone);
-            ps.executeUpdate();
-        }
+        requireValidPhone(phone);
+        DatabaseManager.getInstance().getAccess().insertPerson(
+                new DatabaseAccess.PersonRow(0, fName, lName, dob, gender, null, phone, null));
     }
 
+    private static final KeysetListing PERSON_LISTING = new KeysetListing(
+            "SELECT person_id, first_name, last_name, phone_number, gender, family_group FROM person",
+            rs -> LanguageManager.getDefault().formatLine(MessageKey.ROW_PERSON,
+                    rs.getInt("person_id"), rs.getString("first_name"), rs.getString("last_name"),
+                    rs.getString("phone_number"), rs.getString("gender"), rs.getInt("family_group")),
+            "person_id");
+
     /**
-     * Lists all persons in ascending order of person_id.
+     * Lists all persons in ascending order of person_id, streaming rows
+     * through a cursor instead of buffering the whole table.
      *
      * @throws SQLException if query fails
      */
     public static void listAllPersonsSafe() throws SQLException {
-        Connection conn = DatabaseManager.getInstance().getConnection();
-        if (conn == null) {
-            throw new IllegalStateException("DB not connected");
-        }
-        String sql = "SELECT person_id, first_name, last_name, phone_number, gender, family_group FROM person ORDER BY person_id ASC";
-        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                int pid = rs.getInt("person_id");
-                String fn = rs.getString("first_name");
-                String ln = rs.getString("last_name");
-                String ph = rs.getString("phone_number");
-                String ge = rs.getString("gender");
-                int fg    = rs.getInt("family_group");
-                System.out.printf("ID=%d, Name=%s %s, Phone=%s, Gender=%s, FamilyGroup=%d\n",
-                        pid, fn, ln, ph, ge, fg);
-            }
-        }
+        PERSON_LISTING.streamAll(System.out);
+    }
+
+    /**
+     * Gets the keyset listing of all persons, for paging.
+     *
+     * @return the person listing
+     */
+    public static KeysetListing personListing() {
+        return PERSON_LISTING;
     }
 
     /**
@@ -204,7 +229,7 @@ public abstract class Person {
             throw new IllegalStateException("DB not connected");
         }
         String sql = "UPDATE person SET family_group=? WHERE person_id=?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (conn; PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, groupId);
             ps.setInt(2, personId);
             ps.executeUpdate();
@@ -213,36 +238,18 @@ public abstract class Person {
 
     /**
      * Searches a person by ID and prints details, plus med records, supplies, inquiries.
+     * All sections come from one round trip via {@link DossierLoader}.
      *
      * @param personId the person's ID
      * @throws SQLException if queries fail
      */
     public static void searchPersonDetails(int personId) throws SQLException {
-        Connection conn = DatabaseManager.getInstance().getConnection();
-        if (conn == null) {
-            throw new IllegalStateException("DB not connected");
-        }
-        String sqlP = "SELECT * FROM person WHERE person_id=?";
-        try (PreparedStatement ps = conn.prepareStatement(sqlP)) {
-            ps.setInt(1, personId);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    String fn = rs.getString("first_name");
-                    String ln = rs.getString("last_name");
-                    String ph = rs.getString("phone_number");
-                    String ge = rs.getString("gender");
-                    int famG  = rs.getInt("family_group");
-                    System.out.printf("ID=%d, Name=%s %s, Phone=%s, Gender=%s, FamilyGroup=%d\n",
-                            personId, fn, ln, ph, ge, famG);
-                } else {
-                    System.out.println("No person found with ID=" + personId);
-                    return;
-                }
-            }
+        DossierLoader.Dossier dossier = DossierLoader.load(personId);
+        if (dossier == null) {
+            System.out.println("No person found with ID=" + personId);
+            return;
         }
-        MedicalRecord.listForPerson(personId);
-        Item.listSuppliesForPerson(personId);
-        Inquiry.listForPerson(personId);
+        DossierLoader.print(dossier);
     }
 
     /**
@@ -255,8 +262,10 @@ public abstract class Person {
      * @param newGender  new gender or blank
      * @param newPhone   new phone or blank
      * @throws SQLException if update fails
+     * @throws IllegalArgumentException if the date or phone is malformed
      */
     public static void updatePerson(int personId, String newFName, String newLName, String newDOB, String newGender, String newPhone) throws SQLException {
+        requireValidPhone(newPhone);
         java.sql.Date parsedDOB = null;
         if (newDOB != null && !newDOB.isEmpty()) {
             parsedDOB = java.sql.Date.valueOf(newDOB);
@@ -301,7 +310,7 @@ public abstract class Person {
             throw new IllegalStateException("DB not connected");
         }
 
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (conn; PreparedStatement ps = conn.prepareStatement(sql)) {
             int idx = 1;
             if (newFName != null && !newFName.isEmpty()) {
                 ps.setString(idx++, newFName);
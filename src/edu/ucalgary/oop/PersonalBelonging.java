@@ -47,4 +47,14 @@ public class PersonalBelonging extends Item {
         }
         this.description = description;
     }
+
+    /**
+     * Gets the supply type.
+     *
+     * @return "personal belonging"
+     */
+    @Override
+    public String getSupplyType() {
+        return "personal belonging";
+    }
 }
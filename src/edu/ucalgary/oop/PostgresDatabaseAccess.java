@@ -0,0 +1,628 @@
+package edu.ucalgary.oop;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PostgresDatabaseAccess implements {@link DatabaseAccess} with SQL against
+ * the PostgreSQL schema, leasing a pooled connection from
+ * {@link DatabaseManager} for each call.
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class PostgresDatabaseAccess implements DatabaseAccess {
+    private static final String PERSON_COLUMNS =
+            "person_id, first_name, last_name, to_char(date_of_birth, 'YYYY-MM-DD') AS dob, "
+                    + "gender, comments, phone_number, family_group";
+    private static final String INQUIRY_COLUMNS =
+            "inquiry_id, inquirer_id, seeking_id, location_id, date_of_inquiry, comments";
+    private static final String MEDICAL_COLUMNS =
+            "medical_record_id, person_id, location_id, date_of_treatment, treatment_details";
+
+    /**
+     * Work done on a leased connection.
+     *
+     * @param <T> the result type
+     */
+    private interface Work<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * A unit of work run by {@link #atomically}.
+     *
+     * @param <T> the result type
+     */
+    private interface Step<T> {
+        T run() throws SQLException;
+    }
+
+    /**
+     * Maps the current row of a result set.
+     *
+     * @param <T> the row type
+     */
+    private interface Mapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private static <T> T withConnection(Work<T> work) throws SQLException {
+        Connection conn = DatabaseManager.getInstance().getConnection();
+        if (conn == null) {
+            throw new IllegalStateException("DB not connected");
+        }
+        try (conn) {
+            return work.run(conn);
+        }
+    }
+
+    /**
+     * Runs work as one unit on a leased connection: in its own transaction,
+     * or under a savepoint when the connection is a thread-bound
+     * transaction's, so a failed try leaves that transaction usable.
+     */
+    private static <T> T atomically(Connection conn, Step<T> work) throws SQLException {
+        boolean own = conn.getAutoCommit();
+        Savepoint savepoint;
+        if (own) {
+            conn.setAutoCommit(false);
+            savepoint = null;
+        } else {
+            savepoint = conn.setSavepoint();
+        }
+        try {
+            T result = work.run();
+            if (own) {
+                conn.commit();
+            } else {
+                conn.releaseSavepoint(savepoint);
+            }
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            if (own) {
+                conn.rollback();
+            } else {
+                conn.rollback(savepoint);
+            }
+            throw e;
+        }
+    }
+
+    private static <T> List<T> query(String sql, Mapper<T> mapper, Object... params) throws SQLException {
+        return withConnection(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                bind(ps, params);
+                List<T> rows = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(mapper.map(rs));
+                    }
+                }
+                return rows;
+            }
+        });
+    }
+
+    private static <T> T queryOne(String sql, Mapper<T> mapper, Object... params) throws SQLException {
+        List<T> rows = query(sql, mapper, params);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private static int update(String sql, Object... params) throws SQLException {
+        return withConnection(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                bind(ps, params);
+                return ps.executeUpdate();
+            }
+        });
+    }
+
+    private static int insertReturningId(String sql, String idColumn, Object... params) throws SQLException {
+        // RETURNING keeps this on the one-argument prepareStatement, which the statement cache serves.
+        String returning = sql + " RETURNING " + idColumn;
+        return withConnection(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(returning)) {
+                bind(ps, params);
+                try (ResultSet keys = ps.executeQuery()) {
+                    if (!keys.next()) {
+                        throw new SQLException("No key generated for " + idColumn);
+                    }
+                    return keys.getInt(1);
+                }
+            }
+        });
+    }
+
+    private static void bind(PreparedStatement ps, Object[] params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            Object p = params[i];
+            if (p instanceof LocalDateTime) {
+                ps.setTimestamp(i + 1, Timestamp.valueOf((LocalDateTime) p));
+            } else if (p instanceof Date) {
+                ps.setDate(i + 1, (Date) p);
+            } else if (p == null) {
+                ps.setNull(i + 1, Types.NULL);
+            } else {
+                ps.setObject(i + 1, p);
+            }
+        }
+    }
+
+    private static Integer getInteger(ResultSet rs, String column) throws SQLException {
+        int v = rs.getInt(column);
+        return rs.wasNull() ? null : v;
+    }
+
+    private static LocalDateTime getDateTime(ResultSet rs, String column) throws SQLException {
+        Timestamp ts = rs.getTimestamp(column);
+        return ts == null ? null : ts.toLocalDateTime();
+    }
+
+    private static Date dateOrNull(String yyyyMmDd) {
+        return yyyyMmDd == null ? null : Date.valueOf(yyyyMmDd);
+    }
+
+    private static PersonRow mapPerson(ResultSet rs) throws SQLException {
+        return new PersonRow(rs.getInt("person_id"), rs.getString("first_name"), rs.getString("last_name"),
+                rs.getString("dob"), rs.getString("gender"), rs.getString("comments"),
+                rs.getString("phone_number"), getInteger(rs, "family_group"));
+    }
+
+    private static LocationRow mapLocation(ResultSet rs) throws SQLException {
+        return new LocationRow(rs.getInt("location_id"), rs.getString("name"), rs.getString("address"));
+    }
+
+    private static SupplyRow mapSupply(ResultSet rs) throws SQLException {
+        return new SupplyRow(rs.getInt("supply_id"), rs.getString("type"), rs.getString("comments"));
+    }
+
+    private static AllocationRow mapAllocation(ResultSet rs) throws SQLException {
+        return new AllocationRow(rs.getInt("supply_id"), getInteger(rs, "person_id"),
+                getInteger(rs, "location_id"), getDateTime(rs, "allocation_date"));
+    }
+
+    private static InquiryRow mapInquiry(ResultSet rs) throws SQLException {
+        return new InquiryRow(rs.getInt("inquiry_id"), rs.getInt("inquirer_id"), rs.getInt("seeking_id"),
+                getInteger(rs, "location_id"), getDateTime(rs, "date_of_inquiry"), rs.getString("comments"));
+    }
+
+    private static MedicalRecordRow mapMedical(ResultSet rs) throws SQLException {
+        return new MedicalRecordRow(rs.getInt("medical_record_id"), rs.getInt("person_id"),
+                rs.getInt("location_id"), getDateTime(rs, "date_of_treatment"), rs.getString("treatment_details"));
+    }
+
+    // ---------- Persons ----------
+
+    @Override
+    public int insertPerson(PersonRow p) throws SQLException {
+        return insertReturningId(
+                "INSERT INTO person (first_name, last_name, date_of_birth, gender, comments, phone_number, family_group) "
+                        + "VALUES (?,?,?,?,?,?,?)", "person_id",
+                p.getFirstName(), p.getLastName(), dateOrNull(p.getDateOfBirth()), p.getGender(),
+                p.getComments(), p.getPhone(), p.getFamilyGroup());
+    }
+
+    @Override
+    public PersonRow findPerson(int personId) throws SQLException {
+        return queryOne("SELECT " + PERSON_COLUMNS + " FROM person WHERE person_id=?",
+                PostgresDatabaseAccess::mapPerson, personId);
+    }
+
+    @Override
+    public boolean updatePerson(PersonRow p) throws SQLException {
+        return update("UPDATE person SET first_name=?, last_name=?, date_of_birth=?, gender=?, comments=?, "
+                        + "phone_number=?, family_group=? WHERE person_id=?",
+                p.getFirstName(), p.getLastName(), dateOrNull(p.getDateOfBirth()), p.getGender(),
+                p.getComments(), p.getPhone(), p.getFamilyGroup(), p.getId()) > 0;
+    }
+
+    @Override
+    public List<PersonRow> listPersons(int afterId, int limit) throws SQLException {
+        return query("SELECT " + PERSON_COLUMNS + " FROM person WHERE person_id > ? ORDER BY person_id LIMIT ?",
+                PostgresDatabaseAccess::mapPerson, afterId, limit);
+    }
+
+    // ---------- Locations ----------
+
+    @Override
+    public int insertLocation(LocationRow l) throws SQLException {
+        return insertReturningId("INSERT INTO location (name, address) VALUES (?,?)", "location_id",
+                l.getName(), l.getAddress());
+    }
+
+    @Override
+    public LocationRow findLocation(int locationId) throws SQLException {
+        return queryOne("SELECT location_id, name, address FROM location WHERE location_id=?",
+                PostgresDatabaseAccess::mapLocation, locationId);
+    }
+
+    @Override
+    public List<LocationRow> listLocations() throws SQLException {
+        return query("SELECT location_id, name, address FROM location ORDER BY location_id",
+                PostgresDatabaseAccess::mapLocation);
+    }
+
+    @Override
+    public void reassignPersonToLocation(int personId, int locationId) throws SQLException {
+        withConnection(conn -> atomically(conn, () -> {
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM personlocation WHERE person_id=?")) {
+                ps.setInt(1, personId);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO personlocation (person_id, location_id) VALUES (?, ?)")) {
+                ps.setInt(1, personId);
+                ps.setInt(2, locationId);
+                ps.executeUpdate();
+            }
+            return null;
+        }));
+    }
+
+    @Override
+    public List<Integer> findOccupantIds(int locationId) throws SQLException {
+        return query("SELECT person_id FROM personlocation WHERE location_id=? ORDER BY person_id",
+                rs -> rs.getInt(1), locationId);
+    }
+
+    @Override
+    public List<Integer> findLocationIds(int personId) throws SQLException {
+        return query("SELECT location_id FROM personlocation WHERE person_id=? ORDER BY location_id",
+                rs -> rs.getInt(1), personId);
+    }
+
+    // ---------- Supplies ----------
+
+    @Override
+    public int insertSupply(SupplyRow s) throws SQLException {
+        return insertReturningId("INSERT INTO supply (type, comments) VALUES (?,?)", "supply_id",
+                s.getType(), s.getComments());
+    }
+
+    @Override
+    public SupplyRow findSupply(int supplyId) throws SQLException {
+        return queryOne("SELECT supply_id, type, comments FROM supply WHERE supply_id=?",
+                PostgresDatabaseAccess::mapSupply, supplyId);
+    }
+
+    @Override
+    public List<SupplyRow> listSupplies(int afterId, int limit) throws SQLException {
+        return query("SELECT supply_id, type, comments FROM supply WHERE supply_id > ? ORDER BY supply_id LIMIT ?",
+                PostgresDatabaseAccess::mapSupply, afterId, limit);
+    }
+
+    // ---------- Allocations ----------
+
+    @Override
+    public AllocationRow allocateToPerson(int supplyId, int personId, LocalDateTime at) throws SQLException {
+        return withConnection(conn -> atomically(conn, () -> {
+            AllocationRow stocked = null;
+            for (AllocationRow a : claimSupply(conn, supplyId)) {
+                if (a.getPersonId() != null) {
+                    throw alreadyAllocated(supplyId, a.getPersonId());
+                }
+                stocked = a;
+            }
+            if (stocked != null) {
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "UPDATE supplyallocation SET person_id=?, location_id=NULL, allocation_date=? "
+                                + "WHERE supply_id=? AND allocation_date=?")) {
+                    bind(ps, new Object[]{personId, at, supplyId, stocked.getAllocationDate()});
+                    ps.executeUpdate();
+                }
+            } else {
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO supplyallocation (supply_id, person_id, location_id, allocation_date) "
+                                + "VALUES (?, ?, NULL, ?)")) {
+                    bind(ps, new Object[]{supplyId, personId, at});
+                    ps.executeUpdate();
+                }
+            }
+            return stocked;
+        }));
+    }
+
+    @Override
+    public void allocateToLocation(int supplyId, int locationId, LocalDateTime at) throws SQLException {
+        withConnection(conn -> atomically(conn, () -> {
+            List<AllocationRow> held = claimSupply(conn, supplyId);
+            if (!held.isEmpty()) {
+                AllocationRow a = held.get(0);
+                throw a.getPersonId() != null
+                        ? alreadyAllocated(supplyId, a.getPersonId())
+                        : alreadyStocked(supplyId, a.getLocationId());
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO supplyallocation (supply_id, location_id, person_id, allocation_date) "
+                            + "VALUES (?, ?, NULL, ?)")) {
+                bind(ps, new Object[]{supplyId, locationId, at});
+                ps.executeUpdate();
+            }
+            return null;
+        }));
+    }
+
+    @Override
+    public Distribution allocateToOccupants(int locationId, String supplyType, int maxPerPerson, LocalDateTime at)
+            throws SQLException {
+        return withConnection(conn -> atomically(conn, () -> {
+            try (PreparedStatement ps = conn.prepareStatement("SELECT 1 FROM location WHERE location_id=?")) {
+                ps.setInt(1, locationId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new SQLException("Location " + locationId + " does not exist", FOREIGN_KEY_VIOLATION);
+                    }
+                }
+            }
+            // Lock the stock so no other session can take it while it is handed out.
+            List<AllocationRow> stock = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT sa.supply_id, sa.person_id, sa.location_id, sa.allocation_date "
+                            + "FROM supplyallocation sa JOIN supply s ON s.supply_id = sa.supply_id "
+                            + "WHERE sa.location_id=? AND sa.person_id IS NULL AND s.type=? "
+                            + "ORDER BY sa.allocation_date, sa.supply_id FOR UPDATE OF sa, s")) {
+                bind(ps, new Object[]{locationId, supplyType});
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        stock.add(mapAllocation(rs));
+                    }
+                }
+            }
+            Map<Integer, Integer> occupants = new LinkedHashMap<>();
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT pl.person_id, COUNT(s.supply_id) AS held FROM personlocation pl "
+                            + "LEFT JOIN supplyallocation sa ON sa.person_id = pl.person_id "
+                            + "LEFT JOIN supply s ON s.supply_id = sa.supply_id AND s.type=? "
+                            + "WHERE pl.location_id=? GROUP BY pl.person_id ORDER BY pl.person_id")) {
+                bind(ps, new Object[]{supplyType, locationId});
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        occupants.put(rs.getInt("person_id"), rs.getInt("held"));
+                    }
+                }
+            }
+            List<AllocationRow> plan = Distribution.plan(stock, occupants, maxPerPerson, at);
+            if (plan.isEmpty()) {
+                return new Distribution(locationId, supplyType, occupants.size(), stock.size(), plan);
+            }
+            Map<Integer, LocalDateTime> stockedAt = new HashMap<>();
+            Integer[] ids = new Integer[plan.size()];
+            for (AllocationRow row : stock) {
+                stockedAt.putIfAbsent(row.getSupplyId(), row.getAllocationDate());
+            }
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = plan.get(i).getSupplyId();
+            }
+            // A new supply version makes concurrent claims (see claimSupply) retry.
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE supply SET type=type WHERE supply_id = ANY(?)")) {
+                ps.setArray(1, conn.createArrayOf("integer", ids));
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE supplyallocation SET person_id=?, location_id=NULL, allocation_date=? "
+                            + "WHERE supply_id=? AND allocation_date=? AND person_id IS NULL AND location_id=?")) {
+                for (AllocationRow a : plan) {
+                    bind(ps, new Object[]{a.getPersonId(), at, a.getSupplyId(),
+                            stockedAt.get(a.getSupplyId()), locationId});
+                    ps.addBatch();
+                }
+                for (int n : ps.executeBatch()) {
+                    if (n == 0) {
+                        throw new SQLException("Stock at location " + locationId + " changed during distribution",
+                                SERIALIZATION_FAILURE);
+                    }
+                }
+            }
+            return new Distribution(locationId, supplyType, occupants.size(), stock.size(), plan);
+        }));
+    }
+
+    /**
+     * Reads a supply's allocations and claims the supply for this
+     * transaction with an optimistic version check on the supply row.
+     * PostgreSQL stamps every row version with the transaction that wrote
+     * it (xmin), so a no-op update guarded by the xmin that was read only
+     * succeeds if nobody changed the supply in between. It then holds the
+     * row until commit, so a concurrent claim waits, finds a new xmin and
+     * fails, and nothing is written from a stale read.
+     *
+     * @return the supply's allocations, oldest first
+     * @throws SQLException 23503 if the supply does not exist, or 40001 if
+     *                      another transaction claimed it first
+     */
+    private static List<AllocationRow> claimSupply(Connection conn, int supplyId) throws SQLException {
+        String version = null;
+        List<AllocationRow> held = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT s.xmin::text AS version, sa.supply_id, sa.person_id, sa.location_id, sa.allocation_date "
+                        + "FROM supply s LEFT JOIN supplyallocation sa ON sa.supply_id = s.supply_id "
+                        + "WHERE s.supply_id=? ORDER BY sa.allocation_date")) {
+            ps.setInt(1, supplyId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    version = rs.getString("version");
+                    if (rs.getTimestamp("allocation_date") != null) {
+                        held.add(mapAllocation(rs));
+                    }
+                }
+            }
+        }
+        if (version == null) {
+            throw new SQLException("Supply " + supplyId + " does not exist", FOREIGN_KEY_VIOLATION);
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "UPDATE supply SET type=type WHERE supply_id=? AND xmin::text=?")) {
+            ps.setInt(1, supplyId);
+            ps.setString(2, version);
+            if (ps.executeUpdate() == 0) {
+                throw new SQLException("Supply " + supplyId + " was changed by another session",
+                        SERIALIZATION_FAILURE);
+            }
+        }
+        return held;
+    }
+
+    private static SQLException alreadyAllocated(int supplyId, int personId) {
+        return new SQLException("Supply " + supplyId + " is already allocated to person " + personId,
+                ALLOCATION_CONFLICT);
+    }
+
+    private static SQLException alreadyStocked(int supplyId, int locationId) {
+        return new SQLException("Supply " + supplyId + " is already stocked at location " + locationId,
+                ALLOCATION_CONFLICT);
+    }
+
+    @Override
+    public List<AllocationRow> findAllocationsForPerson(int personId) throws SQLException {
+        return query("SELECT supply_id, person_id, location_id, allocation_date FROM supplyallocation "
+                        + "WHERE person_id=? ORDER BY supply_id, allocation_date",
+                PostgresDatabaseAccess::mapAllocation, personId);
+    }
+
+    @Override
+    public List<AllocationRow> findAllocationsForLocation(int locationId) throws SQLException {
+        return query("SELECT supply_id, person_id, location_id, allocation_date FROM supplyallocation "
+                        + "WHERE location_id=? ORDER BY supply_id, allocation_date",
+                PostgresDatabaseAccess::mapAllocation, locationId);
+    }
+
+    @Override
+    public List<AllocationRow> findAllocationsForSupply(int supplyId) throws SQLException {
+        return query("SELECT supply_id, person_id, location_id, allocation_date FROM supplyallocation "
+                        + "WHERE supply_id=? ORDER BY allocation_date",
+                PostgresDatabaseAccess::mapAllocation, supplyId);
+    }
+
+    @Override
+    public int removeExpiredAllocations(String supplyType, LocalDateTime cutoff) throws SQLException {
+        return update("DELETE FROM supplyallocation sa USING supply s "
+                        + "WHERE sa.supply_id = s.supply_id AND s.type = ? "
+                        + "AND sa.person_id IS NOT NULL AND sa.allocation_date < ?",
+                supplyType, cutoff);
+    }
+
+    @Override
+    public Map<String, List<AllocationRow>> findAllocationsByType(Collection<String> supplyTypes, LocalDateTime since)
+            throws SQLException {
+        Map<String, List<AllocationRow>> out = new HashMap<>();
+        if (supplyTypes.isEmpty()) {
+            return out;
+        }
+        Object[] params = new Object[supplyTypes.size() + 1];
+        StringBuilder in = new StringBuilder();
+        int i = 0;
+        for (String type : supplyTypes) {
+            in.append(i == 0 ? "?" : ",?");
+            params[i++] = type;
+        }
+        params[i] = since;
+        String sql = "SELECT s.type, sa.supply_id, sa.person_id, sa.location_id, sa.allocation_date "
+                + "FROM supplyallocation sa JOIN supply s ON s.supply_id = sa.supply_id "
+                + "WHERE s.type IN (" + in + ") AND sa.allocation_date >= ? "
+                + "ORDER BY sa.allocation_date";
+        return withConnection(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                bind(ps, params);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        out.computeIfAbsent(rs.getString("type"), t -> new ArrayList<>()).add(mapAllocation(rs));
+                    }
+                }
+                return out;
+            }
+        });
+    }
+
+    @Override
+    public List<AllocationRow> removeAllocations(List<AllocationRow> allocations) throws SQLException {
+        if (allocations.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return withConnection(conn -> atomically(conn, () -> {
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM supplyallocation "
+                    + "WHERE supply_id=? AND allocation_date=? "
+                    + "AND person_id IS NOT DISTINCT FROM ?::int AND location_id IS NOT DISTINCT FROM ?::int")) {
+                for (AllocationRow a : allocations) {
+                    bind(ps, new Object[]{a.getSupplyId(), a.getAllocationDate(), a.getPersonId(), a.getLocationId()});
+                    ps.addBatch();
+                }
+                List<AllocationRow> removed = new ArrayList<>(allocations.size());
+                int[] counts = ps.executeBatch();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                        removed.add(allocations.get(i));
+                    }
+                }
+                return removed;
+            }
+        }));
+    }
+
+    @Override
+    public List<InventoryRow> countAllocations() throws SQLException {
+        return query("SELECT sa.person_id, sa.location_id, s.type, COUNT(*) AS n "
+                        + "FROM supplyallocation sa JOIN supply s ON s.supply_id = sa.supply_id "
+                        + "GROUP BY sa.person_id, sa.location_id, s.type",
+                rs -> new InventoryRow(getInteger(rs, "person_id"), getInteger(rs, "location_id"),
+                        rs.getString("type"), rs.getLong("n")));
+    }
+
+    // ---------- Inquiries ----------
+
+    @Override
+    public int insertInquiry(InquiryRow i) throws SQLException {
+        return insertReturningId("INSERT INTO inquiry (inquirer_id, seeking_id, location_id, date_of_inquiry, comments) "
+                        + "VALUES (?,?,?,?,?)", "inquiry_id",
+                i.getInquirerId(), i.getSeekingId(), i.getLocationId(), i.getDateOfInquiry(), i.getComments());
+    }
+
+    @Override
+    public InquiryRow findInquiry(int inquiryId) throws SQLException {
+        return queryOne("SELECT " + INQUIRY_COLUMNS + " FROM inquiry WHERE inquiry_id=?",
+                PostgresDatabaseAccess::mapInquiry, inquiryId);
+    }
+
+    @Override
+    public List<InquiryRow> findInquiriesForPerson(int personId) throws SQLException {
+        return query("SELECT " + INQUIRY_COLUMNS + " FROM inquiry WHERE inquirer_id=? OR seeking_id=? ORDER BY inquiry_id",
+                PostgresDatabaseAccess::mapInquiry, personId, personId);
+    }
+
+    @Override
+    public List<InquiryRow> listInquiries(int afterId, int limit) throws SQLException {
+        return query("SELECT " + INQUIRY_COLUMNS + " FROM inquiry WHERE inquiry_id > ? ORDER BY inquiry_id LIMIT ?",
+                PostgresDatabaseAccess::mapInquiry, afterId, limit);
+    }
+
+    // ---------- Medical records ----------
+
+    @Override
+    public int insertMedicalRecord(MedicalRecordRow m) throws SQLException {
+        return insertReturningId("INSERT INTO medicalrecord (location_id, person_id, date_of_treatment, treatment_details) "
+                        + "VALUES (?,?,?,?)", "medical_record_id",
+                m.getLocationId(), m.getPersonId(), m.getDateOfTreatment(), m.getTreatmentDetails());
+    }
+
+    @Override
+    public List<MedicalRecordRow> findMedicalRecordsForPerson(int personId) throws SQLException {
+        return query("SELECT " + MEDICAL_COLUMNS + " FROM medicalrecord WHERE person_id=? ORDER BY medical_record_id",
+                PostgresDatabaseAccess::mapMedical, personId);
+    }
+}
@@ -0,0 +1,227 @@
+package edu.ucalgary.oop;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * QueryFanOut runs independent read queries, each on its own pooled
+ * connection, and waits for all of them.
+ *
+ * <p>
+ * In parallel mode every forked query runs on a Java 21 virtual thread, so a
+ * page that needs several sections takes as long as its slowest query rather
+ * than the sum of them. In sequential mode (the default) each fork runs
+ * immediately on the calling thread, which keeps pool usage to one connection
+ * at a time.
+ * </p>
+ *
+ * <p>
+ * Parallel mode is read at startup from the {@value #PARALLEL_PROPERTY}
+ * system property, e.g. {@code java -Dedu.ucalgary.oop.parallelQueries=true
+ * edu.ucalgary.oop.Main}, and can be changed later with
+ * {@link #setParallel(boolean)}. A parallel page holds up to one connection
+ * per fork, so the pool's maximum size should allow for that.
+ * </p>
+ *
+ * Usage:
+ * <pre>
+ * try (QueryFanOut fan = new QueryFanOut()) {
+ *     QueryFanOut.Fork&lt;List&lt;String&gt;&gt; a = fan.fork(conn -&gt; ...);
+ *     QueryFanOut.Fork&lt;List&lt;String&gt;&gt; b = fan.fork(conn -&gt; ...);
+ *     fan.join();
+ *     use(a.get(), b.get());
+ * }
+ * </pre>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class QueryFanOut implements AutoCloseable {
+
+    /**
+     * A query that runs on a leased connection.
+     *
+     * @param <T> the result type
+     */
+    public interface Query<T> {
+        /**
+         * Runs the query.
+         *
+         * @param conn the leased connection (closed by QueryFanOut)
+         * @return the result
+         * @throws SQLException if the query fails
+         */
+        T run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * System property that turns parallel mode on at startup.
+     */
+    public static final String PARALLEL_PROPERTY = "edu.ucalgary.oop.parallelQueries";
+
+    private static volatile boolean parallel = Boolean.getBoolean(PARALLEL_PROPERTY);
+
+    private final ExecutorService executor;
+    private final ConnectionPool.ConnectionFactory connections;
+    private final List<Future<?>> futures = new ArrayList<>();
+
+    /**
+     * Constructs a fan-out using the current execution mode.
+     */
+    public QueryFanOut() {
+        this(parallel);
+    }
+
+    /**
+     * Constructs a fan-out with an explicit execution mode.
+     *
+     * @param runParallel true to run forks on virtual threads
+     */
+    public QueryFanOut(boolean runParallel) {
+        this(runParallel, () -> DatabaseManager.getInstance().getConnection());
+    }
+
+    /**
+     * Constructs a fan-out that leases connections from a given source.
+     *
+     * @param runParallel true to run forks on virtual threads
+     * @param connections leases one connection per fork; null means not connected
+     */
+    QueryFanOut(boolean runParallel, ConnectionPool.ConnectionFactory connections) {
+        this.executor = runParallel ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        this.connections = connections;
+    }
+
+    /**
+     * Sets whether new fan-outs run their queries in parallel.
+     *
+     * @param enabled true for virtual-thread fan-out
+     */
+    public static void setParallel(boolean enabled) {
+        parallel = enabled;
+    }
+
+    /**
+     * Checks whether new fan-outs run their queries in parallel.
+     *
+     * @return true if parallel mode is on
+     */
+    public static boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Starts a query on its own pooled connection.
+     *
+     * @param query the query
+     * @param <T>   the result type
+     * @return a handle whose value is available after {@link #join()}
+     */
+    public <T> Fork<T> fork(Query<T> query) {
+        Future<T> future;
+        if (executor == null) {
+            CompletableFuture<T> done = new CompletableFuture<>();
+            try {
+                done.complete(runLeased(query));
+            } catch (SQLException | RuntimeException e) {
+                done.completeExceptionally(e);
+            }
+            future = done;
+        } else {
+            future = executor.submit(() -> runLeased(query));
+        }
+        futures.add(future);
+        return new Fork<>(future);
+    }
+
+    /**
+     * Waits for every forked query. If any fails, the rest are cancelled
+     * and the first failure is rethrown.
+     *
+     * @throws SQLException if a query failed
+     */
+    public void join() throws SQLException {
+        Throwable first = null;
+        for (Future<?> f : futures) {
+            try {
+                if (first == null) {
+                    f.get();
+                } else {
+                    f.cancel(true);
+                }
+            } catch (ExecutionException e) {
+                first = e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                first = new SQLException("Interrupted while waiting for queries", e);
+            }
+        }
+        if (first instanceof SQLException) {
+            throw (SQLException) first;
+        }
+        if (first instanceof RuntimeException) {
+            throw (RuntimeException) first;
+        }
+        if (first != null) {
+            throw new SQLException("Query failed: " + first.getMessage(), first);
+        }
+    }
+
+    /**
+     * Shuts down the virtual-thread executor, waiting for running queries.
+     */
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.close();
+        }
+    }
+
+    private <T> T runLeased(Query<T> query) throws SQLException {
+        Connection conn = connections.create();
+        if (conn == null) {
+            throw new IllegalStateException("DB not connected");
+        }
+        try (conn) {
+            return query.run(conn);
+        }
+    }
+
+    /**
+     * The pending result of a forked query.
+     *
+     * @param <T> the result type
+     */
+    public static final class Fork<T> {
+        private final Future<T> future;
+
+        private Fork(Future<T> future) {
+            this.future = future;
+        }
+
+        /**
+         * Gets the result. Only valid after a successful {@link QueryFanOut#join()}.
+         *
+         * @return the result
+         * @throws IllegalStateException if the query has not completed successfully
+         */
+        public T get() {
+            if (!future.isDone()) {
+                throw new IllegalStateException("Fork not joined yet");
+            }
+            try {
+                return future.get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException("Fork did not complete successfully", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package edu.ucalgary.oop;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * RingBuffer is a bounded, lock-free multi-producer queue backed by a
+ * power-of-two array of slots.
+ *
+ * <p>
+ * Each slot carries a sequence number that says whether it is free for the
+ * producer claiming that position or holds a value for the consumer at that
+ * position, so producers and consumers only contend on a single
+ * compare-and-set of the tail or head counter. Polling is also lock-free,
+ * which lets a producer evict the oldest entry when the buffer is full.
+ * </p>
+ *
+ * @param <T> the element type
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class RingBuffer<T> {
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Constructs a RingBuffer.
+     *
+     * @param capacity minimum capacity; rounded up to a power of two
+     * @throws IllegalArgumentException if capacity is less than 2 or too large
+     */
+    public RingBuffer(int capacity) {
+        if (capacity < 2 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 2 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element if there is room.
+     *
+     * @param value the element
+     * @return true if added, false if the buffer is full
+     * @throws IllegalArgumentException if value is null
+     */
+    public boolean offer(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        while (true) {
+            long pos = tail.get();
+            int idx = (int) pos & mask;
+            long seq = sequences.get(idx);
+            long diff = seq - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.set(idx, value);
+                    sequences.set(idx, pos + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element.
+     *
+     * @return the element, or null if the buffer is empty
+     */
+    public T poll() {
+        while (true) {
+            long pos = head.get();
+            int idx = (int) pos & mask;
+            long seq = sequences.get(idx);
+            long diff = seq - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    T value = slots.getAndSet(idx, null);
+                    sequences.set(idx, pos + mask + 1);
+                    return value;
+                }
+            } else if (diff < 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Moves up to max elements into the given list, oldest first.
+     *
+     * @param out the destination
+     * @param max maximum elements to move
+     * @return the number moved
+     */
+    public int drainTo(List<? super T> out, int max) {
+        int n = 0;
+        while (n < max) {
+            T value = poll();
+            if (value == null) {
+                break;
+            }
+            out.add(value);
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Gets the approximate number of elements.
+     *
+     * @return the size
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    /**
+     * Gets the capacity.
+     *
+     * @return the number of slots
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,523 @@
+package edu.ucalgary.oop;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * RosterImport streams a CSV or TSV roster file into the person,
+ * personlocation and family group data.
+ *
+ * <p>
+ * The import runs as three pipelined stages connected by bounded queues:
+ * - a reader thread that reads raw lines
+ * - N parse/validate workers, reusing the Person name and phone rules and
+ *   DisasterVictim.isValidDateFormat
+ * - a single writer thread that inserts accepted rows in batched transactions
+ * Rejected lines are written to a side file with a reason and never stop the
+ * import. Because the queues are bounded, only a few batches are ever in memory.
+ * </p>
+ *
+ * Expected columns (header line optional):
+ * first_name, last_name, date_of_birth, gender, phone_number, location_id, family_group
+ * Only the names are required; trailing columns may be omitted.
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class RosterImport {
+
+    /**
+     * Destination for accepted rows; the default writes to the database.
+     */
+    public interface RowSink {
+        /**
+         * Writes one batch of accepted rows.
+         *
+         * @param batch the rows
+         * @throws SQLException if the write fails
+         */
+        void write(List<RosterRow> batch) throws SQLException;
+    }
+
+    private static final RosterRow END_OF_ROWS = new RosterRow(-1, null);
+    private static final String[] END_OF_LINES = new String[0];
+
+    private final char delimiter;
+    private final int workers;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final RowSink sink;
+
+    /**
+     * Constructs a RosterImport writing to the database with default sizes.
+     *
+     * @param delimiter ',' for CSV or '\t' for TSV
+     */
+    public RosterImport(char delimiter) {
+        this(delimiter, Math.max(1, Runtime.getRuntime().availableProcessors() - 2), 500, 4096, new JdbcSink());
+    }
+
+    /**
+     * Constructs a RosterImport.
+     *
+     * @param delimiter     ',' for CSV or '\t' for TSV
+     * @param workers       number of parse/validate threads
+     * @param batchSize     rows per write transaction
+     * @param queueCapacity capacity of each stage queue
+     * @param sink          destination for accepted rows
+     * @throws IllegalArgumentException if a size is less than 1 or sink is null
+     */
+    public RosterImport(char delimiter, int workers, int batchSize, int queueCapacity, RowSink sink) {
+        if (workers < 1 || batchSize < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Workers, batch size and queue capacity must be at least 1");
+        }
+        if (sink == null) {
+            throw new IllegalArgumentException("Row sink cannot be null");
+        }
+        this.delimiter = delimiter;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.sink = sink;
+    }
+
+    /**
+     * Picks the delimiter from a file name: ".tsv" means tab, anything else comma.
+     *
+     * @param fileName the roster file name
+     * @return the delimiter
+     */
+    public static char delimiterFor(String fileName) {
+        return fileName != null && fileName.toLowerCase().endsWith(".tsv") ? '\t' : ',';
+    }
+
+    /**
+     * Runs the import to completion.
+     *
+     * @param input   the roster lines
+     * @param rejects where rejected lines are written, as line number, reason and original text
+     * @return counts and timing
+     * @throws SQLException if writing accepted rows fails; the import stops at that point
+     * @throws IOException if reading the roster or writing rejects fails
+     * @throws IllegalStateException if the database is not connected; any
+     *         other unchecked failure of a stage is rethrown the same way
+     */
+    public Result run(BufferedReader input, Writer rejects) throws SQLException, IOException {
+        long start = System.nanoTime();
+        BlockingQueue<String[]> lines = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<RosterRow> rows = new ArrayBlockingQueue<>(queueCapacity);
+        BufferedWriter rejectOut = new BufferedWriter(rejects);
+        AtomicLong read = new AtomicLong();
+        AtomicLong accepted = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong written = new AtomicLong();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            try {
+                String line;
+                long lineNo = 0;
+                while ((line = input.readLine()) != null && failure.get() == null) {
+                    lineNo++;
+                    if (lineNo == 1 && line.toLowerCase().startsWith("first_name")) {
+                        continue;
+                    }
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    read.incrementAndGet();
+                    lines.put(new String[]{Long.toString(lineNo), line});
+                }
+            } catch (IOException | RuntimeException e) {
+                failure.compareAndSet(null, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                for (int i = 0; i < workers; i++) {
+                    putQuietly(lines, END_OF_LINES);
+                }
+            }
+        }, "roster-reader");
+
+        List<Thread> parsers = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            Thread t = new Thread(() -> {
+                try {
+                    String[] item;
+                    while ((item = lines.take()) != END_OF_LINES) {
+                        if (failure.get() != null) {
+                            // keep draining so the reader is never left blocked on a full queue
+                            continue;
+                        }
+                        long lineNo = Long.parseLong(item[0]);
+                        try {
+                            rows.put(parse(lineNo, item[1]));
+                            accepted.incrementAndGet();
+                        } catch (IllegalArgumentException e) {
+                            rejected.incrementAndGet();
+                            writeReject(rejectOut, lineNo, e.getMessage(), item[1], failure);
+                        } catch (RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    putQuietly(rows, END_OF_ROWS);
+                }
+            }, "roster-parser-" + w);
+            parsers.add(t);
+        }
+
+        Thread writer = new Thread(() -> {
+            List<RosterRow> batch = new ArrayList<>(batchSize);
+            int finished = 0;
+            try {
+                while (finished < workers) {
+                    RosterRow row = rows.take();
+                    if (row == END_OF_ROWS) {
+                        finished++;
+                        continue;
+                    }
+                    if (failure.get() != null) {
+                        continue;
+                    }
+                    batch.add(row);
+                    if (batch.size() == batchSize) {
+                        written.addAndGet(writeBatch(batch, failure));
+                    }
+                }
+                if (!batch.isEmpty() && failure.get() == null) {
+                    written.addAndGet(writeBatch(batch, failure));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "roster-writer");
+
+        reader.start();
+        parsers.forEach(Thread::start);
+        writer.start();
+        try {
+            reader.join();
+            for (Thread t : parsers) {
+                t.join();
+            }
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Roster import interrupted", e);
+        }
+        rejectOut.flush();
+
+        Exception err = failure.get();
+        if (err instanceof SQLException) {
+            throw (SQLException) err;
+        }
+        if (err instanceof IOException) {
+            throw (IOException) err;
+        }
+        if (err instanceof RuntimeException) {
+            throw (RuntimeException) err;
+        }
+        return new Result(read.get(), accepted.get(), rejected.get(), written.get(), System.nanoTime() - start);
+    }
+
+    /**
+     * Parses and validates one roster line.
+     *
+     * @param lineNo the 1-based line number
+     * @param line   the raw line
+     * @return the accepted row
+     * @throws IllegalArgumentException with the rejection reason
+     */
+    RosterRow parse(long lineNo, String line) {
+        List<String> f = split(line, delimiter);
+        String first = field(f, 0);
+        String last = field(f, 1);
+        String dob = field(f, 2);
+        String gender = field(f, 3);
+        String phone = field(f, 4);
+        Integer locationId = parseOptionalId(field(f, 5), "location_id");
+        Integer familyGroup = parseOptionalId(field(f, 6), "family_group");
+
+        if (dob != null) {
+            if (!DisasterVictim.isValidDateFormat(dob)) {
+                throw new IllegalArgumentException("Invalid birth date format (yyyy-MM-dd).");
+            }
+            try {
+                LocalDate.parse(dob);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid birth date: " + dob);
+            }
+        }
+        gender = Person.normalizeGender(gender);
+        IntakeRecord record = new IntakeRecord(first, last, dob, gender, phone, familyGroup, locationId);
+        return new RosterRow(lineNo, record);
+    }
+
+    private int writeBatch(List<RosterRow> batch, AtomicReference<Exception> failure) {
+        int n = batch.size();
+        try {
+            sink.write(batch);
+        } catch (SQLException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+            n = 0;
+        }
+        batch.clear();
+        return n;
+    }
+
+    private static void writeReject(BufferedWriter out, long lineNo, String reason, String line,
+                                    AtomicReference<Exception> failure) {
+        synchronized (out) {
+            try {
+                out.write(lineNo + "\t" + reason + "\t" + line);
+                out.newLine();
+            } catch (IOException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+
+    private static <T> void putQuietly(BlockingQueue<T> queue, T item) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(item);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index >= fields.size()) {
+            return null;
+        }
+        String v = fields.get(index).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    private static Integer parseOptionalId(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            int id = Integer.parseInt(value);
+            if (id <= 0) {
+                throw new IllegalArgumentException("Invalid " + column + ": " + value);
+            }
+            return id;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    /**
+     * Splits a line on the delimiter. Double-quoted fields may contain the
+     * delimiter and "" for a literal quote.
+     *
+     * @param line      the line
+     * @param delimiter the delimiter
+     * @return the fields
+     * @throws IllegalArgumentException if a quote is left open
+     */
+    static List<String> split(String line, char delimiter) {
+        List<String> out = new ArrayList<>(8);
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cur.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                out.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        out.add(cur.toString());
+        return out;
+    }
+
+    /**
+     * A validated roster line.
+     */
+    public static class RosterRow {
+        private final long lineNumber;
+        private final IntakeRecord record;
+
+        /**
+         * Constructs a RosterRow.
+         *
+         * @param lineNumber the source line number
+         * @param record     the person fields, family group and shelter location
+         */
+        public RosterRow(long lineNumber, IntakeRecord record) {
+            this.lineNumber = lineNumber;
+            this.record = record;
+        }
+
+        /**
+         * Gets the source line number.
+         *
+         * @return the line number
+         */
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        /**
+         * Gets the person fields.
+         *
+         * @return the record
+         */
+        public IntakeRecord getRecord() {
+            return record;
+        }
+
+        /**
+         * Gets the location ID.
+         *
+         * @return the location ID or null
+         */
+        public Integer getLocationId() {
+            return record.getLocationId();
+        }
+
+        /**
+         * Gets the family group.
+         *
+         * @return the family group or null
+         */
+        public Integer getFamilyGroup() {
+            return record.getFamilyGroup();
+        }
+    }
+
+    /**
+     * Writes batches to person and personlocation through {@link BulkIntake},
+     * in one transaction per batch.
+     */
+    public static class JdbcSink implements RowSink {
+        @Override
+        public void write(List<RosterRow> batch) throws SQLException {
+            List<IntakeRecord> records = new ArrayList<>(batch.size());
+            for (RosterRow row : batch) {
+                records.add(row.getRecord());
+            }
+            new BulkIntake(batch.size(), batch.size()).insertAll(records.iterator());
+        }
+    }
+
+    /**
+     * Counts and timing of a finished import.
+     */
+    public static class Result {
+        private final long linesRead;
+        private final long accepted;
+        private final long rejected;
+        private final long written;
+        private final long elapsedNanos;
+
+        /**
+         * Constructs a Result.
+         *
+         * @param linesRead    data lines read (header and blank lines excluded)
+         * @param accepted     lines that passed validation
+         * @param rejected     lines sent to the rejects file
+         * @param written      rows written to the sink
+         * @param elapsedNanos wall time
+         */
+        public Result(long linesRead, long accepted, long rejected, long written, long elapsedNanos) {
+            this.linesRead = linesRead;
+            this.accepted = accepted;
+            this.rejected = rejected;
+            this.written = written;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Gets the number of data lines read.
+         *
+         * @return the line count
+         */
+        public long getLinesRead() {
+            return linesRead;
+        }
+
+        /**
+         * Gets the number of lines that passed validation.
+         *
+         * @return the accepted count
+         */
+        public long getAccepted() {
+            return accepted;
+        }
+
+        /**
+         * Gets the number of lines sent to the rejects file.
+         *
+         * @return the rejected count
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * Gets the number of rows written to the sink.
+         *
+         * @return the written count
+         */
+        public long getWritten() {
+            return written;
+        }
+
+        /**
+         * Gets the wall time of the import.
+         *
+         * @return elapsed milliseconds
+         */
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000L;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Read %d lines: %d written, %d rejected in %d ms",
+                    linesRead, written, rejected, getElapsedMillis());
+        }
+    }
+}
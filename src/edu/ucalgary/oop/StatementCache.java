@@ -0,0 +1,282 @@
+package edu.ucalgary.oop;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StatementCache is a per-connection LRU cache of PreparedStatements keyed
+ * by SQL text. A cached statement is handed out wrapped so that close()
+ * clears its parameters and puts it back in the cache instead of closing it.
+ * A fetch size, row limit or query timeout set by one borrower is put back
+ * to its original value before the next borrower gets the statement.
+ *
+ * <p>
+ * Reusing the same PreparedStatement object is also what lets the PostgreSQL
+ * driver reach its prepareThreshold and switch to a server-side prepared plan.
+ * If the same SQL is already checked out (e.g. nested use on one connection),
+ * a plain uncached statement is returned for the second caller.
+ * </p>
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class StatementCache {
+    private final int maxSize;
+    private final LinkedHashMap<String, Entry> entries;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    /**
+     * Constructs a cache with its own counters.
+     *
+     * @param maxSize maximum number of cached statements
+     * @throws IllegalArgumentException if maxSize is less than 1
+     */
+    public StatementCache(int maxSize) {
+        this(maxSize, new LongAdder(), new LongAdder(), new LongAdder());
+    }
+
+    /**
+     * Constructs a cache that reports into shared counters, so a pool can
+     * aggregate hit/miss figures over all of its connections.
+     *
+     * @param maxSize   maximum number of cached statements
+     * @param hits      counter incremented on a cache hit
+     * @param misses    counter incremented on a cache miss
+     * @param evictions counter incremented when an LRU entry is dropped
+     * @throws IllegalArgumentException if maxSize is less than 1
+     */
+    public StatementCache(int maxSize, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Statement cache size must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    /**
+     * Returns a prepared statement for the SQL text, reusing a cached one if free.
+     *
+     * @param raw   the physical connection that owns the cache
+     * @param owner the connection that getConnection() on the statement should report
+     * @param sql   the SQL text
+     * @return a statement whose close() returns it to the cache
+     * @throws SQLException if preparing fails
+     */
+    public synchronized PreparedStatement prepare(Connection raw, Connection owner, String sql) throws SQLException {
+        Entry entry = entries.get(sql);
+        if (entry != null && !entry.inUse) {
+            hits.increment();
+            entry.inUse = true;
+            return entry.checkOut(owner);
+        }
+        misses.increment();
+        PreparedStatement ps = raw.prepareStatement(sql);
+        if (entry != null) {
+            return ps;
+        }
+        entry = new Entry(ps);
+        entry.inUse = true;
+        entries.put(sql, entry);
+        evictOverflow();
+        return entry.checkOut(owner);
+    }
+
+    /**
+     * Closes every cached statement. Statements still checked out are
+     * closed when they are returned.
+     */
+    public synchronized void closeAll() {
+        for (Entry entry : entries.values()) {
+            entry.evicted = true;
+            if (!entry.inUse) {
+                closeQuietly(entry.statement);
+            }
+        }
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of cached statements.
+     *
+     * @return the cache size
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the hit count.
+     *
+     * @return hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the miss count.
+     *
+     * @return misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the eviction count.
+     *
+     * @return evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private void evictOverflow() {
+        List<Entry> dropped = new ArrayList<>();
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            it.remove();
+            dropped.add(eldest);
+        }
+        for (Entry eldest : dropped) {
+            evictions.increment();
+            eldest.evicted = true;
+            if (!eldest.inUse) {
+                closeQuietly(eldest.statement);
+            }
+        }
+    }
+
+    private synchronized void checkIn(Entry entry) {
+        if (!entry.evicted) {
+            try {
+                entry.statement.clearParameters();
+                entry.statement.clearBatch();
+                entry.restoreSettings();
+                entry.inUse = false;
+                return;
+            } catch (SQLException e) {
+                entries.values().remove(entry);
+            }
+        }
+        closeQuietly(entry.statement);
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    /**
+     * A cached statement and its checkout state.
+     */
+    private final class Entry {
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+        private Integer originalFetchSize;
+        private Integer originalMaxRows;
+        private Integer originalQueryTimeout;
+
+        private Entry(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        /**
+         * Remembers a setting's value before the borrower first changes it.
+         */
+        private void rememberSetting(String setter) throws SQLException {
+            switch (setter) {
+                case "setFetchSize":
+                    if (originalFetchSize == null) {
+                        originalFetchSize = statement.getFetchSize();
+                    }
+                    break;
+                case "setMaxRows":
+                    if (originalMaxRows == null) {
+                        originalMaxRows = statement.getMaxRows();
+                    }
+                    break;
+                case "setQueryTimeout":
+                    if (originalQueryTimeout == null) {
+                        originalQueryTimeout = statement.getQueryTimeout();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * Puts back every setting the last borrower changed.
+         */
+        private void restoreSettings() throws SQLException {
+            if (originalFetchSize != null) {
+                statement.setFetchSize(originalFetchSize);
+                originalFetchSize = null;
+            }
+            if (originalMaxRows != null) {
+                statement.setMaxRows(originalMaxRows);
+                originalMaxRows = null;
+            }
+            if (originalQueryTimeout != null) {
+                statement.setQueryTimeout(originalQueryTimeout);
+                originalQueryTimeout = null;
+            }
+        }
+
+        private PreparedStatement checkOut(Connection owner) {
+            final boolean[] returned = {false};
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                if (!returned[0]) {
+                                    returned[0] = true;
+                                    checkIn(this);
+                                }
+                                return null;
+                            case "isClosed":
+                                return returned[0] || statement.isClosed();
+                            case "getConnection":
+                                return owner;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                break;
+                        }
+                        if (returned[0]) {
+                            throw new SQLException("Statement has already been closed");
+                        }
+                        rememberSetting(method.getName());
+                        try {
+                            return method.invoke(statement, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
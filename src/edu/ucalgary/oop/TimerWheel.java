@@ -0,0 +1,180 @@
+package edu.ucalgary.oop;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * TimerWheel is a hierarchical hashed timing wheel: four levels of 64
+ * slots, each level's slot spanning a whole turn of the level below.
+ *
+ * <p>
+ * Scheduling drops an item into one slot, in constant time, however many
+ * items are pending. Advancing the wheel fires the items in the level-0
+ * slot for each elapsed tick. Whenever level 0 completes a turn, the
+ * matching slot of level 1 is cascaded (its items re-slotted one level
+ * down), and so on up the levels. With one-second ticks the four levels
+ * cover about 194 days. Items further out are parked in the farthest
+ * top-level slot and re-slotted when it cascades.
+ * </p>
+ *
+ * Items never fire before their deadline. They fire at most one tick
+ * late, plus however late {@link #advance} is called. The wheel is not
+ * synchronized.
+ *
+ * @param <T> the item type
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class TimerWheel<T> {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (BITS * LEVELS);
+
+    /**
+     * A scheduled item and its deadline in ticks.
+     */
+    private static final class Entry<T> {
+        private final T item;
+        private final long deadlineTick;
+
+        private Entry(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    private final long tickMillis;
+    private final List<List<Entry<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private long tick;
+    private int size;
+
+    /**
+     * Constructs an empty wheel.
+     *
+     * @param tickMillis  the resolution in milliseconds
+     * @param startMillis the current time, in the same epoch as deadlines
+     * @throws IllegalArgumentException if tickMillis is less than 1
+     */
+    public TimerWheel(long tickMillis, long startMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("Tick must be at least 1 ms");
+        }
+        this.tickMillis = tickMillis;
+        this.tick = Math.floorDiv(startMillis, tickMillis);
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedules an item. A deadline already past fires on the next
+     * {@link #advance}.
+     *
+     * @param item           the item
+     * @param deadlineMillis when it is due
+     */
+    public void schedule(T item, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis, tickMillis);
+        if (Math.floorMod(deadlineMillis, tickMillis) != 0) {
+            deadlineTick++;
+        }
+        place(new Entry<>(item, deadlineTick));
+        size++;
+    }
+
+    private void place(Entry<T> e) {
+        long delta = e.deadlineTick - tick;
+        if (delta < 0) {
+            slot(0, tick).add(e);
+            return;
+        }
+        if (delta >= SPAN) {
+            slot(LEVELS - 1, tick + SPAN - 1).add(e);
+            return;
+        }
+        int level = 0;
+        while (delta >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        slot(level, e.deadlineTick).add(e);
+    }
+
+    private List<Entry<T>> slot(int level, long atTick) {
+        return slots.get(level * SLOTS + (int) ((atTick >>> (BITS * level)) & MASK));
+    }
+
+    /**
+     * Fires every item whose deadline is at or before now.
+     *
+     * @param nowMillis the current time
+     * @param expired   receives each due item; it must not schedule into this wheel
+     * @return the number of items fired
+     */
+    public int advance(long nowMillis, Consumer<? super T> expired) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        int fired = 0;
+        while (tick <= nowTick) {
+            if (size == 0) {
+                tick = nowTick + 1;
+                break;
+            }
+            if ((tick & MASK) == 0) {
+                int level = 1;
+                while (level < LEVELS && cascade(level) == 0) {
+                    level++;
+                }
+            }
+            List<Entry<T>> due = slot(0, tick);
+            if (!due.isEmpty()) {
+                slots.set((int) (tick & MASK), new ArrayList<>());
+                for (Entry<T> e : due) {
+                    size--;
+                    fired++;
+                    expired.accept(e.item);
+                }
+            }
+            tick++;
+        }
+        return fired;
+    }
+
+    /**
+     * Re-slots the current slot of a level into the levels below.
+     *
+     * @return the index of the cascaded slot; 0 means this level wrapped
+     */
+    private int cascade(int level) {
+        int index = (int) ((tick >>> (BITS * level)) & MASK);
+        int at = level * SLOTS + index;
+        List<Entry<T>> entries = slots.get(at);
+        if (!entries.isEmpty()) {
+            slots.set(at, new ArrayList<>());
+            for (Entry<T> e : entries) {
+                place(e);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Gets the number of scheduled items.
+     *
+     * @return the pending count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the resolution.
+     *
+     * @return milliseconds per tick
+     */
+    public long getTickMillis() {
+        return tickMillis;
+    }
+}
@@ -0,0 +1,345 @@
+package edu.ucalgary.oop;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TranslationBundle is a compiled, read-only form of a locale XML file.
+ *
+ * <p>
+ * A bundle file holds a header recording the size and modification time of
+ * the XML it was compiled from, a perfect-hash index of the keys, and a
+ * string table in which every distinct key and value is stored once as
+ * UTF-8. Opening a bundle maps the file and reads only the header;
+ * strings are decoded on first lookup. Lookups hash the key once to pick a
+ * bucket, apply the bucket's displacement to land on exactly one slot, and
+ * confirm the key stored there.
+ * </p>
+ *
+ * Bundles are written next to the XML as {@code aa-BB.bundle}, either by
+ * {@link LanguageManager} the first time it parses the XML or ahead of time
+ * with {@link #main(String[])}.
+ *
+ * @author Anhad Wander
+ * @version 1.0
+ * @since 2025-04-05
+ */
+public class TranslationBundle {
+    private static final int MAGIC = 0x5452424E;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 40;
+    private static final int SLOT_BYTES = 16;
+    private static final int EMPTY = -1;
+
+    private final ByteBuffer data;
+    private final int size;
+    private final int slotCount;
+    private final int bucketCount;
+    private final int displacementsAt;
+    private final int slotsAt;
+    private final int stringsAt;
+    private final String[] keys;
+    private final String[] values;
+
+    private TranslationBundle(ByteBuffer data) throws IOException {
+        if (data.capacity() < HEADER_BYTES || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            throw new IOException("Not a translation bundle");
+        }
+        this.data = data;
+        this.size = data.getInt(24);
+        this.slotCount = data.getInt(28);
+        this.bucketCount = data.getInt(32);
+        this.displacementsAt = HEADER_BYTES;
+        this.slotsAt = displacementsAt + bucketCount * 4;
+        this.stringsAt = slotsAt + slotCount * SLOT_BYTES;
+        if (slotCount < 1 || bucketCount < 1 || stringsAt > data.capacity()) {
+            throw new IOException("Truncated translation bundle");
+        }
+        this.keys = new String[slotCount];
+        this.values = new String[slotCount];
+    }
+
+    /**
+     * Gets the bundle path for a locale XML file.
+     *
+     * @param xml the XML file, e.g. data/en-CA.xml
+     * @return the bundle file, e.g. data/en-CA.bundle
+     */
+    public static File bundleFor(File xml) {
+        String name = xml.getName();
+        int dot = name.lastIndexOf('.');
+        return new File(xml.getParentFile(), (dot < 0 ? name : name.substring(0, dot)) + ".bundle");
+    }
+
+    /**
+     * Maps a bundle if it exists and was compiled from the current XML.
+     *
+     * @param xml the source XML file
+     * @return the bundle, or null if it is missing, stale or unreadable
+     */
+    public static TranslationBundle openIfFresh(File xml) {
+        File bundle = bundleFor(xml);
+        if (!bundle.isFile()) {
+            return null;
+        }
+        try {
+            TranslationBundle b = open(bundle.toPath());
+            return b.isCompiledFrom(xml) ? b : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Maps a bundle file.
+     *
+     * @param bundle the bundle file
+     * @return the bundle
+     * @throws IOException if the file cannot be read or is not a bundle
+     */
+    public static TranslationBundle open(Path bundle) throws IOException {
+        try (FileChannel ch = FileChannel.open(bundle, StandardOpenOption.READ)) {
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            return new TranslationBundle(map);
+        }
+    }
+
+    /**
+     * Compiles translations into a bundle stamped with the XML's size and
+     * modification time. The file is written to a temporary name and moved
+     * into place.
+     *
+     * @param translations the key/value pairs
+     * @param xml          the source XML, for the staleness stamp
+     * @param bundle       where to write
+     * @throws IOException if the bundle cannot be written
+     */
+    public static void compile(Map<String, String> translations, File xml, File bundle) throws IOException {
+        byte[] bytes = encode(translations, xml.length(), xml.lastModified());
+        Path target = bundle.toPath();
+        Path tmp = target.resolveSibling(bundle.getName() + ".tmp");
+        Files.write(tmp, bytes);
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Builds the bundle bytes.
+     *
+     * @param translations  the key/value pairs
+     * @param sourceLength  size of the source XML
+     * @param sourceModified modification time of the source XML
+     * @return the bundle bytes
+     */
+    static byte[] encode(Map<String, String> translations, long sourceLength, long sourceModified) {
+        String[] keyList = translations.keySet().toArray(new String[0]);
+        int n = keyList.length;
+        int slotCount = Math.max(1, n);
+        int bucketCount = Math.max(1, (n + 3) / 4);
+        int[] displacement = new int[bucketCount];
+        int[] slotOwner = new int[slotCount];
+        Arrays.fill(slotOwner, EMPTY);
+
+        List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+        for (int b = 0; b < bucketCount; b++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int i = 0; i < n; i++) {
+            buckets.get(index(hash(keyList[i], 0), bucketCount)).add(i);
+        }
+        Integer[] order = new Integer[bucketCount];
+        for (int b = 0; b < bucketCount; b++) {
+            order[b] = b;
+        }
+        Arrays.sort(order, (a, b) -> buckets.get(b).size() - buckets.get(a).size());
+
+        for (int b : order) {
+            List<Integer> members = buckets.get(b);
+            if (members.isEmpty()) {
+                break;
+            }
+            int[] chosen = new int[members.size()];
+            for (int d = 1; ; d++) {
+                boolean fits = true;
+                for (int m = 0; m < members.size() && fits; m++) {
+                    int slot = index(hash(keyList[members.get(m)], d), slotCount);
+                    fits = slotOwner[slot] == EMPTY;
+                    for (int prev = 0; prev < m && fits; prev++) {
+                        fits = chosen[prev] != slot;
+                    }
+                    chosen[m] = slot;
+                }
+                if (fits) {
+                    displacement[b] = d;
+                    for (int m = 0; m < members.size(); m++) {
+                        slotOwner[chosen[m]] = members.get(m);
+                    }
+                    break;
+                }
+            }
+        }
+
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        Map<String, int[]> interned = new HashMap<>();
+        int[][] slots = new int[slotCount][];
+        for (int s = 0; s < slotCount; s++) {
+            if (slotOwner[s] == EMPTY) {
+                slots[s] = new int[]{EMPTY, 0, EMPTY, 0};
+                continue;
+            }
+            String key = keyList[slotOwner[s]];
+            int[] k = intern(key, interned, strings);
+            int[] v = intern(translations.get(key), interned, strings);
+            slots[s] = new int[]{k[0], k[1], v[0], v[1]};
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                HEADER_BYTES + bucketCount * 4 + slotCount * SLOT_BYTES + strings.size());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sourceLength);
+            out.writeLong(sourceModified);
+            out.writeInt(n);
+            out.writeInt(slotCount);
+            out.writeInt(bucketCount);
+            out.writeInt(0);
+            for (int d : displacement) {
+                out.writeInt(d);
+            }
+            for (int[] slot : slots) {
+                for (int field : slot) {
+                    out.writeInt(field);
+                }
+            }
+            strings.writeTo(out);
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory write failed", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int[] intern(String s, Map<String, int[]> interned, ByteArrayOutputStream strings) {
+        return interned.computeIfAbsent(s, k -> {
+            byte[] utf8 = k.getBytes(StandardCharsets.UTF_8);
+            int[] ref = {strings.size(), utf8.length};
+            strings.write(utf8, 0, utf8.length);
+            return ref;
+        });
+    }
+
+    /**
+     * Checks whether this bundle was compiled from the XML as it is now.
+     *
+     * @param xml the source XML file
+     * @return true if size and modification time match
+     */
+    public boolean isCompiledFrom(File xml) {
+        return xml.isFile() && data.getLong(8) == xml.length() && data.getLong(16) == xml.lastModified();
+    }
+
+    /**
+     * Looks up a translation.
+     *
+     * @param key the translation key
+     * @return the value, or null if the key is absent
+     */
+    public String get(String key) {
+        if (key == null || size == 0) {
+            return null;
+        }
+        int bucket = index(hash(key, 0), bucketCount);
+        int d = data.getInt(displacementsAt + bucket * 4);
+        if (d == 0) {
+            return null;
+        }
+        int slot = index(hash(key, d), slotCount);
+        String stored = keys[slot];
+        if (stored == null) {
+            int at = slotsAt + slot * SLOT_BYTES;
+            if (data.getInt(at) == EMPTY) {
+                return null;
+            }
+            stored = decode(data.getInt(at), data.getInt(at + 4));
+            keys[slot] = stored;
+        }
+        if (!stored.equals(key)) {
+            return null;
+        }
+        String value = values[slot];
+        if (value == null) {
+            int at = slotsAt + slot * SLOT_BYTES;
+            value = decode(data.getInt(at + 8), data.getInt(at + 12));
+            values[slot] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Gets the number of translations.
+     *
+     * @return the key count
+     */
+    public int size() {
+        return size;
+    }
+
+    private String decode(int offset, int length) {
+        byte[] utf8 = new byte[length];
+        ByteBuffer view = data.duplicate();
+        view.position(stringsAt + offset);
+        view.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static int hash(String key, int seed) {
+        int h = 0x811c9dc5 ^ (seed * 0x9e3779b9);
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        return h ^ (h >>> 13);
+    }
+
+    private static int index(int hash, int range) {
+        return (hash & 0x7fffffff) % range;
+    }
+
+    /**
+     * Compiles every aa-BB.xml in a directory (default "data") into a bundle.
+     *
+     * @param args optional directory
+     * @throws IOException if a bundle cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        File dir = new File(args.length > 0 ? args[0] : "data");
+        File[] xmls = dir.listFiles((d, name) -> name.matches("[a-z]{2}-[A-Z]{2}\\.xml"));
+        if (xmls == null) {
+            System.out.println("No such directory: " + dir);
+            return;
+        }
+        for (File xml : xmls) {
+            Map<String, String> translations = LanguageManager.parseTranslations(xml);
+            File bundle = bundleFor(xml);
+            compile(translations, xml, bundle);
+            System.out.println("Compiled " + xml.getName() + " -> " + bundle.getName()
+                    + " (" + translations.size() + " keys, " + bundle.length() + " bytes)");
+        }
+    }
+}
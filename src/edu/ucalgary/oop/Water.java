@@ -1,8 +1,8 @@
 package edu.ucalgary.oop;
 
-import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
 
 /**
  * Water is an Item that expires after one day if allocated to a person.
@@ -12,6 +12,11 @@ import java.sql.Statement;
  * @since 2025-04-05
  */
 public class Water extends Item {
+    /** How long a person may hold an allocated water supply. */
+    public static final Duration SHELF_LIFE = Duration.ofDays(1);
+
+    /** Water held by a person expires after {@link #SHELF_LIFE}. */
+    public static final LifecyclePolicy LIFECYCLE = LifecyclePolicy.ttl("water", SHELF_LIFE);
 
     /**
      * Constructs a Water item with the given ID.
@@ -23,32 +28,41 @@ public class Water extends Item {
         super(itemID);
     }
 
+    /**
+     * Gets how many water allocations are waiting to expire.
+     *
+     * @return the pending count as of the shared scheduler's last tick
+     */
+    public static int getPendingExpiryCount() {
+        return ExpiryScheduler.getInstance().getPendingCount("water");
+    }
+
     /**
      * Removes expired water allocations from the supplyallocation table
-     * if allocated to a person over one day.
+     * if allocated to a person over one day, in one sweep. The application
+     * itself leaves this to {@link ExpiryScheduler}.
      *
      * @throws SQLException if DB update fails
      */
     public static void removeExpiredAllocations() throws SQLException {
-        Connection conn = DatabaseManager.getInstance().getConnection();
-        if (conn == null) {
-            throw new IllegalStateException("DB not connected");
-        }
+        int rows = DatabaseManager.getInstance().getAccess()
+                .removeExpiredAllocations("water", LocalDateTime.now().minus(SHELF_LIFE));
         System.out.println("");
-        String sql =
-                "DELETE FROM supplyallocation sa " +
-                        "USING supply s " +
-                        "WHERE sa.supply_id = s.supply_id " +
-                        "  AND s.type = 'water' " +
-                        "  AND sa.person_id IS NOT NULL " +
-                        "  AND sa.allocation_date < (NOW() - INTERVAL '1 day')";
-        try (Statement stmt = conn.createStatement()) {
-            int rows = stmt.executeUpdate(sql);
-            if (rows > 0) {
-                System.out.println("Removed " + rows + " expired water allocations.");
-            } else {
-                System.out.println("No expired water found.");
-            }
+        if (rows > 0) {
+            InventoryIndex.getInstance().rebuild();
+            System.out.println("Removed " + rows + " expired water allocations.");
+        } else {
+            System.out.println("No expired water found.");
         }
     }
+
+    /**
+     * Gets the supply type.
+     *
+     * @return "water"
+     */
+    @Override
+    public String getSupplyType() {
+        return "water";
+    }
 }
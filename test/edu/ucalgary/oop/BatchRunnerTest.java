@@ -0,0 +1,127 @@
+package edu.ucalgary.oop;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class BatchRunnerTest {
+
+    private InMemoryDatabaseAccess db;
+    private StringWriter report;
+    private OutputSink out;
+
+    @Before
+    public void setUp() {
+        db = new InMemoryDatabaseAccess();
+        DatabaseManager.getInstance().setAccess(db);
+        report = new StringWriter();
+        out = new OutputSink(report, 1024);
+    }
+
+    @After
+    public void restoreAccess() {
+        DatabaseManager.getInstance().setAccess(new PostgresDatabaseAccess());
+    }
+
+    private BatchRunner.Result run(String script) throws Exception {
+        return new BatchRunner(2).run(new BufferedReader(new StringReader(script)), out);
+    }
+
+    @Test
+    public void testRunExecutesEveryCommand() throws Exception {
+        int loc = db.insertLocation(new DatabaseAccess.LocationRow(0, "Shelter A", "1 Main St"));
+        BatchRunner.Result result = run(
+                "# shift log\n"
+                        + "register Ana Doe 1990-01-01 2 555-0000\n"
+                        + "register \"Mary Ann\" Lee\n"
+                        + "\n"
+                        + "supply blanket \"wool, grey\"\n"
+                        + "allocate 1 person 1\n"
+                        + "reassign 2 " + loc + "\n"
+                        + "inquire 1 2 0 2025-02-03 \"last seen downtown\"\n");
+        assertEquals(6, result.getCommands());
+        assertEquals(6, result.getExecuted());
+        assertEquals(0, result.getFailed());
+        assertEquals("Woman", db.findPerson(1).getGender());
+        assertEquals("Mary Ann", db.findPerson(2).getFirstName());
+        assertEquals("wool, grey", db.findSupply(1).getComments());
+        assertEquals(1, db.findAllocationsForPerson(1).size());
+        assertEquals(Collections.singletonList(2), db.findOccupantIds(loc));
+        assertEquals("last seen downtown", db.findInquiriesForPerson(2).get(0).getComments());
+    }
+
+    @Test
+    public void testDistributeHandsOutStock() throws Exception {
+        int loc = db.insertLocation(new DatabaseAccess.LocationRow(0, "Shelter A", "1 Main St"));
+        BatchRunner.Result result = run(
+                "register Ana Doe\n"
+                        + "register Ben Doe\n"
+                        + "reassign 1 " + loc + "\n"
+                        + "reassign 2 " + loc + "\n"
+                        + "supply blanket\n"
+                        + "supply blanket\n"
+                        + "supply blanket\n"
+                        + "allocate 1 location " + loc + "\n"
+                        + "allocate 2 location " + loc + "\n"
+                        + "allocate 3 location " + loc + "\n"
+                        + "distribute " + loc + " blanket 1\n"
+                        + "distribute " + loc + " blanket -1\n");
+        assertEquals(11, result.getExecuted());
+        assertEquals(1, result.getFailed());
+        assertEquals(1, db.findAllocationsForPerson(1).size());
+        assertEquals(1, db.findAllocationsForPerson(2).size());
+        assertEquals(1, db.findAllocationsForLocation(loc).size());
+    }
+
+    @Test
+    public void testFailingLinesAreReportedAndSkipped() throws Exception {
+        BatchRunner.Result result = run(
+                "register Ana Doe\n"
+                        + "allocate x person 1\n"
+                        + "reassign 1 99\n"
+                        + "teleport 1\n"
+                        + "register Ben Doe - Robot\n"
+                        + "register Cy Doe\n");
+        assertEquals(6, result.getCommands());
+        assertEquals(2, result.getExecuted());
+        assertEquals(4, result.getFailed());
+        assertEquals(2, db.listPersons(0, 10).size());
+        String[] lines = report.toString().split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("line 2: Invalid supply_id"));
+        assertTrue(lines[1].startsWith("line 3: "));
+        assertTrue(lines[2].startsWith("line 4: Unknown command"));
+        assertTrue(lines[3].startsWith("line 5: Unknown gender"));
+    }
+
+    @Test
+    public void testNoTransactionsWithoutConnection() throws Exception {
+        BatchRunner.Result result = run("register A B\nregister C D\nregister E F\n");
+        assertEquals(3, result.getExecuted());
+        assertEquals(0, result.getTransactions());
+        assertFalse(DatabaseManager.getInstance().inTransaction());
+    }
+
+    @Test
+    public void testTokenizeQuotes() {
+        assertEquals(Arrays.asList("supply", "water", "say \"hi\"", ""),
+                BatchRunner.tokenize("supply  water \"say \"\"hi\"\"\" \"\""));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTokenizeUnclosedQuote() {
+        BatchRunner.tokenize("register \"Ana Doe");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCommitEveryMustBePositive() {
+        new BatchRunner(0);
+    }
+}
@@ -0,0 +1,218 @@
+package edu.ucalgary.oop;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class BulkIntakeTest {
+
+    /**
+     * Records what BulkIntake does with a connection: the size of each
+     * person batch, the rows committed at each commit, and the placements.
+     */
+    private static final class FakeDb {
+        private final List<Integer> personBatches = new ArrayList<>();
+        private final List<Integer> commitPoints = new ArrayList<>();
+        private final List<String> placements = new ArrayList<>();
+        private int failOnBatch = -1;
+        private int rollbacks;
+        private int rowsSent;
+        private long nextId = 100;
+
+        private Connection connection() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "prepareStatement":
+                                return ((String) args[0]).contains("personlocation") ? placeStatement() : personStatement();
+                            case "commit":
+                                commitPoints.add(rowsSent);
+                                return null;
+                            case "rollback":
+                                rollbacks++;
+                                return null;
+                            default:
+                                return null;
+                        }
+                    });
+        }
+
+        private PreparedStatement personStatement() {
+            int[] pending = new int[1];
+            int[] lastBatch = new int[1];
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "addBatch":
+                                pending[0]++;
+                                return null;
+                            case "executeBatch":
+                                if (personBatches.size() == failOnBatch) {
+                                    throw new SQLException("batch failed");
+                                }
+                                personBatches.add(pending[0]);
+                                rowsSent += pending[0];
+                                lastBatch[0] = pending[0];
+                                pending[0] = 0;
+                                return new int[lastBatch[0]];
+                            case "getGeneratedKeys":
+                                return keys(lastBatch[0]);
+                            default:
+                                return null;
+                        }
+                    });
+        }
+
+        private ResultSet keys(int count) {
+            int[] left = {count};
+            long[] current = new long[1];
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "next":
+                                if (left[0] == 0) {
+                                    return false;
+                                }
+                                left[0]--;
+                                current[0] = nextId++;
+                                return true;
+                            case "getLong":
+                                return current[0];
+                            default:
+                                return null;
+                        }
+                    });
+        }
+
+        private PreparedStatement placeStatement() {
+            int[] bound = new int[2];
+            List<String> pending = new ArrayList<>();
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "setInt":
+                                bound[(Integer) args[0] - 1] = (Integer) args[1];
+                                return null;
+                            case "addBatch":
+                                pending.add(bound[0] + "@" + bound[1]);
+                                return null;
+                            case "executeBatch":
+                                placements.addAll(pending);
+                                int[] counts = new int[pending.size()];
+                                pending.clear();
+                                return counts;
+                            default:
+                                return null;
+                        }
+                    });
+        }
+    }
+
+    private static List<IntakeRecord> roster(int n) {
+        List<IntakeRecord> out = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            out.add(new IntakeRecord("P" + i, "Doe", null, null, null));
+        }
+        return out;
+    }
+
+    @Test
+    public void testDefaultSettings() {
+        BulkIntake intake = new BulkIntake();
+        assertEquals(500, intake.getBatchSize());
+        assertEquals(5000, intake.getCommitInterval());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchSize() {
+        new BulkIntake(0, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCommitInterval() {
+        new BulkIntake(10, 0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInsertAllNotConnected() throws Exception {
+        DatabaseManager.resetInstance();
+        List<IntakeRecord> none = Collections.emptyList();
+        new BulkIntake().insertAll(none.iterator());
+    }
+
+    @Test
+    public void testInsertAllSendsWholeBatches() throws Exception {
+        FakeDb db = new FakeDb();
+        BulkIntake.Result r = new BulkIntake(3, 100).insertAll(db.connection(), roster(7).iterator());
+        assertEquals(Arrays.asList(3, 3, 1), db.personBatches);
+        assertArrayEquals(new long[]{100, 101, 102, 103, 104, 105, 106}, r.getPersonIds());
+        assertEquals(Collections.singletonList(7), db.commitPoints);
+    }
+
+    @Test
+    public void testInsertAllCommitsEveryInterval() throws Exception {
+        FakeDb db = new FakeDb();
+        new BulkIntake(2, 4).insertAll(db.connection(), roster(9).iterator());
+        assertEquals(Arrays.asList(2, 2, 2, 2, 1), db.personBatches);
+        assertEquals(Arrays.asList(4, 8, 9), db.commitPoints);
+    }
+
+    @Test
+    public void testCommitIntervalRoundsUpToWholeBatches() throws Exception {
+        FakeDb db = new FakeDb();
+        new BulkIntake(3, 4).insertAll(db.connection(), roster(7).iterator());
+        assertEquals(Arrays.asList(6, 7), db.commitPoints);
+    }
+
+    @Test
+    public void testFailureRollsBackOnlyUncommittedRows() throws Exception {
+        FakeDb db = new FakeDb();
+        db.failOnBatch = 2;
+        try {
+            new BulkIntake(2, 2).insertAll(db.connection(), roster(6).iterator());
+            fail("Expected the batch failure");
+        } catch (SQLException e) {
+            assertEquals("batch failed", e.getMessage());
+        }
+        assertEquals(Arrays.asList(2, 4), db.commitPoints);
+        assertEquals(1, db.rollbacks);
+    }
+
+    @Test
+    public void testInsertAllPlacesRecordsWithALocation() throws Exception {
+        FakeDb db = new FakeDb();
+        List<IntakeRecord> records = Arrays.asList(
+                new IntakeRecord("Ann", "Lee", null, null, null, null, 5),
+                new IntakeRecord("Bo", "Lee", null, null, null, 3, null),
+                new IntakeRecord("Cy", "Lee", null, null, null, 3, 6));
+        new BulkIntake(2, 10).insertAll(db.connection(), records.iterator());
+        assertEquals(Arrays.asList("100@5", "102@6"), db.placements);
+    }
+
+    @Test
+    public void testToCsvQuotesValuesAndLeavesNullsEmpty() {
+        List<IntakeRecord> rows = Arrays.asList(
+                new IntakeRecord("Ann", "O\"Neil", null, "Woman", "555"),
+                new IntakeRecord("Bo", "Lee", "2000-01-02", null, null, 4, null));
+        String csv = BulkIntake.toCsv(rows, new long[]{7, 8});
+        assertEquals("7,\"Ann\",\"O\"\"Neil\",,\"Woman\",\"555\",\n"
+                + "8,\"Bo\",\"Lee\",\"2000-01-02\",,,4\n", csv);
+    }
+
+    @Test
+    public void testResultThroughput() {
+        BulkIntake.Result r = new BulkIntake.Result(new long[]{1, 2, 3, 4}, 2_000_000_000L);
+        assertEquals(4, r.getRowCount());
+        assertEquals(2000, r.getElapsedMillis());
+        assertEquals(2.0, r.getRowsPerSecond(), 0.0001);
+    }
+}
@@ -0,0 +1,116 @@
+package edu.ucalgary.oop;
+
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+public class ConnectionPoolTest {
+
+    private ConnectionPool pool;
+
+    /**
+     * Builds a do-nothing Connection so the pool can be tested without a DB.
+     */
+    static Connection fakeConnection() {
+        final boolean[] closed = {false};
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close": closed[0] = true; return null;
+                        case "isClosed": return closed[0];
+                        case "isValid": return !closed[0];
+                        case "getAutoCommit": return true;
+                        case "isReadOnly": return false;
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "equals": return proxy == args[0];
+                        default: return null;
+                    }
+                });
+    }
+
+    @After
+    public void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void testMinSizeOpenedEagerly() throws SQLException {
+        pool = new ConnectionPool(ConnectionPoolTest::fakeConnection, 2, 4, 100, 0);
+        assertEquals(2, pool.getTotalConnections());
+        assertEquals(2, pool.getIdleConnections());
+    }
+
+    @Test
+    public void testCloseReturnsConnectionToPool() throws SQLException {
+        pool = new ConnectionPool(ConnectionPoolTest::fakeConnection, 1, 2, 100, 0);
+        Connection c = pool.borrow();
+        assertEquals(1, pool.getActiveConnections());
+        c.close();
+        assertTrue(c.isClosed());
+        assertEquals(0, pool.getActiveConnections());
+        assertEquals(1, pool.getTotalConnections());
+    }
+
+    @Test
+    public void testBorrowReusesIdleConnection() throws SQLException {
+        pool = new ConnectionPool(ConnectionPoolTest::fakeConnection, 1, 2, 100, 0);
+        pool.borrow().close();
+        pool.borrow().close();
+        assertEquals(1, pool.getCreatedCount());
+    }
+
+    @Test(expected = SQLTimeoutException.class)
+    public void testBorrowTimesOutWhenExhausted() throws SQLException {
+        pool = new ConnectionPool(ConnectionPoolTest::fakeConnection, 0, 1, 50, 0);
+        pool.borrow();
+        pool.borrow();
+    }
+
+    @Test
+    public void testTimeoutIsCounted() throws SQLException {
+        pool = new ConnectionPool(ConnectionPoolTest::fakeConnection, 0, 1, 20, 0);
+        pool.borrow();
+        try {
+            pool.borrow();
+        } catch (SQLTimeoutException expected) {
+        }
+        assertEquals(1, pool.getWaitCount());
+        assertEquals(1, pool.getTimeoutCount());
+    }
+
+    @Test(expected = SQLException.class)
+    public void testUseAfterCloseFails() throws SQLException {
+        pool = new ConnectionPool(ConnectionPoolTest::fakeConnection, 0, 1, 100, 0);
+        Connection c = pool.borrow();
+        c.close();
+        c.createStatement();
+    }
+
+    @Test
+    public void testEvictIdleKeepsMinimum() throws Exception {
+        pool = new ConnectionPool(ConnectionPoolTest::fakeConnection, 1, 3, 100, 1);
+        Connection a = pool.borrow();
+        Connection b = pool.borrow();
+        Connection c = pool.borrow();
+        a.close();
+        b.close();
+        c.close();
+        Thread.sleep(5);
+        pool.evictIdle();
+        assertEquals(1, pool.getTotalConnections());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSizes() throws SQLException {
+        new ConnectionPool(ConnectionPoolTest::fakeConnection, 3, 2, 100, 0);
+    }
+}
@@ -3,6 +3,11 @@ package edu.ucalgary.oop;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
 public class DatabaseManagerTest {
 
     @Test
@@ -20,4 +25,35 @@ public class DatabaseManagerTest {
         assertNotSame(d1, d2);
     }
 
+    @Test
+    public void testBeginTransactionWithoutConnection() throws Exception {
+        DatabaseManager.resetInstance();
+        DatabaseManager db = DatabaseManager.getInstance();
+        assertFalse(db.beginTransaction());
+        assertFalse(db.inTransaction());
+        db.commitTransaction();
+    }
+
+    @Test
+    public void testJoinedConnectionIgnoresTransactionControl() throws Exception {
+        List<String> calls = new ArrayList<>();
+        Connection raw = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    calls.add(method.getName());
+                    return method.getName().equals("isClosed") ? Boolean.FALSE : null;
+                });
+        Connection joined = DatabaseManager.joined(raw);
+        joined.setAutoCommit(false);
+        joined.commit();
+        joined.rollback();
+        joined.close();
+        assertFalse(joined.getAutoCommit());
+        assertTrue(calls.isEmpty());
+        joined.setSavepoint();
+        joined.rollback(null);
+        joined.isClosed();
+        assertEquals(3, calls.size());
+        assertEquals("setSavepoint", calls.get(0));
+        assertEquals("rollback", calls.get(1));
+    }
 }
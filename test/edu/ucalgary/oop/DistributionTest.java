@@ -0,0 +1,75 @@
+package edu.ucalgary.oop;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DistributionTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 4, 5, 12, 0);
+
+    private static List<DatabaseAccess.AllocationRow> stock(int count) {
+        List<DatabaseAccess.AllocationRow> rows = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            rows.add(new DatabaseAccess.AllocationRow(100 + i, null, 1, T0.minusDays(count - i)));
+        }
+        return rows;
+    }
+
+    private static Map<Integer, Integer> occupants(int... idAndHeld) {
+        Map<Integer, Integer> m = new LinkedHashMap<>();
+        for (int i = 0; i < idAndHeld.length; i += 2) {
+            m.put(idAndHeld[i], idAndHeld[i + 1]);
+        }
+        return m;
+    }
+
+    private static List<Integer> recipients(List<DatabaseAccess.AllocationRow> plan) {
+        List<Integer> out = new ArrayList<>();
+        for (DatabaseAccess.AllocationRow a : plan) {
+            out.add(a.getPersonId());
+        }
+        return out;
+    }
+
+    @Test
+    public void testFewestHeldGoFirst() {
+        List<DatabaseAccess.AllocationRow> plan = Distribution.plan(stock(5), occupants(1, 2, 2, 0, 3, 1), 0, T0);
+        assertEquals(Arrays.asList(2, 2, 3, 1, 2), recipients(plan));
+        assertEquals(101, plan.get(0).getSupplyId());
+        assertEquals(T0, plan.get(0).getAllocationDate());
+        assertNull(plan.get(0).getLocationId());
+    }
+
+    @Test
+    public void testLimitLeavesStock() {
+        List<DatabaseAccess.AllocationRow> plan = Distribution.plan(stock(10), occupants(1, 0, 2, 1, 3, 2), 2, T0);
+        assertEquals(Arrays.asList(1, 1, 2), recipients(plan));
+    }
+
+    @Test
+    public void testNoOccupantsOrStock() {
+        assertTrue(Distribution.plan(stock(3), occupants(), 0, T0).isEmpty());
+        assertTrue(Distribution.plan(stock(0), occupants(1, 0), 0, T0).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeLimit() {
+        Distribution.plan(stock(1), occupants(1, 0), -1, T0);
+    }
+
+    @Test
+    public void testCountsAndRemaining() {
+        List<DatabaseAccess.AllocationRow> plan = Distribution.plan(stock(3), occupants(7, 0, 8, 0), 0, T0);
+        Distribution d = new Distribution(1, "water", 2, 5, plan);
+        assertEquals(2, d.getRemainingStock());
+        assertEquals(Integer.valueOf(2), d.getCountsByPerson().get(7));
+        assertEquals(Integer.valueOf(1), d.getCountsByPerson().get(8));
+        assertEquals("Allocated 3 of 5 water to 2 occupants of location 1; 2 left", d.toString());
+    }
+}
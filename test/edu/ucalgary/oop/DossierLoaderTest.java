@@ -0,0 +1,146 @@
+package edu.ucalgary.oop;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DossierLoaderTest {
+
+    private static Map<String, Object> row(Object... kv) {
+        Map<String, Object> m = new HashMap<>();
+        for (int i = 0; i < kv.length; i += 2) {
+            m.put((String) kv[i], kv[i + 1]);
+        }
+        return m;
+    }
+
+    /**
+     * Builds a Connection whose only query returns the given rows.
+     */
+    static Connection connectionReturning(List<Map<String, Object>> rows) {
+        final int[] cursor = {-1};
+        final boolean[] lastNull = {false};
+        ResultSet rs = (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next": return ++cursor[0] < rows.size();
+                        case "wasNull": return lastNull[0];
+                        case "getInt": {
+                            Object v = rows.get(cursor[0]).get((String) args[0]);
+                            lastNull[0] = v == null;
+                            return v == null ? 0 : v;
+                        }
+                        case "getString":
+                        case "getTimestamp": {
+                            Object v = rows.get(cursor[0]).get((String) args[0]);
+                            lastNull[0] = v == null;
+                            return v;
+                        }
+                        default: return null;
+                    }
+                });
+        PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> "executeQuery".equals(method.getName()) ? rs : null);
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> "prepareStatement".equals(method.getName()) ? ps : null);
+    }
+
+    @Test
+    public void testLoadAssemblesAggregate() throws Exception {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        rows.add(row("kind", 0, "id", 7, "ref1", 2, "t1", "Ann", "t2", "Lee", "t3", "555",
+                "t4", "Woman", "t5", "1990-05-06"));
+        rows.add(row("kind", 1, "id", 11, "ref1", 1, "t1", "Bandage", "t2", "TELUS", "t3", "1 Main",
+                "ts", Timestamp.valueOf("2025-02-03 00:00:00")));
+        rows.add(row("kind", 2, "id", 21, "t1", "water", "t2", null));
+        rows.add(row("kind", 3, "id", 31, "ref1", 8, "ref2", 7, "t1", "Looking", "t2", "Bo", "t3", "Chan",
+                "t4", "Ann", "t5", "Lee", "ts", Timestamp.valueOf("2025-02-04 00:00:00")));
+
+        DossierLoader.Dossier d = DossierLoader.load(connectionReturning(rows), 7);
+
+        assertNotNull(d);
+        assertEquals("Lee", d.getPerson().getLastName());
+        assertEquals("Woman", d.getPerson().getGender());
+        assertEquals(Integer.valueOf(2), d.getPerson().getFamilyGroup());
+        assertEquals("1990-05-06", d.getPerson().getDateOfBirth());
+        assertEquals(LocalDateTime.of(2025, 2, 3, 0, 0), d.getMedicalRecords().get(0).getDateOfTreatment());
+        assertEquals("water", d.getSupplies().get(0).getType());
+        assertNull(d.getSupplies().get(0).getComments());
+        DatabaseAccess.InquiryRow iq = d.getInquiries().get(0);
+        assertEquals(8, iq.getInquirerId());
+        assertEquals(7, iq.getSeekingId());
+        assertNull(iq.getLocationId());
+    }
+
+    @Test
+    public void testLoadKeepsMissingValues() throws Exception {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        rows.add(row("kind", 0, "id", 7, "t1", "Ann"));
+        rows.add(row("kind", 1, "id", 11, "ref1", 1));
+
+        DossierLoader.Dossier d = DossierLoader.load(connectionReturning(rows), 7);
+
+        assertNull(d.getPerson().getLastName());
+        assertNull(d.getPerson().getPhone());
+        assertNull(d.getPerson().getFamilyGroup());
+        assertNull(d.getMedicalRecords().get(0).getTreatmentDetails());
+        assertNull(d.getMedicalRecords().get(0).getDateOfTreatment());
+    }
+
+    @Test
+    public void testPrintUsesRowTemplates() throws Exception {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        rows.add(row("kind", 0, "id", 7, "t1", "Ann", "t4", "Woman"));
+        rows.add(row("kind", 1, "id", 11, "ref1", 1, "t1", "Bandage",
+                "ts", Timestamp.valueOf("2025-02-03 00:00:00")));
+        rows.add(row("kind", 3, "id", 31, "ref1", 8, "ref2", 7, "ref3", 2, "t1", "Looking",
+                "ts", Timestamp.valueOf("2025-02-04 10:30:00")));
+        DossierLoader.Dossier d = DossierLoader.load(connectionReturning(rows), 7);
+
+        LanguageManager saved = LanguageManager.getDefault();
+        LanguageManager en = new LanguageManager();
+        en.loadLocale("en-CA");
+        LanguageManager.setDefault(en);
+        PrintStream out = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured, true, "UTF-8"));
+        try {
+            DossierLoader.print(d);
+        } finally {
+            System.setOut(out);
+            LanguageManager.setDefault(saved);
+        }
+        String text = captured.toString("UTF-8");
+        assertTrue(text.contains("ID=7, Name=Ann null, Phone=null, Gender=Woman, FamilyGroup=0\n"));
+        assertTrue(text.contains("RecordID=11, Location=1, Date=2025-02-03 00:00:00.0, Details=Bandage\n"));
+        assertTrue(text.contains("= SUPPLIES ALLOCATED =\n(None)"));
+        assertTrue(text.contains("InquiryID=31 => inquirer=8, missing=7, location=2, "
+                + "date=2025-02-04 10:30:00.0, comments=Looking\n"));
+    }
+
+    @Test
+    public void testLoadMissingPersonReturnsNull() throws Exception {
+        assertNull(DossierLoader.load(connectionReturning(new ArrayList<>()), 99));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLoadNotConnected() throws Exception {
+        DatabaseManager.resetInstance();
+        DossierLoader.load(1);
+    }
+}
@@ -0,0 +1,132 @@
+package edu.ucalgary.oop;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+public class ErrorDeduplicatorTest {
+
+    private static Exception failHere(String message) {
+        try {
+            throw new IllegalStateException(message);
+        } catch (IllegalStateException e) {
+            return e;
+        }
+    }
+
+    private static Exception[] repeated(int n) {
+        Exception[] out = new Exception[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = failHere("attempt " + i);
+        }
+        return out;
+    }
+
+    private static Exception failElsewhere() {
+        try {
+            throw new IllegalStateException("other");
+        } catch (IllegalStateException e) {
+            return e;
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsZeroWindow() {
+        new ErrorDeduplicator(0, 5, 1);
+    }
+
+    @Test
+    public void testFingerprintStableAcrossMessages() {
+        ErrorDeduplicator dd = new ErrorDeduplicator();
+        Exception[] same = repeated(2);
+        String a = dd.fingerprint(same[0]);
+        String b = dd.fingerprint(same[1]);
+        assertEquals(a, b);
+        assertEquals(16, a.length());
+    }
+
+    @Test
+    public void testFingerprintDiffersBySite() {
+        ErrorDeduplicator dd = new ErrorDeduplicator();
+        assertFalse(dd.fingerprint(failHere("x")).equals(dd.fingerprint(failElsewhere())));
+    }
+
+    @Test
+    public void testFingerprintIncludesRootCause() {
+        ErrorDeduplicator dd = new ErrorDeduplicator();
+        Exception plain = failHere("x");
+        Exception wrapped = failHere("x");
+        wrapped.initCause(new java.sql.SQLException("boom"));
+        assertFalse(dd.fingerprint(plain).equals(dd.fingerprint(wrapped)));
+    }
+
+    @Test
+    public void testRateLimitsWithinWindow() {
+        ErrorDeduplicator dd = new ErrorDeduplicator(1000, 5, 1);
+        Exception[] same = repeated(3);
+        assertTrue(dd.record(same[0], 0).isWriteFull());
+        assertFalse(dd.record(same[1], 10).isWriteFull());
+        assertFalse(dd.record(same[2], 20).isWriteFull());
+        assertEquals(2, dd.getSuppressedCount());
+        assertEquals(1, dd.getTrackedCount());
+    }
+
+    @Test
+    public void testNewWindowCarriesSuppressedCount() {
+        ErrorDeduplicator dd = new ErrorDeduplicator(1000, 5, 1);
+        Exception[] same = repeated(4);
+        dd.record(same[0], 0);
+        dd.record(same[1], 10);
+        dd.record(same[2], 20);
+        ErrorDeduplicator.Decision d = dd.record(same[3], 1500);
+        assertTrue(d.isWriteFull());
+        assertEquals(2, d.getSuppressedBefore());
+    }
+
+    @Test
+    public void testSweepSummarizesEndedWindows() {
+        ErrorDeduplicator dd = new ErrorDeduplicator(1000, 5, 1);
+        Exception[] same = repeated(2);
+        dd.record(same[0], 0);
+        dd.record(same[1], 10);
+        dd.record(failElsewhere(), 0);
+        List<ErrorDeduplicator.Summary> lines = dd.sweep(5000, false);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).getLine().contains("IllegalStateException seen 1 more time "));
+        assertEquals(dd.fingerprint(same[0]), lines.get(0).getFingerprint());
+        assertEquals("java.lang.IllegalStateException", lines.get(0).getExceptionClass());
+        assertEquals(0, dd.getTrackedCount());
+    }
+
+    @Test
+    public void testForcedSweepEndsOpenWindows() {
+        ErrorDeduplicator dd = new ErrorDeduplicator(60_000, 5, 1);
+        Exception[] same = repeated(2);
+        dd.record(same[0], 0);
+        dd.record(same[1], 1);
+        assertTrue(dd.sweep(2, false).isEmpty());
+        assertEquals(1, dd.sweep(3, true).size());
+    }
+
+    @Test
+    public void testLoggerWritesOneTraceAndSummary() throws Exception {
+        File f = File.createTempFile("dedup", ".txt");
+        f.deleteOnExit();
+        ErrorLogger logger = new ErrorLogger(f.getPath());
+        logger.setDeduplicator(new ErrorDeduplicator());
+        Exception[] same = repeated(5);
+        for (int i = 0; i < same.length; i++) {
+            logger.logError("failed " + i, same[i]);
+        }
+        logger.close();
+        String text = new String(Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8);
+        assertTrue(text.contains("failed 0 #"));
+        assertFalse(text.contains("failed 1"));
+        assertTrue(text.contains("IllegalStateException seen 4 more times"));
+        assertEquals(1, text.split("at edu.ucalgary.oop.ErrorDeduplicatorTest.failHere", -1).length - 1);
+    }
+}
@@ -0,0 +1,200 @@
+package edu.ucalgary.oop;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ErrorLogIndexTest {
+    private Path dir;
+    private Path log;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("errorlogindex");
+        log = dir.resolve("errorlog.jsonl");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private static String line(String ts, String exception, String fp) {
+        return "{\"ts\":\"" + ts + "\",\"severity\":\"ERROR\",\"operation\":\"op at " + ts + "\","
+                + "\"exception\":" + (exception == null ? "null" : "\"" + exception + "\"") + ","
+                + "\"fingerprint\":" + (fp == null ? "null" : "\"" + fp + "\"") + ",\"trace\":null}\n";
+    }
+
+    private void append(String text) throws Exception {
+        Files.write(log, text.getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Test
+    public void testParseUnescapes() {
+        ErrorLogIndex.Record r = ErrorLogIndex.parse("{\"ts\":\"2025-04-05T14:00:00.000\",\"severity\":\"ERROR\","
+                + "\"operation\":\"say \\\"hi\\\"\\n\",\"exception\":null,\"fingerprint\":null,\"trace\":\"a\\tb\"}");
+        assertEquals("say \"hi\"\n", r.getOperation());
+        assertEquals("a\tb", r.getTrace());
+        assertNull(r.getExceptionClass());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseRejectsGarbage() {
+        ErrorLogIndex.parse("[2025-04-05 14:00:00] not json");
+    }
+
+    @Test
+    public void testQueryByTimeAndException() throws Exception {
+        append(line("2025-04-05T13:59:59.999", "java.sql.SQLException", "aa"));
+        append(line("2025-04-05T14:10:00.000", "java.sql.SQLException", "aa"));
+        append(line("2025-04-05T14:20:00.000", "java.lang.IllegalStateException", "bb"));
+        append(line("2025-04-05T14:59:00.000", "java.sql.SQLException", "cc"));
+        append(line("2025-04-05T15:00:00.000", "java.sql.SQLException", "aa"));
+        ErrorLogIndex index = ErrorLogIndex.open(log);
+        assertEquals(5, index.size());
+        List<ErrorLogIndex.Record> hits = index.query(LocalDateTime.parse("2025-04-05T14:00"),
+                LocalDateTime.parse("2025-04-05T15:00"), "SQLException");
+        assertEquals(2, hits.size());
+        assertEquals("cc", hits.get(1).getFingerprint());
+        assertEquals(4, index.query(LocalDateTime.parse("2025-04-05T14:00"), null, null).size());
+        assertEquals(3, index.findByFingerprint("#aa").size());
+        assertTrue(index.findByFingerprint("zz").isEmpty());
+    }
+
+    @Test
+    public void testOutOfOrderRecordsAreSorted() throws Exception {
+        append(line("2025-04-05T14:30:00.000", "X", null));
+        append(line("2025-04-05T14:10:00.000", "X", null));
+        List<ErrorLogIndex.Record> all = ErrorLogIndex.open(log).query(null, null, null);
+        assertTrue(all.get(0).getTime().isBefore(all.get(1).getTime()));
+    }
+
+    @Test
+    public void testSidecarCatchesUpWithAppends() throws Exception {
+        append(line("2025-04-05T14:00:00.000", "X", null));
+        ErrorLogIndex first = ErrorLogIndex.open(log);
+        assertTrue(Files.exists(ErrorLogIndex.sidecarFor(log)));
+        long covered = first.getIndexedLength();
+        append(line("2025-04-05T14:01:00.000", "X", null));
+        ErrorLogIndex second = ErrorLogIndex.open(log);
+        assertEquals(2, second.size());
+        assertTrue(second.getIndexedLength() > covered);
+    }
+
+    @Test
+    public void testPartialTrailingLineWaits() throws Exception {
+        append(line("2025-04-05T14:00:00.000", "X", null));
+        append("{\"ts\":\"2025-04-05T14:01");
+        ErrorLogIndex index = ErrorLogIndex.open(log);
+        assertEquals(1, index.size());
+        append(":00.000\",\"exception\":null}\n");
+        index.refresh();
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testRotatedLogIsReindexed() throws Exception {
+        append(line("2025-04-05T14:00:00.000", "X", null));
+        append(line("2025-04-05T14:01:00.000", "X", null));
+        ErrorLogIndex.open(log);
+        Files.delete(log);
+        append(line("2025-04-06T09:00:00.000", "Y", null));
+        append(line("2025-04-06T09:00:01.000", "Y", null));
+        append(line("2025-04-06T09:00:02.000", "Y", null));
+        ErrorLogIndex index = ErrorLogIndex.open(log);
+        assertEquals(3, index.size());
+        assertEquals(3, index.query(null, null, "Y").size());
+        assertTrue(index.query(null, null, "X").isEmpty());
+    }
+
+    @Test
+    public void testIndexesLoggerOutput() throws Exception {
+        ErrorLogger logger = new ErrorLogger(log.toString());
+        logger.setFormat(ErrorLogger.Format.JSON_LINES);
+        logger.logError("Failed to query \"victims\"", new SQLException("connection reset"));
+        logger.logError("Failed to parse", new IllegalArgumentException("bad"));
+        ErrorLogIndex index = ErrorLogIndex.open(log);
+        assertEquals(2, index.size());
+        List<ErrorLogIndex.Record> sql = index.query(null, null, "SQLException");
+        assertEquals(1, sql.size());
+        ErrorLogIndex.Record r = sql.get(0);
+        assertEquals("Failed to query \"victims\"", r.getOperation());
+        assertEquals("ERROR", r.getSeverity());
+        assertEquals(16, r.getFingerprint().length());
+        assertTrue(r.getTrace().contains("connection reset"));
+        assertEquals(1, index.findByFingerprint(r.getFingerprint()).size());
+    }
+
+    @Test
+    public void testFindsDedupSummaries() throws Exception {
+        ErrorLogger logger = new ErrorLogger(log.toString());
+        logger.setFormat(ErrorLogger.Format.JSON_LINES);
+        logger.setDeduplicator(new ErrorDeduplicator());
+        for (int i = 0; i < 3; i++) {
+            logger.logError("Failed " + i, new SQLException("connection reset"));
+        }
+        logger.close();
+        ErrorLogIndex index = ErrorLogIndex.open(log);
+        assertEquals(2, index.size());
+        String fp = index.query(null, null, null).get(0).getFingerprint();
+        List<ErrorLogIndex.Record> same = index.findByFingerprint(fp);
+        assertEquals(2, same.size());
+        ErrorLogIndex.Record summary = same.get(1);
+        assertEquals("WARN", summary.getSeverity());
+        assertTrue(summary.getOperation().contains("SQLException seen 2 more times"));
+        assertEquals("java.sql.SQLException", summary.getExceptionClass());
+        assertEquals(2, index.query(null, null, "SQLException").size());
+    }
+
+    @Test
+    public void testMainPrintsUsageForMissingValue() throws Exception {
+        append(line("2025-04-05T14:00:00.000", "java.sql.SQLException", "00000000000000aa"));
+        String out = runMain(log.toString(), "--trace", "--exception");
+        assertTrue(out.contains("Missing value for --exception"));
+        assertTrue(out.contains("Usage: ErrorLogIndex"));
+    }
+
+    private String runMain(String... args) throws Exception {
+        PrintStream saved = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured, true, "UTF-8"));
+        try {
+            ErrorLogIndex.main(args);
+        } finally {
+            System.setOut(saved);
+        }
+        return captured.toString("UTF-8");
+    }
+
+    @Test
+    public void testMainPrintsUsageForBadTime() throws Exception {
+        append(line("2025-04-05T14:00:00.000", "java.sql.SQLException", "00000000000000aa"));
+        String out = runMain(log.toString(), "--from", "yesterday");
+        assertTrue(out.contains("Invalid time for --from: yesterday"));
+        assertTrue(out.contains("Usage: ErrorLogIndex"));
+    }
+
+    @Test
+    public void testMainPrintsUsageForUnknownOption() throws Exception {
+        append(line("2025-04-05T14:00:00.000", "java.sql.SQLException", "00000000000000aa"));
+        String out = runMain(log.toString(), "--severity", "WARN");
+        assertTrue(out.contains("Unknown option: --severity"));
+        assertTrue(out.contains("Usage: ErrorLogIndex"));
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.Test;
 import static org.junit.Assert.*;
 
 import java.io.File;
+import java.nio.file.Files;
 
 public class ErrorLoggerTest {
 
@@ -46,4 +47,172 @@ public class ErrorLoggerTest {
         assertTrue(f.exists());
         f.delete();
     }
+
+    private static String read(File f) throws Exception {
+        return new String(Files.readAllBytes(f.toPath()));
+    }
+
+    @Test
+    public void testSyncLoggerIsNotAsync() {
+        ErrorLogger logger = new ErrorLogger("unused.txt");
+        assertFalse(logger.isAsync());
+        assertNull(logger.getOverflowPolicy());
+        assertTrue(logger.flush(10));
+        logger.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAsyncNullPolicy() {
+        new ErrorLogger("unused.txt", 16, null);
+    }
+
+    @Test
+    public void testAsyncWritesAfterFlush() throws Exception {
+        File f = new File("test_errorlog_async.txt");
+        f.delete();
+        ErrorLogger logger = new ErrorLogger(f.getPath(), 64, ErrorLogger.OverflowPolicy.BLOCK);
+        for (int i = 0; i < 10; i++) {
+            logger.logError("Async message " + i, new RuntimeException("E" + i));
+        }
+        assertTrue(logger.flush(5000));
+        logger.close();
+        String text = read(f);
+        assertTrue(text.contains("Async message 0"));
+        assertTrue(text.contains("Async message 9"));
+        assertEquals(10, logger.getWrittenCount());
+        assertEquals(0, logger.getDroppedCount());
+        f.delete();
+    }
+
+    @Test
+    public void testAsyncBlockKeepsEverything() throws Exception {
+        File f = new File("test_errorlog_block.txt");
+        f.delete();
+        ErrorLogger logger = new ErrorLogger(f.getPath(), 2, ErrorLogger.OverflowPolicy.BLOCK);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int id = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 25; i++) {
+                    logger.logError("T" + id + "-" + i, new Exception("x"));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        logger.close();
+        assertEquals(100, logger.getWrittenCount());
+        assertEquals(0, logger.getDroppedCount());
+        f.delete();
+    }
+
+    @Test
+    public void testCloseWritesSynchronouslyAfterwards() throws Exception {
+        File f = new File("test_errorlog_closed.txt");
+        f.delete();
+        ErrorLogger logger = new ErrorLogger(f.getPath(), 8, ErrorLogger.OverflowPolicy.COUNT_AND_DROP);
+        logger.close();
+        logger.logError("After close", new Exception("late"));
+        assertTrue(read(f).contains("After close"));
+        f.delete();
+    }
+
+    @Test
+    public void testLoggingWhileClosingWritesEachErrorOnce() throws Exception {
+        File f = new File("test_errorlog_closing.txt");
+        f.delete();
+        ErrorLogger logger = new ErrorLogger(f.getPath(), 4, ErrorLogger.OverflowPolicy.BLOCK);
+        logger.logError("Start", new Exception("first"));
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int id = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 50; i++) {
+                    logger.logError("T" + id + "-" + i + ";", new Exception("x"));
+                }
+            });
+            threads[t].start();
+        }
+        logger.close();
+        for (Thread t : threads) {
+            t.join();
+        }
+        String text = read(f);
+        for (int t = 0; t < threads.length; t++) {
+            for (int i = 0; i < 50; i++) {
+                String msg = "T" + t + "-" + i + ";";
+                assertEquals(msg, text.indexOf(msg), text.lastIndexOf(msg));
+                assertTrue(msg, text.contains(msg));
+            }
+        }
+        assertEquals(0, logger.getPendingCount());
+        f.delete();
+    }
+
+    @Test
+    public void testUnwritableBatchCountsAsDropped() {
+        ErrorLogger logger = new ErrorLogger("no_such_dir/errorlog.txt", 8, ErrorLogger.OverflowPolicy.BLOCK);
+        logger.logError("Lost", new Exception("nowhere"));
+        assertTrue(logger.flush(5000));
+        assertEquals(1, logger.getDroppedCount());
+        assertEquals(0, logger.getWrittenCount());
+        logger.close();
+    }
+
+    @Test
+    public void testPolicyAccessors() {
+        ErrorLogger logger = new ErrorLogger("unused.txt", 8, ErrorLogger.OverflowPolicy.DROP_OLDEST);
+        assertTrue(logger.isAsync());
+        assertEquals(ErrorLogger.OverflowPolicy.DROP_OLDEST, logger.getOverflowPolicy());
+        assertEquals(0, logger.getPendingCount());
+        logger.close();
+    }
+
+    @Test
+    public void testDefaultFormatIsText() {
+        assertEquals(ErrorLogger.Format.TEXT, new ErrorLogger("unused.txt").getFormat());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullFormatRejected() {
+        new ErrorLogger("unused.txt").setFormat(null);
+    }
+
+    @Test
+    public void testJsonLinesOneRecordPerLine() throws Exception {
+        File f = new File("test_errorlog_json.jsonl");
+        f.delete();
+        ErrorLogger logger = new ErrorLogger(f.getPath(), 8, ErrorLogger.OverflowPolicy.BLOCK);
+        logger.setFormat(ErrorLogger.Format.JSON_LINES);
+        logger.logError("First\nline", new Exception("one"));
+        logger.logError("Second", new RuntimeException("two"));
+        logger.close();
+        String[] lines = read(f).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"ts\":\""));
+        assertTrue(lines[0].contains("\"operation\":\"First\\nline\""));
+        assertTrue(lines[1].contains("\"exception\":\"java.lang.RuntimeException\""));
+        f.delete();
+    }
+
+    @Test
+    public void testFormatPropertySelectsJsonLines() {
+        String saved = System.getProperty(ErrorLogger.FORMAT_PROPERTY);
+        try {
+            System.clearProperty(ErrorLogger.FORMAT_PROPERTY);
+            assertEquals(ErrorLogger.Format.TEXT, ErrorLogger.configuredFormat());
+            System.setProperty(ErrorLogger.FORMAT_PROPERTY, "JSON");
+            assertEquals(ErrorLogger.Format.JSON_LINES, ErrorLogger.configuredFormat());
+            System.setProperty(ErrorLogger.FORMAT_PROPERTY, "xml");
+            assertEquals(ErrorLogger.Format.TEXT, ErrorLogger.configuredFormat());
+        } finally {
+            if (saved == null) {
+                System.clearProperty(ErrorLogger.FORMAT_PROPERTY);
+            } else {
+                System.setProperty(ErrorLogger.FORMAT_PROPERTY, saved);
+            }
+        }
+    }
 }
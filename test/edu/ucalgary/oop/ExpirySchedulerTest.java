@@ -0,0 +1,183 @@
+package edu.ucalgary.oop;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+public class ExpirySchedulerTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 4, 5, 12, 0);
+
+    private InMemoryDatabaseAccess db;
+    private int personId;
+    private int locationId;
+    private ExpiryScheduler scheduler;
+
+    @Before
+    public void setUp() throws Exception {
+        db = new InMemoryDatabaseAccess();
+        DatabaseManager.getInstance().setAccess(db);
+        personId = db.insertPerson(new DatabaseAccess.PersonRow(0, "Ana", "Doe", null, null, null, null, null));
+        locationId = db.insertLocation(new DatabaseAccess.LocationRow(0, "Shelter A", "1 Main St"));
+        scheduler = new ExpiryScheduler(1000, 60_000, 2);
+        scheduler.register(LifecyclePolicy.ttl("water", Duration.ofDays(1)));
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.close();
+        DatabaseManager.getInstance().setAccess(new PostgresDatabaseAccess());
+    }
+
+    private int allocate(String type, LocalDateTime at) throws Exception {
+        int supplyId = db.insertSupply(new DatabaseAccess.SupplyRow(0, type, null));
+        db.allocateToPerson(supplyId, personId, at);
+        return supplyId;
+    }
+
+    private int stock(String type, LocalDateTime at) throws Exception {
+        int supplyId = db.insertSupply(new DatabaseAccess.SupplyRow(0, type, null));
+        db.allocateToLocation(supplyId, locationId, at);
+        return supplyId;
+    }
+
+    @Test
+    public void testFirstTickRemovesOverdueInBatches() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            allocate("water", T0.minusDays(2).plusMinutes(i));
+        }
+        allocate("water", T0.minusHours(1));
+        allocate("blanket", T0.minusDays(3));
+        assertEquals(5, scheduler.tick(T0));
+        assertEquals(1, scheduler.getPendingCount());
+        assertEquals(2, db.findAllocationsForPerson(personId).size());
+    }
+
+    @Test
+    public void testExpiresAtDeadline() throws Exception {
+        allocate("water", T0);
+        assertEquals(0, scheduler.tick(T0));
+        assertEquals(1, scheduler.getPendingCount());
+        assertEquals(0, scheduler.tick(T0.plusDays(1).minusSeconds(1)));
+        assertEquals(1, scheduler.tick(T0.plusDays(1)));
+        assertEquals(0, scheduler.getPendingCount());
+        assertEquals(1, scheduler.getExpiredCount());
+        assertTrue(db.findAllocationsForPerson(personId).isEmpty());
+    }
+
+    @Test
+    public void testPollPicksUpNewAllocations() throws Exception {
+        scheduler.tick(T0);
+        allocate("water", T0.plusSeconds(10));
+        scheduler.tick(T0.plusSeconds(30));
+        assertEquals(0, scheduler.getPendingCount());
+        scheduler.tick(T0.plusMinutes(1));
+        assertEquals(1, scheduler.getPendingCount());
+        scheduler.tick(T0.plusMinutes(2));
+        assertEquals(1, scheduler.getPendingCount());
+        assertEquals(1, scheduler.tick(T0.plusDays(1).plusSeconds(10)));
+    }
+
+    @Test
+    public void testAllocationRemovedElsewhereIsSkipped() throws Exception {
+        allocate("water", T0);
+        scheduler.tick(T0);
+        db.removeExpiredAllocations("water", T0.plusSeconds(1));
+        assertEquals(0, scheduler.tick(T0.plusDays(1)));
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    @Test
+    public void testTypesShareOneSchedule() throws Exception {
+        scheduler.register(LifecyclePolicy.rotation("food", Duration.ofDays(3)));
+        allocate("water", T0);
+        stock("water", T0);
+        stock("food", T0);
+        allocate("food", T0);
+        scheduler.tick(T0);
+        assertEquals(1, scheduler.getPendingCount("water"));
+        assertEquals(1, scheduler.getPendingCount("food"));
+        assertEquals(0, scheduler.getPendingCount("blanket"));
+        assertEquals(2, scheduler.getPendingCount());
+        assertEquals(1, scheduler.tick(T0.plusDays(1)));
+        assertEquals(1, scheduler.tick(T0.plusDays(3)));
+        assertEquals(1, db.findAllocationsForPerson(personId).size());
+        assertEquals(1, db.findAllocationsForLocation(locationId).size());
+    }
+
+    @Test
+    public void testRecallRebuildsSchedule() throws Exception {
+        scheduler.register(LifecyclePolicy.rotation("food", Duration.ofDays(30)));
+        allocate("water", T0.minusHours(2));
+        stock("food", T0.minusDays(2));
+        stock("food", T0.plusHours(1));
+        scheduler.tick(T0);
+        assertEquals(0, scheduler.tick(T0.plusHours(1)));
+        scheduler.recall("food", T0);
+        scheduler.recall("water", T0);
+        assertEquals(2, scheduler.tick(T0.plusHours(2)));
+        assertEquals(1, scheduler.getPendingCount("food"));
+        assertEquals(1, db.findAllocationsForLocation(locationId).size());
+        assertTrue(db.findAllocationsForPerson(personId).isEmpty());
+    }
+
+    @Test
+    public void testLoadPolicies() throws Exception {
+        File file = File.createTempFile("lifecycle", ".txt");
+        file.deleteOnExit();
+        try (FileWriter w = new FileWriter(file)) {
+            w.write("# type rules\n\nfood rotate=30d\n\"medical kit\" recall=2025-03-01\nblanket nap=1d\n");
+        }
+        assertEquals(2, scheduler.loadPolicies(file));
+        assertNotNull(scheduler.getPolicy("food"));
+        assertNotNull(scheduler.getPolicy("medical kit"));
+        assertNotNull(scheduler.getPolicy("water"));
+        assertNull(scheduler.getPolicy("blanket"));
+    }
+
+    @Test
+    public void testPolicyProblemsGoToErrorLog() throws Exception {
+        File file = File.createTempFile("lifecycle", ".txt");
+        file.deleteOnExit();
+        try (FileWriter w = new FileWriter(file)) {
+            w.write("blanket nap=1d\n");
+        }
+        File log = File.createTempFile("expiry-errors", ".txt");
+        log.deleteOnExit();
+        assertEquals(0, scheduler.loadPolicies(file));
+        assertEquals(0, log.length());
+        scheduler.setErrorLogger(new ErrorLogger(log.getPath()));
+        String text = new String(Files.readAllBytes(log.toPath()));
+        assertTrue(text.contains(file.getName() + " line 1 skipped"));
+        assertTrue(text.contains("Unknown rule: nap"));
+    }
+
+    @Test
+    public void testSharedInstanceExpiresWater() {
+        assertSame(Water.LIFECYCLE, ExpiryScheduler.getInstance().getPolicy("water"));
+        assertNotNull(new Water(1).getLifecyclePolicy());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchSizeMustBePositive() {
+        new ExpiryScheduler(1000, 60_000, 0);
+    }
+
+    @Test
+    public void testTickUpdatesInventoryIndex() throws Exception {
+        allocate("water", T0.minusDays(2));
+        allocate("water", T0.minusHours(1));
+        InventoryIndex index = InventoryIndex.getInstance();
+        index.rebuild();
+        assertEquals(2L, index.getPersonCount(personId, "water"));
+        assertEquals(1, scheduler.tick(T0));
+        assertEquals(1L, index.getPersonCount(personId, "water"));
+        assertEquals(1L, index.getPersonCount(personId, null));
+    }
+}
@@ -0,0 +1,410 @@
+package edu.ucalgary.oop;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class InMemoryDatabaseAccessTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 4, 5, 12, 0);
+
+    private InMemoryDatabaseAccess db;
+    private int personId;
+    private int locationId;
+
+    @Before
+    public void setUp() throws Exception {
+        db = new InMemoryDatabaseAccess();
+        personId = db.insertPerson(person("Ana"));
+        locationId = db.insertLocation(new DatabaseAccess.LocationRow(0, "Shelter A", "1 Main St"));
+    }
+
+    @After
+    public void restoreAccess() {
+        DatabaseManager.getInstance().setAccess(new PostgresDatabaseAccess());
+    }
+
+    private static DatabaseAccess.PersonRow person(String first) {
+        return new DatabaseAccess.PersonRow(0, first, "Doe", "1990-01-01", "Woman", null, "555-0000", null);
+    }
+
+    @Test
+    public void testInsertAndFindPerson() {
+        DatabaseAccess.PersonRow row = db.findPerson(personId);
+        assertNotNull(row);
+        assertEquals(personId, row.getId());
+        assertEquals("Ana", row.getFirstName());
+        assertNull(db.findPerson(999));
+    }
+
+    @Test
+    public void testUpdatePerson() {
+        DatabaseAccess.PersonRow changed =
+                new DatabaseAccess.PersonRow(personId, "Ana", "Smith", null, null, null, null, 4);
+        assertTrue(db.updatePerson(changed));
+        assertEquals("Smith", db.findPerson(personId).getLastName());
+        assertEquals(Integer.valueOf(4), db.findPerson(personId).getFamilyGroup());
+        assertFalse(db.updatePerson(changed.withId(999)));
+    }
+
+    @Test
+    public void testListPersonsKeyset() {
+        int second = db.insertPerson(person("Ben"));
+        int third = db.insertPerson(person("Cy"));
+        List<DatabaseAccess.PersonRow> page = db.listPersons(0, 2);
+        assertEquals(2, page.size());
+        assertEquals(personId, page.get(0).getId());
+        assertEquals(second, page.get(1).getId());
+        List<DatabaseAccess.PersonRow> next = db.listPersons(second, 2);
+        assertEquals(1, next.size());
+        assertEquals(third, next.get(0).getId());
+    }
+
+    @Test
+    public void testReassignMovesPerson() throws Exception {
+        int other = db.insertLocation(new DatabaseAccess.LocationRow(0, "Shelter B", "2 Main St"));
+        db.reassignPersonToLocation(personId, locationId);
+        assertEquals(Collections.singletonList(personId), db.findOccupantIds(locationId));
+        db.reassignPersonToLocation(personId, other);
+        assertTrue(db.findOccupantIds(locationId).isEmpty());
+        assertEquals(Collections.singletonList(other), db.findLocationIds(personId));
+    }
+
+    @Test
+    public void testReassignUnknownLocationIsForeignKeyViolation() {
+        try {
+            db.reassignPersonToLocation(personId, 999);
+            fail("Expected SQLException for a missing location");
+        } catch (SQLException e) {
+            assertEquals(DatabaseAccess.FOREIGN_KEY_VIOLATION, e.getSQLState());
+        }
+    }
+
+    @Test
+    public void testAllocateToPersonMovesLocationAllocation() throws Exception {
+        int supplyId = db.insertSupply(new DatabaseAccess.SupplyRow(0, "blanket", null));
+        db.allocateToLocation(supplyId, locationId, T0);
+        assertEquals(1, db.findAllocationsForLocation(locationId).size());
+
+        db.allocateToPerson(supplyId, personId, T0.plusHours(1));
+        assertTrue(db.findAllocationsForLocation(locationId).isEmpty());
+        List<DatabaseAccess.AllocationRow> held = db.findAllocationsForPerson(personId);
+        assertEquals(1, held.size());
+        assertEquals(Integer.valueOf(personId), held.get(0).getPersonId());
+        assertNull(held.get(0).getLocationId());
+        assertEquals(T0.plusHours(1), held.get(0).getAllocationDate());
+    }
+
+    @Test
+    public void testAllocateToPersonAddsWhenNotAtLocation() throws Exception {
+        int supplyId = db.insertSupply(new DatabaseAccess.SupplyRow(0, "water", null));
+        assertNull(db.allocateToPerson(supplyId, personId, T0));
+        assertEquals(1, db.findAllocationsForPerson(personId).size());
+    }
+
+    @Test
+    public void testAllocateToSamePersonAgainIsConflict() throws Exception {
+        int supplyId = db.insertSupply(new DatabaseAccess.SupplyRow(0, "water", null));
+        db.allocateToPerson(supplyId, personId, T0);
+        try {
+            db.allocateToPerson(supplyId, personId, T0.plusMinutes(1));
+            fail("Expected SQLException for a supply the person already holds");
+        } catch (SQLException e) {
+            assertEquals(DatabaseAccess.ALLOCATION_CONFLICT, e.getSQLState());
+        }
+        List<DatabaseAccess.AllocationRow> held = db.findAllocationsForPerson(personId);
+        assertEquals(1, held.size());
+        assertEquals(T0, held.get(0).getAllocationDate());
+    }
+
+    @Test
+    public void testStockingSupplyAlreadyAtLocationIsConflict() throws Exception {
+        int other = db.insertLocation(new DatabaseAccess.LocationRow(0, "Annex", "2 Main St"));
+        int supplyId = db.insertSupply(new DatabaseAccess.SupplyRow(0, "cot", null));
+        db.allocateToLocation(supplyId, locationId, T0);
+        for (int target : new int[]{other, locationId}) {
+            try {
+                db.allocateToLocation(supplyId, target, T0.plusMinutes(1));
+                fail("Expected SQLException for a supply already stocked at a location");
+            } catch (SQLException e) {
+                assertEquals(DatabaseAccess.ALLOCATION_CONFLICT, e.getSQLState());
+            }
+        }
+        assertTrue(db.findAllocationsForLocation(other).isEmpty());
+        assertEquals(1, db.findAllocationsForLocation(locationId).size());
+    }
+
+    @Test
+    public void testAllocateHeldSupplyToOtherPersonIsConflict() throws Exception {
+        int other = db.insertPerson(person("Bea"));
+        int supplyId = db.insertSupply(new DatabaseAccess.SupplyRow(0, "blanket", null));
+        db.allocateToPerson(supplyId, personId, T0);
+        try {
+            db.allocateToPerson(supplyId, other, T0.plusMinutes(1));
+            fail("Expected SQLException for a supply held by another person");
+        } catch (SQLException e) {
+            assertEquals(DatabaseAccess.ALLOCATION_CONFLICT, e.getSQLState());
+        }
+        try {
+            db.allocateToLocation(supplyId, locationId, T0.plusMinutes(1));
+            fail("Expected SQLException for stocking a supply a person holds");
+        } catch (SQLException e) {
+            assertEquals(DatabaseAccess.ALLOCATION_CONFLICT, e.getSQLState());
+        }
+        assertTrue(db.findAllocationsForPerson(other).isEmpty());
+        assertTrue(db.findAllocationsForLocation(locationId).isEmpty());
+    }
+
+    @Test
+    public void testConcurrentAllocationsOfOneSupplyHaveOneWinner() throws Exception {
+        int supplyId = db.insertSupply(new DatabaseAccess.SupplyRow(0, "cot", null));
+        db.allocateToLocation(supplyId, locationId, T0);
+        int sessions = 64;
+        int[] personIds = new int[sessions];
+        for (int i = 0; i < sessions; i++) {
+            personIds[i] = db.insertPerson(person("P" + i));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(sessions);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            int pid = personIds[i];
+            LocalDateTime at = T0.plusSeconds(i + 1);
+            results.add(pool.submit(() -> {
+                try {
+                    db.allocateToPerson(supplyId, pid, at);
+                    return "ok";
+                } catch (SQLException e) {
+                    return e.getSQLState();
+                }
+            }));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        int won = 0;
+        for (Future<String> r : results) {
+            if (r.get().equals("ok")) {
+                won++;
+            } else {
+                assertEquals(DatabaseAccess.ALLOCATION_CONFLICT, r.get());
+            }
+        }
+        assertEquals(1, won);
+        assertTrue(db.findAllocationsForLocation(locationId).isEmpty());
+        int holders = 0;
+        for (int pid : personIds) {
+            holders += db.findAllocationsForPerson(pid).size();
+        }
+        assertEquals(1, holders);
+    }
+
+    @Test
+    public void testAllocateToOccupantsIsFairShare() throws Exception {
+        int bea = db.insertPerson(person("Bea"));
+        int cy = db.insertPerson(person("Cy"));
+        for (int pid : new int[]{personId, bea, cy}) {
+            db.reassignPersonToLocation(pid, locationId);
+        }
+        int held = db.insertSupply(new DatabaseAccess.SupplyRow(0, "blanket", null));
+        db.allocateToPerson(held, personId, T0);
+        int cot = db.insertSupply(new DatabaseAccess.SupplyRow(0, "cot", null));
+        db.allocateToLocation(cot, locationId, T0);
+        for (int i = 0; i < 4; i++) {
+            int s = db.insertSupply(new DatabaseAccess.SupplyRow(0, "blanket", null));
+            db.allocateToLocation(s, locationId, T0.plusMinutes(i));
+        }
+        Distribution d = db.allocateToOccupants(locationId, "blanket", 0, T0.plusHours(1));
+        assertEquals(3, d.getOccupantCount());
+        assertEquals(4, d.getStockCount());
+        assertEquals(4, d.getAllocations().size());
+        assertEquals(0, d.getRemainingStock());
+        assertEquals(2, db.findAllocationsForPerson(personId).size());
+        assertEquals(2, db.findAllocationsForPerson(bea).size());
+        assertEquals(1, db.findAllocationsForPerson(cy).size());
+        List<DatabaseAccess.AllocationRow> left = db.findAllocationsForLocation(locationId);
+        assertEquals(1, left.size());
+        assertEquals(cot, left.get(0).getSupplyId());
+        assertEquals(0, db.allocateToOccupants(locationId, "blanket", 0, T0.plusHours(2)).getAllocations().size());
+    }
+
+    @Test
+    public void testAllocateToOccupantsUnknownLocation() {
+        try {
+            db.allocateToOccupants(999, "blanket", 0, T0);
+            fail("Expected SQLException for a missing location");
+        } catch (SQLException e) {
+            assertEquals(DatabaseAccess.FOREIGN_KEY_VIOLATION, e.getSQLState());
+        }
+    }
+
+    @Test
+    public void testAllocateUnknownSupply() {
+        try {
+            db.allocateToPerson(999, personId, T0);
+            fail("Expected SQLException for a missing supply");
+        } catch (SQLException e) {
+            assertEquals(DatabaseAccess.FOREIGN_KEY_VIOLATION, e.getSQLState());
+        }
+    }
+
+    @Test
+    public void testRemoveExpiredAllocations() throws Exception {
+        int oldWater = db.insertSupply(new DatabaseAccess.SupplyRow(0, "water", null));
+        int freshWater = db.insertSupply(new DatabaseAccess.SupplyRow(0, "water", null));
+        int blanket = db.insertSupply(new DatabaseAccess.SupplyRow(0, "blanket", null));
+        int shelterWater = db.insertSupply(new DatabaseAccess.SupplyRow(0, "water", null));
+        db.allocateToPerson(oldWater, personId, T0.minusDays(2));
+        db.allocateToPerson(freshWater, personId, T0);
+        db.allocateToPerson(blanket, personId, T0.minusDays(2));
+        db.allocateToLocation(shelterWater, locationId, T0.minusDays(2));
+
+        assertEquals(1, db.removeExpiredAllocations("water", T0.minusDays(1)));
+        assertEquals(2, db.findAllocationsForPerson(personId).size());
+        assertEquals(1, db.findAllocationsForLocation(locationId).size());
+    }
+
+    @Test
+    public void testInquiriesIndexedByBothPersons() throws Exception {
+        int seeking = db.insertPerson(person("Ben"));
+        int id = db.insertInquiry(new DatabaseAccess.InquiryRow(0, personId, seeking, locationId, T0, "looking"));
+        assertEquals(id, db.findInquiriesForPerson(personId).get(0).getId());
+        assertEquals(id, db.findInquiriesForPerson(seeking).get(0).getId());
+        assertEquals("looking", db.findInquiry(id).getComments());
+        assertEquals(1, db.listInquiries(0, 10).size());
+    }
+
+    @Test
+    public void testInquiryUnknownPerson() {
+        try {
+            db.insertInquiry(new DatabaseAccess.InquiryRow(0, personId, 999, null, T0, null));
+            fail("Expected SQLException for a missing person");
+        } catch (SQLException e) {
+            assertEquals(DatabaseAccess.FOREIGN_KEY_VIOLATION, e.getSQLState());
+        }
+    }
+
+    @Test
+    public void testMedicalRecords() throws Exception {
+        int id = db.insertMedicalRecord(new DatabaseAccess.MedicalRecordRow(0, personId, locationId, T0, "bandage"));
+        List<DatabaseAccess.MedicalRecordRow> recs = db.findMedicalRecordsForPerson(personId);
+        assertEquals(1, recs.size());
+        assertEquals(id, recs.get(0).getId());
+        assertEquals("bandage", recs.get(0).getTreatmentDetails());
+    }
+
+    @Test
+    public void testListLocationsAndSupplies() throws Exception {
+        db.insertSupply(new DatabaseAccess.SupplyRow(0, "cot", "room=1,grid=A1"));
+        assertEquals(1, db.listLocations().size());
+        assertEquals("cot", db.listSupplies(0, 5).get(0).getType());
+        assertTrue(db.listSupplies(1, 5).isEmpty());
+    }
+
+    @Test
+    public void testConcurrentAllocations() throws Exception {
+        int[] supplyIds = new int[50];
+        for (int i = 0; i < supplyIds.length; i++) {
+            supplyIds[i] = db.insertSupply(new DatabaseAccess.SupplyRow(0, "water", null));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int id : supplyIds) {
+            pool.submit(() -> {
+                db.allocateToPerson(id, personId, T0);
+                return null;
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(supplyIds.length, db.findAllocationsForPerson(personId).size());
+    }
+
+    @Test
+    public void testDomainCallsUseConfiguredAccess() throws Exception {
+        DatabaseManager.getInstance().setAccess(db);
+        int supplyId = db.insertSupply(new DatabaseAccess.SupplyRow(0, "blanket", null));
+        Item.allocateToLocation(supplyId, locationId);
+        Item.allocateToPerson(supplyId, personId);
+        Location.reassignPersonToLocation(personId, locationId);
+        assertEquals(1, db.findAllocationsForPerson(personId).size());
+        assertEquals(Arrays.asList(personId), db.findOccupantIds(locationId));
+    }
+
+    @Test
+    public void testToStringCounts() {
+        assertTrue(db.toString().startsWith("persons=1, locations=1"));
+    }
+
+    @Test
+    public void testFindAllocationsByTypeAndRemove() throws Exception {
+        int water = db.insertSupply(new DatabaseAccess.SupplyRow(0, "water", null));
+        int blanket = db.insertSupply(new DatabaseAccess.SupplyRow(0, "blanket", null));
+        int shelved = db.insertSupply(new DatabaseAccess.SupplyRow(0, "water", null));
+        int food = db.insertSupply(new DatabaseAccess.SupplyRow(0, "food", null));
+        db.allocateToPerson(water, personId, T0.plusMinutes(1));
+        db.allocateToPerson(blanket, personId, T0);
+        db.allocateToLocation(shelved, locationId, T0);
+        db.allocateToLocation(food, locationId, T0);
+        Map<String, List<DatabaseAccess.AllocationRow>> found =
+                db.findAllocationsByType(Arrays.asList("water", "food"), T0.minusHours(1));
+        assertEquals(2, found.size());
+        assertEquals(2, found.get("water").size());
+        assertEquals(shelved, found.get("water").get(0).getSupplyId());
+        assertEquals(water, found.get("water").get(1).getSupplyId());
+        assertEquals(1, found.get("food").size());
+        assertTrue(db.findAllocationsByType(Arrays.asList("water"), T0.plusMinutes(2)).isEmpty());
+        List<DatabaseAccess.AllocationRow> rows = new ArrayList<>(found.get("water"));
+        rows.add(new DatabaseAccess.AllocationRow(food, personId, null, T0));
+        assertEquals(2, db.removeAllocations(rows).size());
+        assertEquals(0, db.removeAllocations(rows).size());
+        assertEquals(1, db.findAllocationsForPerson(personId).size());
+        assertEquals(1, db.findAllocationsForLocation(locationId).size());
+    }
+
+    @Test
+    public void testAllocateToPersonReturnsMovedStock() throws Exception {
+        int stocked = db.insertSupply(new DatabaseAccess.SupplyRow(0, "cot", null));
+        int loose = db.insertSupply(new DatabaseAccess.SupplyRow(0, "cot", null));
+        db.allocateToLocation(stocked, locationId, T0);
+        DatabaseAccess.AllocationRow moved = db.allocateToPerson(stocked, personId, T0.plusMinutes(1));
+        assertNotNull(moved);
+        assertEquals(Integer.valueOf(locationId), moved.getLocationId());
+        assertEquals(T0, moved.getAllocationDate());
+        assertNull(db.allocateToPerson(loose, personId, T0));
+    }
+
+    @Test
+    public void testCountAllocations() throws Exception {
+        int other = db.insertPerson(person("Bo"));
+        for (int i = 0; i < 3; i++) {
+            db.allocateToLocation(db.insertSupply(new DatabaseAccess.SupplyRow(0, "water", null)), locationId, T0);
+        }
+        db.allocateToPerson(db.insertSupply(new DatabaseAccess.SupplyRow(0, "water", null)), personId, T0);
+        db.allocateToPerson(db.insertSupply(new DatabaseAccess.SupplyRow(0, "blanket", null)), personId, T0);
+        db.allocateToPerson(db.insertSupply(new DatabaseAccess.SupplyRow(0, "blanket", null)), other, T0);
+        db.insertSupply(new DatabaseAccess.SupplyRow(0, "cot", null));
+        List<DatabaseAccess.InventoryRow> rows = db.countAllocations();
+        assertEquals(4, rows.size());
+        long total = 0;
+        for (DatabaseAccess.InventoryRow row : rows) {
+            total += row.getCount();
+            if (row.getLocationId() != null) {
+                assertEquals(Integer.valueOf(locationId), row.getLocationId());
+                assertNull(row.getPersonId());
+                assertEquals("water", row.getSupplyType());
+                assertEquals(3L, row.getCount());
+            }
+        }
+        assertEquals(6L, total);
+    }
+}
@@ -0,0 +1,48 @@
+package edu.ucalgary.oop;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class IntakeRecordTest {
+
+    @Test
+    public void testConstructorValid() {
+        IntakeRecord r = new IntakeRecord("Ann", "Lee", "1990-05-06", "Woman", "555-0000");
+        assertEquals("Ann", r.getFirstName());
+        assertEquals("Lee", r.getLastName());
+        assertEquals("1990-05-06", r.getDateOfBirth());
+        assertEquals("Woman", r.getGender());
+        assertEquals("555-0000", r.getPhone());
+    }
+
+    @Test
+    public void testOptionalFieldsMayBeNull() {
+        IntakeRecord r = new IntakeRecord("Ann", "Lee", null, null, null);
+        assertNull(r.getDateOfBirth());
+        assertNull(r.getPhone());
+        assertNull(r.getFamilyGroup());
+        assertNull(r.getLocationId());
+    }
+
+    @Test
+    public void testFamilyGroupAndPlacement() {
+        IntakeRecord r = new IntakeRecord("Ann", "Lee", null, null, null, 4, 2);
+        assertEquals(Integer.valueOf(4), r.getFamilyGroup());
+        assertEquals(Integer.valueOf(2), r.getLocationId());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyFirstName() {
+        new IntakeRecord("", "Lee", null, null, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDateOfBirth() {
+        new IntakeRecord("Ann", "Lee", "05/06/1990", null, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPhone() {
+        new IntakeRecord("Ann", "Lee", null, null, "call me");
+    }
+}
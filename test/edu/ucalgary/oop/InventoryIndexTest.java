@@ -0,0 +1,231 @@
+package edu.ucalgary.oop;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class InventoryIndexTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 4, 5, 12, 0);
+
+    private InMemoryDatabaseAccess db;
+    private InventoryIndex index;
+    private int personId;
+    private int locationId;
+
+    @Before
+    public void setUp() throws Exception {
+        db = new InMemoryDatabaseAccess();
+        DatabaseManager.getInstance().setAccess(db);
+        index = InventoryIndex.getInstance();
+        personId = db.insertPerson(new DatabaseAccess.PersonRow(0, "Ana", "Doe", null, null, null, null, null));
+        locationId = db.insertLocation(new DatabaseAccess.LocationRow(0, "TELUS", "1 Main St"));
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseManager.getInstance().setAccess(new PostgresDatabaseAccess());
+    }
+
+    private int supply(String type) {
+        return db.insertSupply(new DatabaseAccess.SupplyRow(0, type, null));
+    }
+
+    @Test
+    public void testRebuildCountsByHolderAndType() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            db.allocateToLocation(supply("water"), locationId, T0);
+        }
+        db.allocateToLocation(supply("cot"), locationId, T0);
+        db.allocateToPerson(supply("water"), personId, T0);
+        assertEquals(0L, index.getLocationCount(locationId, "water"));
+        assertEquals(5, index.rebuild());
+        assertEquals(3L, index.getLocationCount(locationId, "water"));
+        assertEquals(1L, index.getLocationCount(locationId, "cot"));
+        assertEquals(4L, index.getLocationCount(locationId, null));
+        assertEquals(1L, index.getPersonCount(personId, "water"));
+        assertEquals(0L, index.getPersonCount(personId, "cot"));
+        assertEquals(0L, index.getLocationCount(locationId, "blanket"));
+        Map<String, Long> stock = index.getLocationCounts(locationId);
+        assertEquals(2, stock.size());
+        assertEquals(Long.valueOf(1), stock.get("cot"));
+        assertEquals(Long.valueOf(3), stock.get("water"));
+    }
+
+    @Test
+    public void testAllocationsUpdateCounts() throws Exception {
+        index.rebuild();
+        int water = supply("water");
+        int blanket = supply("blanket");
+        Item.allocateToLocation(water, locationId);
+        Item.allocateToLocation(blanket, locationId);
+        assertEquals(1L, index.getLocationCount(locationId, "water"));
+        Item.allocateToPerson(water, personId);
+        assertEquals(0L, index.getLocationCount(locationId, "water"));
+        assertEquals(1L, index.getLocationCount(locationId, "blanket"));
+        assertEquals(1L, index.getPersonCount(personId, "water"));
+        assertEquals(1L, index.getPersonCount(personId, null));
+        Item.allocateToPerson(supply("water"), personId);
+        assertEquals(2L, index.getPersonCount(personId, "water"));
+        assertEquals(Long.valueOf(2), index.getPersonCounts(personId).get("water"));
+    }
+
+    @Test
+    public void testDistributionUpdatesCounts() throws Exception {
+        int other = db.insertPerson(new DatabaseAccess.PersonRow(0, "Bo", "Doe", null, null, null, null, null));
+        db.reassignPersonToLocation(personId, locationId);
+        db.reassignPersonToLocation(other, locationId);
+        for (int i = 0; i < 5; i++) {
+            db.allocateToLocation(supply("blanket"), locationId, T0.plusMinutes(i));
+        }
+        index.rebuild();
+        Item.distributeToOccupants(locationId, "blanket", 2);
+        assertEquals(1L, index.getLocationCount(locationId, "blanket"));
+        assertEquals(2L, index.getPersonCount(personId, "blanket"));
+        assertEquals(2L, index.getPersonCount(other, "blanket"));
+    }
+
+    @Test
+    public void testFailedAllocationLeavesCountsAlone() throws Exception {
+        index.rebuild();
+        int other = db.insertPerson(new DatabaseAccess.PersonRow(0, "Bo", "Doe", null, null, null, null, null));
+        int cot = supply("cot");
+        Item.allocateToPerson(cot, personId);
+        try {
+            Item.allocateToPerson(cot, other);
+            fail("Expected an allocation conflict");
+        } catch (SQLException e) {
+            assertEquals(DatabaseAccess.ALLOCATION_CONFLICT, e.getSQLState());
+        }
+        try {
+            Item.allocateToLocation(999, locationId);
+            fail("Expected a missing supply");
+        } catch (SQLException e) {
+            assertEquals(DatabaseAccess.FOREIGN_KEY_VIOLATION, e.getSQLState());
+        }
+        assertEquals(1L, index.getPersonCount(personId, "cot"));
+        assertEquals(0L, index.getPersonCount(other, "cot"));
+        assertEquals(0L, index.getLocationCount(locationId, null));
+    }
+
+    @Test
+    public void testRetypedMovesOnlyThatSupply() throws Exception {
+        int stocked = supply("water");
+        int held = supply("water");
+        db.allocateToLocation(stocked, locationId, T0);
+        db.allocateToPerson(held, personId, T0);
+        index.rebuild();
+        long rebuilds = index.getRebuildCount();
+        Item.allocateToLocation(supply("water"), locationId);
+        index.retyped(stocked, "water", "juice");
+        index.retyped(held, "water", "juice");
+        assertEquals(1L, index.getLocationCount(locationId, "water"));
+        assertEquals(1L, index.getLocationCount(locationId, "juice"));
+        assertEquals(2L, index.getLocationCount(locationId, null));
+        assertEquals(0L, index.getPersonCount(personId, "water"));
+        assertEquals(1L, index.getPersonCount(personId, "juice"));
+        assertEquals(rebuilds, index.getRebuildCount());
+    }
+
+    @Test
+    public void testRepeatedAllocationLeavesCountsAlone() throws Exception {
+        index.rebuild();
+        int annex = db.insertLocation(new DatabaseAccess.LocationRow(0, "Annex", "2 Main St"));
+        int cot = supply("cot");
+        int water = supply("water");
+        Item.allocateToLocation(cot, locationId);
+        Item.allocateToPerson(water, personId);
+        try {
+            Item.allocateToLocation(cot, annex);
+            fail("Expected an allocation conflict");
+        } catch (SQLException e) {
+            assertEquals(DatabaseAccess.ALLOCATION_CONFLICT, e.getSQLState());
+        }
+        try {
+            Item.allocateToPerson(water, personId);
+            fail("Expected an allocation conflict");
+        } catch (SQLException e) {
+            assertEquals(DatabaseAccess.ALLOCATION_CONFLICT, e.getSQLState());
+        }
+        assertEquals(1L, index.getLocationCount(locationId, "cot"));
+        assertEquals(0L, index.getLocationCount(annex, "cot"));
+        assertEquals(1L, index.getPersonCount(personId, "water"));
+        assertEquals(2, index.rebuild());
+        assertEquals(1L, index.getPersonCount(personId, "water"));
+    }
+
+    @Test
+    public void testSetAccessClearsCounts() throws Exception {
+        db.allocateToLocation(supply("water"), locationId, T0);
+        index.rebuild();
+        assertEquals(1L, index.getLocationCount(locationId, "water"));
+        DatabaseManager.getInstance().setAccess(new InMemoryDatabaseAccess());
+        assertEquals(0L, index.getLocationCount(locationId, "water"));
+    }
+
+    @Test
+    public void testConcurrentUpdatesMatchRebuild() throws Exception {
+        int[] locations = new int[4];
+        int[] persons = new int[8];
+        for (int i = 0; i < locations.length; i++) {
+            locations[i] = db.insertLocation(new DatabaseAccess.LocationRow(0, "Shelter " + i, i + " Rd"));
+        }
+        for (int i = 0; i < persons.length; i++) {
+            persons[i] = db.insertPerson(new DatabaseAccess.PersonRow(0, "P" + i, "Doe", null, null, null, null, null));
+        }
+        int[] supplies = new int[400];
+        for (int i = 0; i < supplies.length; i++) {
+            supplies[i] = supply(i % 3 == 0 ? "water" : "blanket");
+        }
+        index.rebuild();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int first = t * 50;
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom r = ThreadLocalRandom.current();
+                for (int i = first; i < first + 50; i++) {
+                    Item.allocateToLocation(supplies[i], locations[r.nextInt(locations.length)]);
+                    if (r.nextBoolean()) {
+                        Item.allocateToPerson(supplies[i], persons[r.nextInt(persons.length)]);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        pool.shutdown();
+        long[][] live = new long[2][];
+        live[0] = new long[locations.length * 2];
+        live[1] = new long[persons.length * 2];
+        for (int i = 0; i < locations.length; i++) {
+            live[0][2 * i] = index.getLocationCount(locations[i], "water");
+            live[0][2 * i + 1] = index.getLocationCount(locations[i], "blanket");
+        }
+        for (int i = 0; i < persons.length; i++) {
+            live[1][2 * i] = index.getPersonCount(persons[i], "water");
+            live[1][2 * i + 1] = index.getPersonCount(persons[i], "blanket");
+        }
+        index.rebuild();
+        for (int i = 0; i < locations.length; i++) {
+            assertEquals(index.getLocationCount(locations[i], "water"), live[0][2 * i]);
+            assertEquals(index.getLocationCount(locations[i], "blanket"), live[0][2 * i + 1]);
+        }
+        for (int i = 0; i < persons.length; i++) {
+            assertEquals(index.getPersonCount(persons[i], "water"), live[1][2 * i]);
+            assertEquals(index.getPersonCount(persons[i], "blanket"), live[1][2 * i + 1]);
+        }
+    }
+}
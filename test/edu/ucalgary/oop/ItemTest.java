@@ -3,6 +3,13 @@ package edu.ucalgary.oop;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class ItemTest {
 
     static class TestItem extends Item {
@@ -77,4 +84,60 @@ public class ItemTest {
             fail("Unexpected exception: " + e);
         }
     }
+
+    @Test
+    public void testAllocationTimesAreUnique() {
+        LocalDateTime last = Item.nextAllocationTime();
+        for (int i = 0; i < 1000; i++) {
+            LocalDateTime next = Item.nextAllocationTime();
+            assertTrue(next.isAfter(last));
+            last = next;
+        }
+    }
+
+    @Test
+    public void testConcurrentSessionsNeverDoubleAllocate() throws Exception {
+        InMemoryDatabaseAccess db = new InMemoryDatabaseAccess();
+        DatabaseManager.getInstance().setAccess(db);
+        try {
+            int supplies = 20;
+            int sessions = 50;
+            int[] personIds = new int[sessions];
+            for (int i = 0; i < sessions; i++) {
+                personIds[i] = db.insertPerson(new DatabaseAccess.PersonRow(0, "P" + i, "Doe", null, null, null, null, null));
+            }
+            for (int s = 0; s < supplies; s++) {
+                db.insertSupply(new DatabaseAccess.SupplyRow(0, "blanket", null));
+            }
+            AtomicInteger granted = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(sessions);
+            for (int i = 0; i < sessions; i++) {
+                int pid = personIds[i];
+                pool.submit(() -> {
+                    for (int s = 1; s <= supplies; s++) {
+                        try {
+                            Item.allocateToPerson(s, pid);
+                            granted.incrementAndGet();
+                        } catch (SQLException e) {
+                            if (!DatabaseAccess.ALLOCATION_CONFLICT.equals(e.getSQLState())) {
+                                failed.incrementAndGet();
+                            }
+                        }
+                    }
+                });
+            }
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(20, TimeUnit.SECONDS));
+            assertEquals(0, failed.get());
+            assertEquals(supplies, granted.get());
+            int held = 0;
+            for (int pid : personIds) {
+                held += db.findAllocationsForPerson(pid).size();
+            }
+            assertEquals(supplies, held);
+        } finally {
+            DatabaseManager.getInstance().setAccess(new PostgresDatabaseAccess());
+        }
+    }
 }
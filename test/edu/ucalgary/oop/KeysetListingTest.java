@@ -0,0 +1,135 @@
+package edu.ucalgary.oop;
+
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class KeysetListingTest {
+
+    private final KeysetListing single = new KeysetListing(
+            "SELECT person_id, first_name FROM person",
+            rs -> rs.getInt("person_id") + ":" + rs.getString("first_name") + "\n",
+            "person_id");
+
+    private static List<Map<String, Object>> rows(int count) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Map<String, Object> m = new HashMap<>();
+            m.put("person_id", i);
+            m.put("first_name", "P" + i);
+            rows.add(m);
+        }
+        return rows;
+    }
+
+    @After
+    public void resetSizes() {
+        KeysetListing.setFetchSize(500);
+        KeysetListing.setPageSize(50);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoKeyColumns() {
+        new KeysetListing("SELECT 1", rs -> "");
+    }
+
+    @Test
+    public void testFirstPageSql() {
+        assertEquals("SELECT person_id, first_name FROM person ORDER BY person_id LIMIT ?",
+                single.pageSql(false));
+    }
+
+    @Test
+    public void testKeyedPageSql() {
+        assertEquals("SELECT person_id, first_name FROM person WHERE person_id > ? ORDER BY person_id LIMIT ?",
+                single.pageSql(true));
+    }
+
+    @Test
+    public void testCompositeKeySql() {
+        KeysetListing composite = Location.personLocationListing();
+        assertEquals("SELECT person_id, location_id FROM personlocation "
+                        + "WHERE (person_id, location_id) > (?, ?) ORDER BY person_id, location_id LIMIT ?",
+                composite.pageSql(true));
+        assertEquals("SELECT person_id, location_id FROM personlocation ORDER BY person_id, location_id",
+                composite.streamSql());
+    }
+
+    @Test
+    public void testPageDetectsMore() throws Exception {
+        Connection conn = DossierLoaderTest.connectionReturning(rows(4));
+        KeysetListing.Page page = single.page(conn, null, 3);
+        assertEquals(3, page.getLines().size());
+        assertEquals("1:P1\n", page.getLines().get(0));
+        assertArrayEquals(new int[]{3}, page.getLastKey());
+        assertTrue(page.hasMore());
+    }
+
+    @Test
+    public void testLastPage() throws Exception {
+        Connection conn = DossierLoaderTest.connectionReturning(rows(2));
+        KeysetListing.Page page = single.page(conn, new int[]{10}, 3);
+        assertEquals(2, page.getLines().size());
+        assertFalse(page.hasMore());
+        assertArrayEquals(new int[]{2}, page.getLastKey());
+    }
+
+    @Test
+    public void testEmptyPageKeepsKey() throws Exception {
+        Connection conn = DossierLoaderTest.connectionReturning(rows(0));
+        KeysetListing.Page page = single.page(conn, new int[]{7}, 3);
+        assertTrue(page.getLines().isEmpty());
+        assertArrayEquals(new int[]{7}, page.getLastKey());
+        assertFalse(page.hasMore());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongKeyLength() throws Exception {
+        single.page(DossierLoaderTest.connectionReturning(rows(0)), new int[]{1, 2}, 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLimit() throws Exception {
+        single.page(DossierLoaderTest.connectionReturning(rows(0)), null, 0);
+    }
+
+    @Test
+    public void testStreamAll() throws Exception {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        long n = single.streamAll(DossierLoaderTest.connectionReturning(rows(3)), new PrintStream(buf));
+        assertEquals(3, n);
+        assertEquals("1:P1\n2:P2\n3:P3\n", buf.toString());
+    }
+
+    @Test
+    public void testSizes() {
+        KeysetListing.setFetchSize(1000);
+        KeysetListing.setPageSize(20);
+        assertEquals(1000, KeysetListing.getFetchSize());
+        assertEquals(20, KeysetListing.getPageSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidFetchSize() {
+        KeysetListing.setFetchSize(0);
+    }
+
+    @Test
+    public void testPageWithoutDb() throws Exception {
+        DatabaseManager.getInstance().disconnect();
+        try {
+            Person.personListing().page(null, 10);
+            fail("Expected IllegalStateException when DB is not connected");
+        } catch (IllegalStateException e) {
+            assertEquals("DB not connected", e.getMessage());
+        }
+    }
+}
@@ -29,4 +29,84 @@ public class LanguageManagerTest {
         assertEquals("en-CA", lm.getCurrentLocaleCode());
     }
 
+    @Test
+    public void testSecondLoadUsesCompiledBundle() {
+        lm.loadLocale("fr-CA");
+        String first = lm.getString("welcome_message");
+        LanguageManager again = new LanguageManager(new LocaleCatalog(new java.io.File("data")));
+        again.loadLocale("fr-CA");
+        assertTrue(again.isUsingBundle());
+        assertEquals(first, again.getString("welcome_message"));
+        assertNull(again.getString("no_such_key"));
+    }
+
+    @Test
+    public void testEnumLookupBeforeLoadGivesPlaceholder() {
+        assertEquals("[Missing translation: exit_goodbye]", lm.getString(MessageKey.EXIT_GOODBYE));
+        assertEquals(MessageKey.values().length, lm.getMissingKeys().size());
+    }
+
+    @Test
+    public void testEnumLookupMatchesStringLookup() {
+        lm.loadLocale("en-CA");
+        for (MessageKey k : MessageKey.values()) {
+            assertEquals(lm.getString(k.key()), lm.getString(k));
+        }
+        assertTrue(lm.getMissingKeys().isEmpty());
+    }
+
+    @Test
+    public void testFrenchDefinesEveryKey() {
+        lm.loadLocale("fr-CA");
+        assertEquals("fr-CA", lm.getCurrentLocaleCode());
+        assertTrue(lm.getMissingKeys().toString(), lm.getMissingKeys().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullCatalogRejected() {
+        new LanguageManager(null);
+    }
+
+    @Test
+    public void testManagersShareSnapshotsButNotLocale() {
+        LanguageManager en = new LanguageManager();
+        LanguageManager fr = new LanguageManager();
+        en.loadLocale("en-CA");
+        fr.loadLocale("fr-CA");
+        assertEquals("en-CA", en.getCurrentLocaleCode());
+        assertEquals("fr-CA", fr.getCurrentLocaleCode());
+        assertSame(en.getSnapshot(), lmFor("en-CA").getSnapshot());
+    }
+
+    private static LanguageManager lmFor(String code) {
+        LanguageManager m = new LanguageManager();
+        m.loadLocale(code);
+        return m;
+    }
+
+    @Test
+    public void testRowTemplatesAreLocalized() {
+        LanguageManager en = lmFor("en-CA");
+        LanguageManager fr = lmFor("fr-CA");
+        assertEquals("SupplyID=3, Type=water, Comments=null\n",
+                en.formatLine(MessageKey.ROW_SUPPLY, 3, "water", null));
+        assertTrue(fr.formatLine(MessageKey.ROW_SUPPLY, 3, "water", null).startsWith("FournitureID=3"));
+        assertEquals(3, en.getTemplate(MessageKey.ROW_SUPPLY).getArgumentCount());
+        assertEquals("water: 12\n", en.formatLine(MessageKey.ROW_STOCK, "water", 12L));
+        assertEquals("water : 12\n", fr.formatLine(MessageKey.ROW_STOCK, "water", 12L));
+    }
+
+    @Test
+    public void testDefaultManager() {
+        assertNotNull(LanguageManager.getDefault());
+        LanguageManager fr = lmFor("fr-CA");
+        LanguageManager.setDefault(fr);
+        assertSame(fr, LanguageManager.getDefault());
+        LanguageManager.setDefault(lmFor("en-CA"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullDefaultRejected() {
+        LanguageManager.setDefault(null);
+    }
 }
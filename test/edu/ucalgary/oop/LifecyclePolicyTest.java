@@ -0,0 +1,72 @@
+package edu.ucalgary.oop;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+public class LifecyclePolicyTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 4, 5, 12, 0);
+    private static final DatabaseAccess.AllocationRow HELD = new DatabaseAccess.AllocationRow(1, 7, null, T0);
+    private static final DatabaseAccess.AllocationRow STOCKED = new DatabaseAccess.AllocationRow(2, null, 3, T0);
+
+    @Test
+    public void testTtlAppliesToPersonsOnly() {
+        LifecyclePolicy p = LifecyclePolicy.ttl("water", Duration.ofDays(1));
+        assertEquals("water", p.getSupplyType());
+        assertEquals(T0.plusDays(1), p.dueAt(HELD));
+        assertNull(p.dueAt(STOCKED));
+    }
+
+    @Test
+    public void testRotationAppliesToLocationsOnly() {
+        LifecyclePolicy p = LifecyclePolicy.rotation("food", Duration.ofDays(30));
+        assertNull(p.dueAt(HELD));
+        assertEquals(T0.plusDays(30), p.dueAt(STOCKED));
+    }
+
+    @Test
+    public void testRecallIsDueImmediately() {
+        assertEquals(T0, LifecyclePolicy.recall("food", T0.plusSeconds(1)).dueAt(STOCKED));
+        assertNull(LifecyclePolicy.recall("food", T0).dueAt(STOCKED));
+    }
+
+    @Test
+    public void testAndTakesEarlierDeadline() {
+        LifecyclePolicy p = LifecyclePolicy.ttl("food", Duration.ofDays(3))
+                .and(LifecyclePolicy.rotation("food", Duration.ofDays(30)))
+                .and(LifecyclePolicy.ttl("food", Duration.ofDays(1)));
+        assertEquals(T0.plusDays(1), p.dueAt(HELD));
+        assertEquals(T0.plusDays(30), p.dueAt(STOCKED));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAndRejectsOtherType() {
+        LifecyclePolicy.ttl("food", Duration.ofDays(1)).and(LifecyclePolicy.ttl("water", Duration.ofDays(1)));
+    }
+
+    @Test
+    public void testParse() {
+        LifecyclePolicy p = LifecyclePolicy.parse("food ttl=12h rotate=90m");
+        assertEquals("food", p.getSupplyType());
+        assertEquals(T0.plusHours(12), p.dueAt(HELD));
+        assertEquals(T0.plusMinutes(90), p.dueAt(STOCKED));
+        LifecyclePolicy recall = LifecyclePolicy.parse("\"medical kit\" recall=2025-04-06");
+        assertEquals("medical kit", recall.getSupplyType());
+        assertEquals(T0, recall.dueAt(HELD));
+    }
+
+    @Test
+    public void testParseRejectsMalformed() {
+        String[] bad = {"food", "food ttl", "food ttl=0d", "food ttl=3w", "food nap=1d", "food recall=soon"};
+        for (String line : bad) {
+            try {
+                LifecyclePolicy.parse(line);
+                fail("Accepted " + line);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package edu.ucalgary.oop;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+public class LocaleCatalogTest {
+    private Path dir;
+    private LocaleCatalog catalog;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("locales");
+        writePack("en-CA", "Welcome!");
+        writePack("fr-CA", "Bienvenue!");
+        catalog = new LocaleCatalog(dir.toFile());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        catalog.close();
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private void writePack(String code, String welcome) throws Exception {
+        Path xml = dir.resolve(code + ".xml");
+        Files.write(xml, ("<translations>\n  <translation>\n    <key>welcome_message</key>\n"
+                + "    <value>" + welcome + "</value>\n  </translation>\n</translations>\n")
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullDirectory() {
+        new LocaleCatalog(null);
+    }
+
+    @Test
+    public void testValidCodes() {
+        assertTrue(LocaleCatalog.isValidCode("fr-CA"));
+        assertFalse(LocaleCatalog.isValidCode("FR-ca"));
+        assertFalse(LocaleCatalog.isValidCode(null));
+    }
+
+    @Test
+    public void testDiscoverLoadsEveryPack() {
+        assertEquals("[en-CA, fr-CA]", catalog.discover().toString());
+    }
+
+    @Test
+    public void testUnknownLocaleIsNull() throws Exception {
+        assertNull(catalog.get("de-DE"));
+        assertNull(catalog.get("bogus"));
+    }
+
+    @Test
+    public void testSnapshotsAreShared() throws Exception {
+        assertSame(catalog.get("fr-CA"), catalog.get("fr-CA"));
+    }
+
+    @Test
+    public void testReloadSwapsWithoutTouchingOldSnapshot() throws Exception {
+        LanguageManager reader = new LanguageManager(catalog);
+        reader.loadLocale("fr-CA");
+        LocaleSnapshot before = catalog.get("fr-CA");
+        writePack("fr-CA", "Salut!");
+        assertTrue(catalog.reload("fr-CA"));
+        assertEquals("Bienvenue!", before.getString(MessageKey.WELCOME_MESSAGE));
+        assertEquals("Salut!", reader.getString(MessageKey.WELCOME_MESSAGE));
+        assertEquals(1, catalog.getReloadCount());
+    }
+
+    @Test
+    public void testReloadOfUnloadedLocaleIsSkipped() {
+        assertFalse(catalog.reload("fr-CA"));
+    }
+
+    @Test
+    public void testConcurrentReadersDuringReloads() throws Exception {
+        catalog.discover();
+        AtomicBoolean bad = new AtomicBoolean();
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            LanguageManager lm = new LanguageManager(catalog);
+            lm.loadLocale(i % 2 == 0 ? "en-CA" : "fr-CA");
+            readers[i] = new Thread(() -> {
+                while (!stop.get()) {
+                    String s = lm.getString(MessageKey.WELCOME_MESSAGE);
+                    if (s == null || s.startsWith("[Missing")) {
+                        bad.set(true);
+                    }
+                }
+            });
+            readers[i].start();
+        }
+        for (int i = 0; i < 20; i++) {
+            writePack("fr-CA", "Bonjour " + i);
+            catalog.reload("fr-CA");
+        }
+        stop.set(true);
+        for (Thread t : readers) {
+            t.join();
+        }
+        assertFalse(bad.get());
+    }
+
+    @Test
+    public void testWatcherReloadsChangedPack() throws Exception {
+        LanguageManager reader = new LanguageManager(catalog);
+        reader.loadLocale("fr-CA");
+        catalog.startWatching();
+        assertTrue(catalog.isWatching());
+        writePack("fr-CA", "Rechargé!");
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (!"Rechargé!".equals(reader.getString(MessageKey.WELCOME_MESSAGE))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals("Rechargé!", reader.getString(MessageKey.WELCOME_MESSAGE));
+        catalog.close();
+        assertFalse(catalog.isWatching());
+    }
+
+    @Test
+    public void testBundleWrittenNextToPack() throws Exception {
+        catalog.get("en-CA");
+        assertTrue(new File(dir.toFile(), "en-CA.bundle").isFile());
+        assertTrue(new LocaleCatalog(dir.toFile()).get("en-CA").isFromBundle());
+    }
+
+    @Test
+    public void testBundleSnapshotResolvesKeysOnFirstUse() throws Exception {
+        catalog.get("fr-CA");
+        LocaleSnapshot snapshot = new LocaleCatalog(dir.toFile()).get("fr-CA");
+        assertTrue(snapshot.isFromBundle());
+        assertEquals("Bienvenue!", snapshot.getString(MessageKey.WELCOME_MESSAGE));
+        MessageTemplate template = snapshot.getTemplate(MessageKey.WELCOME_MESSAGE);
+        assertSame(template, snapshot.getTemplate(MessageKey.WELCOME_MESSAGE));
+        assertEquals(MessageKey.values().length - 1, snapshot.getMissingKeys().size());
+        assertFalse(snapshot.getMissingKeys().contains(MessageKey.WELCOME_MESSAGE));
+    }
+}
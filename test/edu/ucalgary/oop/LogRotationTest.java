@@ -0,0 +1,129 @@
+package edu.ucalgary.oop;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+public class LogRotationTest {
+    private Path dir;
+    private Path active;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("logrotation");
+        active = dir.resolve("errorlog.txt");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeMaxBytes() {
+        new LogRotation(-1, false, 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeRetain() {
+        new LogRotation(10, false, -1);
+    }
+
+    @Test
+    public void testShouldRotateBySize() {
+        LogRotation r = new LogRotation(100, false, 3);
+        LocalDate today = LocalDate.of(2025, 4, 5);
+        assertFalse(r.shouldRotate(99, today, today));
+        assertTrue(r.shouldRotate(100, today, today));
+        assertFalse(r.shouldRotate(0, today.minusDays(1), today));
+    }
+
+    @Test
+    public void testShouldRotateByDay() {
+        LogRotation r = new LogRotation(0, true, 3);
+        LocalDate today = LocalDate.of(2025, 4, 5);
+        assertFalse(r.shouldRotate(1_000_000, today, today));
+        assertTrue(r.shouldRotate(1, today.minusDays(1), today));
+        assertFalse(new LogRotation(0, false, 3).shouldRotate(1, today.minusDays(1), today));
+    }
+
+    @Test
+    public void testRolledNameSkipsTakenNames() throws Exception {
+        LocalDate day = LocalDate.of(2025, 4, 5);
+        assertEquals("errorlog-2025-04-05-1.txt", LogRotation.rolledName(active, day).getFileName().toString());
+        Files.createFile(dir.resolve("errorlog-2025-04-05-1.txt.gz"));
+        assertEquals("errorlog-2025-04-05-2.txt", LogRotation.rolledName(active, day).getFileName().toString());
+    }
+
+    @Test
+    public void testRotateCompressesRolledFile() throws Exception {
+        Files.write(active, "first entry\n".getBytes());
+        LocalDate day = LocalDate.of(2025, 4, 5);
+        new LogRotation(1, false, 3).rotate(active, day).get(5, TimeUnit.SECONDS);
+        assertFalse(Files.exists(active));
+        Path gz = dir.resolve("errorlog-2025-04-05-1.txt.gz");
+        assertTrue(Files.exists(gz));
+        assertFalse(Files.exists(dir.resolve("errorlog-2025-04-05-1.txt")));
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(gz))) {
+            assertEquals("first entry\n", new String(in.readAllBytes()));
+        }
+    }
+
+    @Test
+    public void testPruneKeepsNewest() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            Path p = Files.createFile(dir.resolve("errorlog-2025-04-0" + i + "-1.txt.gz"));
+            Files.setLastModifiedTime(p, FileTime.fromMillis(i * 1000L));
+        }
+        Files.createFile(dir.resolve("errorlog-notes.txt"));
+        new LogRotation(1, false, 2).prune(active);
+        List<Path> left = LogRotation.listRolled(active);
+        assertEquals(2, left.size());
+        assertTrue(Files.exists(dir.resolve("errorlog-2025-04-05-1.txt.gz")));
+        assertTrue(Files.exists(dir.resolve("errorlog-2025-04-04-1.txt.gz")));
+        assertTrue(Files.exists(dir.resolve("errorlog-notes.txt")));
+    }
+
+    @Test
+    public void testRotateIfNeededOnMissingFile() throws Exception {
+        assertNull(new LogRotation(1, true, 3).rotateIfNeeded(active));
+    }
+
+    @Test
+    public void testErrorLoggerRollsBySize() throws Exception {
+        ErrorLogger logger = new ErrorLogger(active.toString());
+        logger.setRotation(new LogRotation(10, false, 5));
+        logger.logError("first", new Exception("one"));
+        logger.logError("second", new Exception("two"));
+        String current = new String(Files.readAllBytes(active));
+        assertTrue(current.contains("second"));
+        assertFalse(current.contains("first"));
+        assertEquals(1, LogRotation.listRolled(active).size());
+    }
+
+    @Test
+    public void testAsyncErrorLoggerRollsBySize() throws Exception {
+        ErrorLogger logger = new ErrorLogger(active.toString(), 16, ErrorLogger.OverflowPolicy.BLOCK);
+        logger.setRotation(new LogRotation(10, false, 5));
+        logger.logError("first", new Exception("one"));
+        assertTrue(logger.flush(5000));
+        logger.logError("second", new Exception("two"));
+        logger.close();
+        assertTrue(new String(Files.readAllBytes(active)).contains("second"));
+        assertEquals(1, LogRotation.listRolled(active).size());
+    }
+}
@@ -0,0 +1,44 @@
+package edu.ucalgary.oop;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class MessageKeyGeneratorTest {
+
+    @Test
+    public void testConstantName() {
+        assertEquals("MENU_OPTION_1", MessageKeyGenerator.constantName("menu_option_1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstantNameRejectsBadKey() {
+        MessageKeyGenerator.constantName("bad-key");
+    }
+
+    @Test
+    public void testGenerateEscapesDocText() {
+        Map<String, String> m = new LinkedHashMap<>();
+        m.put("a", "x < y */");
+        m.put("b", "plain");
+        String src = MessageKeyGenerator.generate(m);
+        assertTrue(src.contains("/** x &lt; y *&#47; */"));
+        assertTrue(src.contains("A(\"a\"),"));
+        assertTrue(src.contains("B(\"b\");"));
+    }
+
+    @Test
+    public void testCommittedEnumMatchesEnglishXml() throws Exception {
+        Map<String, String> en = LanguageManager.parseTranslations(new File("data/en-CA.xml"));
+        String committed = new String(Files.readAllBytes(Paths.get("src/edu/ucalgary/oop/MessageKey.java")),
+                StandardCharsets.UTF_8);
+        assertEquals("Re-run MessageKeyGenerator", MessageKeyGenerator.generate(en), committed);
+        assertEquals(en.size(), MessageKey.values().length);
+    }
+}
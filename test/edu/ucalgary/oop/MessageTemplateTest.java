@@ -0,0 +1,50 @@
+package edu.ucalgary.oop;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class MessageTemplateTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullPattern() {
+        MessageTemplate.compile(null);
+    }
+
+    @Test
+    public void testRendersArgumentsInOrder() {
+        MessageTemplate t = MessageTemplate.compile("SupplyID={0}, Type={1}, Comments={2}");
+        assertEquals("SupplyID=7, Type=water, Comments=null", t.format(7, "water", null));
+        assertEquals(3, t.getArgumentCount());
+    }
+
+    @Test
+    public void testArgumentsCanBeReordered() {
+        assertEquals("b a b", MessageTemplate.compile("{1} {0} {1}").format("a", "b"));
+    }
+
+    @Test
+    public void testBraceEscapesAndStrayBraces() {
+        MessageTemplate t = MessageTemplate.compile("{{0}} {x} {0");
+        assertEquals("{0} {x} {0", t.format("unused"));
+        assertEquals(0, t.getArgumentCount());
+    }
+
+    @Test
+    public void testMissingArgumentLeftVisible() {
+        assertEquals("a={0}", MessageTemplate.compile("a={0}").format());
+    }
+
+    @Test
+    public void testAppendToReusesBuilder() {
+        MessageTemplate t = MessageTemplate.compile("Person {0} => Location {1}");
+        StringBuilder sb = new StringBuilder("> ");
+        assertSame(sb, t.appendTo(sb, 1L, 2));
+        assertEquals("> Person 1 => Location 2", sb.toString());
+    }
+
+    @Test
+    public void testFormatLineAddsNewline() {
+        assertEquals("x=1\n", MessageTemplate.compile("x={0}").formatLine(1));
+        assertEquals("x={0}", MessageTemplate.compile("x={0}").getPattern());
+    }
+}
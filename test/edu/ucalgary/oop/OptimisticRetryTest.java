@@ -0,0 +1,91 @@
+package edu.ucalgary.oop;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class OptimisticRetryTest {
+
+    private static SQLException lost() {
+        return new SQLException("lost the race", DatabaseAccess.SERIALIZATION_FAILURE);
+    }
+
+    @Test
+    public void testRetriesUntilSuccess() throws Exception {
+        OptimisticRetry retry = new OptimisticRetry(5, 0, 0, DatabaseAccess.SERIALIZATION_FAILURE);
+        AtomicInteger calls = new AtomicInteger();
+        String result = retry.run(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw lost();
+            }
+            return "done";
+        });
+        assertEquals("done", result);
+        assertEquals(3, calls.get());
+        assertEquals(1, retry.getOperationCount());
+        assertEquals(2, retry.getRetryCount());
+        assertEquals(0, retry.getExhaustedCount());
+        assertEquals(3, retry.getMaxAttemptsUsed());
+    }
+
+    @Test
+    public void testGivesUpAfterMaxAttempts() {
+        OptimisticRetry retry = new OptimisticRetry(3, 1, 2, DatabaseAccess.SERIALIZATION_FAILURE);
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            retry.run(() -> {
+                calls.incrementAndGet();
+                throw lost();
+            });
+            fail("Expected the last failure to be thrown");
+        } catch (SQLException e) {
+            assertEquals(DatabaseAccess.SERIALIZATION_FAILURE, e.getSQLState());
+        }
+        assertEquals(3, calls.get());
+        assertEquals(2, retry.getRetryCount());
+        assertEquals(1, retry.getExhaustedCount());
+        assertTrue(retry.toString().contains("exhausted=1"));
+    }
+
+    @Test
+    public void testOtherFailuresAreNotRetried() {
+        OptimisticRetry retry = new OptimisticRetry();
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            retry.run(() -> {
+                calls.incrementAndGet();
+                throw new SQLException("held", DatabaseAccess.ALLOCATION_CONFLICT);
+            });
+            fail("Expected SQLException");
+        } catch (SQLException e) {
+            assertEquals(DatabaseAccess.ALLOCATION_CONFLICT, e.getSQLState());
+        }
+        assertEquals(1, calls.get());
+        assertEquals(0, retry.getRetryCount());
+    }
+
+    @Test
+    public void testDefaultRetriesDeadlocks() throws Exception {
+        OptimisticRetry retry = new OptimisticRetry();
+        AtomicInteger calls = new AtomicInteger();
+        retry.run(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new SQLException("deadlock", DatabaseAccess.DEADLOCK_DETECTED);
+            }
+            return null;
+        });
+        assertEquals(2, calls.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNeedsAnAttempt() {
+        new OptimisticRetry(0, 1, 1, DatabaseAccess.SERIALIZATION_FAILURE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNeedsARetryState() {
+        new OptimisticRetry(3, 1, 1);
+    }
+}
@@ -0,0 +1,87 @@
+package edu.ucalgary.oop;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+public class OutputSinkTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullTarget() {
+        new OutputSink((Writer) null, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroBuffer() {
+        new OutputSink(new StringWriter(), 0);
+    }
+
+    @Test
+    public void testBuffersUntilFlush() {
+        StringWriter target = new StringWriter();
+        OutputSink sink = new OutputSink(target, 1024);
+        sink.println("row 1").print("row 2\n");
+        assertEquals("", target.toString());
+        sink.flush();
+        assertEquals("row 1\nrow 2\n", target.toString());
+        assertEquals(2, sink.getLinesWritten());
+    }
+
+    @Test
+    public void testWritesThroughWhenBufferFills() {
+        StringWriter target = new StringWriter();
+        OutputSink sink = new OutputSink(target, 8);
+        sink.print("0123456789abcdef");
+        assertTrue(target.toString().length() >= 8);
+    }
+
+    @Test
+    public void testCloseFlushesButLeavesStreamOpen() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        try (OutputSink sink = new OutputSink(ps)) {
+            sink.println("café");
+        }
+        ps.print("after");
+        ps.flush();
+        assertEquals("café\nafter", bytes.toString(StandardCharsets.UTF_8));
+        assertFalse(ps.checkError());
+    }
+
+    @Test
+    public void testErrorsAreRecorded() {
+        Writer broken = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("closed");
+            }
+
+            @Override
+            public void flush() throws IOException {
+                throw new IOException("closed");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        OutputSink sink = new OutputSink(broken, 4);
+        sink.println("will not fit");
+        assertTrue(sink.checkError());
+    }
+
+    @Test
+    public void testNullPrintsNull() {
+        StringWriter target = new StringWriter();
+        OutputSink sink = new OutputSink(target, 16);
+        sink.print(null);
+        sink.flush();
+        assertEquals("null", target.toString());
+    }
+}
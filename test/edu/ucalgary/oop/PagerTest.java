@@ -0,0 +1,67 @@
+package edu.ucalgary.oop;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+public class PagerTest {
+
+    /** Serves rows 1..total, keyed by row number. */
+    private static Pager.PageSource rows(int total, List<Integer> fetches) {
+        return (after, limit) -> {
+            int start = after == null ? 1 : after[0] + 1;
+            fetches.add(start);
+            List<String> lines = new ArrayList<>();
+            int last = start - 1;
+            for (int i = start; i <= total && lines.size() < limit; i++) {
+                lines.add("row " + i + "\n");
+                last = i;
+            }
+            return new KeysetListing.Page(lines, new int[]{last}, last < total);
+        };
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroPageSize() {
+        new Pager(new OutputSink(new StringWriter(), 16), new Scanner(""), "more? ", 0);
+    }
+
+    @Test
+    public void testShowsAllPagesWhenUserContinues() throws Exception {
+        StringWriter target = new StringWriter();
+        List<Integer> fetches = new ArrayList<>();
+        Pager pager = new Pager(new OutputSink(target, 1024), new Scanner("\n\n\n"), "more? ", 2);
+        assertEquals(5, pager.run(rows(5, fetches)));
+        assertEquals("[1, 3, 5]", fetches.toString());
+        assertEquals("row 1\nrow 2\nmore? row 3\nrow 4\nmore? row 5\n", target.toString());
+    }
+
+    @Test
+    public void testStopsOnQ() throws Exception {
+        StringWriter target = new StringWriter();
+        List<Integer> fetches = new ArrayList<>();
+        Pager pager = new Pager(new OutputSink(target, 1024), new Scanner("Q\n"), "more? ", 2);
+        assertEquals(2, pager.run(rows(5, fetches)));
+        assertEquals(1, fetches.size());
+        assertTrue(target.toString().endsWith("more? "));
+    }
+
+    @Test
+    public void testStopsAtEndOfInput() throws Exception {
+        List<Integer> fetches = new ArrayList<>();
+        Pager pager = new Pager(new OutputSink(new StringWriter(), 1024), new Scanner(""), "more? ", 2);
+        assertEquals(2, pager.run(rows(5, fetches)));
+    }
+
+    @Test
+    public void testEmptyListing() throws Exception {
+        StringWriter target = new StringWriter();
+        Pager pager = new Pager(new OutputSink(target, 1024), new Scanner(""), "more? ", 2);
+        assertEquals(0, pager.run(rows(0, new ArrayList<>())));
+        assertEquals("", target.toString());
+    }
+}
@@ -90,4 +90,21 @@ public class PersonTest {
             fail("Unexpected exception: " + e);
         }
     }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreatePersonInvalidPhone() throws Exception {
+        Person.createPerson("Ana", "Doe", null, null, "555-CALL");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUpdatePersonInvalidPhone() throws Exception {
+        Person.updatePerson(999, "", "", "", "", "ext. 4");
+    }
+
+    @Test
+    public void testPhoneFormats() {
+        Person.requireValidPhone(null);
+        Person.requireValidPhone("");
+        Person.requireValidPhone("+1 (403) 555-0199");
+    }
 }
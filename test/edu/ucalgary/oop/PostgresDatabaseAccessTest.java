@@ -0,0 +1,41 @@
+package edu.ucalgary.oop;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.LocalDateTime;
+
+public class PostgresDatabaseAccessTest {
+
+    @Test
+    public void testFindPersonWithoutDb() throws Exception {
+        DatabaseManager.getInstance().disconnect();
+        try {
+            new PostgresDatabaseAccess().findPerson(1);
+            fail("Expected IllegalStateException when DB is not connected");
+        } catch (IllegalStateException e) {
+            assertEquals("DB not connected", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testAllocateWithoutDb() throws Exception {
+        DatabaseManager.getInstance().disconnect();
+        try {
+            new PostgresDatabaseAccess().allocateToPerson(1, 1, LocalDateTime.now());
+            fail("Expected IllegalStateException when DB is not connected");
+        } catch (IllegalStateException e) {
+            assertEquals("DB not connected", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDefaultAccessIsPostgres() {
+        assertTrue(DatabaseManager.getInstance().getAccess() instanceof PostgresDatabaseAccess);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetNullAccess() {
+        DatabaseManager.getInstance().setAccess(null);
+    }
+}
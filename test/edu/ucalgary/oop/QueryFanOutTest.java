@@ -0,0 +1,192 @@
+package edu.ucalgary.oop;
+
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class QueryFanOutTest {
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger closed = new AtomicInteger();
+
+    private Connection lease() {
+        opened.incrementAndGet();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            closed.incrementAndGet();
+                            return null;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    @After
+    public void resetMode() {
+        QueryFanOut.setParallel(false);
+    }
+
+    @Test
+    public void testParallelFlag() {
+        assertFalse(QueryFanOut.isParallel());
+        QueryFanOut.setParallel(true);
+        assertTrue(QueryFanOut.isParallel());
+    }
+
+    @Test
+    public void testSequentialForkWithoutDbFailsOnJoin() throws Exception {
+        DatabaseManager.getInstance().disconnect();
+        try (QueryFanOut fan = new QueryFanOut(false)) {
+            fan.fork(conn -> 1);
+            fan.join();
+            fail("Expected IllegalStateException when DB is not connected");
+        } catch (IllegalStateException e) {
+            assertEquals("DB not connected", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testParallelForkWithoutDbFailsOnJoin() throws Exception {
+        DatabaseManager.getInstance().disconnect();
+        try (QueryFanOut fan = new QueryFanOut(true)) {
+            fan.fork(conn -> 1);
+            fan.fork(conn -> 2);
+            fan.join();
+            fail("Expected IllegalStateException when DB is not connected");
+        } catch (IllegalStateException e) {
+            assertEquals("DB not connected", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testFailedForkGetThrows() throws Exception {
+        DatabaseManager.getInstance().disconnect();
+        try (QueryFanOut fan = new QueryFanOut(false)) {
+            QueryFanOut.Fork<Integer> f = fan.fork(conn -> 1);
+            try {
+                f.get();
+                fail("Expected IllegalStateException for a failed fork");
+            } catch (IllegalStateException e) {
+                assertEquals("Fork did not complete successfully", e.getMessage());
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testParallelForksRunConcurrently() throws Exception {
+        int forks = 4;
+        CountDownLatch allStarted = new CountDownLatch(forks);
+        Set<Connection> used = Collections.synchronizedSet(new HashSet<>());
+        try (QueryFanOut fan = new QueryFanOut(true, this::lease)) {
+            List<QueryFanOut.Fork<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < forks; i++) {
+                int n = i;
+                results.add(fan.fork(conn -> {
+                    used.add(conn);
+                    allStarted.countDown();
+                    // the latch only opens if every fork is running at the same time
+                    try {
+                        if (!allStarted.await(5, TimeUnit.SECONDS)) {
+                            throw new SQLException("Forks did not overlap");
+                        }
+                    } catch (InterruptedException e) {
+                        throw new SQLException("Interrupted", e);
+                    }
+                    return n * 10;
+                }));
+            }
+            fan.join();
+            for (int i = 0; i < forks; i++) {
+                assertEquals(Integer.valueOf(i * 10), results.get(i).get());
+            }
+        }
+        assertEquals(forks, used.size());
+        assertEquals(forks, opened.get());
+        assertEquals(forks, closed.get());
+    }
+
+    @Test
+    public void testSequentialForksRunInOrder() throws Exception {
+        StringBuilder order = new StringBuilder();
+        try (QueryFanOut fan = new QueryFanOut(false, this::lease)) {
+            QueryFanOut.Fork<String> a = fan.fork(conn -> {
+                order.append('a');
+                assertEquals(0, closed.get());
+                return "A";
+            });
+            QueryFanOut.Fork<String> b = fan.fork(conn -> {
+                order.append('b');
+                assertEquals(1, closed.get());
+                return "B";
+            });
+            fan.join();
+            assertEquals("A", a.get());
+            assertEquals("B", b.get());
+        }
+        assertEquals("ab", order.toString());
+        assertEquals(2, closed.get());
+    }
+
+    @Test
+    public void testJoinRethrowsFirstFailure() throws Exception {
+        try (QueryFanOut fan = new QueryFanOut(true, this::lease)) {
+            fan.fork(conn -> 1);
+            fan.fork(conn -> {
+                throw new SQLException("query failed");
+            });
+            fan.join();
+            fail("Expected the query failure");
+        } catch (SQLException e) {
+            assertEquals("query failed", e.getMessage());
+        }
+        assertEquals(opened.get(), closed.get());
+    }
+
+    @Test
+    public void testJoinWithNoForks() throws Exception {
+        try (QueryFanOut fan = new QueryFanOut(true)) {
+            fan.join();
+        }
+    }
+
+    @Test
+    public void testLocationDetailsParallelWithoutDb() throws Exception {
+        DatabaseManager.getInstance().disconnect();
+        QueryFanOut.setParallel(true);
+        try {
+            Location.searchLocationDetailsSafe(1);
+            fail("Expected IllegalStateException when DB is not connected");
+        } catch (IllegalStateException e) {
+            assertEquals("DB not connected", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDossierParallelWithoutDb() throws Exception {
+        DatabaseManager.getInstance().disconnect();
+        QueryFanOut.setParallel(true);
+        try {
+            DossierLoader.load(1);
+            fail("Expected IllegalStateException when DB is not connected");
+        } catch (IllegalStateException e) {
+            assertEquals("DB not connected", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package edu.ucalgary.oop;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class RingBufferTest {
+
+    @Test
+    public void testCapacityRoundsUp() {
+        assertEquals(8, new RingBuffer<String>(5).capacity());
+        assertEquals(4, new RingBuffer<String>(4).capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new RingBuffer<String>(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOfferNull() {
+        new RingBuffer<String>(4).offer(null);
+    }
+
+    @Test
+    public void testFifoAndFull() {
+        RingBuffer<Integer> rb = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(rb.offer(i));
+        }
+        assertFalse(rb.offer(99));
+        assertEquals(4, rb.size());
+        assertEquals(Integer.valueOf(0), rb.poll());
+        assertTrue(rb.offer(4));
+        List<Integer> out = new ArrayList<>();
+        assertEquals(4, rb.drainTo(out, 10));
+        assertEquals(List.of(1, 2, 3, 4), out);
+        assertNull(rb.poll());
+        assertEquals(0, rb.size());
+    }
+
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        RingBuffer<Integer> rb = new RingBuffer<>(1024);
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            final int base = t * 1000;
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 200; i++) {
+                    while (!rb.offer(base + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread t : producers) {
+            t.join();
+        }
+        Set<Integer> seen = new HashSet<>();
+        Integer v;
+        while ((v = rb.poll()) != null) {
+            assertTrue(seen.add(v));
+        }
+        assertEquals(800, seen.size());
+    }
+}
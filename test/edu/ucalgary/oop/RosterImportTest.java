@@ -0,0 +1,123 @@
+package edu.ucalgary.oop;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class RosterImportTest {
+
+    private List<RosterImport.RosterRow> written;
+    private RosterImport importer;
+
+    @Before
+    public void setUp() {
+        written = Collections.synchronizedList(new ArrayList<>());
+        importer = new RosterImport(',', 2, 2, 4, written::addAll);
+    }
+
+    @Test
+    public void testValidRowsAreWrittenAndHeaderSkipped() throws Exception {
+        String csv = "first_name,last_name,date_of_birth,gender,phone_number,location_id,family_group\n"
+                + "Ann,Lee,1990-05-06,Woman,555-0000,1,3\n"
+                + "Bo,Chan,,2,,,\n"
+                + "Cy,Dale\n";
+        RosterImport.Result r = importer.run(new BufferedReader(new StringReader(csv)), new StringWriter());
+        assertEquals(3, r.getLinesRead());
+        assertEquals(3, r.getWritten());
+        assertEquals(0, r.getRejected());
+        assertEquals(3, written.size());
+    }
+
+    @Test
+    public void testInvalidRowsGoToRejects() throws Exception {
+        String csv = "Ann,Lee,1990-13-40\n"
+                + ",NoFirst\n"
+                + "Bo,Chan,,Unknown\n"
+                + "Cy,Dale,,,,abc\n"
+                + "Di,Eve\n";
+        StringWriter rejects = new StringWriter();
+        RosterImport.Result r = importer.run(new BufferedReader(new StringReader(csv)), rejects);
+        assertEquals(4, r.getRejected());
+        assertEquals(1, r.getWritten());
+        assertEquals(4, rejects.toString().split("\n").length);
+        assertTrue(rejects.toString().contains("First name cannot be null or empty"));
+    }
+
+    @Test
+    public void testGenderChoiceIsNormalised() {
+        RosterImport.RosterRow row = importer.parse(1, "Ann,Lee,,3");
+        assertEquals("Non-binary person", row.getRecord().getGender());
+    }
+
+    @Test
+    public void testQuotedFieldWithDelimiter() {
+        List<String> f = RosterImport.split("\"Lee, Jr.\",\"say \"\"hi\"\"\",x", ',');
+        assertEquals("Lee, Jr.", f.get(0));
+        assertEquals("say \"hi\"", f.get(1));
+        assertEquals("x", f.get(2));
+    }
+
+    @Test
+    public void testDelimiterForTsv() {
+        assertEquals('\t', RosterImport.delimiterFor("roster.TSV"));
+        assertEquals(',', RosterImport.delimiterFor("roster.csv"));
+    }
+
+    @Test(expected = SQLException.class)
+    public void testSinkFailureStopsImport() throws Exception {
+        RosterImport failing = new RosterImport(',', 1, 1, 2, batch -> {
+            throw new SQLException("down");
+        });
+        failing.run(new BufferedReader(new StringReader("Ann,Lee\nBo,Chan\n")), new StringWriter());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUncheckedSinkFailureIsRethrown() throws Exception {
+        RosterImport failing = new RosterImport(',', 1, 1, 2, batch -> {
+            throw new IllegalStateException("DB not connected");
+        });
+        failing.run(new BufferedReader(new StringReader("Ann,Lee\nBo,Chan\n")), new StringWriter());
+    }
+
+    @Test(timeout = 10000)
+    public void testParserFailureStopsImport() throws Exception {
+        RosterImport failing = new RosterImport(',', 1, 1, 1, written::addAll) {
+            @Override
+            RosterRow parse(long lineNo, String line) {
+                if (lineNo == 2) {
+                    throw new IllegalStateException("parser bug");
+                }
+                return super.parse(lineNo, line);
+            }
+        };
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            csv.append("Ann,Lee\n");
+        }
+        try {
+            failing.run(new BufferedReader(new StringReader(csv.toString())), new StringWriter());
+            fail("Expected the parser failure");
+        } catch (IllegalStateException e) {
+            assertEquals("parser bug", e.getMessage());
+        }
+        assertTrue(written.size() < 100);
+    }
+
+    @Test
+    public void testInvalidPhoneIsRejected() {
+        try {
+            importer.parse(1, "Ann,Lee,,,555-CALL");
+            fail("Expected the phone to be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Invalid phone: 555-CALL", e.getMessage());
+        }
+    }
+}
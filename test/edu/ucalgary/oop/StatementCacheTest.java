@@ -0,0 +1,128 @@
+package edu.ucalgary.oop;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class StatementCacheTest {
+
+    private List<boolean[]> closedFlags;
+    private Connection raw;
+
+    @Before
+    public void setUp() {
+        closedFlags = new ArrayList<>();
+        raw = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("prepareStatement".equals(method.getName())) {
+                        return fakeStatement();
+                    }
+                    return null;
+                });
+    }
+
+    private PreparedStatement fakeStatement() {
+        final boolean[] closed = {false};
+        final int[] settings = {0, 0, 0};
+        closedFlags.add(closed);
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close": closed[0] = true; return null;
+                        case "isClosed": return closed[0];
+                        case "executeUpdate": return 1;
+                        case "getFetchSize": return settings[0];
+                        case "setFetchSize": settings[0] = (Integer) args[0]; return null;
+                        case "getMaxRows": return settings[1];
+                        case "setMaxRows": settings[1] = (Integer) args[0]; return null;
+                        case "getQueryTimeout": return settings[2];
+                        case "setQueryTimeout": settings[2] = (Integer) args[0]; return null;
+                        default: return null;
+                    }
+                });
+    }
+
+    @Test
+    public void testSettingsAreResetForNextBorrower() throws SQLException {
+        StatementCache cache = new StatementCache(4);
+        PreparedStatement first = cache.prepare(raw, raw, "SELECT 1");
+        first.setFetchSize(500);
+        first.setMaxRows(10);
+        first.setMaxRows(20);
+        first.setQueryTimeout(5);
+        first.close();
+        PreparedStatement second = cache.prepare(raw, raw, "SELECT 1");
+        assertEquals(1, cache.getHits());
+        assertEquals(0, second.getFetchSize());
+        assertEquals(0, second.getMaxRows());
+        assertEquals(0, second.getQueryTimeout());
+        second.close();
+    }
+
+    @Test
+    public void testSecondPrepareIsHit() throws SQLException {
+        StatementCache cache = new StatementCache(4);
+        cache.prepare(raw, raw, "SELECT 1").close();
+        cache.prepare(raw, raw, "SELECT 1").close();
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, closedFlags.size());
+    }
+
+    @Test
+    public void testCloseKeepsUnderlyingStatementOpen() throws SQLException {
+        StatementCache cache = new StatementCache(4);
+        PreparedStatement ps = cache.prepare(raw, raw, "SELECT 1");
+        ps.close();
+        assertTrue(ps.isClosed());
+        assertFalse(closedFlags.get(0)[0]);
+    }
+
+    @Test
+    public void testConcurrentCheckoutGetsUncachedStatement() throws SQLException {
+        StatementCache cache = new StatementCache(4);
+        PreparedStatement first = cache.prepare(raw, raw, "SELECT 1");
+        PreparedStatement second = cache.prepare(raw, raw, "SELECT 1");
+        assertNotSame(first, second);
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws SQLException {
+        StatementCache cache = new StatementCache(2);
+        cache.prepare(raw, raw, "A").close();
+        cache.prepare(raw, raw, "B").close();
+        cache.prepare(raw, raw, "A").close();
+        cache.prepare(raw, raw, "C").close();
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertTrue("B should be closed on eviction", closedFlags.get(1)[0]);
+        assertFalse(closedFlags.get(0)[0]);
+    }
+
+    @Test
+    public void testCloseAllClosesStatements() throws SQLException {
+        StatementCache cache = new StatementCache(2);
+        cache.prepare(raw, raw, "A").close();
+        cache.closeAll();
+        assertEquals(0, cache.size());
+        assertTrue(closedFlags.get(0)[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        new StatementCache(0);
+    }
+}
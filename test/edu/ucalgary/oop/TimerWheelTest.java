@@ -0,0 +1,77 @@
+package edu.ucalgary.oop;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class TimerWheelTest {
+
+    @Test
+    public void testFiresAtDeadlineNotBefore() {
+        TimerWheel<String> wheel = new TimerWheel<>(1000, 0);
+        wheel.schedule("a", 5000);
+        List<String> fired = new ArrayList<>();
+        assertEquals(0, wheel.advance(4999, fired::add));
+        assertEquals(1, wheel.advance(5000, fired::add));
+        assertEquals(Arrays.asList("a"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testPartialTickRoundsUp() {
+        TimerWheel<String> wheel = new TimerWheel<>(1000, 0);
+        wheel.schedule("a", 1500);
+        List<String> fired = new ArrayList<>();
+        wheel.advance(1999, fired::add);
+        assertTrue(fired.isEmpty());
+        wheel.advance(2000, fired::add);
+        assertEquals(1, fired.size());
+    }
+
+    @Test
+    public void testPastDeadlineFiresOnNextAdvance() {
+        TimerWheel<String> wheel = new TimerWheel<>(1000, 100_000);
+        wheel.schedule("late", 1000);
+        List<String> fired = new ArrayList<>();
+        wheel.advance(100_000, fired::add);
+        assertEquals(Arrays.asList("late"), fired);
+    }
+
+    @Test
+    public void testCascadesAcrossLevelsInDeadlineOrder() {
+        long start = 123_457;
+        TimerWheel<Long> wheel = new TimerWheel<>(1, start);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long d = start + 1 + random.nextInt(300_000);
+            deadlines.add(d);
+            wheel.schedule(d, d);
+        }
+        wheel.schedule(start + (1L << 24) + 99, start + (1L << 24) + 99);
+        List<Long> fired = new ArrayList<>();
+        long[] now = {start};
+        for (now[0] = start; now[0] <= start + 300_000; now[0] += 7) {
+            wheel.advance(now[0], d -> {
+                assertTrue("fired early", d <= now[0]);
+                assertTrue("fired late", now[0] - d < 7);
+                fired.add(d);
+            });
+        }
+        assertEquals(deadlines.size(), fired.size());
+        assertEquals(1, wheel.size());
+        wheel.advance(start + (1L << 24) + 98, fired::add);
+        assertEquals(1, wheel.size());
+        wheel.advance(start + (1L << 24) + 99, fired::add);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTickMustBePositive() {
+        new TimerWheel<String>(0, 0);
+    }
+}
@@ -0,0 +1,97 @@
+package edu.ucalgary.oop;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class TranslationBundleTest {
+    private Path dir;
+    private File xml;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("bundle");
+        xml = dir.resolve("xx-YY.xml").toFile();
+        Files.write(xml.toPath(), ("<translations>\n"
+                + "  <translation>\n    <key>greeting</key>\n    <value>Bonjour à tous</value>\n  </translation>\n"
+                + "  <translation>\n    <key>farewell</key>\n    <value>Au revoir</value>\n  </translation>\n"
+                + "</translations>\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testBundleForReplacesExtension() {
+        assertEquals("en-CA.bundle", TranslationBundle.bundleFor(new File("data/en-CA.xml")).getName());
+    }
+
+    @Test
+    public void testEveryKeyFoundAndOthersMissing() throws Exception {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < 500; i++) {
+            map.put("key_" + i, i % 10 == 0 ? "shared" : "value " + i);
+        }
+        File bundle = dir.resolve("big.bundle").toFile();
+        TranslationBundle.compile(map, xml, bundle);
+        TranslationBundle b = TranslationBundle.open(bundle.toPath());
+        assertEquals(500, b.size());
+        for (Map.Entry<String, String> e : map.entrySet()) {
+            assertEquals(e.getValue(), b.get(e.getKey()));
+        }
+        assertNull(b.get("key_500"));
+        assertNull(b.get(""));
+        assertNull(b.get(null));
+    }
+
+    @Test
+    public void testInternsRepeatedStrings() {
+        Map<String, String> distinct = new LinkedHashMap<>();
+        Map<String, String> repeated = new LinkedHashMap<>();
+        for (int i = 0; i < 50; i++) {
+            distinct.put("k" + i, "a long translation value number " + i);
+            repeated.put("k" + i, "a long translation value number 0");
+        }
+        assertTrue(TranslationBundle.encode(repeated, 0, 0).length
+                < TranslationBundle.encode(distinct, 0, 0).length);
+    }
+
+    @Test
+    public void testEmptyBundle() throws Exception {
+        File bundle = dir.resolve("empty.bundle").toFile();
+        TranslationBundle.compile(new LinkedHashMap<>(), xml, bundle);
+        TranslationBundle b = TranslationBundle.open(bundle.toPath());
+        assertEquals(0, b.size());
+        assertNull(b.get("greeting"));
+    }
+
+    @Test
+    public void testFreshnessFollowsSource() throws Exception {
+        assertNull(TranslationBundle.openIfFresh(xml));
+        TranslationBundle.compile(LanguageManager.parseTranslations(xml), xml, TranslationBundle.bundleFor(xml));
+        TranslationBundle b = TranslationBundle.openIfFresh(xml);
+        assertNotNull(b);
+        assertEquals("Bonjour à tous", b.get("greeting"));
+        assertTrue(xml.setLastModified(xml.lastModified() + 5000));
+        assertNull(TranslationBundle.openIfFresh(xml));
+    }
+
+    @Test(expected = java.io.IOException.class)
+    public void testRejectsForeignFile() throws Exception {
+        TranslationBundle.open(xml.toPath());
+    }
+}